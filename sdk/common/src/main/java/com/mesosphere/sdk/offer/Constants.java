@@ -56,6 +56,52 @@ public class Constants {
      * If this envvar is set (to anything at all), the cache is disabled.
      */
     public static final String DISABLE_STATE_CACHE_SCHEDENV = "DISABLE_STATE_CACHE";
+    /**
+     * Controls the number of offers which may be evaluated concurrently for a single pod (1 by default).
+     * Values greater than 1 enable parallel offer evaluation in the {@code OfferEvaluator}.
+     */
+    public static final String OFFER_EVALUATION_PARALLELISM_SCHEDENV = "OFFER_EVALUATION_PARALLELISM";
+    /**
+     * Controls the number of task status updates which may be processed concurrently (1 by default). Updates for tasks
+     * in the same pod are always processed in order, and offer cycles never overlap with status updates.
+     */
+    public static final String STATUS_UPDATE_PARALLELISM_SCHEDENV = "STATUS_UPDATE_PARALLELISM";
+    /**
+     * Controls the number of plans which may be presented offers concurrently within an offer cycle (1 by default).
+     * Values greater than 1 split each cycle's offers between the plans which have work to do on different pod types,
+     * with any offers left over then presented to each plan in turn.
+     */
+    public static final String PLAN_COORDINATOR_PARALLELISM_SCHEDENV = "PLAN_COORDINATOR_PARALLELISM";
+    /**
+     * Controls how often the details of offer cycles are logged: every Nth cycle logs each offer, evaluation outcome,
+     * and operation at INFO (100 by default, 1 to log every cycle). Other cycles only log their details at DEBUG.
+     * Details of recent cycles are always available from the {@code /v1/debug/offers} endpoint.
+     */
+    public static final String DECISION_TRACE_SAMPLE_INTERVAL_SCHEDENV = "DECISION_TRACE_SAMPLE_INTERVAL";
+    /**
+     * Controls whether all candidate steps are matched against offers in a single pass (disabled by default).
+     * If this envvar is set (to anything at all), multiple pods may be packed into a single offer, and each offer is
+     * accepted once with the operations for all of its pods combined.
+     */
+    public static final String ENABLE_BATCH_OFFER_MATCHING_SCHEDENV = "ENABLE_BATCH_OFFER_MATCHING";
+    /**
+     * Controls how long TaskStatus writes are queued so that they may be written to ZK together (disabled by default).
+     * If this envvar is set to a positive number of milliseconds, status updates are acknowledged to Mesos explicitly,
+     * once they have been written.
+     */
+    public static final String STATUS_WRITE_BEHIND_MS_SCHEDENV = "STATUS_WRITE_BEHIND_MS";
+    /**
+     * Controls how long unused offers may be held for reuse in later offer cycles (disabled by default).
+     * If this envvar is set to a positive number of seconds, unused offers are held rather than declined while any
+     * plan has pending work, and are declined once they expire or when offers are suppressed.
+     */
+    public static final String OFFER_HOLD_SECONDS_SCHEDENV = "OFFER_HOLD_SECONDS";
+    /**
+     * Controls the minimum time that Mesos should wait before re-offering the resources in a declined offer (Mesos' own
+     * default of five seconds if unset). If this envvar is set to a positive number of seconds, it's used as the
+     * decline filter. In either case, the filter is lengthened while pending work remains unable to use any offers.
+     */
+    public static final String DECLINE_REFUSE_SECONDS_SCHEDENV = "DECLINE_REFUSE_SECONDS";
 
     // Other names/constants
 
@@ -0,0 +1,74 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link CuratorStateStore} writes against an in-process ZK server as the number of tasks
+ * grows. Storing a status involves reading back all stored tasks, while storing tasks involves existence checks
+ * against each task's path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class CuratorStateStoreBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int taskCount;
+
+    private TestingServer testZk;
+    private CuratorStateStore stateStore;
+    private Collection<TaskInfo> tasks;
+    private TaskStatus status;
+
+    @Setup
+    public void setup() throws Exception {
+        testZk = new TestingServer();
+        stateStore = new CuratorStateStore("/benchmark", testZk.getConnectString());
+
+        List<TaskInfo> taskList = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            String taskName = "pod-" + i + "-server";
+            taskList.add(TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                    .setName(taskName)
+                    .setTaskId(CommonTaskUtils.toTaskId(taskName))
+                    .build());
+        }
+        tasks = taskList;
+        stateStore.storeTasks(tasks);
+        status = TaskStatus.newBuilder()
+                .setTaskId(taskList.get(taskCount - 1).getTaskId())
+                .setState(TaskState.TASK_RUNNING)
+                .build();
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        stateStore.closeForTesting();
+        testZk.close();
+    }
+
+    @Benchmark
+    public void storeTasks() {
+        stateStore.storeTasks(tasks);
+    }
+
+    @Benchmark
+    public void storeStatus() {
+        stateStore.storeStatus(status);
+    }
+}
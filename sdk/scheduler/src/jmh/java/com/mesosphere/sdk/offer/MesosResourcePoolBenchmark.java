@@ -0,0 +1,86 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.Value.Range;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building a {@link MesosResourcePool} for an offer and consuming a pod's worth of unreserved
+ * resources from it, as is done for every offer evaluated against every requirement. The offer holds unreserved
+ * scalars split across several resources (as with multiple roles), fragmented port ranges, and a number of
+ * reservations belonging to other tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class MesosResourcePoolBenchmark {
+
+    private static final int RESERVED_RESOURCE_COUNT = 20;
+
+    /** The number of ports consumed from the offer, e.g. by a Kafka broker with several listeners. */
+    @Param({"1", "10"})
+    public int portCount;
+
+    private Offer offer;
+    private List<ResourceRequirement> requirements;
+
+    @Setup
+    public void setup() {
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            resources.add(ResourceTestUtils.getUnreservedCpu(4.0));
+            resources.add(ResourceTestUtils.getUnreservedMem(8192));
+            resources.add(ResourceTestUtils.getUnreservedDisk(100000));
+        }
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ranges.add(Range.newBuilder().setBegin(10000 + i * 100).setEnd(10000 + i * 100 + 49).build());
+        }
+        resources.add(ResourceUtils.getUnreservedRanges("ports", ranges));
+        for (int i = 0; i < RESERVED_RESOURCE_COUNT; i++) {
+            resources.add(ResourceTestUtils.getExpectedScalar("cpus", 0.5, "reserved-" + i));
+        }
+        offer = OfferTestUtils.getOffer(resources);
+
+        requirements = new ArrayList<>();
+        requirements.add(new ResourceRequirement(ResourceTestUtils.getUnreservedCpu(1.0)));
+        requirements.add(new ResourceRequirement(ResourceTestUtils.getUnreservedMem(2048)));
+        requirements.add(new ResourceRequirement(ResourceTestUtils.getUnreservedDisk(5000)));
+        for (int i = 0; i < portCount; i++) {
+            int port = 10000 + i * 100 + 10;
+            requirements.add(new ResourceRequirement(ResourceTestUtils.getUnreservedPorts(port, port)));
+        }
+    }
+
+    @Benchmark
+    public MesosResourcePool buildAndConsume() {
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        for (ResourceRequirement requirement : requirements) {
+            Optional<MesosResource> consumed = pool.consume(requirement);
+            if (!consumed.isPresent()) {
+                throw new IllegalStateException("Failed to consume " + requirement);
+            }
+        }
+        return pool;
+    }
+
+    @Benchmark
+    public MesosResourcePool buildConsumeAndRelease() {
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        for (ResourceRequirement requirement : requirements) {
+            pool.release(pool.consume(requirement).get());
+        }
+        return pool;
+    }
+}
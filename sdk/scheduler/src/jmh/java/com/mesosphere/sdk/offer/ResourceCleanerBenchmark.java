@@ -0,0 +1,189 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of cleaning one offer cycle as the number of reserved resources in the state store grows,
+ * comparing a long-lived {@link ResourceCleaner} which is kept up to date by a {@link StateStoreCache} against a
+ * cleaner which rebuilds its index for each cycle, as it does for other state stores. Each task holds
+ * two reserved resources, and the offer cycle contains {@link #OFFER_COUNT} offers which mostly hold expected
+ * resources, as they would while a service is running.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class ResourceCleanerBenchmark {
+
+    private static final int OFFER_COUNT = 10;
+    private static final int RESOURCES_PER_OFFER = 10;
+
+    @Param({"1000", "10000"})
+    public int reservedResourceCount;
+
+    private ResourceCleaner cleaner;
+    private ResourceCleaner rebuildingCleaner;
+    private List<Offer> offers;
+    private TaskInfo[] updatedTasks;
+    private int nextUpdatedTask;
+
+    @Setup
+    public void setup() {
+        List<TaskInfo> tasks = new ArrayList<>();
+        List<Resource> expectedResources = new ArrayList<>();
+        for (int i = 0; i < reservedResourceCount / 2; i++) {
+            Resource cpus = getReservedResource("cpus", "cpus-" + i);
+            Resource mem = getReservedResource("mem", "mem-" + i);
+            tasks.add(TaskInfo.newBuilder(TaskTestUtils.getTaskInfo(Arrays.asList(cpus, mem)))
+                    .setName("pod-" + i + "-server")
+                    .build());
+            expectedResources.add(cpus);
+            expectedResources.add(mem);
+        }
+        StateStore stateStore = new FixedTasksStateStore(tasks);
+        StateStoreCache.resetInstanceForTests();
+        cleaner = new ResourceCleaner(StateStoreCache.getInstance(stateStore));
+        rebuildingCleaner = new ResourceCleaner(stateStore);
+
+        // Offers hold a spread of expected resources, and one unexpected resource each:
+        Random random = new Random(0);
+        offers = new ArrayList<>();
+        for (int i = 0; i < OFFER_COUNT; i++) {
+            List<Resource> offerResources = new ArrayList<>();
+            for (int j = 0; j < RESOURCES_PER_OFFER - 1; j++) {
+                offerResources.add(expectedResources.get(random.nextInt(expectedResources.size())));
+            }
+            offerResources.add(getReservedResource("cpus", "unexpected-" + i));
+            offers.add(OfferTestUtils.getOffer(offerResources).toBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .build());
+        }
+
+        // Relaunches of existing tasks against new reservations, as recorded on each launch:
+        updatedTasks = new TaskInfo[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            updatedTasks[i] = TaskInfo.newBuilder(tasks.get(i))
+                    .clearResources()
+                    .addResources(getReservedResource("cpus", "cpus-" + i + "-relaunched"))
+                    .addResources(getReservedResource("mem", "mem-" + i + "-relaunched"))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public List<OfferRecommendation> evaluateLongLived() {
+        return cleaner.evaluate(offers);
+    }
+
+    @Benchmark
+    public List<OfferRecommendation> evaluateRebuilt() {
+        return rebuildingCleaner.evaluate(offers);
+    }
+
+    @Benchmark
+    public void tasksStored() {
+        cleaner.tasksStored(Collections.singletonList(updatedTasks[nextUpdatedTask]));
+        nextUpdatedTask = (nextUpdatedTask + 1) % updatedTasks.length;
+    }
+
+    private static Resource getReservedResource(String name, String resourceId) {
+        return ResourceUtils.getExpectedScalar(name, 1.0, resourceId, TestConstants.ROLE, TestConstants.PRINCIPAL);
+    }
+
+    /**
+     * A {@link StateStore} which holds a fixed set of tasks in memory, and which discards all writes.
+     */
+    private static class FixedTasksStateStore implements StateStore {
+        private final Collection<TaskInfo> tasks;
+
+        private FixedTasksStateStore(Collection<TaskInfo> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void storeFrameworkId(FrameworkID fwkId) {
+        }
+
+        @Override
+        public void clearFrameworkId() {
+        }
+
+        @Override
+        public Optional<FrameworkID> fetchFrameworkId() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeTasks(Collection<TaskInfo> tasks) {
+        }
+
+        @Override
+        public void storeStatus(TaskStatus status) {
+        }
+
+        @Override
+        public void clearTask(String taskName) {
+        }
+
+        @Override
+        public Collection<String> fetchTaskNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<TaskInfo> fetchTasks() {
+            return tasks;
+        }
+
+        @Override
+        public Optional<TaskInfo> fetchTask(String taskName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Collection<TaskStatus> fetchStatuses() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<TaskStatus> fetchStatus(String taskName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeProperty(String key, byte[] value) {
+        }
+
+        @Override
+        public byte[] fetchProperty(String key) {
+            throw new StateStoreException(Reason.NOT_FOUND, key);
+        }
+
+        @Override
+        public Collection<String> fetchPropertyKeys() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void clearProperty(String key) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.curator.CuratorStateStore;
+import com.mesosphere.sdk.offer.DefaultOfferRequirementProvider;
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link OfferEvaluator#evaluate(OfferRequirement, List)} as the number of offers grows, with
+ * and without parallel evaluation. Only the last offer is sufficient for the requirement, so every offer is checked.
+ * The other offers lack memory, and so are rejected by the {@link ScalarDemandFilter} before reaching the pipeline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class OfferEvaluatorBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int offerCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private TestingServer testZk;
+    private OfferEvaluator evaluator;
+    private OfferRequirement offerRequirement;
+    private List<Offer> offers;
+
+    @Setup
+    public void setup() throws Exception {
+        testZk = new TestingServer();
+        StateStoreCache.resetInstanceForTests();
+        StateStore stateStore =
+                StateStoreCache.getInstance(new CuratorStateStore("/benchmark", testZk.getConnectString()));
+        evaluator = new OfferEvaluator(
+                stateStore,
+                new DefaultOfferRequirementProvider(stateStore, TestConstants.SERVICE_NAME, UUID.randomUUID()),
+                parallelism);
+
+        offerRequirement = OfferRequirementTestUtils.getOfferRequirement(Arrays.asList(
+                ResourceTestUtils.getDesiredCpu(1.0),
+                ResourceTestUtils.getDesiredMem(1024),
+                ResourceTestUtils.getDesiredRanges("ports", 0, 0),
+                ResourceTestUtils.getDesiredRanges("ports", 0, 0)),
+                false);
+
+        offers = new ArrayList<>();
+        for (int i = 0; i < offerCount; ++i) {
+            // Only the last offer has enough memory:
+            double mem = i == offerCount - 1 ? 2048 : 512;
+            offers.add(OfferTestUtils.getEmptyOfferBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .addResources(ResourceTestUtils.getUnreservedCpu(4.0))
+                    .addResources(ResourceTestUtils.getUnreservedMem(mem))
+                    .addResources(ResourceTestUtils.getUnreservedPorts(10000, 10100))
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        testZk.close();
+    }
+
+    @Benchmark
+    public List<OfferRecommendation> evaluate() throws Exception {
+        List<OfferRecommendation> recommendations = evaluator.evaluate(offerRequirement, offers);
+        if (recommendations.isEmpty()) {
+            throw new IllegalStateException("Expected the last offer to pass evaluation");
+        }
+        return recommendations;
+    }
+}
@@ -0,0 +1,119 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Attribute;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of evaluating a placement rule against many offers for a service with many deployed tasks, as
+ * the {@link com.mesosphere.sdk.offer.evaluate.OfferEvaluator} would for a single step. As in the evaluator, the
+ * {@link PlacementIndex} of deployed tasks is brought up to date once per evaluation and then shared by all offers.
+ * The rule limits are high enough that every offer passes, so every offer is fully evaluated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PlacementRuleBenchmark {
+
+    private static final int HOST_COUNT = 500;
+    private static final int RACK_COUNT = 10;
+
+    @Param({"5000"})
+    public int taskCount;
+
+    @Param({"500"})
+    public int offerCount;
+
+    @Param({"max-per-attribute", "max-per-hostname", "round-robin-by-attribute", "round-robin-by-hostname"})
+    public String ruleType;
+
+    private PlacementRule rule;
+    private OfferRequirement offerRequirement;
+    private List<TaskInfo> tasks;
+    private List<Offer> offers;
+    private PlacementIndex index = PlacementIndex.empty();
+
+    @Setup
+    public void setup() throws Exception {
+        switch (ruleType) {
+        case "max-per-attribute":
+            rule = new MaxPerAttributeRule(taskCount, RegexMatcher.create("rack:.*"));
+            break;
+        case "max-per-hostname":
+            rule = new MaxPerHostnameRule(taskCount);
+            break;
+        case "round-robin-by-attribute":
+            rule = new RoundRobinByAttributeRule("rack", Optional.of(RACK_COUNT));
+            break;
+        case "round-robin-by-hostname":
+            rule = new RoundRobinByHostnameRule(Optional.of(HOST_COUNT));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown rule type: " + ruleType);
+        }
+        // A new pod instance, which isn't equivalent to any deployed task:
+        offerRequirement = OfferRequirement.create(TestConstants.TASK_TYPE, taskCount, Collections.emptyList());
+
+        tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; ++i) {
+            String taskName = TestConstants.TASK_TYPE + "-" + i + "-" + TestConstants.TASK_NAME;
+            TaskInfo.Builder taskBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                    .setName(taskName)
+                    .setTaskId(CommonTaskUtils.toTaskId(taskName));
+            taskBuilder = CommonTaskUtils.setIndex(taskBuilder, i);
+            Offer launchOffer = getOffer(i % HOST_COUNT);
+            taskBuilder = CommonTaskUtils.setHostname(taskBuilder, launchOffer);
+            tasks.add(CommonTaskUtils.setOfferAttributes(taskBuilder, launchOffer).build());
+        }
+
+        offers = new ArrayList<>();
+        for (int i = 0; i < offerCount; ++i) {
+            offers.add(getOffer(i % HOST_COUNT));
+        }
+    }
+
+    @Benchmark
+    public int filter() {
+        index = index.update(tasks);
+        int passingCount = 0;
+        for (Offer offer : offers) {
+            if (rule.filter(offer, offerRequirement, index).isPassing()) {
+                ++passingCount;
+            }
+        }
+        if (passingCount != offers.size()) {
+            throw new IllegalStateException(String.format(
+                    "Expected all %d offers to pass, but only %d passed", offers.size(), passingCount));
+        }
+        return passingCount;
+    }
+
+    private static Offer getOffer(int hostIndex) {
+        return OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(1.0)).toBuilder()
+                .setId(OfferID.newBuilder().setValue("offer-" + hostIndex))
+                .setHostname("host-" + hostIndex)
+                .addAttributes(Attribute.newBuilder()
+                        .setName("rack")
+                        .setType(Value.Type.TEXT)
+                        .setText(Value.Text.newBuilder().setValue("rack-" + hostIndex % RACK_COUNT)))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.curator.CuratorStateStore;
+import com.mesosphere.sdk.offer.DefaultOfferRequirementProvider;
+import com.mesosphere.sdk.offer.OfferAccepter;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.scheduler.DefaultTaskKiller;
+import com.mesosphere.sdk.scheduler.recovery.TaskFailureListener;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.TestPodFactory;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.SchedulerDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the latency of {@link DefaultPlanCoordinator#processOffers(SchedulerDriver, List)} for two plans which each
+ * deploy one pod of a different type, with and without presenting offers to the plans concurrently. Only the last two
+ * offers are sufficient for either pod, so each plan checks every offer it's presented before finding one that fits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PlanCoordinatorBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int offerCount;
+
+    @Param({"1", "2"})
+    public int parallelism;
+
+    private TestingServer testZk;
+    private Plan planA;
+    private Plan planB;
+    private DefaultPlanCoordinator coordinator;
+    private SchedulerDriver driver;
+    private List<Offer> offers;
+
+    @Setup
+    public void setup() throws Exception {
+        // Sets the variables which the offer requirement provider needs for the lifetime of the benchmark's JVM:
+        OfferRequirementTestUtils.getOfferRequirementProviderEnvironment();
+        testZk = new TestingServer();
+        StateStoreCache.resetInstanceForTests();
+        StateStore stateStore =
+                StateStoreCache.getInstance(new CuratorStateStore("/benchmark", testZk.getConnectString()));
+        driver = mock(SchedulerDriver.class);
+
+        PlanScheduler planScheduler = new DefaultPlanScheduler(
+                new OfferAccepter(Arrays.asList()),
+                new OfferEvaluator(
+                        stateStore,
+                        new DefaultOfferRequirementProvider(stateStore, TestConstants.SERVICE_NAME, UUID.randomUUID())),
+                stateStore,
+                new DefaultTaskKiller(mock(TaskFailureListener.class), driver));
+        PhaseFactory phaseFactory =
+                new DefaultPhaseFactory(new DefaultStepFactory(mock(ConfigStore.class), stateStore));
+        planA = new DefaultPlanFactory(phaseFactory).getPlan(getServiceSpec("pod-a"));
+        planB = new DefaultPlanFactory(phaseFactory).getPlan(getServiceSpec("pod-b"));
+        coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(new DefaultPlanManager(planA), new DefaultPlanManager(planB)),
+                planScheduler,
+                parallelism);
+        // Plan managers start out with their plans interrupted:
+        planA.proceed();
+        planB.proceed();
+
+        offers = new ArrayList<>();
+        for (int i = 0; i < offerCount; ++i) {
+            // Only the last two offers have enough memory, and they're dealt to different plans:
+            double mem = i >= offerCount - 2 ? 2048 : 512;
+            offers.add(OfferTestUtils.getEmptyOfferBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .addResources(ResourceTestUtils.getUnreservedCpu(4.0))
+                    .addResources(ResourceTestUtils.getUnreservedMem(mem))
+                    .addResources(ResourceTestUtils.getUnreservedDisk(10000))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void restartPlans() {
+        planA.restart();
+        planB.restart();
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        coordinator.close();
+        testZk.close();
+    }
+
+    @Benchmark
+    public Collection<OfferID> processOffers() {
+        Collection<OfferID> usedOffers = coordinator.processOffers(driver, offers);
+        if (usedOffers.size() != 2) {
+            throw new IllegalStateException("Expected each plan to use one offer, got: " + usedOffers);
+        }
+        return usedOffers;
+    }
+
+    private static ServiceSpec getServiceSpec(String podType) {
+        return DefaultServiceSpec.newBuilder()
+                .name(TestConstants.SERVICE_NAME)
+                .role(TestConstants.ROLE)
+                .principal(TestConstants.PRINCIPAL)
+                .apiPort(0)
+                .zookeeperConnection("foo.bar.com")
+                .pods(Arrays.asList(TestPodFactory.getPodSpec(
+                        podType,
+                        TestConstants.RESOURCE_SET_ID + "-" + podType,
+                        "task",
+                        "echo task",
+                        1,
+                        1.0,
+                        1024,
+                        1000)))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.LaunchOfferRecommendation;
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.yaml.YAMLServiceSpecFactory;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.TaskID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of delivering a {@link TaskStatus} to a deploy plan where every step has launched its task, as is
+ * done for every status update the scheduler receives, and of then querying the plan's status, as is done whenever
+ * plans are polled, as the number of steps in the plan grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PlanStatusUpdateBenchmark {
+
+    private static final String SERVICE_YAML = "name: \"hello-world\"\n" +
+            "scheduler:\n" +
+            "  api-port: 8080\n" +
+            "pods:\n" +
+            "  test-task-type:\n" +
+            "    count: %d\n" +
+            "    tasks:\n" +
+            "      test-task-name:\n" +
+            "        goal: RUNNING\n" +
+            "        cmd: \"echo 'Hello World'\"\n" +
+            "        cpus: 1.0\n" +
+            "        memory: 1000\n";
+
+    @Param({"10", "100", "1000"})
+    public int stepCount;
+
+    private Plan plan;
+    private List<TaskStatus> statuses;
+    private int nextStatus;
+
+    @Setup
+    public void setup() throws Exception {
+        PodSpec podSpec = YAMLServiceSpecFactory.generateServiceSpec(
+                YAMLServiceSpecFactory.generateRawSpecFromYAML(String.format(SERVICE_YAML, stepCount)))
+                .getPods().get(0);
+
+        List<Step> steps = new ArrayList<>();
+        statuses = new ArrayList<>();
+        for (int i = 0; i < stepCount; ++i) {
+            PodInstance podInstance = new DefaultPodInstance(podSpec, i);
+            String taskName = podInstance.getName() + "-test-task-name";
+            DeploymentStep step = new DeploymentStep(
+                    podInstance.getName(),
+                    Status.PENDING,
+                    PodInstanceRequirement.create(podInstance, Arrays.asList("test-task-name")),
+                    Collections.emptyList());
+
+            TaskID taskId = CommonTaskUtils.toTaskId(taskName);
+            step.updateOfferStatus(Arrays.asList(new LaunchOfferRecommendation(
+                    OfferTestUtils.getEmptyOfferBuilder().build(),
+                    TaskInfo.newBuilder()
+                            .setTaskId(taskId)
+                            .setName(taskName)
+                            .setSlaveId(TestConstants.AGENT_ID)
+                            .build())));
+            steps.add(step);
+            // Leaves the step waiting for its task to be running:
+            statuses.add(TaskStatus.newBuilder().setTaskId(taskId).setState(TaskState.TASK_STARTING).build());
+        }
+
+        Phase phase = new DefaultPhase("deploy", steps, new ParallelStrategy<>(), Collections.emptyList());
+        plan = new DefaultPlan("deploy", Arrays.asList(phase), new SerialStrategy<>());
+    }
+
+    @Benchmark
+    public Plan update() {
+        plan.update(statuses.get(nextStatus));
+        nextStatus = (nextStatus + 1) % statuses.size();
+        return plan;
+    }
+
+    @Benchmark
+    public Status updateAndGetStatus() {
+        plan.update(statuses.get(nextStatus));
+        nextStatus = (nextStatus + 1) % statuses.size();
+        return plan.getStatus();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mesosphere.sdk.scheduler.plan.strategy;
+
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.TestStep;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of asking a {@link Strategy} for its candidates, as is done for every phase and plan on every
+ * offer cycle, as the number of elements it's applied to grows. Half of the elements are complete, as they would be
+ * midway through a deployment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class StrategyBenchmark {
+
+    @Param({"10", "1000"})
+    public int elementCount;
+
+    @Param({"serial", "parallel"})
+    public String strategyName;
+
+    private List<Step> steps;
+    private Strategy<Step> strategy;
+
+    @Setup
+    public void setup() {
+        steps = new ArrayList<>();
+        for (int i = 0; i < elementCount; ++i) {
+            steps.add(new TestStep("step-" + i));
+        }
+        strategy = strategyName.equals("serial") ? new SerialStrategy<>() : new ParallelStrategy<>();
+        // Let the strategy see the initial state, then complete the first half of the steps:
+        strategy.getCandidates(steps, Collections.emptyList());
+        for (int i = 0; i < elementCount / 2; ++i) {
+            ((TestStep) steps.get(i)).setStatus(Status.COMPLETE);
+        }
+    }
+
+    @Benchmark
+    public Collection<Step> getCandidates() {
+        return strategy.getCandidates(steps, Collections.emptyList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.mesosphere.sdk.scheduler.recovery;
+
+import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.curator.CuratorStateStore;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.scheduler.DefaultScheduler;
+import com.mesosphere.sdk.scheduler.recovery.constrain.UnconstrainedLaunchConstrainer;
+import com.mesosphere.sdk.scheduler.recovery.monitor.NeverFailureMonitor;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.YAMLServiceSpecFactory;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link DefaultRecoveryPlanManager#getCandidates(Collection)} for a service where one task
+ * has failed and all other tasks are running, as it would be invoked on each offer cycle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class DefaultRecoveryPlanManagerBenchmark {
+
+    private static final String SERVICE_YAML = "name: \"hello-world\"\n" +
+            "scheduler:\n" +
+            "  api-port: 8080\n" +
+            "pods:\n" +
+            "  test-task-type:\n" +
+            "    count: %d\n" +
+            "    tasks:\n" +
+            "      test-task-name:\n" +
+            "        goal: RUNNING\n" +
+            "        cmd: \"echo 'Hello World'\"\n" +
+            "        cpus: 1.0\n" +
+            "        memory: 1000\n";
+
+    @Param({"1000"})
+    public int taskCount;
+
+    private TestingServer testZk;
+    private DefaultRecoveryPlanManager recoveryManager;
+
+    @Setup
+    public void setup() throws Exception {
+        testZk = new TestingServer();
+        ServiceSpec serviceSpec = YAMLServiceSpecFactory.generateServiceSpec(
+                YAMLServiceSpecFactory.generateRawSpecFromYAML(String.format(SERVICE_YAML, taskCount)));
+        ConfigStore<ServiceSpec> configStore =
+                DefaultScheduler.createConfigStore(serviceSpec, testZk.getConnectString());
+        UUID configTarget = configStore.store(serviceSpec);
+        configStore.setTargetConfig(configTarget);
+
+        StateStoreCache.resetInstanceForTests();
+        StateStore stateStore =
+                StateStoreCache.getInstance(new CuratorStateStore("/benchmark", testZk.getConnectString()));
+
+        List<TaskInfo> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; ++i) {
+            String taskName = "test-task-type-" + i + "-test-task-name";
+            TaskInfo.Builder taskBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                    .setName(taskName)
+                    .setTaskId(CommonTaskUtils.toTaskId(taskName));
+            taskBuilder = CommonTaskUtils.setTargetConfiguration(taskBuilder, configTarget);
+            tasks.add(CommonTaskUtils.setIndex(taskBuilder, i).build());
+        }
+        stateStore.storeTasks(tasks);
+
+        recoveryManager = new DefaultRecoveryPlanManager(
+                stateStore, configStore, new UnconstrainedLaunchConstrainer(), new NeverFailureMonitor());
+        for (int i = 0; i < taskCount; ++i) {
+            // The first task has failed, while all others are running:
+            TaskStatus status = TaskStatus.newBuilder()
+                    .setTaskId(tasks.get(i).getTaskId())
+                    .setState(i == 0 ? TaskState.TASK_FAILED : TaskState.TASK_RUNNING)
+                    .build();
+            stateStore.storeStatus(status);
+            recoveryManager.update(status);
+        }
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        testZk.close();
+    }
+
+    @Benchmark
+    public Collection<?> getCandidates() {
+        return recoveryManager.getCandidates(Collections.emptyList());
+    }
+}
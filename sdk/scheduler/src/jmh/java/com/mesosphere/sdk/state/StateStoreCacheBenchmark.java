@@ -0,0 +1,135 @@
+package com.mesosphere.sdk.state;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link StateStoreCache#storeStatus(TaskStatus)} as the number of tasks grows. The
+ * underlying {@link StateStore} discards all writes, so that only the cost of the cache itself is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class StateStoreCacheBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int taskCount;
+
+    private StateStoreCache cache;
+    private TaskStatus[] statuses;
+    private int nextStatus;
+
+    @Setup
+    public void setup() {
+        cache = new StateStoreCache(new DiscardingStateStore());
+
+        List<TaskInfo> tasks = new ArrayList<>();
+        statuses = new TaskStatus[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            String taskName = "pod-" + i + "-server";
+            TaskInfo task = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                    .setName(taskName)
+                    .setTaskId(CommonTaskUtils.toTaskId(taskName))
+                    .build();
+            tasks.add(task);
+            statuses[i] = TaskStatus.newBuilder()
+                    .setTaskId(task.getTaskId())
+                    .setState(TaskState.TASK_RUNNING)
+                    .build();
+        }
+        cache.storeTasks(tasks);
+        // Start with the status for the last-stored task, so that a linear lookup would scan the most entries.
+        nextStatus = taskCount - 1;
+    }
+
+    @Benchmark
+    public void storeStatus() {
+        cache.storeStatus(statuses[nextStatus]);
+        nextStatus = nextStatus == 0 ? taskCount - 1 : nextStatus - 1;
+    }
+
+    /**
+     * A {@link StateStore} which is initially empty and which discards all writes.
+     */
+    private static class DiscardingStateStore implements StateStore {
+        @Override
+        public void storeFrameworkId(FrameworkID fwkId) {
+        }
+
+        @Override
+        public void clearFrameworkId() {
+        }
+
+        @Override
+        public Optional<FrameworkID> fetchFrameworkId() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeTasks(Collection<TaskInfo> tasks) {
+        }
+
+        @Override
+        public void storeStatus(TaskStatus status) {
+        }
+
+        @Override
+        public void clearTask(String taskName) {
+        }
+
+        @Override
+        public Collection<String> fetchTaskNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<TaskInfo> fetchTasks() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<TaskInfo> fetchTask(String taskName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Collection<TaskStatus> fetchStatuses() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<TaskStatus> fetchStatus(String taskName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeProperty(String key, byte[] value) {
+        }
+
+        @Override
+        public byte[] fetchProperty(String key) {
+            throw new StateStoreException(Reason.NOT_FOUND, key);
+        }
+
+        @Override
+        public Collection<String> fetchPropertyKeys() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void clearProperty(String key) {
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.mesosphere.sdk.api;
+
+import com.codahale.metrics.*;
+import org.json.JSONObject;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mesosphere.sdk.api.ResponseUtils.jsonOkResponse;
+
+/**
+ * An API for retrieving the scheduler's metrics, in either JSON or Prometheus text format.
+ */
+@Path("/v1/metrics")
+public class MetricsResource {
+
+    /**
+     * The content type of the Prometheus text exposition format.
+     */
+    static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
+    private static final double[] QUANTILES = { 0.5, 0.75, 0.95, 0.99, 0.999 };
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricRegistry registry;
+
+    public MetricsResource(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Produces all metrics in JSON format. Timer durations are in milliseconds.
+     */
+    @GET
+    public Response getJsonMetrics() {
+        JSONObject counters = new JSONObject();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            counters.put(entry.getKey(), entry.getValue().getCount());
+        }
+        JSONObject gauges = new JSONObject();
+        // MetricRegistry exposes gauges with a raw type, so let their type be inferred rather than spelled out:
+        registry.getGauges().forEach((name, gauge) -> gauges.put(name, getValue(gauge)));
+        JSONObject meters = new JSONObject();
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            meters.put(entry.getKey(), toJson(entry.getValue()));
+        }
+        JSONObject histograms = new JSONObject();
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            histograms.put(entry.getKey(), toJson(entry.getValue().getCount(), entry.getValue().getSnapshot(), 1));
+        }
+        JSONObject timers = new JSONObject();
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            timers.put(entry.getKey(), toJson(entry.getValue().getCount(), entry.getValue().getSnapshot(),
+                    NANOS_PER_MILLI));
+        }
+
+        JSONObject response = new JSONObject();
+        response.put("counters", counters);
+        response.put("gauges", gauges);
+        response.put("meters", meters);
+        response.put("histograms", histograms);
+        response.put("timers", timers);
+        return jsonOkResponse(response);
+    }
+
+    /**
+     * Produces all metrics in the Prometheus text exposition format. Timers are exported as summaries in seconds.
+     */
+    @Path("/prometheus")
+    @GET
+    public Response getPrometheusMetrics() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            appendSample(builder, "counter", toPrometheusCounterName(entry.getKey()), entry.getValue().getCount());
+        }
+        registry.getGauges().forEach((name, gauge) -> appendGauge(builder, toPrometheusName(name), getValue(gauge)));
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            appendSample(builder, "counter", toPrometheusCounterName(entry.getKey()), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            appendSummary(builder, toPrometheusName(entry.getKey()),
+                    entry.getValue().getCount(), entry.getValue().getSnapshot(), 1);
+        }
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            appendSummary(builder, toPrometheusName(entry.getKey()) + "_seconds",
+                    entry.getValue().getCount(), entry.getValue().getSnapshot(), NANOS_PER_SECOND);
+        }
+        return Response.ok(builder.toString(), PROMETHEUS_CONTENT_TYPE).build();
+    }
+
+    private static JSONObject toJson(Meter meter) {
+        JSONObject json = new JSONObject();
+        json.put("count", meter.getCount());
+        json.put("m1_rate", meter.getOneMinuteRate());
+        json.put("m5_rate", meter.getFiveMinuteRate());
+        json.put("m15_rate", meter.getFifteenMinuteRate());
+        json.put("mean_rate", meter.getMeanRate());
+        return json;
+    }
+
+    private static JSONObject toJson(long count, Snapshot snapshot, double divisor) {
+        JSONObject json = new JSONObject();
+        json.put("count", count);
+        json.put("min", snapshot.getMin() / divisor);
+        json.put("max", snapshot.getMax() / divisor);
+        json.put("mean", snapshot.getMean() / divisor);
+        json.put("p50", snapshot.getMedian() / divisor);
+        json.put("p75", snapshot.get75thPercentile() / divisor);
+        json.put("p95", snapshot.get95thPercentile() / divisor);
+        json.put("p99", snapshot.get99thPercentile() / divisor);
+        json.put("p999", snapshot.get999thPercentile() / divisor);
+        return json;
+    }
+
+    private static Object getValue(Gauge<?> gauge) {
+        return gauge.getValue();
+    }
+
+    private static void appendGauge(StringBuilder builder, String name, Object value) {
+        if (value instanceof Number) {
+            appendSample(builder, "gauge", name, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            appendSample(builder, "gauge", name, (Boolean) value ? 1 : 0);
+        }
+        // Other gauge values have no Prometheus representation.
+    }
+
+    private static void appendSample(StringBuilder builder, String type, String name, double value) {
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Appends a summary with the quantiles of the provided snapshot. Metrics don't track the sum of every recorded
+     * value, so the summary's sum is approximated from the snapshot's mean.
+     */
+    private static void appendSummary(
+            StringBuilder builder, String name, long count, Snapshot snapshot, double divisor) {
+        builder.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : QUANTILES) {
+            builder.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(snapshot.getValue(quantile) / divisor).append('\n');
+        }
+        builder.append(name).append("_sum ").append(snapshot.getMean() * count / divisor).append('\n');
+        builder.append(name).append("_count ").append(count).append('\n');
+    }
+
+    /**
+     * Converts a metric name to a valid Prometheus metric name, e.g. "offers.cycle" => "offers_cycle".
+     */
+    static String toPrometheusName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_:]", "_");
+    }
+
+    /**
+     * Converts a metric name to a Prometheus counter name, which by convention ends in "_total", e.g.
+     * "offers.received" => "offers_received_total".
+     */
+    static String toPrometheusCounterName(String name) {
+        String prometheusName = toPrometheusName(name);
+        return prometheusName.endsWith("_total") ? prometheusName : prometheusName + "_total";
+    }
+}
@@ -0,0 +1,63 @@
+package com.mesosphere.sdk.api;
+
+import com.mesosphere.sdk.offer.DecisionTrace;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+import java.util.List;
+
+import static com.mesosphere.sdk.api.ResponseUtils.jsonOkResponse;
+import static com.mesosphere.sdk.api.ResponseUtils.plainResponse;
+
+/**
+ * An API for retrieving the details of recent offer cycles: the offers which were received, the outcome of evaluating
+ * them, and the operations which were performed. Details are rendered on request, regardless of whether they were
+ * logged at the time.
+ */
+@Path("/v1/debug/offers")
+public class OffersDebugResource {
+
+    private final DecisionTrace decisionTrace;
+
+    public OffersDebugResource(DecisionTrace decisionTrace) {
+        this.decisionTrace = decisionTrace;
+    }
+
+    /**
+     * Produces the recorded decisions, oldest first.
+     *
+     * @param limit if specified, only the most recent {@code limit} decisions are produced
+     */
+    @GET
+    public Response getOffers(@QueryParam("limit") String limit) {
+        List<DecisionTrace.Entry> entries = decisionTrace.getEntries();
+        if (limit != null) {
+            int limitCount;
+            try {
+                limitCount = Integer.parseInt(limit);
+            } catch (NumberFormatException e) {
+                limitCount = -1;
+            }
+            if (limitCount < 0) {
+                return plainResponse("Limit must be a non-negative integer: " + limit, Response.Status.BAD_REQUEST);
+            }
+            entries = entries.subList(Math.max(0, entries.size() - limitCount), entries.size());
+        }
+
+        JSONArray response = new JSONArray();
+        for (DecisionTrace.Entry entry : entries) {
+            JSONObject json = new JSONObject();
+            json.put("cycle", entry.getCycle());
+            json.put("timestamp", entry.getTimestampMs());
+            json.put("type", entry.getType().toString());
+            json.put("summary", entry.getSummary().trim());
+            json.put("details", entry.getDetails().trim());
+            response.put(json);
+        }
+        return jsonOkResponse(response);
+    }
+}
@@ -126,7 +126,7 @@ public class PlansResource extends PrettyJsonResource {
                 return ELEMENT_NOT_FOUND_RESPONSE;
             }
 
-            phases.forEach(p -> p.getStrategy().proceed());
+            phases.forEach(p -> p.proceed());
         } else {
             planManagerOptional.get().getPlan().proceed();
         }
@@ -150,7 +150,7 @@ public class PlansResource extends PrettyJsonResource {
                 return ELEMENT_NOT_FOUND_RESPONSE;
             }
 
-            phases.forEach(p -> p.getStrategy().interrupt());
+            phases.forEach(p -> p.interrupt());
         } else {
             planManagerOptional.get().getPlan().interrupt();
         }
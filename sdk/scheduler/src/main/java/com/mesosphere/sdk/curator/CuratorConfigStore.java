@@ -1,5 +1,8 @@
 package com.mesosphere.sdk.curator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.apache.curator.RetryPolicy;
 import com.mesosphere.sdk.config.ConfigStore;
 import com.mesosphere.sdk.config.ConfigStoreException;
@@ -27,6 +30,9 @@ import java.util.UUID;
  *         -> [Config-ID-1] (contains serialized config)
  *         -> ...
  *
+ * Configurations are immutable once stored, so a bounded number of parsed Configurations are cached in memory by ID.
+ * This avoids repeatedly fetching and parsing the same Configuration when it's referenced by many tasks.
+ *
  * @param <T> The {@code Configuration} object to be serialized and deserialized in the
  *            implementation of this interface
  */
@@ -43,10 +49,18 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
     private static final String TARGET_PATH_NAME = "ConfigTarget";
     private static final String CONFIGURATIONS_PATH_NAME = "Configurations";
 
+    /**
+     * The maximum number of parsed Configurations to keep in memory. In practice, only the current target and any
+     * prior configurations still used by tasks are fetched repeatedly.
+     */
+    private static final int MAX_CACHED_CONFIGURATIONS = 32;
+
     private final ConfigurationFactory<T> factory;
     private final CuratorPersister curator;
     private final String configurationsPath;
     private final String targetPath;
+    private final Cache<UUID, T> configCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_CONFIGURATIONS).recordStats().build();
 
     /**
      * Creates a new {@link ConfigStore} which uses Curator with a default {@link RetryPolicy} and
@@ -137,6 +151,15 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
 
     @Override
     public T fetch(UUID id) throws ConfigStoreException {
+        T config = configCache.getIfPresent(id);
+        if (config == null) {
+            config = fetchUncached(id);
+            configCache.put(id, config);
+        }
+        return config;
+    }
+
+    private T fetchUncached(UUID id) throws ConfigStoreException {
         String path = getConfigPath(id);
         byte[] data;
         try {
@@ -153,6 +176,7 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
 
     @Override
     public void clear(UUID id) throws ConfigStoreException {
+        configCache.invalidate(id);
         String path = getConfigPath(id);
         try {
             curator.delete(path);
@@ -223,6 +247,13 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
         }
     }
 
+    /**
+     * Returns hit/miss statistics for the cache of parsed Configurations used by {@link #fetch(UUID)}.
+     */
+    public CacheStats getCacheStats() {
+        return configCache.stats();
+    }
+
     public void close() {
         curator.close();
     }
@@ -1,21 +1,32 @@
 package com.mesosphere.sdk.curator;
 
+import com.codahale.metrics.Timer;
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.storage.AsyncPersister;
 import com.mesosphere.sdk.storage.Persister;
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.zookeeper.KeeperException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * The CuratorPersistor implementation of the {@link Persister} interface
  * provides for persistence and retrieval of data from Zookeeper.
+ *
+ * The asynchronous operations of {@link AsyncPersister} are implemented using Curator's background API, with the
+ * returned futures being completed by Curator's event thread. Callers must therefore not perform blocking operations
+ * in stages which are chained directly onto these futures.
  */
-public class CuratorPersister implements Persister {
+public class CuratorPersister implements AsyncPersister {
 
     private static final Logger logger = LoggerFactory.getLogger(CuratorPersister.class);
 
@@ -25,6 +36,17 @@ public class CuratorPersister implements Persister {
      */
     private static final int ATOMIC_WRITE_ATTEMPTS = 3;
 
+    /**
+     * Operation names for the latency metrics of each type of ZK operation, which are shared between the synchronous
+     * and asynchronous variants.
+     */
+    private static final String SET_MANY_OPERATION = "set_many";
+    private static final String SET_OPERATION = "set";
+    private static final String GET_OPERATION = "get";
+    private static final String DELETE_OPERATION = "delete";
+    private static final String GET_CHILDREN_OPERATION = "get_children";
+    private static final String EXISTS_OPERATION = "exists";
+
     private final CuratorFramework client;
 
     public CuratorPersister(String connectionString, RetryPolicy retryPolicy) {
@@ -44,6 +66,15 @@ public class CuratorPersister implements Persister {
         if (pathBytesMap.isEmpty()) {
             return;
         }
+        Timer.Context timerContext = Metrics.getPersisterTimer(SET_MANY_OPERATION).time();
+        try {
+            commitMany(pathBytesMap);
+        } finally {
+            timerContext.stop();
+        }
+    }
+
+    private void commitMany(Map<String, byte[]> pathBytesMap) throws Exception {
         for (int i = 0; i < ATOMIC_WRITE_ATTEMPTS; ++i) {
             // Phase 1: Determine which nodes already exist. This determination can be rendered
             //          invalid by an out-of-band change to the data.
@@ -76,26 +107,108 @@ public class CuratorPersister implements Persister {
 
     @Override
     public void set(String path, byte[] bytes) throws Exception {
+        Timer.Context timerContext = Metrics.getPersisterTimer(SET_OPERATION).time();
         try {
             client.create().creatingParentsIfNeeded().forPath(path, bytes);
         } catch (KeeperException.NodeExistsException e) {
             client.setData().forPath(path, bytes);
+        } finally {
+            timerContext.stop();
         }
     }
 
     @Override
     public byte[] get(String path) throws Exception {
-        return client.getData().forPath(path);
+        Timer.Context timerContext = Metrics.getPersisterTimer(GET_OPERATION).time();
+        try {
+            return client.getData().forPath(path);
+        } finally {
+            timerContext.stop();
+        }
     }
 
     @Override
     public void delete(String path) throws Exception {
-        client.delete().deletingChildrenIfNeeded().forPath(path);
+        Timer.Context timerContext = Metrics.getPersisterTimer(DELETE_OPERATION).time();
+        try {
+            client.delete().deletingChildrenIfNeeded().forPath(path);
+        } finally {
+            timerContext.stop();
+        }
     }
 
     @Override
     public Collection<String> getChildren(String path) throws Exception {
-        return client.getChildren().forPath(path);
+        Timer.Context timerContext = Metrics.getPersisterTimer(GET_CHILDREN_OPERATION).time();
+        try {
+            return client.getChildren().forPath(path);
+        } finally {
+            timerContext.stop();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(String path, byte[] bytes) {
+        CompletableFuture<Void> future = newTimedFuture(SET_OPERATION);
+        try {
+            client.create().creatingParentsIfNeeded().inBackground((c, event) -> {
+                if (event.getResultCode() == KeeperException.Code.NODEEXISTS.intValue()) {
+                    setDataAsync(path, bytes, future);
+                } else if (isSuccess(event, future)) {
+                    future.complete(null);
+                }
+            }).forPath(path, bytes);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getAsync(String path) {
+        CompletableFuture<byte[]> future = newTimedFuture(GET_OPERATION);
+        try {
+            client.getData().inBackground((c, event) -> {
+                if (isSuccess(event, future)) {
+                    future.complete(event.getData());
+                }
+            }).forPath(path);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> getChildrenAsync(String path) {
+        CompletableFuture<Collection<String>> future = newTimedFuture(GET_CHILDREN_OPERATION);
+        try {
+            client.getChildren().inBackground((c, event) -> {
+                if (isSuccess(event, future)) {
+                    future.complete(event.getChildren());
+                }
+            }).forPath(path);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsAsync(String path) {
+        CompletableFuture<Boolean> future = newTimedFuture(EXISTS_OPERATION);
+        try {
+            client.checkExists().inBackground((c, event) -> {
+                if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                    future.complete(false);
+                } else if (isSuccess(event, future)) {
+                    future.complete(event.getStat() != null);
+                }
+            }).forPath(path);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     @Override
@@ -103,6 +216,56 @@ public class CuratorPersister implements Persister {
         client.close();
     }
 
+    /**
+     * Waits for the provided future to complete and returns its result. If the future failed, the exception it failed
+     * with is thrown directly, as it would have been by the equivalent synchronous call.
+     */
+    public static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a new future which records the latency of the provided operation when it's completed.
+     */
+    private static <T> CompletableFuture<T> newTimedFuture(String operation) {
+        Timer.Context timerContext = Metrics.getPersisterTimer(operation).time();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((result, error) -> timerContext.stop());
+        return future;
+    }
+
+    private void setDataAsync(String path, byte[] bytes, CompletableFuture<Void> future) {
+        try {
+            client.setData().inBackground((c, event) -> {
+                if (isSuccess(event, future)) {
+                    future.complete(null);
+                }
+            }).forPath(path, bytes);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Returns whether the provided event indicates success. If it doesn't, the future is completed with the
+     * corresponding {@link KeeperException}.
+     */
+    private static boolean isSuccess(CuratorEvent event, CompletableFuture<?> future) {
+        KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+        if (code == KeeperException.Code.OK) {
+            return true;
+        }
+        future.completeExceptionally(KeeperException.create(code, event.getPath()));
+        return false;
+    }
+
     private static CuratorFramework createClient(String connectionString, RetryPolicy retryPolicy) {
         CuratorFramework client = CuratorFrameworkFactory.newClient(connectionString, retryPolicy);
         client.start();
@@ -135,11 +298,19 @@ public class CuratorPersister implements Persister {
         return client;
     }
 
-    private Set<String> selectPathsWhichExist(Set<String> paths) throws Exception {
-        Set<String> pathsWhichExist = new HashSet<>();
+    /**
+     * Returns the subset of the provided paths which currently exist. The existence checks are all issued before
+     * waiting for any of them, so that they're performed in a single pipelined round-trip.
+     */
+    private Set<String> selectPathsWhichExist(Collection<String> paths) throws Exception {
+        Map<String, CompletableFuture<Boolean>> existsFutures = new LinkedHashMap<>();
         for (String path : paths) {
-            if (client.checkExists().forPath(path) != null) {
-                pathsWhichExist.add(path);
+            existsFutures.put(path, existsAsync(path));
+        }
+        Set<String> pathsWhichExist = new HashSet<>();
+        for (Map.Entry<String, CompletableFuture<Boolean>> entry : existsFutures.entrySet()) {
+            if (await(entry.getValue())) {
+                pathsWhichExist.add(entry.getKey());
             }
         }
         return pathsWhichExist;
@@ -147,17 +318,19 @@ public class CuratorPersister implements Persister {
 
     private List<String> getParentPathsToCreate(Set<String> paths, Set<String> pathsWhichExist)
             throws Exception {
-        List<String> parentPathsToCreate = new ArrayList<>();
+        // Transaction interface doesn't support creatingParentsIfNeeded(), so go manual.
+        // Collect the distinct parents of all new paths (parents before children), then check them all at once.
+        Set<String> candidateParentPaths = new LinkedHashSet<>();
         for (String path : paths) {
-            if (pathsWhichExist.contains(path)) {
-                continue;
+            if (!pathsWhichExist.contains(path)) {
+                candidateParentPaths.addAll(CuratorUtils.getParentPaths(path));
             }
-            // Transaction interface doesn't support creatingParentsIfNeeded(), so go manual.
-            for (String parentPath : CuratorUtils.getParentPaths(path)) {
-                if (client.checkExists().forPath(parentPath) == null
-                        && !parentPathsToCreate.contains(parentPath)) {
-                    parentPathsToCreate.add(parentPath);
-                }
+        }
+        Set<String> parentPathsWhichExist = selectPathsWhichExist(candidateParentPaths);
+        List<String> parentPathsToCreate = new ArrayList<>();
+        for (String parentPath : candidateParentPaths) {
+            if (!parentPathsWhichExist.contains(parentPath)) {
+                parentPathsToCreate.add(parentPath);
             }
         }
         return parentPathsToCreate;
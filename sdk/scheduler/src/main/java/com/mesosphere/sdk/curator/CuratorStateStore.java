@@ -4,7 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.mesosphere.sdk.dcos.DcosConstants;
 import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.state.*;
-import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.AsyncPersister;
 import com.mesosphere.sdk.storage.StorageError.Reason;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.curator.RetryPolicy;
@@ -17,6 +17,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * CuratorStateStore is an implementation of {@link StateStore} which persists data in Zookeeper.
@@ -39,6 +41,9 @@ import java.util.*;
  *
  * Note that for frameworks which don't use custom executors, the same structure is used, except
  * where ExecutorName values are equal to TaskName values.
+ *
+ * Reads and writes which span many tasks are pipelined: all of the requests are issued up-front, and then their
+ * results are collected, rather than waiting for each result before issuing the next request.
  */
 public class CuratorStateStore implements StateStore {
 
@@ -56,7 +61,7 @@ public class CuratorStateStore implements StateStore {
     private static final String PROPERTIES_PATH_NAME = "Properties";
     private static final String TASKS_ROOT_NAME = "Tasks";
 
-    protected final Persister curator;
+    protected final AsyncPersister curator;
     protected final TaskPathMapper taskPathMapper;
     private final String fwkIdPath;
     private final String propertiesPath;
@@ -194,6 +199,25 @@ public class CuratorStateStore implements StateStore {
 
     @Override
     public void storeStatus(Protos.TaskStatus status) throws StateStoreException {
+        String taskName = getTaskNameForStatus(status);
+        String path = taskPathMapper.getTaskStatusPath(taskName);
+        logger.info("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+
+        try {
+            curator.set(path, status.toByteArray());
+        } catch (Exception e) {
+            throw new StateStoreException(Reason.STORAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns the name of the stored task which the provided status should be stored against, or throws an exception
+     * if the status may not be stored.
+     *
+     * @throws StateStoreException if no task matches the status's TaskID, or if the status is a TASK_LOST for a task
+     *                             which is already in a terminal state
+     */
+    protected String getTaskNameForStatus(Protos.TaskStatus status) throws StateStoreException {
         Optional<Protos.TaskInfo> taskInfoOptional = Optional.empty();
 
         for (Protos.TaskInfo taskInfo : fetchTasks()) {
@@ -223,15 +247,7 @@ public class CuratorStateStore implements StateStore {
                     String.format("Ignoring TASK_LOST for Task already in a terminal state %s: %s",
                             currentStatusOptional.get().getState(), taskName));
         }
-
-        String path = taskPathMapper.getTaskStatusPath(taskName);
-        logger.info("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
-
-        try {
-            curator.set(path, status.toByteArray());
-        } catch (Exception e) {
-            throw new StateStoreException(Reason.STORAGE_ERROR, e);
-        }
+        return taskName;
     }
 
     @Override
@@ -272,15 +288,20 @@ public class CuratorStateStore implements StateStore {
 
     @Override
     public Collection<Protos.TaskInfo> fetchTasks() throws StateStoreException {
-        Collection<Protos.TaskInfo> taskInfos = new ArrayList<>();
+        Map<String, CompletableFuture<byte[]>> taskInfoFutures = new LinkedHashMap<>();
         for (String taskName : fetchTaskNames()) {
-            Optional<Protos.TaskInfo> taskInfoOptional = fetchTask(taskName);
+            taskInfoFutures.put(taskName, curator.getAsync(taskPathMapper.getTaskInfoPath(taskName)));
+        }
+
+        Collection<Protos.TaskInfo> taskInfos = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<byte[]>> entry : taskInfoFutures.entrySet()) {
+            Optional<Protos.TaskInfo> taskInfoOptional = parseTask(entry.getKey(), entry.getValue());
             if (taskInfoOptional.isPresent()) {
                 taskInfos.add(taskInfoOptional.get());
             } else {
                 // We should always have a TaskInfo for every name entry we just got
-                throw new StateStoreException(Reason.NOT_FOUND,
-                        String.format("Expected task named %s to be present when retrieving all tasks", taskName));
+                throw new StateStoreException(Reason.NOT_FOUND, String.format(
+                        "Expected task named %s to be present when retrieving all tasks", entry.getKey()));
             }
         }
         return taskInfos;
@@ -290,42 +311,12 @@ public class CuratorStateStore implements StateStore {
     public Optional<Protos.TaskInfo> fetchTask(String taskName) throws StateStoreException {
         String path = taskPathMapper.getTaskInfoPath(taskName);
         logger.debug("Fetching TaskInfo {} from '{}'", taskName, path);
-        try {
-            byte[] bytes = curator.get(path);
-            if (bytes.length > 0) {
-                // TODO(nick): This unpack operation is no longer needed, but it doesn't hurt anything to leave it in
-                // place to support reading older data. Remove this unpack call after services have had time to stop
-                // storing packed TaskInfos in zk (after June 2017 or so?).
-                return Optional.of(CommonTaskUtils.unpackTaskInfo(Protos.TaskInfo.parseFrom(bytes)));
-            } else {
-                throw new StateStoreException(Reason.SERIALIZATION_ERROR, String.format(
-                        "Empty TaskInfo for TaskName: %s", taskName));
-            }
-        } catch (KeeperException.NoNodeException e) {
-            logger.warn("No TaskInfo found for the requested name: {} at: {}", taskName, path);
-            return Optional.empty();
-        } catch (Exception e) {
-            throw new StateStoreException(Reason.STORAGE_ERROR,
-                    String.format("Failed to retrieve task named %s", taskName), e);
-        }
+        return parseTask(taskName, curator.getAsync(path));
     }
 
     @Override
     public Collection<Protos.TaskStatus> fetchStatuses() throws StateStoreException {
-        Collection<Protos.TaskStatus> taskStatuses = new ArrayList<>();
-        for (String taskName : fetchTaskNames()) {
-            try {
-                byte[] bytes = curator.get(taskPathMapper.getTaskStatusPath(taskName));
-                taskStatuses.add(Protos.TaskStatus.parseFrom(bytes));
-            } catch (KeeperException.NoNodeException e) {
-                // The task node exists, but it doesn't contain a TaskStatus node. This may occur if
-                // the only contents are a TaskInfo.
-                continue;
-            } catch (Exception e) {
-                throw new StateStoreException(Reason.STORAGE_ERROR, e);
-            }
-        }
-        return taskStatuses;
+        return fetchStatuses(fetchTaskNames()).values();
     }
 
     @Override
@@ -404,6 +395,55 @@ public class CuratorStateStore implements StateStore {
         }
     }
 
+    /**
+     * Returns the TaskStatuses for any of the provided task names which have one. All of the statuses are requested
+     * before any of them are awaited.
+     */
+    protected Map<String, TaskStatus> fetchStatuses(Collection<String> taskNames) throws StateStoreException {
+        Map<String, CompletableFuture<byte[]>> statusFutures = new LinkedHashMap<>();
+        for (String taskName : taskNames) {
+            statusFutures.put(taskName, curator.getAsync(taskPathMapper.getTaskStatusPath(taskName)));
+        }
+
+        Map<String, TaskStatus> taskStatuses = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<byte[]>> entry : statusFutures.entrySet()) {
+            try {
+                taskStatuses.put(entry.getKey(),
+                        Protos.TaskStatus.parseFrom(CuratorPersister.await(entry.getValue())));
+            } catch (KeeperException.NoNodeException e) {
+                // The task node exists, but it doesn't contain a TaskStatus node. This may occur if
+                // the only contents are a TaskInfo.
+                continue;
+            } catch (Exception e) {
+                throw new StateStoreException(Reason.STORAGE_ERROR, e);
+            }
+        }
+        return taskStatuses;
+    }
+
+    private Optional<Protos.TaskInfo> parseTask(String taskName, CompletableFuture<byte[]> bytesFuture)
+            throws StateStoreException {
+        try {
+            byte[] bytes = CuratorPersister.await(bytesFuture);
+            if (bytes.length > 0) {
+                // TODO(nick): This unpack operation is no longer needed, but it doesn't hurt anything to leave it in
+                // place to support reading older data. Remove this unpack call after services have had time to stop
+                // storing packed TaskInfos in zk (after June 2017 or so?).
+                return Optional.of(CommonTaskUtils.unpackTaskInfo(Protos.TaskInfo.parseFrom(bytes)));
+            } else {
+                throw new StateStoreException(Reason.SERIALIZATION_ERROR, String.format(
+                        "Empty TaskInfo for TaskName: %s", taskName));
+            }
+        } catch (KeeperException.NoNodeException e) {
+            logger.warn("No TaskInfo found for the requested name: {} at: {}",
+                    taskName, taskPathMapper.getTaskInfoPath(taskName));
+            return Optional.empty();
+        } catch (Exception e) {
+            throw new StateStoreException(Reason.STORAGE_ERROR,
+                    String.format("Failed to retrieve task named %s", taskName), e);
+        }
+    }
+
     @VisibleForTesting
     public void closeForTesting() {
         curator.close();
@@ -450,8 +490,11 @@ public class CuratorStateStore implements StateStore {
         List<TaskStatus> repairedStatuses = new ArrayList<>();
         List<TaskInfo> repairedTasks = new ArrayList<>();
 
-        for (TaskInfo task : fetchTasks()) {
-            Optional<TaskStatus> statusOptional = fetchStatus(task.getName());
+        Collection<TaskInfo> tasks = fetchTasks();
+        Map<String, TaskStatus> statuses =
+                fetchStatuses(tasks.stream().map(task -> task.getName()).collect(Collectors.toList()));
+        for (TaskInfo task : tasks) {
+            Optional<TaskStatus> statusOptional = Optional.ofNullable(statuses.get(task.getName()));
 
             if (statusOptional.isPresent()) {
                 TaskStatus status = statusOptional.get();
@@ -473,6 +516,36 @@ public class CuratorStateStore implements StateStore {
         }
 
         storeTasks(repairedTasks);
-        repairedStatuses.forEach(taskStatus -> storeStatus(taskStatus));
+        storeRepairedStatuses(repairedStatuses);
+    }
+
+    /**
+     * Stores the provided statuses, each of which is known to correspond to a stored task. The writes are independent
+     * of each other, so they are all issued before any of them are awaited.
+     */
+    private void storeRepairedStatuses(Collection<TaskStatus> statuses) throws StateStoreException {
+        Map<String, String> taskIdToName = new HashMap<>();
+        for (TaskInfo task : fetchTasks()) {
+            taskIdToName.put(task.getTaskId().getValue(), task.getName());
+        }
+
+        List<CompletableFuture<Void>> writeFutures = new ArrayList<>();
+        for (TaskStatus status : statuses) {
+            String taskName = taskIdToName.get(status.getTaskId().getValue());
+            if (taskName == null) {
+                throw new StateStoreException(Reason.NOT_FOUND, String.format(
+                        "Failed to find a task with TaskID: %s", status));
+            }
+            String path = taskPathMapper.getTaskStatusPath(taskName);
+            logger.info("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+            writeFutures.add(curator.setAsync(path, status.toByteArray()));
+        }
+        for (CompletableFuture<Void> writeFuture : writeFutures) {
+            try {
+                CuratorPersister.await(writeFuture);
+            } catch (Exception e) {
+                throw new StateStoreException(Reason.STORAGE_ERROR, e);
+            }
+        }
     }
 }
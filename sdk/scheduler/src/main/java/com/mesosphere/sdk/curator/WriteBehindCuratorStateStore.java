@@ -0,0 +1,188 @@
+package com.mesosphere.sdk.curator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import org.apache.curator.RetryPolicy;
+import org.apache.mesos.Protos.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CuratorStateStore} which coalesces TaskStatus writes. Rather than writing each status to ZK as it's
+ * received, statuses are queued for a short window and then written together in a single transaction. Only the latest
+ * queued status for each task is written.
+ * <p>
+ * Statuses are still validated before {@link #storeStatus(TaskStatus)} returns, and reads reflect queued statuses
+ * immediately. However, a status is only durable once the future returned by {@link #whenStatusesStored()} has
+ * completed: callers must wait for it before acknowledging the status to Mesos, so that Mesos will resend any status
+ * whose write was lost.
+ */
+public class WriteBehindCuratorStateStore extends CuratorStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCuratorStateStore.class);
+
+    private final long windowMs;
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("status-writer-%d").setDaemon(true).build());
+
+    /**
+     * Held while statuses are written, so that {@link #clearTask(String)} cannot be undone by a concurrent write of
+     * that task's status.
+     */
+    private final Object writeLock = new Object();
+
+    /** Guards the following fields. Never held across calls to ZK. */
+    private final Object queueLock = new Object();
+    private Map<String, TaskStatus> queuedStatuses = new LinkedHashMap<>();
+    private CompletableFuture<Void> queuedStatusesStored = new CompletableFuture<>();
+    private Map<String, TaskStatus> writingStatuses = Collections.emptyMap();
+    private CompletableFuture<Void> lastStatusesStored = CompletableFuture.completedFuture(null);
+
+    /**
+     * Creates a new {@link WriteBehindCuratorStateStore} which uses Curator with a default {@link RetryPolicy}.
+     *
+     * @param frameworkName    The name of the framework
+     * @param connectionString The host/port of the ZK server, eg "master.mesos:2181"
+     * @param windowMs         How long to queue statuses before writing them
+     */
+    public WriteBehindCuratorStateStore(String frameworkName, String connectionString, long windowMs) {
+        this(frameworkName, connectionString, CuratorUtils.getDefaultRetry(), windowMs);
+    }
+
+    public WriteBehindCuratorStateStore(
+            String frameworkName,
+            String connectionString,
+            RetryPolicy retryPolicy,
+            long windowMs) {
+        super(frameworkName, connectionString, retryPolicy);
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public void storeStatus(TaskStatus status) throws StateStoreException {
+        String taskName = getTaskNameForStatus(status);
+        logger.info("Queueing status '{}' for '{}'", status.getState(), taskName);
+        synchronized (queueLock) {
+            if (queuedStatuses.isEmpty()) {
+                flushExecutor.schedule(this::writeQueuedStatuses, windowMs, TimeUnit.MILLISECONDS);
+            }
+            queuedStatuses.put(taskName, status);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> whenStatusesStored() {
+        synchronized (queueLock) {
+            return queuedStatuses.isEmpty() ? lastStatusesStored : queuedStatusesStored;
+        }
+    }
+
+    @Override
+    public void clearTask(String taskName) throws StateStoreException {
+        synchronized (writeLock) {
+            synchronized (queueLock) {
+                // The task's data is about to be deleted, so there's no need to write its queued status.
+                queuedStatuses.remove(taskName);
+            }
+            super.clearTask(taskName);
+        }
+    }
+
+    @Override
+    public Collection<TaskStatus> fetchStatuses() throws StateStoreException {
+        Collection<String> taskNames = fetchTaskNames();
+        Map<String, TaskStatus> statuses = fetchStatuses(taskNames);
+        synchronized (queueLock) {
+            for (String taskName : taskNames) {
+                Optional<TaskStatus> unwrittenStatus = getUnwrittenStatus(taskName);
+                if (unwrittenStatus.isPresent()) {
+                    statuses.put(taskName, unwrittenStatus.get());
+                }
+            }
+        }
+        return statuses.values();
+    }
+
+    @Override
+    public Optional<TaskStatus> fetchStatus(String taskName) throws StateStoreException {
+        synchronized (queueLock) {
+            Optional<TaskStatus> unwrittenStatus = getUnwrittenStatus(taskName);
+            if (unwrittenStatus.isPresent()) {
+                return unwrittenStatus;
+            }
+        }
+        return super.fetchStatus(taskName);
+    }
+
+    /**
+     * Immediately writes any queued statuses, rather than waiting for the end of the current window.
+     */
+    @VisibleForTesting
+    void flush() {
+        writeQueuedStatuses();
+    }
+
+    @Override
+    public void closeForTesting() {
+        flushExecutor.shutdownNow();
+        super.closeForTesting();
+    }
+
+    /**
+     * Returns the queued or in-progress status for the provided task, if any. Must be called with the queue lock held.
+     */
+    private Optional<TaskStatus> getUnwrittenStatus(String taskName) {
+        TaskStatus status = queuedStatuses.get(taskName);
+        if (status == null) {
+            status = writingStatuses.get(taskName);
+        }
+        return Optional.ofNullable(status);
+    }
+
+    private void writeQueuedStatuses() {
+        synchronized (writeLock) {
+            Map<String, TaskStatus> statuses;
+            CompletableFuture<Void> statusesStored;
+            synchronized (queueLock) {
+                statuses = queuedStatuses;
+                writingStatuses = statuses;
+                statusesStored = queuedStatusesStored;
+                queuedStatuses = new LinkedHashMap<>();
+                queuedStatusesStored = new CompletableFuture<>();
+                lastStatusesStored = statusesStored;
+            }
+
+            if (statuses.isEmpty()) {
+                // All queued statuses were for tasks which have since been cleared.
+                statusesStored.complete(null);
+                return;
+            }
+
+            Map<String, byte[]> statusBytesMap = new HashMap<>();
+            for (Map.Entry<String, TaskStatus> entry : statuses.entrySet()) {
+                statusBytesMap.put(taskPathMapper.getTaskStatusPath(entry.getKey()), entry.getValue().toByteArray());
+            }
+            logger.info("Storing {} queued statuses", statusBytesMap.size());
+            try {
+                curator.setMany(statusBytesMap);
+                statusesStored.complete(null);
+            } catch (Exception e) {
+                logger.error(String.format("Failed to store %d queued statuses", statusBytesMap.size()), e);
+                statusesStored.completeExceptionally(new StateStoreException(Reason.STORAGE_ERROR, String.format(
+                        "Failed to store %d queued statuses", statusBytesMap.size()), e));
+            } finally {
+                synchronized (queueLock) {
+                    writingStatuses = Collections.emptyMap();
+                }
+            }
+        }
+    }
+}
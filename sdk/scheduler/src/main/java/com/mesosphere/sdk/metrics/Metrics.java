@@ -0,0 +1,120 @@
+package com.mesosphere.sdk.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The scheduler's metrics registry. Metrics are recorded by the scheduler's offer handling and storage layers and are
+ * exposed via {@link com.mesosphere.sdk.api.MetricsResource}.
+ */
+public class Metrics {
+
+    /** Duration of each offer cycle, from receiving a set of offers through declining any which were unused. */
+    public static final String OFFER_CYCLE = "offers.cycle";
+    /** Duration of the plan coordinator's processing of a set of offers. */
+    public static final String OFFERS_PROCESS = "offers.process";
+    /** Duration of the evaluation of a set of offers against a single requirement. */
+    public static final String OFFERS_EVALUATE = "offers.evaluate";
+    /** Duration of each accept call, including recording the operations to be performed. */
+    public static final String OFFERS_ACCEPT = "offers.accept";
+
+    public static final String OFFERS_RECEIVED = "offers.received";
+    public static final String OFFERS_ACCEPTED = "offers.accepted";
+    public static final String OFFERS_DECLINED = "offers.declined";
+    /** Unused offers which were held at the end of an offer cycle, rather than being declined. */
+    public static final String OFFERS_HELD = "offers.held";
+    public static final String OFFERS_RESCINDED = "offers.rescinded";
+
+    /** Offers which passed the scalar demand pre-filter and were run through the evaluation pipeline. */
+    public static final String OFFERS_PREFILTER_ADMITTED = "offers.prefilter.admitted";
+
+    /** Status updates which were merged into an update for the same task that was already waiting to be processed. */
+    public static final String STATUSES_COALESCED = "statuses.coalesced";
+
+    private static final String EVALUATION_STAGE_PREFIX = "offers.evaluate.stage.";
+    private static final String PREFILTER_REJECTED_PREFIX = "offers.prefilter.rejected.";
+    private static final String PERSISTER_PREFIX = "persister.";
+    private static final String EVENTS_PREFIX = "events.";
+
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    /**
+     * Stage timers are looked up for every stage of every evaluated offer, so they're cached by class to avoid
+     * building their names each time.
+     */
+    private static final Map<Class<?>, Timer> STAGE_TIMERS = new ConcurrentHashMap<>();
+
+    /**
+     * Rejection counters are looked up for every rejected offer, so they're cached by resource name.
+     */
+    private static final Map<String, Counter> PREFILTER_REJECTION_COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Queue depths go up and down, so they're registered as gauges reading these values rather than as counters.
+     */
+    private static final Map<String, AtomicLong> EVENT_QUEUE_DEPTHS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+        // do not instantiate
+    }
+
+    public static MetricRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    public static Timer getTimer(String name) {
+        return REGISTRY.timer(name);
+    }
+
+    public static Counter getCounter(String name) {
+        return REGISTRY.counter(name);
+    }
+
+    /**
+     * Returns the timer for evaluations by the provided {@code OfferEvaluationStage} class.
+     */
+    public static Timer getEvaluationStageTimer(Class<?> stageClass) {
+        return STAGE_TIMERS.computeIfAbsent(
+                stageClass, c -> REGISTRY.timer(EVALUATION_STAGE_PREFIX + c.getSimpleName()));
+    }
+
+    /**
+     * Returns the counter of offers which were rejected before evaluation for lacking the named resource, e.g. "mem".
+     */
+    public static Counter getPrefilterRejectionCounter(String resourceName) {
+        return PREFILTER_REJECTION_COUNTERS.computeIfAbsent(
+                resourceName, n -> REGISTRY.counter(PREFILTER_REJECTED_PREFIX + n));
+    }
+
+    /**
+     * Returns the timer for persister operations of the provided type, e.g. "get" or "set".
+     */
+    public static Timer getPersisterTimer(String operation) {
+        return REGISTRY.timer(PERSISTER_PREFIX + operation);
+    }
+
+    /**
+     * Returns the number of scheduler events of the provided type, e.g. "status", which are waiting to be processed.
+     * The value is exported as a gauge, and is to be incremented and decremented by the caller.
+     */
+    public static AtomicLong getEventQueueDepth(String eventType) {
+        return EVENT_QUEUE_DEPTHS.computeIfAbsent(eventType, t -> {
+            AtomicLong depth = new AtomicLong();
+            REGISTRY.register(EVENTS_PREFIX + t + ".queued", (Gauge<Long>) depth::get);
+            return depth;
+        });
+    }
+
+    /**
+     * Returns the timer for how long scheduler events of the provided type wait between being received and processed.
+     */
+    public static Timer getEventDwellTimer(String eventType) {
+        return REGISTRY.timer(EVENTS_PREFIX + eventType + ".dwell");
+    }
+}
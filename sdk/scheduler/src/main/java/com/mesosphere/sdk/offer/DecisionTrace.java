@@ -0,0 +1,164 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.scheduler.SchedulerUtils;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, in-memory record of the scheduler's recent offer decisions: the offers received in each offer cycle, the
+ * outcome of evaluating them, and the operations which were performed as a result.
+ * <p>
+ * Each entry has a short summary, and details which are only rendered when they're needed, so that offers and
+ * evaluation outcomes aren't formatted for every cycle. Details are logged at INFO for one in every N offer cycles as
+ * configured via {@link SchedulerUtils#decisionTraceSampleInterval()}, and at DEBUG otherwise. The most recent
+ * {@link #CAPACITY} entries are kept regardless of sampling, and may be retrieved via {@link #getEntries()}, e.g. by
+ * the {@code /v1/debug/offers} endpoint.
+ */
+public class DecisionTrace {
+
+    /**
+     * The maximum number of entries which are kept. Older entries are discarded as new ones are recorded.
+     */
+    public static final int CAPACITY = 1000;
+
+    private static final DecisionTrace INSTANCE =
+            new DecisionTrace(CAPACITY, SchedulerUtils.decisionTraceSampleInterval());
+
+    /**
+     * The kinds of decisions which are recorded.
+     */
+    public enum Type {
+        /** An offer received in an offer cycle. Its details are the full offer. */
+        OFFER(false),
+        /** The outcome of evaluating an offer against a requirement. Its details are the tree of stage outcomes. */
+        EVALUATION(false),
+        /** The operations performed against accepted offers. Its details are the full operations. */
+        OPERATIONS(true);
+
+        private final boolean alwaysLogSummary;
+
+        Type(boolean alwaysLogSummary) {
+            this.alwaysLogSummary = alwaysLogSummary;
+        }
+    }
+
+    /**
+     * A single recorded decision.
+     */
+    public static class Entry {
+        private final long cycle;
+        private final long timestampMs;
+        private final Type type;
+        private final String summary;
+        private Supplier<String> detailsSupplier;
+        private String details;
+
+        private Entry(long cycle, long timestampMs, Type type, String summary, Supplier<String> detailsSupplier) {
+            this.cycle = cycle;
+            this.timestampMs = timestampMs;
+            this.type = type;
+            this.summary = summary;
+            this.detailsSupplier = detailsSupplier;
+        }
+
+        /**
+         * Returns the offer cycle in which the decision was made.
+         */
+        public long getCycle() {
+            return cycle;
+        }
+
+        public long getTimestampMs() {
+            return timestampMs;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        /**
+         * Returns the details of the decision, rendering them on first access.
+         */
+        public synchronized String getDetails() {
+            if (details == null) {
+                details = detailsSupplier.get();
+                // Release whatever the supplier references, e.g. the full offer.
+                detailsSupplier = null;
+            }
+            return details;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int sampleInterval;
+    /** The index in {@link #entries} which the next entry is written to. */
+    private int nextIndex = 0;
+    private long nextCycle = 0;
+    private volatile long currentCycle = 0;
+
+    /**
+     * Returns the scheduler's trace.
+     */
+    public static DecisionTrace get() {
+        return INSTANCE;
+    }
+
+    DecisionTrace(int capacity, int sampleInterval) {
+        this.entries = new Entry[capacity];
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Starts a new offer cycle, to which subsequently recorded entries belong, and returns its number.
+     */
+    public synchronized long startCycle() {
+        currentCycle = nextCycle++;
+        return currentCycle;
+    }
+
+    /**
+     * Records a decision in the current offer cycle, and logs it to the provided logger. If the cycle is sampled and
+     * INFO is enabled, the summary and details are logged at INFO. Otherwise, the details are only logged (and
+     * rendered) if DEBUG is enabled, while the summary is logged at INFO only for types which always log their summary.
+     *
+     * @param summary a short description of the decision, which should be cheap to produce
+     * @param details renders the full details of the decision, if they're needed
+     */
+    public void record(Logger logger, Type type, String summary, Supplier<String> details) {
+        long cycle = currentCycle;
+        Entry entry = new Entry(cycle, System.currentTimeMillis(), type, summary, details);
+        synchronized (this) {
+            entries[nextIndex] = entry;
+            nextIndex = (nextIndex + 1) % entries.length;
+        }
+
+        if (cycle % sampleInterval == 0 && logger.isInfoEnabled()) {
+            logger.info("{}: {}", summary, entry.getDetails());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{}: {}", summary, entry.getDetails());
+        } else if (type.alwaysLogSummary) {
+            logger.info(summary);
+        }
+    }
+
+    /**
+     * Returns the recorded entries, oldest first.
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> result = new ArrayList<>(entries.length);
+        for (int i = 0; i < entries.length; ++i) {
+            Entry entry = entries[(nextIndex + i) % entries.length];
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+}
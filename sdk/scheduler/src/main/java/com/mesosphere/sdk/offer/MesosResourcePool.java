@@ -17,12 +17,23 @@ import java.util.*;
  */
 public class MesosResourcePool {
     private static final Logger logger = LoggerFactory.getLogger(MesosResourcePool.class);
+    /** Enough for the usual cpus, mem, disk, and gpus without growing. */
+    private static final int INITIAL_NAME_CAPACITY = 4;
 
     private Offer offer;
     private Map<String, List<MesosResource>> unreservedAtomicPool;
-    private Map<String, Value> unreservedMergedPool;
     private Map<String, MesosResource> reservedPool;
 
+    // Unreserved mergeable resources are tracked in primitive form, and only converted to protobufs when requested, so
+    // that consuming and releasing them doesn't allocate. Offers only have a handful of distinct resource names, so
+    // they're looked up with a linear scan rather than hashing.
+    private String[] scalarNames;
+    private double[] scalarValues;
+    private int scalarCount;
+    private String[] rangesNames;
+    private RangeSet[] rangesValues;
+    private int rangesCount;
+
     /**
      * Creates a new pool of resources based on what's available in the provided {@link Offer}.
      */
@@ -32,10 +43,25 @@ public class MesosResourcePool {
 
     private void init(Offer offer) {
         this.offer = offer;
-        final Collection<MesosResource> mesosResources = getMesosResources(offer);
-        this.unreservedAtomicPool = getUnreservedAtomicPool(mesosResources);
-        this.unreservedMergedPool = getUnreservedMergedPool(mesosResources);
-        this.reservedPool = getReservedPool(mesosResources);
+        this.unreservedAtomicPool = new HashMap<>();
+        this.reservedPool = new HashMap<>();
+        this.scalarNames = new String[INITIAL_NAME_CAPACITY];
+        this.scalarValues = new double[INITIAL_NAME_CAPACITY];
+        this.scalarCount = 0;
+        this.rangesNames = new String[INITIAL_NAME_CAPACITY];
+        this.rangesValues = new RangeSet[INITIAL_NAME_CAPACITY];
+        this.rangesCount = 0;
+
+        for (Resource resource : offer.getResourcesList()) {
+            MesosResource mesosResource = new MesosResource(resource);
+            if (mesosResource.hasResourceId()) {
+                reservedPool.put(mesosResource.getResourceId(), mesosResource);
+            } else if (mesosResource.isAtomic()) {
+                getAtomicResources(mesosResource.getName()).add(mesosResource);
+            } else {
+                addMerged(resource);
+            }
+        }
     }
 
     /**
@@ -56,9 +82,44 @@ public class MesosResourcePool {
     /**
      * Returns the unreserved resources of which a subset can be consumed from an Offer. For
      * example, an offer may contain 4.0 CPUs and 2.4 of those CPUs can be reserved.
+     * <p>
+     * The returned map is a snapshot which is built on each call. Use {@link #getUnreservedMergedValue(String)} to
+     * retrieve a single resource.
      */
     public Map<String, Value> getUnreservedMergedPool() {
-        return unreservedMergedPool;
+        Map<String, Value> pool = new HashMap<>();
+        for (int i = 0; i < scalarCount; ++i) {
+            pool.put(scalarNames[i], getScalarValue(scalarValues[i]));
+        }
+        for (int i = 0; i < rangesCount; ++i) {
+            pool.put(rangesNames[i], getRangesValue(rangesValues[i]));
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the available quantity of the named unreserved resource of which a subset can be consumed, or an empty
+     * {@link Optional} if the offer lacks any such resource.
+     */
+    public Optional<Value> getUnreservedMergedValue(String name) {
+        int index = indexOf(scalarNames, scalarCount, name);
+        if (index >= 0) {
+            return Optional.of(getScalarValue(scalarValues[index]));
+        }
+        index = indexOf(rangesNames, rangesCount, name);
+        if (index >= 0) {
+            return Optional.of(getRangesValue(rangesValues[index]));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the lowest available value of the named unreserved ranges resource which isn't in {@code excluded}, e.g.
+     * a port which may be claimed dynamically, or an empty {@link OptionalLong} if there is none.
+     */
+    public OptionalLong getFirstUnreservedRangesValue(String name, RangeSet excluded) {
+        int index = indexOf(rangesNames, rangesCount, name);
+        return index >= 0 ? rangesValues[index].firstValueNotIn(excluded) : OptionalLong.empty();
     }
 
     /**
@@ -110,20 +171,74 @@ public class MesosResourcePool {
             releaseAtomicResource(mesosResource);
             return;
         } else {
-            releaseMergedResource(mesosResource);
+            addMerged(mesosResource.getResource());
             return;
         }
     }
 
-    private void releaseMergedResource(MesosResource mesosResource) {
-        Value currValue = unreservedMergedPool.get(mesosResource.getName());
+    private void addMerged(Resource resource) {
+        switch (resource.getType()) {
+            case SCALAR: {
+                int index = indexOf(scalarNames, scalarCount, resource.getName());
+                if (index < 0) {
+                    index = appendScalar(resource.getName());
+                }
+                scalarValues[index] += resource.getScalar().getValue();
+                break;
+            }
+            case RANGES: {
+                int index = indexOf(rangesNames, rangesCount, resource.getName());
+                if (index < 0) {
+                    appendRanges(resource.getName(), new RangeSet(resource.getRanges().getRangeList()));
+                } else {
+                    rangesValues[index].addAll(resource.getRanges().getRangeList());
+                }
+                break;
+            }
+            default:
+                // Sets can't be merged or partially consumed.
+                logger.warn("Ignoring unreserved {} resource of unsupported type {}",
+                        resource.getName(), resource.getType());
+                break;
+        }
+    }
 
-        if (currValue == null) {
-            currValue = ValueUtils.getZero(mesosResource.getType());
+    private int appendScalar(String name) {
+        if (scalarCount == scalarNames.length) {
+            scalarNames = Arrays.copyOf(scalarNames, scalarCount * 2 + 1);
+            scalarValues = Arrays.copyOf(scalarValues, scalarCount * 2 + 1);
         }
+        scalarNames[scalarCount] = name;
+        scalarValues[scalarCount] = 0;
+        return scalarCount++;
+    }
 
-        Value updatedValue = ValueUtils.add(currValue, mesosResource.getValue());
-        unreservedMergedPool.put(mesosResource.getName(), updatedValue);
+    private void appendRanges(String name, RangeSet rangeSet) {
+        if (rangesCount == rangesNames.length) {
+            rangesNames = Arrays.copyOf(rangesNames, rangesCount * 2 + 1);
+            rangesValues = Arrays.copyOf(rangesValues, rangesCount * 2 + 1);
+        }
+        rangesNames[rangesCount] = name;
+        rangesValues[rangesCount] = rangeSet;
+        ++rangesCount;
+    }
+
+    private static int indexOf(String[] names, int count, String name) {
+        for (int i = 0; i < count; ++i) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<MesosResource> getAtomicResources(String name) {
+        List<MesosResource> resList = unreservedAtomicPool.get(name);
+        if (resList == null) {
+            resList = new ArrayList<>();
+            unreservedAtomicPool.put(name, resList);
+        }
+        return resList;
     }
 
     private void releaseAtomicResource(MesosResource mesosResource) {
@@ -139,14 +254,7 @@ public class MesosResourcePool {
         }
 
         Resource releasedResource = resBuilder.build();
-
-        List<MesosResource> resList = unreservedAtomicPool.get(mesosResource.getName());
-        if (resList == null) {
-            resList = new ArrayList<MesosResource>();
-        }
-
-        resList.add(new MesosResource(releasedResource));
-        unreservedAtomicPool.put(mesosResource.getName(), resList);
+        getAtomicResources(mesosResource.getName()).add(new MesosResource(releasedResource));
     }
 
     private Optional<MesosResource> consumeReserved(ResourceRequirement resourceRequirement) {
@@ -225,24 +333,59 @@ public class MesosResourcePool {
     }
 
     private Optional<MesosResource> consumeUnreservedMerged(ResourceRequirement resourceRequirement) {
-        Value desiredValue = resourceRequirement.getValue();
-        Value availableValue = unreservedMergedPool.get(resourceRequirement.getName());
-
-        if (sufficientValue(desiredValue, availableValue)) {
-            unreservedMergedPool.put(resourceRequirement.getName(), ValueUtils.subtract(availableValue, desiredValue));
-            Resource resource = ResourceUtils.getUnreservedResource(resourceRequirement.getName(), desiredValue);
-            return Optional.of(new MesosResource(resource));
-        } else {
-            if (availableValue == null) {
-                logger.info("Offer lacks any resources named {}", resourceRequirement.getName());
-            } else {
-                logger.info("Offered quantity of {} is insufficient: desired {}, offered {}",
-                        resourceRequirement.getName(),
-                        TextFormat.shortDebugString(desiredValue),
-                        TextFormat.shortDebugString(availableValue));
+        Resource desiredResource = resourceRequirement.getResource();
+        String name = resourceRequirement.getName();
+        switch (desiredResource.getType()) {
+            case SCALAR: {
+                int index = indexOf(scalarNames, scalarCount, name);
+                if (index < 0) {
+                    logger.info("Offer lacks any resources named {}", name);
+                    return Optional.empty();
+                }
+                double desired = desiredResource.getScalar().getValue();
+                if (desired > scalarValues[index]) {
+                    logger.info("Offered quantity of {} is insufficient: desired {}, offered {}",
+                            name, desired, scalarValues[index]);
+                    return Optional.empty();
+                }
+                scalarValues[index] -= desired;
+                break;
             }
-            return Optional.empty();
+            case RANGES: {
+                int index = indexOf(rangesNames, rangesCount, name);
+                if (index < 0) {
+                    logger.info("Offer lacks any resources named {}", name);
+                    return Optional.empty();
+                }
+                List<Value.Range> desired = desiredResource.getRanges().getRangeList();
+                if (!rangesValues[index].containsAll(desired)) {
+                    logger.info("Offered quantity of {} is insufficient: desired {}, offered {}",
+                            name, TextFormat.shortDebugString(desiredResource.getRanges()), rangesValues[index]);
+                    return Optional.empty();
+                }
+                rangesValues[index].subtractAll(desired);
+                break;
+            }
+            default:
+                logger.info("Offer lacks any resources named {} of type {}", name, desiredResource.getType());
+                return Optional.empty();
         }
+        return Optional.of(new MesosResource(
+                ResourceUtils.getUnreservedResource(name, resourceRequirement.getValue())));
+    }
+
+    private static Value getScalarValue(double value) {
+        return Value.newBuilder()
+                .setType(Value.Type.SCALAR)
+                .setScalar(Value.Scalar.newBuilder().setValue(value))
+                .build();
+    }
+
+    private static Value getRangesValue(RangeSet rangeSet) {
+        return Value.newBuilder()
+                .setType(Value.Type.RANGES)
+                .setRanges(RangeAlgorithms.fromRangeList(rangeSet.toRanges()))
+                .build();
     }
 
     private static boolean sufficientValue(Value desired, Value available) {
@@ -255,113 +398,4 @@ public class MesosResourcePool {
         Value difference = ValueUtils.subtract(desired, available);
         return ValueUtils.compare(difference, ValueUtils.getZero(desired.getType())) <= 0;
     }
-
-    private static Collection<MesosResource> getMesosResources(Offer offer) {
-        Collection<MesosResource> mesosResources = new ArrayList<MesosResource>();
-
-        for (Resource resource : offer.getResourcesList()) {
-            mesosResources.add(new MesosResource(resource));
-        }
-
-        return mesosResources;
-    }
-
-    private static Map<String, MesosResource> getReservedPool(
-            Collection<MesosResource> mesosResources) {
-        Map<String, MesosResource> reservedPool = new HashMap<String, MesosResource>();
-
-        for (MesosResource mesResource : mesosResources) {
-            if (mesResource.hasResourceId()) {
-                reservedPool.put(mesResource.getResourceId(), mesResource);
-            }
-        }
-
-        return reservedPool;
-    }
-
-    private static Map<String, List<MesosResource>> getUnreservedAtomicPool(
-            Collection<MesosResource> mesosResources) {
-        Map<String, List<MesosResource>> pool = new HashMap<String, List<MesosResource>>();
-
-        for (MesosResource mesosResource : getUnreservedAtomicResources(mesosResources)) {
-            String name = mesosResource.getName();
-            List<MesosResource> resList = pool.get(name);
-
-            if (resList == null) {
-                resList = new ArrayList<MesosResource>();
-            }
-
-            resList.add(mesosResource);
-            pool.put(name, resList);
-        }
-
-        return pool;
-    }
-
-    private static Map<String, Value> getUnreservedMergedPool(
-            Collection<MesosResource> mesosResources) {
-        Map<String, Value> pool = new HashMap<String, Value>();
-
-        for (MesosResource mesosResource : getUnreservedMergedResources(mesosResources)) {
-            String name = mesosResource.getName();
-            Value currValue = pool.get(name);
-
-            if (currValue == null) {
-                currValue = ValueUtils.getZero(mesosResource.getType());
-            }
-
-            pool.put(name, ValueUtils.add(currValue, mesosResource.getValue()));
-        }
-
-        return pool;
-    }
-
-    private static Collection<MesosResource> getUnreservedAtomicResources(
-            Collection<MesosResource> mesosResources) {
-        return getUnreservedResources(getAtomicResources(mesosResources));
-    }
-
-    private static Collection<MesosResource> getUnreservedMergedResources(
-            Collection<MesosResource> mesosResources) {
-        return getUnreservedResources(getMergedResources(mesosResources));
-    }
-
-    private static Collection<MesosResource> getUnreservedResources(
-            Collection<MesosResource> mesosResources) {
-        Collection<MesosResource> unreservedResources = new ArrayList<MesosResource>();
-
-        for (MesosResource mesosResource : mesosResources) {
-            if (!mesosResource.hasResourceId()) {
-                unreservedResources.add(mesosResource);
-            }
-        }
-
-        return unreservedResources;
-    }
-
-    private static Collection<MesosResource> getAtomicResources(
-            Collection<MesosResource> mesosResources) {
-        Collection<MesosResource> atomicResources = new ArrayList<>();
-
-        for (MesosResource mesosResource : mesosResources) {
-            if (mesosResource.isAtomic()) {
-                atomicResources.add(mesosResource);
-            }
-        }
-
-        return atomicResources;
-    }
-
-    private static Collection<MesosResource> getMergedResources(
-            Collection<MesosResource> mesosResources) {
-        Collection<MesosResource> mergedResources = new ArrayList<>();
-
-        for (MesosResource mesosResource : mesosResources) {
-            if (!mesosResource.isAtomic()) {
-                mergedResources.add(mesosResource);
-            }
-        }
-
-        return mergedResources;
-    }
 }
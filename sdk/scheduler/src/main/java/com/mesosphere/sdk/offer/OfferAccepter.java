@@ -1,7 +1,9 @@
 package com.mesosphere.sdk.offer;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import com.google.protobuf.TextFormat;
+import com.mesosphere.sdk.metrics.Metrics;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos.Filters;
@@ -17,6 +19,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * The OfferAccepter extracts the Mesos Operations encapsulated by the OfferRecommendation and accepts Offers with those
@@ -25,26 +28,49 @@ import java.util.Set;
 public class OfferAccepter {
     private static final Logger logger = LoggerFactory.getLogger(OfferAccepter.class);
 
+    private static final Filters DEFAULT_FILTERS = Filters.newBuilder().setRefuseSeconds(1).build();
+
     private Collection<OperationRecorder> recorders;
+    private final Supplier<Filters> filtersSupplier;
 
     public OfferAccepter(OperationRecorder recorder) {
         this(Arrays.asList(recorder));
     }
 
     public OfferAccepter(List<OperationRecorder> recorders) {
+        this(recorders, () -> DEFAULT_FILTERS);
+    }
+
+    /**
+     * Creates a new instance which accepts offers with the filters returned by {@code filtersSupplier} at the time of
+     * each accept, e.g. to reflect whether the remainder of the offers is likely to be needed soon.
+     */
+    public OfferAccepter(List<OperationRecorder> recorders, Supplier<Filters> filtersSupplier) {
         this.recorders = recorders;
+        this.filtersSupplier = filtersSupplier;
     }
 
     @Inject
     public OfferAccepter(Set<OperationRecorder> recorders) {
         this.recorders = recorders;
+        this.filtersSupplier = () -> DEFAULT_FILTERS;
     }
 
     public List<OfferID> accept(SchedulerDriver driver, List<OfferRecommendation> recommendations) {
-        return accept(driver, recommendations, getFilters());
+        return accept(driver, recommendations, filtersSupplier.get());
     }
 
     public List<OfferID> accept(SchedulerDriver driver, List<OfferRecommendation> recommendations, Filters filters) {
+        Timer.Context timerContext = Metrics.getTimer(Metrics.OFFERS_ACCEPT).time();
+        try {
+            return acceptRecommendations(driver, recommendations, filters);
+        } finally {
+            timerContext.stop();
+        }
+    }
+
+    private List<OfferID> acceptRecommendations(
+            SchedulerDriver driver, List<OfferRecommendation> recommendations, Filters filters) {
         if (CollectionUtils.isEmpty(recommendations)) {
             logger.warn("No recommendations, nothing to do");
             return new ArrayList<>();
@@ -106,13 +132,14 @@ public class OfferAccepter {
     }
 
     private static void logOperations(List<Operation> operations) {
-        logger.info("Performing {} operations:", operations.size());
-        for (Operation op : operations) {
-            logger.info("  {}", TextFormat.shortDebugString(op));
-        }
-    }
-
-    private static Filters getFilters() {
-        return Filters.newBuilder().setRefuseSeconds(1).build();
+        DecisionTrace.get().record(logger, DecisionTrace.Type.OPERATIONS,
+                "Performing " + operations.size() + " operations",
+                () -> {
+                    StringBuilder stringBuilder = new StringBuilder();
+                    for (Operation op : operations) {
+                        stringBuilder.append(String.format("%n  %s", TextFormat.shortDebugString(op)));
+                    }
+                    return stringBuilder.toString();
+                });
     }
 }
@@ -0,0 +1,221 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.apache.mesos.SchedulerDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * An OfferBatch accumulates {@link OfferRecommendation}s for several pods against a single set of offers within one
+ * offer cycle, and then accepts each used offer exactly once with all of its operations combined.
+ *
+ * After recommendations are added against an offer, the offer returned by {@link #getRemainingOffers()} is reduced by
+ * the resources which those recommendations reserve or consume, so that later pods may be packed into whatever
+ * resources remain in the same offer.
+ */
+public class OfferBatch {
+    private static final Logger logger = LoggerFactory.getLogger(OfferBatch.class);
+
+    private final Map<OfferID, Offer> remainingOffers = new LinkedHashMap<>();
+    private final Map<OfferID, List<OfferRecommendation>> offerRecommendations = new LinkedHashMap<>();
+    private final Map<String, TaskInfo> launchingTasks = new HashMap<>();
+
+    public OfferBatch(List<Offer> offers) {
+        for (Offer offer : offers) {
+            remainingOffers.put(offer.getId(), offer);
+        }
+    }
+
+    /**
+     * Returns the offers in their original order, each reduced by any resources already claimed in this batch.
+     */
+    public List<Offer> getRemainingOffers() {
+        return new ArrayList<>(remainingOffers.values());
+    }
+
+    /**
+     * Returns the tasks which will be launched when this batch is accepted. These are not yet present in the
+     * {@link com.mesosphere.sdk.state.StateStore}, but should be considered by placement rules for later pods.
+     */
+    public Collection<TaskInfo> getLaunchingTasks() {
+        return launchingTasks.values();
+    }
+
+    /**
+     * Adds the provided recommendations, which must all have been made against the same offer, to this batch.
+     *
+     * @throws IllegalArgumentException if the recommendations span multiple offers, or reference an unknown offer
+     */
+    public void add(Collection<OfferRecommendation> recommendations) {
+        if (recommendations.isEmpty()) {
+            return;
+        }
+
+        OfferID offerId = recommendations.iterator().next().getOffer().getId();
+        Offer offer = remainingOffers.get(offerId);
+        if (offer == null) {
+            throw new IllegalArgumentException(String.format("Unknown offer: %s", offerId.getValue()));
+        }
+        for (OfferRecommendation recommendation : recommendations) {
+            if (!recommendation.getOffer().getId().equals(offerId)) {
+                throw new IllegalArgumentException(String.format(
+                        "Recommendations span multiple offers: %s and %s",
+                        offerId.getValue(), recommendation.getOffer().getId().getValue()));
+            }
+            if (recommendation instanceof LaunchOfferRecommendation) {
+                TaskInfo taskInfo = ((LaunchOfferRecommendation) recommendation).getTaskInfo();
+                launchingTasks.put(taskInfo.getName(), taskInfo);
+            }
+        }
+
+        offerRecommendations.computeIfAbsent(offerId, id -> new ArrayList<>()).addAll(recommendations);
+        remainingOffers.put(offerId, getRemainingOffer(offer, recommendations));
+    }
+
+    /**
+     * Accepts each offer which has recommendations in this batch, with a single accept call per offer.
+     *
+     * @return the IDs of the offers which were successfully accepted
+     */
+    public Set<OfferID> accept(SchedulerDriver driver, OfferAccepter offerAccepter) {
+        Set<OfferID> acceptedOfferIds = new HashSet<>();
+        for (Map.Entry<OfferID, List<OfferRecommendation>> entry : offerRecommendations.entrySet()) {
+            logger.info("Accepting offer {} with {} combined recommendations",
+                    entry.getKey().getValue(), entry.getValue().size());
+            acceptedOfferIds.addAll(offerAccepter.accept(driver, entry.getValue()));
+        }
+        return acceptedOfferIds;
+    }
+
+    /**
+     * Returns a copy of the provided offer, minus the resources which the provided recommendations will reserve or
+     * consume once they are performed.
+     */
+    static Offer getRemainingOffer(Offer offer, Collection<OfferRecommendation> recommendations) {
+        // Reserved resources (by resource ID) which are consumed by launched tasks or explicitly unreserved:
+        Set<String> consumedResourceIds = new HashSet<>();
+        // Unreserved resources which are claimed by RESERVE operations:
+        List<Resource> reservedResources = new ArrayList<>();
+
+        for (OfferRecommendation recommendation : recommendations) {
+            if (recommendation instanceof LaunchOfferRecommendation) {
+                TaskInfo taskInfo = ((LaunchOfferRecommendation) recommendation).getTaskInfo();
+                addResourceIds(consumedResourceIds, taskInfo.getResourcesList());
+                addResourceIds(consumedResourceIds, taskInfo.getExecutor().getResourcesList());
+            } else if (recommendation instanceof UnreserveOfferRecommendation) {
+                addResourceIds(
+                        consumedResourceIds, recommendation.getOperation().getUnreserve().getResourcesList());
+            } else if (recommendation instanceof ReserveOfferRecommendation) {
+                reservedResources.addAll(recommendation.getOperation().getReserve().getResourcesList());
+            }
+        }
+
+        List<Resource> remainingResources = new ArrayList<>();
+        for (Resource resource : offer.getResourcesList()) {
+            String resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId == null || !consumedResourceIds.contains(resourceId)) {
+                remainingResources.add(resource);
+            }
+        }
+
+        for (Resource reservedResource : reservedResources) {
+            if (new MesosResource(reservedResource).isAtomic()) {
+                removeAtomicResource(remainingResources, reservedResource);
+            } else {
+                subtractMergedResource(remainingResources, reservedResource);
+            }
+        }
+
+        return offer.toBuilder().clearResources().addAllResources(remainingResources).build();
+    }
+
+    private static void addResourceIds(Set<String> resourceIds, Collection<Resource> resources) {
+        for (Resource resource : resources) {
+            String resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId != null) {
+                resourceIds.add(resourceId);
+            }
+        }
+    }
+
+    /**
+     * Removes the unreserved atomic resource (e.g. a MOUNT volume) which was reserved in its entirety.
+     */
+    private static void removeAtomicResource(List<Resource> resources, Resource reservedResource) {
+        for (Iterator<Resource> iter = resources.iterator(); iter.hasNext();) {
+            Resource resource = iter.next();
+            if (ResourceUtils.getResourceId(resource) == null
+                    && resource.getName().equals(reservedResource.getName())
+                    && resource.getDisk().getSource().equals(reservedResource.getDisk().getSource())) {
+                iter.remove();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Subtracts the reserved quantity from the unreserved resources of the same name, spreading the subtraction
+     * across multiple resources if needed. Resources which are fully consumed are removed.
+     */
+    private static void subtractMergedResource(List<Resource> resources, Resource reservedResource) {
+        Value remainder = ValueUtils.getValue(reservedResource);
+        for (ListIterator<Resource> iter = resources.listIterator(); iter.hasNext() && !isEmpty(remainder);) {
+            Resource resource = iter.next();
+            if (ResourceUtils.getResourceId(resource) != null
+                    || !resource.getName().equals(reservedResource.getName())
+                    || resource.getType() != reservedResource.getType()
+                    || new MesosResource(resource).isAtomic()) {
+                continue;
+            }
+
+            Value available = ValueUtils.getValue(resource);
+            switch (resource.getType()) {
+                case SCALAR: {
+                    double taken = Math.min(available.getScalar().getValue(), remainder.getScalar().getValue());
+                    remainder = scalar(remainder.getScalar().getValue() - taken);
+                    available = scalar(available.getScalar().getValue() - taken);
+                    break;
+                }
+                case RANGES: {
+                    Value left = ValueUtils.subtract(available, remainder);
+                    // Whatever was present in this resource is no longer needed from the other resources:
+                    remainder = ValueUtils.subtract(remainder, ValueUtils.subtract(available, left));
+                    available = left;
+                    break;
+                }
+                default:
+                    continue;
+            }
+
+            if (isEmpty(available)) {
+                iter.remove();
+            } else {
+                iter.set(ResourceUtils.setValue(resource, available));
+            }
+        }
+    }
+
+    private static Value scalar(double value) {
+        return Value.newBuilder()
+                .setType(Value.Type.SCALAR)
+                .setScalar(Value.Scalar.newBuilder().setValue(value))
+                .build();
+    }
+
+    private static boolean isEmpty(Value value) {
+        switch (value.getType()) {
+            case SCALAR:
+                return value.getScalar().getValue() <= 0;
+            case RANGES:
+                return value.getRanges().getRangeCount() == 0;
+            default:
+                return true;
+        }
+    }
+}
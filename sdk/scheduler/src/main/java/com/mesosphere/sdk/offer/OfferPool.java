@@ -0,0 +1,183 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Holds offers which weren't used in an offer cycle, so that they may be reused in a later cycle rather than being
+ * declined back to Mesos and re-offered. This avoids a round trip through the Mesos allocator for each cycle while a
+ * plan still has pending work, e.g. while waiting for a previously launched task to start before launching the next.
+ * <p>
+ * Held offers are taken from the pool at the start of each offer cycle via {@link #takeOffers()}, and any which remain
+ * unused at the end of the cycle are returned to the pool via {@link #hold(Collection)}. Each offer is held for at most
+ * the configured duration from when it was first held. Offers which Mesos rescinds are dropped from the pool via
+ * {@link #rescind(OfferID)}, including those which are taken, or which were passed to {@link #receive(Collection)}
+ * and are waiting for their offer cycle to finish, when the rescind arrives. All methods are thread-safe.
+ */
+public class OfferPool {
+
+    private final Duration holdDuration;
+    /** Offer ID => held offer, in the order that the offers were received. */
+    private final Map<OfferID, HeldOffer> heldOffers = new LinkedHashMap<>();
+    /** Offer ID => held offer, for offers which have been taken for an offer cycle that hasn't finished yet. */
+    private final Map<OfferID, HeldOffer> takenOffers = new HashMap<>();
+    /** Offers which were received from Mesos for an offer cycle that hasn't finished yet. */
+    private final Set<OfferID> receivedOfferIds = new HashSet<>();
+    /**
+     * Offers which were rescinded while taken or received, and which mustn't be held at the end of their cycle. Each
+     * entry is cleared when its offer is held or removed, so this never outgrows the offers in unfinished cycles.
+     */
+    private final Set<OfferID> rescindedOfferIds = new HashSet<>();
+
+    /**
+     * Creates a new pool which holds offers for up to the provided duration.
+     */
+    public OfferPool(Duration holdDuration) {
+        this.holdDuration = holdDuration;
+    }
+
+    /**
+     * Returns the maximum duration that an offer may be held.
+     */
+    public Duration getHoldDuration() {
+        return holdDuration;
+    }
+
+    /**
+     * Records that the provided offers were received from Mesos, so that any which are rescinded before the end of
+     * their offer cycle aren't held. This should be called as the offers are received, before their cycle starts.
+     */
+    public synchronized void receive(Collection<Offer> offers) {
+        for (Offer offer : offers) {
+            receivedOfferIds.add(offer.getId());
+        }
+    }
+
+    /**
+     * Adds the provided offers to the pool. Offers which were previously taken from the pool keep their original
+     * expiry, while offers which were rescinded in the meantime are discarded.
+     */
+    public synchronized void hold(Collection<Offer> offers) {
+        long expiryMs = getCurrentTimeMs() + holdDuration.toMillis();
+        for (Offer offer : offers) {
+            receivedOfferIds.remove(offer.getId());
+            if (rescindedOfferIds.remove(offer.getId())) {
+                continue;
+            }
+            HeldOffer heldOffer = takenOffers.remove(offer.getId());
+            if (heldOffer == null) {
+                heldOffer = heldOffers.get(offer.getId());
+            }
+            heldOffers.put(offer.getId(), heldOffer == null ? new HeldOffer(offer, expiryMs) : heldOffer);
+        }
+    }
+
+    /**
+     * Removes and returns the unexpired held offers, for use in an offer cycle. Once the cycle is finished, each offer
+     * should be either returned to the pool with {@link #hold(Collection)}, or forgotten with
+     * {@link #remove(Collection)} if it was accepted or declined.
+     */
+    public synchronized List<Offer> takeOffers() {
+        long nowMs = getCurrentTimeMs();
+        List<Offer> offers = new ArrayList<>();
+        Iterator<HeldOffer> iter = heldOffers.values().iterator();
+        while (iter.hasNext()) {
+            HeldOffer heldOffer = iter.next();
+            if (!heldOffer.isExpired(nowMs)) {
+                offers.add(heldOffer.offer);
+                takenOffers.put(heldOffer.offer.getId(), heldOffer);
+                iter.remove();
+            }
+        }
+        return offers;
+    }
+
+    /**
+     * Forgets the provided offers, e.g. because they were accepted or declined.
+     */
+    public synchronized void remove(Collection<OfferID> offerIds) {
+        for (OfferID offerId : offerIds) {
+            heldOffers.remove(offerId);
+            takenOffers.remove(offerId);
+            receivedOfferIds.remove(offerId);
+            rescindedOfferIds.remove(offerId);
+        }
+    }
+
+    /**
+     * Removes and returns any held offers whose hold duration has elapsed. These should be declined.
+     */
+    public synchronized List<Offer> removeExpired() {
+        long nowMs = getCurrentTimeMs();
+        List<Offer> expiredOffers = new ArrayList<>();
+        Iterator<HeldOffer> iter = heldOffers.values().iterator();
+        while (iter.hasNext()) {
+            HeldOffer heldOffer = iter.next();
+            if (heldOffer.isExpired(nowMs)) {
+                expiredOffers.add(heldOffer.offer);
+                iter.remove();
+            }
+        }
+        return expiredOffers;
+    }
+
+    /**
+     * Removes and returns all held offers, e.g. because offers are being suppressed. These should be declined. Offers
+     * which are currently taken are left to the cycle which took them.
+     */
+    public synchronized List<Offer> removeAll() {
+        List<Offer> offers = new ArrayList<>();
+        for (HeldOffer heldOffer : heldOffers.values()) {
+            offers.add(heldOffer.offer);
+        }
+        heldOffers.clear();
+        return offers;
+    }
+
+    /**
+     * Drops the rescinded offer from the pool. If the offer is taken or was received, it's part of an offer cycle which
+     * hasn't finished yet, so it's remembered in order to not be held at the end of that cycle. Other offers are
+     * unknown to the pool and aren't remembered.
+     *
+     * @return whether the offer was being held or was taken
+     */
+    public synchronized boolean rescind(OfferID offerId) {
+        if (heldOffers.remove(offerId) != null) {
+            return true;
+        }
+        boolean taken = takenOffers.remove(offerId) != null;
+        if (taken || receivedOfferIds.contains(offerId)) {
+            rescindedOfferIds.add(offerId);
+        }
+        return taken;
+    }
+
+    /**
+     * Returns the number of offers currently held in the pool, including any which have expired but not yet been
+     * removed. Offers which are currently taken are not included.
+     */
+    public synchronized int size() {
+        return heldOffers.size();
+    }
+
+    protected long getCurrentTimeMs() {
+        return System.currentTimeMillis();
+    }
+
+    private static class HeldOffer {
+        private final Offer offer;
+        private final long expiryMs;
+
+        private HeldOffer(Offer offer, long expiryMs) {
+            this.offer = offer;
+            this.expiryMs = expiryMs;
+        }
+
+        private boolean isExpired(long nowMs) {
+            return nowMs >= expiryMs;
+        }
+    }
+}
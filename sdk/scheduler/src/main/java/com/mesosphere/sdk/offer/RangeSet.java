@@ -0,0 +1,330 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A mutable set of non-negative integer values, such as ports, held as sorted intervals which neither overlap nor
+ * touch. The intervals are packed into a single {@code long[]} of begin/end pairs, so that values may be added,
+ * removed, and looked up in place without allocating, other than to grow the array when an interval is split.
+ * <p>
+ * This isn't thread-safe.
+ */
+public final class RangeSet {
+
+    private static final long[] EMPTY = new long[0];
+
+    /** Closed intervals, where interval {@code i} is [{@code bounds[2i]}, {@code bounds[2i+1]}]. */
+    private long[] bounds;
+    /** The number of intervals in {@link #bounds}. */
+    private int intervalCount;
+
+    /**
+     * Creates a new, empty set.
+     */
+    public RangeSet() {
+        this.bounds = EMPTY;
+        this.intervalCount = 0;
+    }
+
+    /**
+     * Creates a new set containing the provided ranges, which may overlap and may be in any order.
+     */
+    public RangeSet(List<Range> ranges) {
+        this.bounds = new long[ranges.size() * 2];
+        this.intervalCount = 0;
+        addAll(ranges);
+    }
+
+    private RangeSet(long[] bounds, int intervalCount) {
+        this.bounds = bounds;
+        this.intervalCount = intervalCount;
+    }
+
+    /**
+     * Returns a copy of this set, which may be modified independently.
+     */
+    public RangeSet copy() {
+        return new RangeSet(Arrays.copyOf(bounds, intervalCount * 2), intervalCount);
+    }
+
+    /**
+     * Returns the number of disjoint intervals in this set.
+     */
+    public int getIntervalCount() {
+        return intervalCount;
+    }
+
+    /**
+     * Returns the first value of the interval at the provided index, where intervals are in ascending order.
+     */
+    public long getBegin(int index) {
+        return bounds[index * 2];
+    }
+
+    /**
+     * Returns the last value of the interval at the provided index, where intervals are in ascending order.
+     */
+    public long getEnd(int index) {
+        return bounds[index * 2 + 1];
+    }
+
+    public boolean isEmpty() {
+        return intervalCount == 0;
+    }
+
+    /**
+     * Adds the values from {@code begin} to {@code end} inclusive.
+     */
+    public void add(long begin, long end) {
+        if (begin > end) {
+            return;
+        }
+        // Merge with any intervals which overlap or touch the new one:
+        int first = firstEndingAtOrAfter(begin - 1);
+        int last = lastBeginningAtOrBefore(end + 1);
+        if (first > last) {
+            insert(first, begin, end);
+            return;
+        }
+        long mergedBegin = Math.min(begin, getBegin(first));
+        long mergedEnd = Math.max(end, getEnd(last));
+        replace(first, last, mergedBegin, mergedEnd);
+    }
+
+    /**
+     * Adds the values in the provided ranges.
+     */
+    public void addAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            add(range.getBegin(), range.getEnd());
+        }
+    }
+
+    /**
+     * Adds the values in the provided set.
+     */
+    public void addAll(RangeSet other) {
+        for (int i = 0; i < other.intervalCount; ++i) {
+            add(other.getBegin(i), other.getEnd(i));
+        }
+    }
+
+    /**
+     * Removes the values from {@code begin} to {@code end} inclusive, where present.
+     */
+    public void subtract(long begin, long end) {
+        if (begin > end) {
+            return;
+        }
+        int first = firstEndingAtOrAfter(begin);
+        int last = lastBeginningAtOrBefore(end);
+        if (first > last) {
+            return;
+        }
+        // Keep whatever lies outside of the removed values in the first and last overlapping intervals:
+        long firstBegin = getBegin(first);
+        long lastEnd = getEnd(last);
+        boolean keepBefore = firstBegin < begin;
+        boolean keepAfter = lastEnd > end;
+        if (keepBefore && keepAfter) {
+            replace(first, last, firstBegin, begin - 1);
+            insert(first + 1, end + 1, lastEnd);
+        } else if (keepBefore) {
+            replace(first, last, firstBegin, begin - 1);
+        } else if (keepAfter) {
+            replace(first, last, end + 1, lastEnd);
+        } else {
+            remove(first, last);
+        }
+    }
+
+    /**
+     * Removes the values in the provided ranges, where present.
+     */
+    public void subtractAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            subtract(range.getBegin(), range.getEnd());
+        }
+    }
+
+    /**
+     * Returns whether all of the values from {@code begin} to {@code end} inclusive are present.
+     */
+    public boolean contains(long begin, long end) {
+        if (begin > end) {
+            return true;
+        }
+        int index = firstEndingAtOrAfter(begin);
+        return index < intervalCount && getBegin(index) <= begin && getEnd(index) >= end;
+    }
+
+    /**
+     * Returns whether all of the values in the provided ranges are present.
+     */
+    public boolean containsAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            if (!contains(range.getBegin(), range.getEnd())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether all of the values in the provided set are present.
+     */
+    public boolean containsAll(RangeSet other) {
+        for (int i = 0; i < other.intervalCount; ++i) {
+            if (!contains(other.getBegin(i), other.getEnd(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest value in this set which isn't present in {@code excluded}, or an empty {@link OptionalLong}
+     * if every value is excluded. This walks the intervals of both sets without copying either of them.
+     */
+    public OptionalLong firstValueNotIn(RangeSet excluded) {
+        for (int i = 0; i < intervalCount; ++i) {
+            long candidate = getBegin(i);
+            long end = getEnd(i);
+            while (candidate <= end) {
+                int index = excluded.firstEndingAtOrAfter(candidate);
+                if (index == excluded.intervalCount || excluded.getBegin(index) > candidate) {
+                    return OptionalLong.of(candidate);
+                }
+                // Skip past the excluded interval which covers the candidate:
+                candidate = excluded.getEnd(index) + 1;
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Returns the intervals in this set as protobuf {@link Range}s, in ascending order.
+     */
+    public List<Range> toRanges() {
+        List<Range> ranges = new ArrayList<>(intervalCount);
+        for (int i = 0; i < intervalCount; ++i) {
+            ranges.add(Range.newBuilder().setBegin(getBegin(i)).setEnd(getEnd(i)).build());
+        }
+        return ranges;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RangeSet)) {
+            return false;
+        }
+        RangeSet other = (RangeSet) o;
+        if (intervalCount != other.intervalCount) {
+            return false;
+        }
+        for (int i = 0; i < intervalCount * 2; ++i) {
+            if (bounds[i] != other.bounds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < intervalCount * 2; ++i) {
+            hash = 31 * hash + Long.hashCode(bounds[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < intervalCount; ++i) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(getBegin(i)).append('-').append(getEnd(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Returns the index of the first interval which ends at or after the provided value, or {@link #intervalCount} if
+     * there is none.
+     */
+    private int firstEndingAtOrAfter(long value) {
+        int low = 0;
+        int high = intervalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getEnd(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the last interval which begins at or before the provided value, or -1 if there is none.
+     */
+    private int lastBeginningAtOrBefore(long value) {
+        int low = 0;
+        int high = intervalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getBegin(mid) <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Inserts a new interval at the provided index, shifting later intervals up.
+     */
+    private void insert(int index, long begin, long end) {
+        if (bounds.length < (intervalCount + 1) * 2) {
+            bounds = Arrays.copyOf(bounds, Math.max(4, bounds.length * 2));
+        }
+        System.arraycopy(bounds, index * 2, bounds, (index + 1) * 2, (intervalCount - index) * 2);
+        bounds[index * 2] = begin;
+        bounds[index * 2 + 1] = end;
+        ++intervalCount;
+    }
+
+    /**
+     * Replaces the intervals from {@code first} to {@code last} inclusive with a single interval.
+     */
+    private void replace(int first, int last, long begin, long end) {
+        bounds[first * 2] = begin;
+        bounds[first * 2 + 1] = end;
+        remove(first + 1, last);
+    }
+
+    /**
+     * Removes the intervals from {@code first} to {@code last} inclusive, shifting later intervals down.
+     */
+    private void remove(int first, int last) {
+        int removedCount = last - first + 1;
+        if (removedCount <= 0) {
+            return;
+        }
+        System.arraycopy(bounds, (last + 1) * 2, bounds, first * 2, (intervalCount - last - 1) * 2);
+        intervalCount -= removedCount;
+    }
+}
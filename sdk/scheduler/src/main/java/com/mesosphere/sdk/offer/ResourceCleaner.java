@@ -2,9 +2,10 @@ package com.mesosphere.sdk.offer;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -12,21 +13,35 @@ import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.Resource;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
 import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.state.TaskStoreListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Resource Cleaner provides recommended operations for cleaning up
  * unexpected Reserved resources and persistent volumes.
+ * <p>
+ * The expected resources are indexed once from the {@link StateStore} when the cleaner is constructed. If the
+ * {@link StateStore} is a {@link StateStoreCache}, the cleaner registers itself as a {@link TaskStoreListener} so that
+ * the index is kept up to date by every task write, whichever component makes it, and a long-lived cleaner doesn't
+ * need to rescan every task on each offer cycle. Evaluating an offer is then a hash lookup per reserved resource.
+ * Other {@link StateStore}s don't report their writes, so the index is instead rebuilt before each evaluation.
  */
-public class ResourceCleaner {
+public class ResourceCleaner implements TaskStoreListener {
     private static final Logger logger = LoggerFactory.getLogger(ResourceCleaner.class);
 
+    private final StateStore stateStore;
+    /** Whether the index is kept up to date by the {@link StateStore}, rather than rebuilt for each evaluation. */
+    private final boolean isListening;
+    /** Task name => the expected resource ids of that task, as last stored. */
+    private final Map<String, TaskResourceIds> taskResourceIds = new HashMap<>();
     // Only Persistent Volumes are DESTROYed
-    private final Set<String> expectedPersistentVolumeIds;
+    // Id => number of tasks which expect it, since tasks which share a resource set also share resource ids.
+    private final Map<String, Integer> expectedPersistentVolumeIds = new HashMap<>();
     // Both Persistent Volumes AND Reserved Resources are UNRESERVEd
-    private final Set<String> expectedReservedResourceIds;
+    private final Map<String, Integer> expectedReservedResourceIds = new HashMap<>();
 
     /**
      * Creates a new {@link ResourceCleaner} which retrieves expected resource
@@ -36,9 +51,57 @@ public class ResourceCleaner {
      *             if there's a failure when retrieving resource information
      */
     public ResourceCleaner(StateStore stateStore) {
-        Collection<Resource> expectedResources = getExpectedResources(stateStore);
-        this.expectedPersistentVolumeIds = getPersistentVolumeIds(expectedResources);
-        this.expectedReservedResourceIds = getReservedResourceIds(expectedResources);
+        this.stateStore = stateStore;
+        this.isListening = stateStore instanceof StateStoreCache;
+        if (isListening) {
+            // Registered before the index is built, so that no writes are missed in between:
+            ((StateStoreCache) stateStore).addTaskStoreListener(this);
+        }
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index of expected resources from all tasks in the {@link StateStore}.
+     *
+     * @throws StateStoreException
+     *             if there's a failure when retrieving resource information, in which case the index is unchanged
+     */
+    public synchronized void refresh() {
+        // The lock is held across the fetch, so that tasks which are concurrently stored are re-applied afterwards:
+        tasksRefreshed(stateStore.fetchTasks());
+    }
+
+    /**
+     * Updates the expected resources to reflect the provided tasks, which have been written to the
+     * {@link StateStore}. Any resources which were previously stored against these tasks are replaced.
+     */
+    @Override
+    public synchronized void tasksStored(Collection<Protos.TaskInfo> taskInfos) {
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            TaskResourceIds resourceIds = new TaskResourceIds(getExpectedResources(taskInfo));
+            removeIds(taskResourceIds.put(taskInfo.getName(), resourceIds));
+            addIds(resourceIds);
+        }
+    }
+
+    /**
+     * Updates the expected resources to reflect that the named task has been removed from the {@link StateStore}.
+     */
+    @Override
+    public synchronized void taskCleared(String taskName) {
+        removeIds(taskResourceIds.remove(taskName));
+    }
+
+    /**
+     * Replaces the expected resources with those of the provided tasks, which are all of the tasks in the
+     * {@link StateStore}.
+     */
+    @Override
+    public synchronized void tasksRefreshed(Collection<Protos.TaskInfo> taskInfos) {
+        taskResourceIds.clear();
+        expectedPersistentVolumeIds.clear();
+        expectedReservedResourceIds.clear();
+        tasksStored(taskInfos);
     }
 
     /**
@@ -46,7 +109,17 @@ public class ResourceCleaner {
      * from Mesos. The returned operations MUST be performed in the order in which they are
      * provided.
      */
-    public List<OfferRecommendation> evaluate(List<Offer> offers) {
+    public synchronized List<OfferRecommendation> evaluate(List<Offer> offers) {
+        if (!isListening) {
+            try {
+                refresh();
+            } catch (StateStoreException e) {
+                // A stale index may be missing newly reserved resources, so nothing can safely be cleaned:
+                logger.error("Failed to retrieve expected resources, skipping cleanup of these offers", e);
+                return Collections.emptyList();
+            }
+        }
+
         // ORDERING IS IMPORTANT:
         //    The resource lifecycle is RESERVE -> CREATE -> DESTROY -> UNRESERVE
         // Therefore we *must* put any DESTROY calls before any UNRESERVE calls
@@ -56,9 +129,11 @@ public class ResourceCleaner {
         int offerResourceCount = 0;
         for (Offer offer : offers) {
             offerResourceCount += offer.getResourcesCount();
-            for (Resource toDestroy : selectUnexpectedResources(
-                    expectedPersistentVolumeIds, getPersistentVolumesById(offer))) {
-                recommendations.add(new DestroyOfferRecommendation(offer, toDestroy));
+            for (Resource resource : offer.getResourcesList()) {
+                String persistenceId = ResourceUtils.getPersistenceId(resource);
+                if (persistenceId != null && !expectedPersistentVolumeIds.containsKey(persistenceId)) {
+                    recommendations.add(new DestroyOfferRecommendation(offer, resource));
+                }
             }
         }
         int destroyRecommendationCount = recommendations.size();
@@ -66,9 +141,11 @@ public class ResourceCleaner {
         // Then, find any unexpected persistent volumes AND resource reservations which should
         // (both) be UNRESERVEd
         for (Offer offer : offers) {
-            for (Resource toUnreserve : selectUnexpectedResources(
-                    expectedReservedResourceIds, getReservedResourcesById(offer))) {
-                recommendations.add(new UnreserveOfferRecommendation(offer, toUnreserve));
+            for (Resource resource : offer.getResourcesList()) {
+                String resourceId = ResourceUtils.getResourceId(resource);
+                if (resourceId != null && !expectedReservedResourceIds.containsKey(resourceId)) {
+                    recommendations.add(new UnreserveOfferRecommendation(offer, resource));
+                }
             }
         }
 
@@ -79,109 +156,61 @@ public class ResourceCleaner {
         return recommendations;
     }
 
-    /**
-     * Returns a list of resources from {@code resourcesById} whose ids are not present in
-     * {@code expectedIds}.
-     */
-    private static Collection<Resource> selectUnexpectedResources(
-            Set<String> expectedIds, Map<String, Resource> resourcesById) {
-        List<Resource> unexpectedResources = new ArrayList<Resource>();
-
-        for (Map.Entry<String, Resource> entry : resourcesById.entrySet()) {
-            if (!expectedIds.contains(entry.getKey())) {
-                unexpectedResources.add(entry.getValue());
-            }
+    private void addIds(TaskResourceIds resourceIds) {
+        for (String persistenceId : resourceIds.persistenceIds) {
+            expectedPersistentVolumeIds.merge(persistenceId, 1, Integer::sum);
         }
-
-        return unexpectedResources;
-    }
-
-    /**
-     * Returns a list of all expected resources, which are extracted from all {@link org.apache.mesos.Protos.TaskInfo}s
-     * produced by the provided {@link StateStore}.
-     */
-    private static Collection<Resource> getExpectedResources(StateStore stateStore)
-            throws StateStoreException {
-        Collection<Resource> resources = new ArrayList<>();
-
-        for (Protos.TaskInfo taskInfo : stateStore.fetchTasks()) {
-            // get all resources from both the task level and the executor level
-            resources.addAll(taskInfo.getResourcesList());
-            if (taskInfo.hasExecutor()) {
-                resources.addAll(taskInfo.getExecutor().getResourcesList());
-            }
+        for (String resourceId : resourceIds.resourceIds) {
+            expectedReservedResourceIds.merge(resourceId, 1, Integer::sum);
         }
-
-        return resources;
     }
 
-    /**
-     * Returns the resource ids for all {@code resources} which represent persistent volumes, or
-     * an empty list if no persistent volume resources were found.
-     */
-    private static Set<String> getPersistentVolumeIds(Collection<Resource> resources) {
-        Set<String> persistenceIds = new HashSet<>();
-
-        for (Resource resource : resources) {
-            String persistenceId = ResourceUtils.getPersistenceId(resource);
-            if (persistenceId != null) {
-                persistenceIds.add(persistenceId);
-            }
+    private void removeIds(TaskResourceIds resourceIds) {
+        if (resourceIds == null) {
+            return;
         }
-
-        return persistenceIds;
-    }
-
-    /**
-     * Returns the resource ids for all {@code resources} which represent reserved resources, or
-     * an empty list if no reserved resources were found.
-     */
-    private static Set<String> getReservedResourceIds(Collection<Resource> resources) {
-        Set<String> resourceIds = new HashSet<>();
-
-        for (Resource resource : resources) {
-            String resourceId = ResourceUtils.getResourceId(resource);
-            if (resourceId != null) {
-                resourceIds.add(resourceId);
-            }
+        for (String persistenceId : resourceIds.persistenceIds) {
+            decrement(expectedPersistentVolumeIds, persistenceId);
+        }
+        for (String resourceId : resourceIds.resourceIds) {
+            decrement(expectedReservedResourceIds, resourceId);
         }
+    }
 
-        return resourceIds;
+    private static void decrement(Map<String, Integer> counts, String id) {
+        counts.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1);
     }
 
     /**
-     * Returns an ID -> Resource mapping of all disk resources listed in the provided {@link Offer},
-     * or an empty list of no disk resources are found.
-     * @param offer The Offer being deconstructed.
-     * @return The map of resources from the {@link Offer}
+     * Returns all expected resources of the provided task, from both the task level and the executor level.
      */
-    private static Map<String, Resource> getPersistentVolumesById(Offer offer) {
-        Map<String, Resource> volumes = new HashMap<String, Resource>();
-
-        for (Resource resource : offer.getResourcesList()) {
-            String persistenceId = ResourceUtils.getPersistenceId(resource);
-            if (persistenceId != null) {
-                volumes.put(persistenceId, resource);
-            }
+    private static Collection<Resource> getExpectedResources(Protos.TaskInfo taskInfo) {
+        if (!taskInfo.hasExecutor()) {
+            return taskInfo.getResourcesList();
         }
-
-        return volumes;
+        Collection<Resource> resources = new ArrayList<>(taskInfo.getResourcesList());
+        resources.addAll(taskInfo.getExecutor().getResourcesList());
+        return resources;
     }
 
     /**
-     * Returns an ID -> Resource mapping of all reservation resources listed in the provided
-     * {@link Offer}, or an empty list if no reservation resources are found.
+     * The distinct persistence ids and resource ids found in a single task.
      */
-    private static Map<String, Resource> getReservedResourcesById(Offer offer) {
-        Map<String, Resource> reservedResources = new HashMap<String, Resource>();
-
-        for (Resource resource : offer.getResourcesList()) {
-            String resourceId = ResourceUtils.getResourceId(resource);
-            if (resourceId != null) {
-                reservedResources.put(resourceId, resource);
+    private static class TaskResourceIds {
+        private final Set<String> persistenceIds = new HashSet<>();
+        private final Set<String> resourceIds = new HashSet<>();
+
+        private TaskResourceIds(Collection<Resource> resources) {
+            for (Resource resource : resources) {
+                String persistenceId = ResourceUtils.getPersistenceId(resource);
+                if (persistenceId != null) {
+                    persistenceIds.add(persistenceId);
+                }
+                String resourceId = ResourceUtils.getResourceId(resource);
+                if (resourceId != null) {
+                    resourceIds.add(resourceId);
+                }
             }
         }
-
-        return reservedResources;
     }
 }
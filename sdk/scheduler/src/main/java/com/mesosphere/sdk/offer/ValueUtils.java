@@ -132,9 +132,11 @@ public class ValueUtils {
         List<Range> list1 = ranges1.getRangeList();
         List<Range> list2 = ranges2.getRangeList();
 
-        if (RangeAlgorithms.rangesEqual(list1, list2)) {
+        RangeSet set1 = new RangeSet(list1);
+        RangeSet set2 = new RangeSet(list2);
+        if (set1.equals(set2)) {
             return 0;
-        } else if (RangeAlgorithms.subtractRanges(list1, list2).size() == 0) {
+        } else if (set2.containsAll(set1)) {
             return -1;
         } else {
             return 1;
@@ -1,17 +1,26 @@
 package com.mesosphere.sdk.offer.evaluate;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import com.google.protobuf.TextFormat;
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.*;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementIndex;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreException;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.Protos.*;
 import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -20,76 +29,151 @@ import java.util.stream.Collectors;
  * in reference to the {@link OfferRequirement with which it was constructed.  In the
  * case where an OfferRequirement has not been provided no {@link OfferRecommendation}s
  * are ever returned.
+ * <p>
+ * An OfferEvaluator which evaluates offers concurrently owns a pool of threads, which is released by {@link #close()}.
  */
-public class OfferEvaluator {
+public class OfferEvaluator implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(OfferEvaluator.class);
 
     private final StateStore stateStore;
     private final OfferRequirementProvider offerRequirementProvider;
+    private final int parallelism;
+    private final Optional<ForkJoinPool> evaluationPool;
+    private PlacementIndex placementIndex = PlacementIndex.empty();
 
     @Inject
     public OfferEvaluator(StateStore stateStore, OfferRequirementProvider offerRequirementProvider) {
+        this(stateStore, offerRequirementProvider, 1);
+    }
+
+    /**
+     * Creates a new instance which evaluates up to {@code parallelism} offers concurrently. Offers are evaluated in
+     * batches of {@code parallelism}, in the order they were provided, and the first passing offer in that order is
+     * selected. This means that the selected offer is always the same as it would have been with sequential
+     * evaluation. A {@code parallelism} of 1 disables concurrent evaluation entirely. When {@code parallelism} is
+     * greater than 1, the evaluator should be {@link #close()}d once it's no longer needed.
+     *
+     * @param parallelism the maximum number of offers to evaluate at once, must be at least 1
+     */
+    public OfferEvaluator(StateStore stateStore, OfferRequirementProvider offerRequirementProvider, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Offer evaluation parallelism must be at least 1, got: %d", parallelism));
+        }
         this.stateStore = stateStore;
         this.offerRequirementProvider = offerRequirementProvider;
+        this.parallelism = parallelism;
+        this.evaluationPool = parallelism > 1 ? Optional.of(new ForkJoinPool(parallelism)) : Optional.empty();
     }
 
     public List<OfferRecommendation> evaluate(PodInstanceRequirement podInstanceRequirement, List<Offer> offers)
             throws StateStoreException, InvalidRequirementException {
-        return evaluate(getOfferRequirement(podInstanceRequirement), offers);
+        return evaluate(podInstanceRequirement, offers, Collections.emptyList());
+    }
+
+    /**
+     * Shuts down the pool used for concurrent evaluation, if any. Offers may no longer be evaluated afterwards.
+     */
+    @Override
+    public void close() {
+        evaluationPool.ifPresent(ForkJoinPool::shutdownNow);
+    }
+
+    /**
+     * Evaluates the provided offers as with {@link #evaluate(PodInstanceRequirement, List)}, while also treating the
+     * provided tasks as deployed. This allows placement rules to take into account tasks which have been matched
+     * earlier in the same offer cycle but which have not yet been written to the {@link StateStore}.
+     */
+    public List<OfferRecommendation> evaluate(
+            PodInstanceRequirement podInstanceRequirement,
+            List<Offer> offers,
+            Collection<TaskInfo> launchingTasks) throws StateStoreException, InvalidRequirementException {
+        return evaluate(getOfferRequirement(podInstanceRequirement), offers, launchingTasks);
     }
 
     public List<OfferRecommendation> evaluate(OfferRequirement offerRequirement, List<Offer> offers)
             throws StateStoreException, InvalidRequirementException {
-        List<OfferRecommendation> recommendations = Collections.emptyList();
-        for (int i = 0; i < offers.size(); ++i) {
-            if (!recommendations.isEmpty()) {
-                break;
-            }
-
-            List<OfferEvaluationStage> evaluationStages = getEvaluationPipeline(offerRequirement);
+        return evaluate(offerRequirement, offers, Collections.emptyList());
+    }
 
-            Offer offer = offers.get(i);
-            MesosResourcePool resourcePool = new MesosResourcePool(offer);
-            PodInfoBuilder podInfoBuilder = new PodInfoBuilder(offerRequirement);
-            List<EvaluationOutcome> outcomes = new ArrayList<>();
-            int failedOutcomeCount = 0;
+    public List<OfferRecommendation> evaluate(
+            OfferRequirement offerRequirement,
+            List<Offer> offers,
+            Collection<TaskInfo> launchingTasks) throws StateStoreException, InvalidRequirementException {
+        Timer.Context timerContext = Metrics.getTimer(Metrics.OFFERS_EVALUATE).time();
+        try {
+            return evaluateOffers(offerRequirement, offers, launchingTasks);
+        } finally {
+            timerContext.stop();
+        }
+    }
 
-            for (OfferEvaluationStage evaluationStage : evaluationStages) {
-                EvaluationOutcome outcome =
-                        evaluationStage.evaluate(resourcePool, podInfoBuilder);
-                outcomes.add(outcome);
-                if (!outcome.isPassing()) {
-                    failedOutcomeCount++;
-                }
+    private List<OfferRecommendation> evaluateOffers(
+            OfferRequirement offerRequirement,
+            List<Offer> offers,
+            Collection<TaskInfo> launchingTasks) throws StateStoreException {
+        // Fetch the deployed tasks once for all offers, rather than once per offer. Concurrent evaluations only read the
+        // returned collection, and StateStore implementations never modify a collection after returning it (they
+        // either build a new one per call or return an immutable snapshot), so it's safe to share between them.
+        Collection<TaskInfo> deployedTasks;
+        if (launchingTasks.isEmpty()) {
+            deployedTasks = stateStore.fetchTasks();
+        } else {
+            Map<String, TaskInfo> tasksByName = new HashMap<>();
+            for (TaskInfo taskInfo : stateStore.fetchTasks()) {
+                tasksByName.put(taskInfo.getName(), taskInfo);
             }
-
-            StringBuilder stringBuilder = new StringBuilder();
-            stringBuilder.append("\n");
-            for (EvaluationOutcome outcome : outcomes) {
-                logOutcome(stringBuilder, outcome, "");
+            for (TaskInfo taskInfo : launchingTasks) {
+                tasksByName.put(taskInfo.getName(), taskInfo);
             }
-            logger.info(stringBuilder.toString().trim());
+            deployedTasks = tasksByName.values();
+        }
+        // Placement rules are evaluated against an index of the deployed tasks, which is shared across all offers and
+        // only updated for those tasks which have changed since the previous evaluation.
+        deployedTasks = updatePlacementIndex(deployedTasks);
 
-            if (failedOutcomeCount != 0) {
-                recommendations.clear();
-                logger.info("- {}: failed {} of {} evaluation stages.",
-                        i + 1, failedOutcomeCount, evaluationStages.size());
+        // Offers which can't possibly satisfy the requirement's scalar resources are rejected up front, so that only
+        // the remaining offers pay for the full evaluation pipeline.
+        ScalarDemandFilter demandFilter = new ScalarDemandFilter(offerRequirement);
+        List<Integer> offerIndices = demandFilter.filter(offers);
+        Metrics.getCounter(Metrics.OFFERS_PREFILTER_ADMITTED).inc(offerIndices.size());
+        if (offerIndices.size() < offers.size()) {
+            logger.info("Skipping evaluation of {} of {} offers which lack sufficient resources for demand: {}",
+                    offers.size() - offerIndices.size(), offers.size(), demandFilter);
+        }
 
-                continue;
+        for (int batchStart = 0; batchStart < offerIndices.size(); batchStart += parallelism) {
+            int batchEnd = Math.min(batchStart + parallelism, offerIndices.size());
+            for (OfferEvaluation evaluation : evaluateBatch(offerRequirement, offers,
+                    offerIndices.subList(batchStart, batchEnd), deployedTasks)) {
+                // Log and select in offer order so that the outcome is the same regardless of parallelism.
+                evaluation.log();
+                if (evaluation.isPassing()) {
+                    return evaluation.getRecommendations();
+                }
             }
+        }
 
-            recommendations = getRecommendations(outcomes);
-            logger.info("- {}: passed all {} evaluation stages, returning {} recommendations: {}",
-                    i + 1, evaluationStages.size(), recommendations.size(), TextFormat.shortDebugString(offer));
+        if (!offerIndices.isEmpty()) {
+            logger.info("None of the {} evaluated offers passed all evaluation stages", offerIndices.size());
         }
+        return Collections.emptyList();
+    }
 
-        return recommendations;
+    private synchronized PlacementIndex updatePlacementIndex(Collection<TaskInfo> deployedTasks) {
+        placementIndex = placementIndex.update(deployedTasks);
+        return placementIndex;
     }
 
     public List<OfferEvaluationStage> getEvaluationPipeline(OfferRequirement offerRequirement) {
+        return getEvaluationPipeline(offerRequirement, stateStore.fetchTasks());
+    }
+
+    private static List<OfferEvaluationStage> getEvaluationPipeline(
+            OfferRequirement offerRequirement, Collection<TaskInfo> deployedTasks) {
         List<OfferEvaluationStage> evaluationPipeline = new ArrayList<>();
 
-        evaluationPipeline.add(new PlacementRuleEvaluationStage(stateStore.fetchTasks()));
+        evaluationPipeline.add(new PlacementRuleEvaluationStage(deployedTasks));
         if (offerRequirement.getExecutorRequirementOptional().isPresent()) {
             evaluationPipeline.add(offerRequirement.getExecutorRequirementOptional().get().getEvaluationStage());
         } else {
@@ -109,6 +193,64 @@ public class OfferEvaluator {
         return evaluationPipeline;
     }
 
+    /**
+     * Evaluates the offers at the provided indices, returning the results in offer order. When there is more than one
+     * offer and parallelism is enabled, the offers are evaluated concurrently.
+     */
+    private List<OfferEvaluation> evaluateBatch(
+            OfferRequirement offerRequirement,
+            List<Offer> offers,
+            List<Integer> offerIndices,
+            Collection<TaskInfo> deployedTasks) {
+        if (!evaluationPool.isPresent() || offerIndices.size() == 1) {
+            List<OfferEvaluation> evaluations = new ArrayList<>();
+            for (int i : offerIndices) {
+                evaluations.add(evaluateOffer(offerRequirement, offers.get(i), i, deployedTasks));
+            }
+            return evaluations;
+        }
+
+        // Each evaluation gets its own pipeline, resource pool, and pod info builder, so nothing is shared between
+        // concurrent evaluations other than the (read-only) requirement, offer, and deployed tasks.
+        List<Callable<OfferEvaluation>> callables = new ArrayList<>();
+        for (int i : offerIndices) {
+            callables.add(() -> evaluateOffer(offerRequirement, offers.get(i), i, deployedTasks));
+        }
+
+        List<OfferEvaluation> evaluations = new ArrayList<>();
+        try {
+            for (Future<OfferEvaluation> future : evaluationPool.get().invokeAll(callables)) {
+                evaluations.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating offers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to evaluate offer", e.getCause());
+        }
+        return evaluations;
+    }
+
+    private static OfferEvaluation evaluateOffer(
+            OfferRequirement offerRequirement, Offer offer, int index, Collection<TaskInfo> deployedTasks) {
+        List<OfferEvaluationStage> evaluationStages = getEvaluationPipeline(offerRequirement, deployedTasks);
+
+        MesosResourcePool resourcePool = new MesosResourcePool(offer);
+        PodInfoBuilder podInfoBuilder = new PodInfoBuilder(offerRequirement);
+        List<EvaluationOutcome> outcomes = new ArrayList<>();
+        for (OfferEvaluationStage evaluationStage : evaluationStages) {
+            long startNanos = System.nanoTime();
+            outcomes.add(evaluationStage.evaluate(resourcePool, podInfoBuilder));
+            Metrics.getEvaluationStageTimer(evaluationStage.getClass())
+                    .update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        return new OfferEvaluation(offer, index, outcomes);
+    }
+
     private static List<OfferRecommendation> getRecommendations(Collection<EvaluationOutcome> outcomes) {
         return outcomes.stream()
                 .map(outcome -> outcome.getOfferRecommendations())
@@ -157,4 +299,59 @@ public class OfferEvaluator {
         logger.debug("OfferRequirement: {}", offerRequirement);
         return offerRequirement;
     }
+
+    /**
+     * The result of running the evaluation pipeline against a single offer.
+     */
+    private static class OfferEvaluation {
+        private final Offer offer;
+        private final int index;
+        private final List<EvaluationOutcome> outcomes;
+        private final long failedOutcomeCount;
+        private final List<OfferRecommendation> recommendations;
+
+        private OfferEvaluation(Offer offer, int index, List<EvaluationOutcome> outcomes) {
+            this.offer = offer;
+            this.index = index;
+            this.outcomes = outcomes;
+            this.failedOutcomeCount = outcomes.stream().filter(outcome -> !outcome.isPassing()).count();
+            this.recommendations = isPassing() ? OfferEvaluator.getRecommendations(outcomes) : Collections.emptyList();
+        }
+
+        private boolean isPassing() {
+            return failedOutcomeCount == 0;
+        }
+
+        private List<OfferRecommendation> getRecommendations() {
+            return recommendations;
+        }
+
+        private void log() {
+            final String summary;
+            if (isPassing()) {
+                summary = "- " + (index + 1) + ": passed all " + outcomes.size()
+                        + " evaluation stages, returning " + recommendations.size() + " recommendations for offer "
+                        + offer.getId().getValue();
+            } else {
+                summary = "- " + (index + 1) + ": failed " + failedOutcomeCount + " of " + outcomes.size()
+                        + " evaluation stages for offer " + offer.getId().getValue();
+            }
+            DecisionTrace.get().record(logger, DecisionTrace.Type.EVALUATION, summary, this::renderOutcomes);
+        }
+
+        /**
+         * Renders the outcome of each stage on its own line, along with the offer if it passed.
+         */
+        private String renderOutcomes() {
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder.append(String.format("%n"));
+            for (EvaluationOutcome outcome : outcomes) {
+                logOutcome(stringBuilder, outcome, "");
+            }
+            if (isPassing()) {
+                stringBuilder.append(String.format("  offer: %s", TextFormat.shortDebugString(offer)));
+            }
+            return StringUtils.stripEnd(stringBuilder.toString(), null);
+        }
+    }
 }
@@ -6,10 +6,8 @@ import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.IntStream;
+import java.util.OptionalLong;
 
 import static com.mesosphere.sdk.offer.evaluate.EvaluationOutcome.*;
 
@@ -148,37 +146,26 @@ public class PortEvaluationStage extends ResourceEvaluationStage implements Offe
             MesosResourcePool mesosResourcePool, PodInfoBuilder podInfoBuilder) {
         // We don't want to dynamically consume a port that's explicitly claimed by this pod accidentally, so
         // compile a list of those to check against the offered ports.
-        OfferRequirement offerRequirement = podInfoBuilder.getOfferRequirement();
-        Set<Integer> consumedPorts = new HashSet<>();
-        for (Protos.Resource resource : offerRequirement.getResources()) {
+        RangeSet consumedPorts = new RangeSet();
+        for (Protos.Resource resource : podInfoBuilder.getOfferRequirement().getResources()) {
             if (resource.getName().equals(Constants.PORTS_RESOURCE_TYPE)) {
-                resource.getRanges().getRangeList().stream()
-                        .flatMap(r -> IntStream.rangeClosed((int) r.getBegin(), (int) r.getEnd()).boxed())
-                        .filter(p -> p != 0)
-                        .forEach(consumedPorts::add);
+                consumedPorts.addAll(resource.getRanges().getRangeList());
             }
         }
 
         // Also check dynamically allocated ports.
         for (Protos.Resource.Builder resourceBuilder : podInfoBuilder.getResourceBuilders()) {
             if (resourceBuilder.getName().equals(Constants.PORTS_RESOURCE_TYPE)) {
-                resourceBuilder.getRanges().getRangeList().stream()
-                        .flatMap(r -> IntStream.rangeClosed((int) r.getBegin(), (int) r.getEnd()).boxed())
-                        .filter(p -> p != 0)
-                        .forEach(consumedPorts::add);
+                consumedPorts.addAll(resourceBuilder.getRanges().getRangeList());
             }
         }
 
-        Protos.Value availablePorts = mesosResourcePool.getUnreservedMergedPool().get(Constants.PORTS_RESOURCE_TYPE);
-        Optional<Integer> dynamicPort = Optional.empty();
-        if (availablePorts != null) {
-            dynamicPort = availablePorts.getRanges().getRangeList().stream()
-                    .flatMap(r -> IntStream.rangeClosed((int) r.getBegin(), (int) r.getEnd()).boxed())
-                    .filter(p -> !consumedPorts.contains(p))
-                    .findFirst();
-        }
+        // Port 0 denotes a port which is yet to be dynamically assigned, rather than a claim on port 0 itself.
+        consumedPorts.subtract(0, 0);
 
-        return dynamicPort;
+        OptionalLong dynamicPort =
+                mesosResourcePool.getFirstUnreservedRangesValue(Constants.PORTS_RESOURCE_TYPE, consumedPorts);
+        return dynamicPort.isPresent() ? Optional.of((int) dynamicPort.getAsLong()) : Optional.empty();
     }
 
     /**
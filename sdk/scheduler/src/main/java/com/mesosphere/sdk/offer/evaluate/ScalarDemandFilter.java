@@ -0,0 +1,137 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.offer.ResourceRequirement;
+import com.mesosphere.sdk.offer.TaskRequirement;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.Value;
+
+import java.util.*;
+
+/**
+ * A cheap admission check which rejects offers that cannot possibly satisfy an {@link OfferRequirement}, before they
+ * are run through the full evaluation pipeline.
+ * <p>
+ * The aggregate scalar demand (e.g. total "cpus", "mem", and "disk") of the requirement is computed once, and each
+ * offer is rejected if its total for any of those resources is smaller. Offered resources are summed regardless of
+ * their role or reservation, so an offer's totals are an upper bound on what the pipeline could actually use: an
+ * offer which is rejected here would always have failed evaluation, while an admitted offer may still fail.
+ * <p>
+ * Each rejection increments a per-resource counter, see {@link Metrics#getPrefilterRejectionCounter(String)}.
+ */
+public class ScalarDemandFilter {
+
+    /**
+     * Tolerance for floating point error when comparing summed values. Mesos itself only retains three decimal places
+     * of precision for scalar resources.
+     */
+    private static final double EPSILON = 0.0001;
+
+    private final Map<String, Double> demand;
+
+    public ScalarDemandFilter(OfferRequirement offerRequirement) {
+        this.demand = Collections.unmodifiableMap(getDemand(offerRequirement));
+    }
+
+    /**
+     * Returns the total amount of each scalar resource which the requirement needs from a single offer.
+     */
+    public Map<String, Double> getDemand() {
+        return demand;
+    }
+
+    /**
+     * Returns the name of the first resource whose demand exceeds the amount available in the provided offer, or an
+     * empty {@link Optional} if the offer may be able to satisfy the requirement.
+     */
+    public Optional<String> getInsufficientResource(Offer offer) {
+        if (demand.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Double> supply = new HashMap<>();
+        for (Resource resource : offer.getResourcesList()) {
+            if (resource.getType() == Value.Type.SCALAR && demand.containsKey(resource.getName())) {
+                supply.merge(resource.getName(), resource.getScalar().getValue(), Double::sum);
+            }
+        }
+        for (Map.Entry<String, Double> entry : demand.entrySet()) {
+            Double supplied = supply.get(entry.getKey());
+            if (supplied == null || supplied + EPSILON < entry.getValue()) {
+                return Optional.of(entry.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the indices of the offers which passed this filter, in their original order. Rejected offers are counted
+     * against the resource which they lacked.
+     */
+    public List<Integer> filter(List<Offer> offers) {
+        List<Integer> admittedIndices = new ArrayList<>(offers.size());
+        for (int i = 0; i < offers.size(); ++i) {
+            Optional<String> insufficientResource = getInsufficientResource(offers.get(i));
+            if (insufficientResource.isPresent()) {
+                Metrics.getPrefilterRejectionCounter(insufficientResource.get()).inc();
+            } else {
+                admittedIndices.add(i);
+            }
+        }
+        return admittedIndices;
+    }
+
+    @Override
+    public String toString() {
+        return demand.toString();
+    }
+
+    private static Map<String, Double> getDemand(OfferRequirement offerRequirement) {
+        Map<String, Double> demand = new TreeMap<>();
+        // Tasks which share a resource set (or which relaunch into existing reservations) may list the same reserved
+        // resource more than once, but it only needs to be offered once. Count the largest requested amount for each
+        // resource ID, in case the reservation is being grown.
+        Map<String, ResourceRequirement> reservedRequirements = new HashMap<>();
+        List<ResourceRequirement> unreservedRequirements = new ArrayList<>();
+        for (TaskRequirement taskRequirement : offerRequirement.getTaskRequirements()) {
+            for (ResourceRequirement resourceRequirement : taskRequirement.getResourceRequirements()) {
+                addRequirement(resourceRequirement, reservedRequirements, unreservedRequirements);
+            }
+        }
+        if (offerRequirement.getExecutorRequirementOptional().isPresent()) {
+            for (ResourceRequirement resourceRequirement :
+                    offerRequirement.getExecutorRequirementOptional().get().getResourceRequirements()) {
+                // A running executor's existing reservations are in use, and won't be in the offer.
+                if (!resourceRequirement.expectsResource()) {
+                    addRequirement(resourceRequirement, reservedRequirements, unreservedRequirements);
+                }
+            }
+        }
+
+        for (ResourceRequirement resourceRequirement : unreservedRequirements) {
+            demand.merge(resourceRequirement.getName(), resourceRequirement.getValue().getScalar().getValue(),
+                    Double::sum);
+        }
+        for (ResourceRequirement resourceRequirement : reservedRequirements.values()) {
+            demand.merge(resourceRequirement.getName(), resourceRequirement.getValue().getScalar().getValue(),
+                    Double::sum);
+        }
+        return demand;
+    }
+
+    private static void addRequirement(
+            ResourceRequirement resourceRequirement,
+            Map<String, ResourceRequirement> reservedRequirements,
+            List<ResourceRequirement> unreservedRequirements) {
+        if (resourceRequirement.getValue().getType() != Value.Type.SCALAR) {
+            return;
+        }
+        if (!resourceRequirement.expectsResource()) {
+            unreservedRequirements.add(resourceRequirement);
+            return;
+        }
+        reservedRequirements.merge(resourceRequirement.getResourceId(), resourceRequirement,
+                (a, b) -> a.getValue().getScalar().getValue() >= b.getValue().getScalar().getValue() ? a : b);
+    }
+}
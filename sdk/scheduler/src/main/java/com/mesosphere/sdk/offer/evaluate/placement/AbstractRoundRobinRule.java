@@ -1,8 +1,7 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.apache.mesos.Protos.Offer;
@@ -44,6 +43,22 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
      */
     protected abstract String getValue(TaskInfo task);
 
+    /**
+     * Returns the value which the provided task should be counted against, if any.
+     */
+    private Collection<String> getCountedValue(TaskInfo task) {
+        // only tally tasks which match the task matcher (eg 'index-.*')
+        if (!taskFilter.matches(task.getName())) {
+            return Collections.emptyList();
+        }
+        final String taskAttributeValue = getValue(task);
+        if (taskAttributeValue == null) {
+            // no attribute matching the name was found. ignore.
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(taskAttributeValue);
+    }
+
     @Override
     public EvaluationOutcome filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
         final String offerValue = getValue(offer);
@@ -52,48 +67,18 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
             return EvaluationOutcome.fail(this, "Offer lacks required round robin value");
         }
 
-        // search across tasks, keeping value counts on a per-value basis.
         // attribute value (for selected attribute name) => # of instances on attribute value
-        Map<String, Integer> valueCounts = new HashMap<>();
-        for (TaskInfo task : tasks) {
-            // only tally tasks which match the task matcher (eg 'index-.*')
-            if (!taskFilter.matches(task.getName())) {
-                continue;
-            }
-            if (PlacementUtils.areEquivalent(task, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about counting its usage. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
+        PlacementIndex index = PlacementIndex.of(tasks);
+        PlacementIndex.ValueCounts valueCounts = index.getValueCounts(this, this::getCountedValue)
+                // Any tasks equivalent to the one we're currently evaluating for placement are stale data. Don't
+                // worry about counting their usage. This occurs when we're redeploying a given task with a new
+                // configuration (old data not deleted yet).
+                .without(index.getEquivalentTasks(offerRequirement));
 
-            final String taskAttributeValue = getValue(task);
-            if (taskAttributeValue == null) {
-                // no attribute matching the name was found. ignore.
-                continue;
-            }
-            Integer value = valueCounts.get(taskAttributeValue);
-            valueCounts.put(taskAttributeValue, (value == null) ? 1 : value + 1);
-        }
-
-        int maxKnownValueCount = 0;
-        int minKnownValueCount = Integer.MAX_VALUE;
-        for (Integer count : valueCounts.values()) {
-            if (count > maxKnownValueCount) {
-                maxKnownValueCount = count;
-            }
-            if (count < minKnownValueCount) {
-                minKnownValueCount = count;
-            }
-        }
-        if (minKnownValueCount == Integer.MAX_VALUE) {
-            minKnownValueCount = 0;
-        }
-        Integer offerValueCount = valueCounts.get(offerValue);
-        if (offerValueCount == null) {
-            offerValueCount = 0;
-        }
-        LOGGER.info("Value counts: {}, knownMin: {}, knownMax: {}, offer: {}",
+        int maxKnownValueCount = valueCounts.getMaxCount();
+        int minKnownValueCount = valueCounts.getMinCount();
+        int offerValueCount = valueCounts.get(offerValue);
+        LOGGER.debug("Value counts: {}, knownMin: {}, knownMax: {}, offer: {}",
                 valueCounts, minKnownValueCount, maxKnownValueCount, offerValueCount);
 
         if (minKnownValueCount == maxKnownValueCount
@@ -107,7 +92,7 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
                         this,
                         "Distinct value count is unspecified, and '%s' has %d instances while others have%d to %d",
                         offerValue, offerValueCount, minKnownValueCount, maxKnownValueCount);
-            } else if (valueCounts.size() >= distinctValueCount.get()) {
+            } else if (valueCounts.getCounts().size() >= distinctValueCount.get()) {
                 // no values are missing from our counts, and this value has fewer instances than some other value in
                 // the system.
                 return EvaluationOutcome.pass(
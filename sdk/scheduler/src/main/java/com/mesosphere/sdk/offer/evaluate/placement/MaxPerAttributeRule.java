@@ -108,42 +108,21 @@ public class MaxPerAttributeRule implements PlacementRule {
             return EvaluationOutcome.pass(this, "Offer has no attributes to enforce");
         }
 
-        // map: enforced attribute in offer => # other tasks which were launched against attribute
-        Map<String, Integer> offerAttrTaskCounts = new HashMap<>();
-        for (TaskInfo task : tasks) {
-            // only tally tasks which match the task matcher (eg 'index-.*')
-            if (!taskFilter.matches(task.getName())) {
-                continue;
-            }
-            if (PlacementUtils.areEquivalent(task, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about counting its attribute usage. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            for (String taskAttributeString : CommonTaskUtils.getOfferAttributeStrings(task)) {
-                // only tally attribute values that are actually present in the offer
-                if (!offerAttributeStrings.contains(taskAttributeString)) {
-                    continue;
-                }
-                // only tally attribute(s) that match the attribute matcher (eg 'rack:.*'):
-                if (!attributeMatcher.matches(taskAttributeString)) {
-                    continue;
-                }
-                // increment the tally for this exact attribute value (eg 'rack:9'):
-                Integer val = offerAttrTaskCounts.get(taskAttributeString);
-                if (val == null) {
-                    val = 0;
-                }
-                val++;
-                if (val >= maxTasksPerSelectedAttribute) {
-                    // this attribute value's usage meets or exceeds the limit, and it is
-                    // present in this offer per the earlier check. offer denied!
-                    return EvaluationOutcome.fail(this,
-                            "Reached %d/%d tasks matching filter '%s' on this agent with attribute: %s",
-                            val, maxTasksPerSelectedAttribute, taskFilter.toString(), attributeMatcher.toString());
-                }
-                offerAttrTaskCounts.put(taskAttributeString, val);
+        // map: enforced attribute value => # other tasks which were launched against that value
+        PlacementIndex index = PlacementIndex.of(tasks);
+        PlacementIndex.ValueCounts attrTaskCounts = index.getValueCounts(this, this::getCountedAttributeStrings)
+                // Any tasks equivalent to the one we're currently evaluating for placement are stale data. Don't
+                // worry about counting their attribute usage. This occurs when we're redeploying a given task with a
+                // new configuration (old data not deleted yet).
+                .without(index.getEquivalentTasks(offerRequirement));
+        for (String offerAttributeString : offerAttributeStrings) {
+            int val = attrTaskCounts.get(offerAttributeString);
+            if (val > 0 && val >= maxTasksPerSelectedAttribute) {
+                // this attribute value's usage meets or exceeds the limit, and it is
+                // present in this offer. offer denied!
+                return EvaluationOutcome.fail(this,
+                        "Reached %d/%d tasks matching filter '%s' on this agent with attribute: %s",
+                        val, maxTasksPerSelectedAttribute, taskFilter.toString(), attributeMatcher.toString());
             }
         }
         // after scanning all the tasks for usage of attributes present in this offer, nothing
@@ -154,6 +133,24 @@ public class MaxPerAttributeRule implements PlacementRule {
                 maxTasksPerSelectedAttribute, taskFilter.toString(), attributeMatcher.toString());
     }
 
+    /**
+     * Returns the attribute values which the provided task should be counted against.
+     */
+    private Collection<String> getCountedAttributeStrings(TaskInfo task) {
+        // only tally tasks which match the task matcher (eg 'index-.*')
+        if (!taskFilter.matches(task.getName())) {
+            return Collections.emptyList();
+        }
+        List<String> attributeStrings = new ArrayList<>();
+        for (String taskAttributeString : CommonTaskUtils.getOfferAttributeStrings(task)) {
+            // only tally attribute(s) that match the attribute matcher (eg 'rack:.*'):
+            if (attributeMatcher.matches(taskAttributeString)) {
+                attributeStrings.add(taskAttributeString);
+            }
+        }
+        return attributeStrings;
+    }
+
     @JsonProperty("max")
     private int getMax() {
         return maxTasksPerSelectedAttribute;
@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -79,34 +80,17 @@ public class MaxPerHostnameRule implements PlacementRule {
 
     @Override
     public EvaluationOutcome filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
-        int offerHostnameTaskCounts = 0;
-        for (TaskInfo task : tasks) {
-            // only tally tasks which match the task matcher (eg 'index-.*')
-            if (!taskFilter.matches(task.getName())) {
-                continue;
-            }
-            if (PlacementUtils.areEquivalent(task, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about counting its usage. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            final String taskHostname;
-            try {
-                taskHostname = CommonTaskUtils.getHostname(task);
-            } catch (TaskException e) {
-                LOGGER.warn("Unable to extract hostname from task for filtering", e);
-                continue;
-            }
-            if (!taskHostname.equals(offer.getHostname())) {
-                continue;
-            }
-            ++offerHostnameTaskCounts;
-            if (offerHostnameTaskCounts >= maxTasksPerHostname) {
-                // the hostname for this offer meets or exceeds the limit. offer denied!
-                return EvaluationOutcome.fail(this, "%d/%d tasks matching filter '%s' are already present on this host",
-                        offerHostnameTaskCounts, maxTasksPerHostname, taskFilter.toString());
-            }
+        PlacementIndex index = PlacementIndex.of(tasks);
+        int offerHostnameTaskCounts = index.getValueCounts(this, this::getCountedHostname)
+                // Any tasks equivalent to the one we're currently evaluating for placement are stale data. Don't
+                // worry about counting their usage. This occurs when we're redeploying a given task with a new
+                // configuration (old data not deleted yet).
+                .without(index.getEquivalentTasks(offerRequirement))
+                .get(offer.getHostname());
+        if (offerHostnameTaskCounts > 0 && offerHostnameTaskCounts >= maxTasksPerHostname) {
+            // the hostname for this offer meets or exceeds the limit. offer denied!
+            return EvaluationOutcome.fail(this, "%d/%d tasks matching filter '%s' are already present on this host",
+                    offerHostnameTaskCounts, maxTasksPerHostname, taskFilter.toString());
         }
         // after scanning all the tasks for usage of attributes present in this offer, nothing
         // hit or exceeded the limit. offer accepted!
@@ -116,6 +100,22 @@ public class MaxPerHostnameRule implements PlacementRule {
                 offerHostnameTaskCounts, maxTasksPerHostname, taskFilter.toString());
     }
 
+    /**
+     * Returns the hostname which the provided task should be counted against, if any.
+     */
+    private Collection<String> getCountedHostname(TaskInfo task) {
+        // only tally tasks which match the task matcher (eg 'index-.*')
+        if (!taskFilter.matches(task.getName())) {
+            return Collections.emptyList();
+        }
+        try {
+            return Collections.singletonList(CommonTaskUtils.getHostname(task));
+        } catch (TaskException e) {
+            LOGGER.warn("Unable to extract hostname from task for filtering", e);
+            return Collections.emptyList();
+        }
+    }
+
     @JsonProperty("max")
     private int getMax() {
         return maxTasksPerHostname;
@@ -0,0 +1,290 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.offer.TaskException;
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * An immutable collection of deployed tasks, indexed for use by {@link PlacementRule}s.
+ * <p>
+ * Rules which count tasks against values such as hostnames or attributes would otherwise need to scan (and parse the
+ * labels of) every task for every offer. Instead, an index is passed to {@link PlacementRule#filter} as its
+ * {@code tasks} collection, and rules may use {@link #of(Collection)} to retrieve per-value task counts which are
+ * computed once per index and shared across all of the offers being evaluated.
+ * <p>
+ * An index is kept up to date via {@link #update(Collection)}, which produces a new index reflecting the tasks which
+ * were stored or cleared since this index was created. Any task counts which were already computed are carried over to
+ * the new index and adjusted for only those tasks, rather than being recomputed from scratch.
+ */
+public final class PlacementIndex extends AbstractCollection<TaskInfo> {
+
+    /** Task name => task(s). Callers may provide multiple copies of a task, each of which is counted separately. */
+    private final Map<String, List<TaskInfo>> tasksByName;
+    private final int size;
+    /** [task type, pod index] => tasks, for finding tasks which are equivalent to an {@link OfferRequirement}. */
+    private final Map<List<Object>, List<TaskInfo>> tasksByTypeAndIndex;
+    /** Rule => task counts for that rule. Populated lazily as rules request counts. */
+    private final ConcurrentMap<Object, ValueCounts> valueCounts;
+
+    /**
+     * Returns a new empty index. Each index caches the task counts requested by rules, so empty indexes are never
+     * shared: counts computed against one must not leak into indexes derived from another.
+     */
+    public static PlacementIndex empty() {
+        return new PlacementIndex(Collections.emptyMap(), 0, Collections.emptyMap(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Returns the provided tasks as an index. If the tasks are already an index, it is returned as-is, otherwise a new
+     * index is built from the tasks.
+     */
+    public static PlacementIndex of(Collection<TaskInfo> tasks) {
+        if (tasks instanceof PlacementIndex) {
+            return (PlacementIndex) tasks;
+        }
+        return empty().update(tasks);
+    }
+
+    private PlacementIndex(
+            Map<String, List<TaskInfo>> tasksByName,
+            int size,
+            Map<List<Object>, List<TaskInfo>> tasksByTypeAndIndex,
+            ConcurrentMap<Object, ValueCounts> valueCounts) {
+        this.tasksByName = tasksByName;
+        this.size = size;
+        this.tasksByTypeAndIndex = tasksByTypeAndIndex;
+        this.valueCounts = valueCounts;
+    }
+
+    /**
+     * Returns an index of the provided tasks, derived from this index. Only tasks which differ from those in this
+     * index are re-examined. If the tasks are unchanged, this index is returned.
+     */
+    public PlacementIndex update(Collection<TaskInfo> tasks) {
+        Map<String, List<TaskInfo>> newTasksByName = new HashMap<>();
+        for (TaskInfo task : tasks) {
+            List<TaskInfo> tasksWithName = newTasksByName.get(task.getName());
+            if (tasksWithName == null) {
+                tasksWithName = new ArrayList<>(1);
+                newTasksByName.put(task.getName(), tasksWithName);
+            }
+            tasksWithName.add(task);
+        }
+        List<TaskInfo> removedTasks = new ArrayList<>();
+        List<TaskInfo> addedTasks = new ArrayList<>();
+        for (Map.Entry<String, List<TaskInfo>> entry : newTasksByName.entrySet()) {
+            List<TaskInfo> oldTasks = tasksByName.get(entry.getKey());
+            if (oldTasks == null) {
+                addedTasks.addAll(entry.getValue());
+            } else if (!isSame(oldTasks, entry.getValue())) {
+                removedTasks.addAll(oldTasks);
+                addedTasks.addAll(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, List<TaskInfo>> entry : tasksByName.entrySet()) {
+            if (!newTasksByName.containsKey(entry.getKey())) {
+                removedTasks.addAll(entry.getValue());
+            }
+        }
+        if (removedTasks.isEmpty() && addedTasks.isEmpty()) {
+            return this;
+        }
+
+        Map<List<Object>, List<TaskInfo>> newTasksByTypeAndIndex = new HashMap<>(tasksByTypeAndIndex);
+        for (TaskInfo task : removedTasks) {
+            List<Object> key = getTypeAndIndex(task);
+            List<TaskInfo> equivalentTasks = new ArrayList<>(newTasksByTypeAndIndex.get(key));
+            equivalentTasks.remove(task);
+            if (equivalentTasks.isEmpty()) {
+                newTasksByTypeAndIndex.remove(key);
+            } else {
+                newTasksByTypeAndIndex.put(key, equivalentTasks);
+            }
+        }
+        for (TaskInfo task : addedTasks) {
+            List<Object> key = getTypeAndIndex(task);
+            List<TaskInfo> equivalentTasks = newTasksByTypeAndIndex.get(key);
+            equivalentTasks = equivalentTasks == null ? new ArrayList<>() : new ArrayList<>(equivalentTasks);
+            equivalentTasks.add(task);
+            newTasksByTypeAndIndex.put(key, equivalentTasks);
+        }
+
+        ConcurrentMap<Object, ValueCounts> newValueCounts = new ConcurrentHashMap<>();
+        for (Map.Entry<Object, ValueCounts> entry : valueCounts.entrySet()) {
+            newValueCounts.put(entry.getKey(), entry.getValue().update(removedTasks, addedTasks));
+        }
+
+        return new PlacementIndex(
+                Collections.unmodifiableMap(newTasksByName),
+                tasks.size(),
+                Collections.unmodifiableMap(newTasksByTypeAndIndex),
+                newValueCounts);
+    }
+
+    /**
+     * Returns the tasks which are equivalent to the provided requirement, as determined by
+     * {@link PlacementUtils#areEquivalent(TaskInfo, OfferRequirement)}.
+     */
+    public Collection<TaskInfo> getEquivalentTasks(OfferRequirement offerRequirement) {
+        List<TaskInfo> tasks =
+                tasksByTypeAndIndex.get(Arrays.asList(offerRequirement.getType(), offerRequirement.getIndex()));
+        return tasks == null ? Collections.emptyList() : tasks;
+    }
+
+    /**
+     * Returns the number of tasks in this index against each value produced by {@code taskValues}. The counts are
+     * computed once for each {@code rule}, which must therefore always be provided with an equivalent
+     * {@code taskValues} function.
+     *
+     * @param rule the rule which is requesting the counts
+     * @param taskValues returns the values which a given task should be counted against, if any
+     */
+    public ValueCounts getValueCounts(PlacementRule rule, Function<TaskInfo, Collection<String>> taskValues) {
+        return valueCounts.computeIfAbsent(
+                rule, r -> new ValueCounts(taskValues).update(Collections.emptyList(), this));
+    }
+
+    @Override
+    public Iterator<TaskInfo> iterator() {
+        return tasksByName.values().stream().flatMap(List::stream).iterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the provided lists contain the same tasks, comparing by identity before falling back to equality.
+     */
+    private static boolean isSame(List<TaskInfo> oldTasks, List<TaskInfo> newTasks) {
+        if (oldTasks.size() != newTasks.size()) {
+            return false;
+        }
+        for (int i = 0; i < oldTasks.size(); ++i) {
+            if (oldTasks.get(i) != newTasks.get(i) && !oldTasks.get(i).equals(newTasks.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the key used to find tasks which are equivalent to an {@link OfferRequirement}.
+     */
+    private static List<Object> getTypeAndIndex(TaskInfo task) {
+        String type;
+        try {
+            type = CommonTaskUtils.getType(task);
+        } catch (TaskException e) {
+            type = null;
+        }
+        Integer index;
+        try {
+            index = CommonTaskUtils.getIndex(task);
+        } catch (TaskException e) {
+            index = null;
+        }
+        return Arrays.asList(type, index);
+    }
+
+    /**
+     * The number of tasks counted against each distinct value, such as a hostname or attribute, for a given rule.
+     * Values which have no tasks are omitted.
+     */
+    public static final class ValueCounts {
+        private final Function<TaskInfo, Collection<String>> taskValues;
+        private final Map<String, Integer> counts;
+        private final int minCount;
+        private final int maxCount;
+
+        private ValueCounts(Function<TaskInfo, Collection<String>> taskValues) {
+            this(taskValues, Collections.emptyMap());
+        }
+
+        private ValueCounts(Function<TaskInfo, Collection<String>> taskValues, Map<String, Integer> counts) {
+            this.taskValues = taskValues;
+            this.counts = counts;
+            int min = counts.isEmpty() ? 0 : Integer.MAX_VALUE;
+            int max = 0;
+            for (int count : counts.values()) {
+                min = Math.min(min, count);
+                max = Math.max(max, count);
+            }
+            this.minCount = min;
+            this.maxCount = max;
+        }
+
+        /**
+         * Returns counts which exclude the provided tasks. This is used to ignore stale data for a task which is being
+         * redeployed.
+         */
+        public ValueCounts without(Collection<TaskInfo> tasks) {
+            return tasks.isEmpty() ? this : update(tasks, Collections.emptyList());
+        }
+
+        /**
+         * Returns the number of tasks against the provided value, or zero if there are none.
+         */
+        public int get(String value) {
+            Integer count = counts.get(value);
+            return count == null ? 0 : count;
+        }
+
+        /**
+         * Returns an unmodifiable map of values to their (non-zero) task counts.
+         */
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+
+        /**
+         * Returns the smallest count among all values, or zero if there are no values.
+         */
+        public int getMinCount() {
+            return minCount;
+        }
+
+        /**
+         * Returns the largest count among all values, or zero if there are no values.
+         */
+        public int getMaxCount() {
+            return maxCount;
+        }
+
+        private ValueCounts update(Collection<TaskInfo> removedTasks, Collection<TaskInfo> addedTasks) {
+            Map<String, Integer> newCounts = new HashMap<>(counts);
+            for (TaskInfo task : removedTasks) {
+                for (String value : taskValues.apply(task)) {
+                    Integer count = newCounts.get(value);
+                    if (count == null) {
+                        continue;
+                    }
+                    if (count <= 1) {
+                        newCounts.remove(value);
+                    } else {
+                        newCounts.put(value, count - 1);
+                    }
+                }
+            }
+            for (TaskInfo task : addedTasks) {
+                for (String value : taskValues.apply(task)) {
+                    Integer count = newCounts.get(value);
+                    newCounts.put(value, count == null ? 1 : count + 1);
+                }
+            }
+            return new ValueCounts(taskValues, Collections.unmodifiableMap(newCounts));
+        }
+
+        @Override
+        public String toString() {
+            return counts.toString();
+        }
+    }
+}
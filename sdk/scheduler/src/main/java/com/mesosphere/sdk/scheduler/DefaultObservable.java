@@ -1,16 +1,17 @@
 package com.mesosphere.sdk.scheduler;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
- * Implementation of the Observable interface.
+ * Implementation of the Observable interface. Observers may subscribe and unsubscribe while notifications are being
+ * delivered.
  */
 public class DefaultObservable implements Observable {
     private Set<Observer> observers;
 
     public DefaultObservable() {
-        observers = new HashSet<>();
+        observers = new CopyOnWriteArraySet<>();
     }
 
     @Override
@@ -18,6 +19,11 @@ public class DefaultObservable implements Observable {
         observers.add(observer);
     }
 
+    @Override
+    public void unsubscribe(Observer observer) {
+        observers.remove(observer);
+    }
+
     @Override
     public void notifyObservers() {
         for (Observer observer : observers) {
@@ -1,6 +1,8 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.scheduler.recovery.constrain.LaunchConstrainer;
 import com.mesosphere.sdk.scheduler.recovery.constrain.UnconstrainedLaunchConstrainer;
@@ -22,9 +24,11 @@ import com.mesosphere.sdk.config.validate.PodSpecsCannotShrink;
 import com.mesosphere.sdk.config.validate.TaskVolumesCannotChange;
 import com.mesosphere.sdk.curator.CuratorConfigStore;
 import com.mesosphere.sdk.curator.CuratorStateStore;
+import com.mesosphere.sdk.curator.WriteBehindCuratorStateStore;
 import com.mesosphere.sdk.dcos.Capabilities;
 import com.mesosphere.sdk.dcos.DcosCluster;
 import com.mesosphere.sdk.dcos.DcosConstants;
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.reconciliation.DefaultReconciler;
 import com.mesosphere.sdk.reconciliation.Reconciler;
@@ -39,6 +43,7 @@ import com.mesosphere.sdk.scheduler.recovery.RecoveryPlanManagerFactory;
 import com.mesosphere.sdk.scheduler.recovery.TaskFailureListener;
 import com.mesosphere.sdk.specification.DefaultPlanGenerator;
 import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.PodSpec;
 import com.mesosphere.sdk.specification.ReplacementFailurePolicy;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.specification.validation.CapabilityValidator;
@@ -64,7 +69,7 @@ public class DefaultScheduler implements Scheduler, Observer {
             "https://docs.mesosphere.com/latest/usage/managing-services/uninstall/";
 
     /**
-     * Time to wait for the executor thread to terminate. Only used by unit tests.
+     * Time to wait for the event loop to terminate. Only used by unit tests.
      *
      * Default: 10 seconds
      */
@@ -80,7 +85,8 @@ public class DefaultScheduler implements Scheduler, Observer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultScheduler.class);
 
-    protected final ExecutorService executor = Executors.newFixedThreadPool(1);
+    protected final SchedulerEventLoop eventLoop =
+            new SchedulerEventLoop(SchedulerUtils.statusUpdateParallelism());
 
     protected final BlockingQueue<Collection<Object>> resourcesQueue = new ArrayBlockingQueue<>(1);
     // Mesos may call registered() multiple times in the lifespan of a Scheduler process, specifically when there's
@@ -93,6 +99,38 @@ public class DefaultScheduler implements Scheduler, Observer {
     protected final ConfigStore<ServiceSpec> configStore;
     private final Optional<RecoveryPlanManagerFactory> recoveryPlanManagerFactoryOptional;
     private final Optional<ReplacementFailurePolicy> failurePolicyOptional;
+    /**
+     * Whether status updates must be acknowledged by the scheduler rather than by the driver. This matches the driver
+     * configuration produced by {@link SchedulerDriverFactory}.
+     */
+    private final boolean explicitAcknowledgements = SchedulerUtils.statusWriteBehindMs().isPresent();
+    /**
+     * Holds unused offers for reuse in later offer cycles while plans have pending work, when enabled via the
+     * environment. Offers are otherwise declined at the end of each cycle.
+     */
+    private final Optional<OfferPool> offerPool =
+            SchedulerUtils.offerHoldSeconds().map(seconds -> new OfferPool(Duration.ofSeconds(seconds)));
+    /**
+     * Schedules the decline of held offers once they expire, if the pool is enabled.
+     */
+    private final Optional<ScheduledExecutorService> offerExpiryExecutor = offerPool.map(
+            pool -> Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("offer-expiry-%d").setDaemon(true).build()));
+    private SuppressReviveController suppressReviveController;
+    /**
+     * Status updates which are waiting to be processed, where updates for the same task are merged.
+     */
+    private final StatusUpdateQueue statusUpdateQueue = new StatusUpdateQueue();
+    /**
+     * Whether an offer cycle over held offers has been queued following a status update, and hasn't started yet.
+     */
+    private final AtomicBoolean heldOffersCycleQueued = new AtomicBoolean(false);
+    /**
+     * The view of the state store which the offer cycle components read from, whose snapshot is retaken at the start of
+     * each offer cycle so that the cycle sees tasks and statuses which are consistent with each other. Empty if the
+     * state store isn't cached, in which case the components read from the state store directly.
+     */
+    private Optional<SnapshotStateStore> offerCycleStateStore = Optional.empty();
 
     protected SchedulerDriver driver;
     protected OfferRequirementProvider offerRequirementProvider;
@@ -102,6 +140,9 @@ public class DefaultScheduler implements Scheduler, Observer {
     protected TaskFailureListener taskFailureListener;
     protected TaskKiller taskKiller;
     protected OfferAccepter offerAccepter;
+    protected ResourceCleaner resourceCleaner;
+    protected ResourceCleanerScheduler resourceCleanerScheduler;
+    protected OfferEvaluator offerEvaluator;
     protected PlanScheduler planScheduler;
     protected PlanManager deploymentPlanManager;
     protected PlanManager recoveryPlanManager;
@@ -360,7 +401,10 @@ public class DefaultScheduler implements Scheduler, Observer {
      * @param zkConnectionString the zookeeper connection string to be passed to curator (host:port)
      */
     public static StateStore createStateStore(ServiceSpec serviceSpec, String zkConnectionString) {
-        StateStore stateStore = new CuratorStateStore(serviceSpec.getName(), zkConnectionString);
+        Optional<Integer> statusWriteBehindMs = SchedulerUtils.statusWriteBehindMs();
+        StateStore stateStore = statusWriteBehindMs.isPresent()
+                ? new WriteBehindCuratorStateStore(serviceSpec.getName(), zkConnectionString, statusWriteBehindMs.get())
+                : new CuratorStateStore(serviceSpec.getName(), zkConnectionString);
         if (System.getenv(Constants.DISABLE_STATE_CACHE_SCHEDENV) != null) {
             return stateStore;
         } else {
@@ -509,8 +553,16 @@ public class DefaultScheduler implements Scheduler, Observer {
 
     @VisibleForTesting
     void awaitTermination() throws InterruptedException {
-        executor.shutdown();
-        executor.awaitTermination(AWAIT_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        offerExpiryExecutor.ifPresent(ExecutorService::shutdownNow);
+        if (offerEvaluator != null) {
+            offerEvaluator.close();
+        }
+        eventLoop.shutdown(AWAIT_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (planCoordinator != null) {
+            // Closed once any in-flight offer cycle has finished, as the cycle may be using its pool:
+            planCoordinator.close();
+        }
+        suppressReviveController.shutdown();
     }
 
     private void initialize(SchedulerDriver driver) throws InterruptedException {
@@ -538,10 +590,28 @@ public class DefaultScheduler implements Scheduler, Observer {
         taskFailureListener = new DefaultTaskFailureListener(stateStore);
         taskKiller = new DefaultTaskKiller(taskFailureListener, driver);
         reconciler = new DefaultReconciler(stateStore);
-        offerAccepter = new OfferAccepter(Arrays.asList(new PersistentLaunchRecorder(stateStore, serviceSpec)));
+        suppressReviveController = new SuppressReviveController(
+                stateStore,
+                () -> planCoordinator.hasOperations(),
+                this::declineHeldOffers,
+                SchedulerUtils.declineRefuseSeconds().map(Long::valueOf));
+        resourceCleaner = new ResourceCleaner(stateStore);
+        offerCycleStateStore = stateStore instanceof StateStoreCache
+                ? Optional.of(new SnapshotStateStore((StateStoreCache) stateStore))
+                : Optional.empty();
+        StateStore offerCycleStore = offerCycleStateStore.isPresent() ? offerCycleStateStore.get() : stateStore;
+        offerAccepter = new OfferAccepter(
+                Arrays.asList(new PersistentLaunchRecorder(offerCycleStore, serviceSpec)),
+                suppressReviveController::getAcceptFilters);
+        resourceCleanerScheduler = new ResourceCleanerScheduler(resourceCleaner, offerAccepter);
+        offerEvaluator = new OfferEvaluator(
+                offerCycleStore, offerRequirementProvider, SchedulerUtils.offerEvaluationParallelism());
         planScheduler = new DefaultPlanScheduler(
                 offerAccepter,
-                new OfferEvaluator(stateStore, offerRequirementProvider), stateStore, taskKiller);
+                offerEvaluator,
+                offerCycleStore,
+                taskKiller,
+                SchedulerUtils.batchOfferMatchingEnabled());
     }
 
     /**
@@ -611,7 +681,8 @@ public class DefaultScheduler implements Scheduler, Observer {
         planManagers.add(deploymentPlanManager);
         planManagers.add(recoveryPlanManager);
         planManagers.addAll(getOtherPlanManagers());
-        planCoordinator = new DefaultPlanCoordinator(planManagers, planScheduler);
+        planCoordinator = new DefaultPlanCoordinator(
+                planManagers, planScheduler, SchedulerUtils.planCoordinatorParallelism());
     }
 
     private void initializeResources() throws InterruptedException {
@@ -624,6 +695,8 @@ public class DefaultScheduler implements Scheduler, Observer {
             endpointsResource.setCustomEndpoint(entry.getKey(), entry.getValue());
         }
         resources.add(endpointsResource);
+        resources.add(new MetricsResource(Metrics.getRegistry()));
+        resources.add(new OffersDebugResource(DecisionTrace.get()));
         resources.add(new PlansResource(planCoordinator));
         if (customRestartHook.isPresent()) {
             resources.add(new PodsResource(taskKiller, stateStore, customRestartHook.get()));
@@ -636,23 +709,64 @@ public class DefaultScheduler implements Scheduler, Observer {
         resourcesQueue.add(resources);
     }
 
-    private void declineOffers(SchedulerDriver driver, List<Protos.OfferID> acceptedOffers, List<Protos.Offer> offers) {
-        final List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
+    private void declineOffers(SchedulerDriver driver, List<Protos.Offer> unusedOffers) {
+        if (unusedOffers.isEmpty()) {
+            return;
+        }
+        Metrics.getCounter(Metrics.OFFERS_DECLINED).inc(unusedOffers.size());
         LOGGER.info("Declining {} unused offers:", unusedOffers.size());
+        Optional<Protos.Filters> declineFilters = suppressReviveController.getDeclineFilters();
+        List<Protos.OfferID> offerIds = new ArrayList<>();
         unusedOffers.stream().forEach(offer -> {
             final Protos.OfferID offerId = offer.getId();
             LOGGER.info("  {}", offerId.getValue());
-            driver.declineOffer(offerId);
+            if (declineFilters.isPresent()) {
+                driver.declineOffer(offerId, declineFilters.get());
+            } else {
+                driver.declineOffer(offerId);
+            }
+            offerIds.add(offerId);
         });
+        if (offerPool.isPresent()) {
+            offerPool.get().remove(offerIds);
+        }
+    }
+
+    /**
+     * Holds the provided unused offers for reuse in a later offer cycle if the pool is enabled and plans have pending
+     * work, or declines them otherwise.
+     */
+    private void holdOrDeclineOffers(SchedulerDriver driver, List<Protos.Offer> unusedOffers) {
+        if (!offerPool.isPresent() || unusedOffers.isEmpty() || !planCoordinator.hasOperations()) {
+            declineOffers(driver, unusedOffers);
+            return;
+        }
+        offerPool.get().hold(unusedOffers);
+        Metrics.getCounter(Metrics.OFFERS_HELD).inc(unusedOffers.size());
+        LOGGER.info("Holding {} unused offers for up to {}s while plans have pending work",
+                unusedOffers.size(), offerPool.get().getHoldDuration().getSeconds());
+        // Decline the offers once they expire, in case they haven't been used or released by then:
+        offerExpiryExecutor.get().schedule(
+                () -> eventLoop.submitExclusive(
+                        SchedulerEventLoop.EventType.HELD_OFFERS,
+                        () -> declineOffers(driver, offerPool.get().removeExpired())),
+                offerPool.get().getHoldDuration().toMillis(),
+                TimeUnit.MILLISECONDS);
     }
 
-    private Optional<ResourceCleanerScheduler> getCleanerScheduler() {
+    /**
+     * Runs an offer cycle over any held offers, so that work which became pending since they were received (e.g. the
+     * next step of a deployment) can use them without waiting for new offers.
+     */
+    private void processHeldOffers(SchedulerDriver driver) {
+        if (!offerPool.isPresent() || offerPool.get().size() == 0 || !planCoordinator.hasOperations()) {
+            return;
+        }
+        Timer.Context timerContext = Metrics.getTimer(Metrics.OFFER_CYCLE).time();
         try {
-            ResourceCleaner cleaner = new ResourceCleaner(stateStore);
-            return Optional.of(new ResourceCleanerScheduler(cleaner, offerAccepter));
-        } catch (Exception ex) {
-            LOGGER.error("Failed to construct ResourceCleaner", ex);
-            return Optional.empty();
+            processOffers(driver, new ArrayList<>());
+        } finally {
+            timerContext.stop();
         }
     }
 
@@ -684,107 +798,235 @@ public class DefaultScheduler implements Scheduler, Observer {
         this.driver = driver;
         reconciler.start();
         reconciler.reconcile(driver);
-        revive();
+        suppressReviveController.initialize(driver);
     }
 
     @Override
     public void reregistered(SchedulerDriver driver, Protos.MasterInfo masterInfo) {
         LOGGER.info("Re-registered with master: {}", TextFormat.shortDebugString(masterInfo));
+        if (offerPool.isPresent()) {
+            // Offers from before the master failover are no longer valid, and don't need to be declined:
+            List<Protos.Offer> droppedOffers = offerPool.get().removeAll();
+            LOGGER.info("Dropped {} held offers following re-registration", droppedOffers.size());
+        }
         reconciler.start();
         reconciler.reconcile(driver);
-        suppressOrRevive();
+        // Mesos doesn't retain a framework's suppression across master failover, so start over with a revive:
+        suppressReviveController.initialize(driver);
+        suppressReviveController.update();
     }
 
     @Override
     public void resourceOffers(SchedulerDriver driver, List<Protos.Offer> offersToProcess) {
         List<Protos.Offer> offers = new ArrayList<>(offersToProcess);
-        executor.execute(() -> {
-            LOGGER.info("Received {} {}:", offers.size(), offers.size() == 1 ? "offer" : "offers");
-            for (int i = 0; i < offers.size(); ++i) {
-                LOGGER.info("  {}: {}", i + 1, TextFormat.shortDebugString(offers.get(i)));
+        // Recorded before the cycle is queued, so that rescinds which arrive in the meantime are remembered:
+        offerPool.ifPresent(pool -> pool.receive(offers));
+        eventLoop.submitExclusive(SchedulerEventLoop.EventType.OFFERS, () -> {
+            Timer.Context timerContext = Metrics.getTimer(Metrics.OFFER_CYCLE).time();
+            try {
+                processOffers(driver, offers);
+            } finally {
+                timerContext.stop();
             }
+        });
+    }
 
-            // Task Reconciliation:
-            // Task Reconciliation must complete before any Tasks may be launched.  It ensures that a Scheduler and
-            // Mesos have agreed upon the state of all Tasks of interest to the scheduler.
-            // http://mesos.apache.org/documentation/latest/reconciliation/
-            reconciler.reconcile(driver);
-            if (!reconciler.isReconciled()) {
-                LOGGER.info("Reconciliation is still in progress, declining all offers.");
-                declineOffers(driver, Collections.emptyList(), offers);
-                return;
+    private void processOffers(SchedulerDriver driver, List<Protos.Offer> offers) {
+        Metrics.getCounter(Metrics.OFFERS_RECEIVED).inc(offers.size());
+        DecisionTrace decisionTrace = DecisionTrace.get();
+        long cycle = decisionTrace.startCycle();
+        LOGGER.info("Received {} {} in offer cycle {}", offers.size(), offers.size() == 1 ? "offer" : "offers", cycle);
+        offerCycleStateStore.ifPresent(SnapshotStateStore::takeSnapshot);
+        for (int i = 0; i < offers.size(); ++i) {
+            Protos.Offer offer = offers.get(i);
+            decisionTrace.record(LOGGER, DecisionTrace.Type.OFFER,
+                    "  " + (i + 1) + ": " + offer.getId().getValue(),
+                    () -> TextFormat.shortDebugString(offer));
+        }
+        if (offerPool.isPresent()) {
+            // Expired offers are declined, and any other held offers are considered alongside the new offers:
+            declineOffers(driver, offerPool.get().removeExpired());
+            List<Protos.Offer> heldOffers = offerPool.get().takeOffers();
+            if (!heldOffers.isEmpty()) {
+                LOGGER.info("Including {} held {}", heldOffers.size(), heldOffers.size() == 1 ? "offer" : "offers");
+                offers.addAll(0, heldOffers);
             }
+        }
+        final int offerCount = offers.size();
 
-            // Coordinate amongst all the plans via PlanCoordinator.
-            final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
-            acceptedOffers.addAll(planCoordinator.processOffers(driver, offers));
-
-            List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
-            offers.clear();
-            offers.addAll(unusedOffers);
-
-            // Resource Cleaning:
-            // A ResourceCleaner ensures that reserved Resources are not leaked.  It is possible that an Agent may
-            // become inoperable for long enough that Tasks resident there were relocated.  However, this Agent may
-            // return at a later point and begin offering reserved Resources again.  To ensure that these unexpected
-            // reserved Resources are returned to the Mesos Cluster, the Resource Cleaner performs all necessary
-            // UNRESERVE and DESTROY (in the case of persistent volumes) Operations.
-            // Note: If there are unused reserved resources on a dirtied offer, then it will be cleaned in the next
-            // offer cycle.
-            final Optional<ResourceCleanerScheduler> cleanerScheduler = getCleanerScheduler();
-            if (cleanerScheduler.isPresent()) {
-                acceptedOffers.addAll(cleanerScheduler.get().resourceOffers(driver, offers));
-            }
+        // Task Reconciliation:
+        // Task Reconciliation must complete before any Tasks may be launched.  It ensures that a Scheduler and
+        // Mesos have agreed upon the state of all Tasks of interest to the scheduler.
+        // http://mesos.apache.org/documentation/latest/reconciliation/
+        reconciler.reconcile(driver);
+        if (!reconciler.isReconciled()) {
+            LOGGER.info("Reconciliation is still in progress, declining all offers.");
+            declineOffers(driver, offers);
+            return;
+        }
 
-            unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
-            offers.clear();
-            offers.addAll(unusedOffers);
+        // Coordinate amongst all the plans via PlanCoordinator.
+        final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
+        acceptedOffers.addAll(planCoordinator.processOffers(driver, offers));
+        // Track whether pending work is blocked, so that refuse filters reflect how long it's been waiting:
+        suppressReviveController.offerCycleCompleted(!acceptedOffers.isEmpty());
+
+        List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
+        offers.clear();
+        offers.addAll(unusedOffers);
+
+        // Resource Cleaning:
+        // A ResourceCleaner ensures that reserved Resources are not leaked.  It is possible that an Agent may
+        // become inoperable for long enough that Tasks resident there were relocated.  However, this Agent may
+        // return at a later point and begin offering reserved Resources again.  To ensure that these unexpected
+        // reserved Resources are returned to the Mesos Cluster, the Resource Cleaner performs all necessary
+        // UNRESERVE and DESTROY (in the case of persistent volumes) Operations.
+        // Note: If there are unused reserved resources on a dirtied offer, then it will be cleaned in the next
+        // offer cycle.
+        acceptedOffers.addAll(resourceCleanerScheduler.resourceOffers(driver, offers));
+
+        unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
+        Metrics.getCounter(Metrics.OFFERS_ACCEPTED).inc(offerCount - unusedOffers.size());
+        if (offerPool.isPresent()) {
+            offerPool.get().remove(acceptedOffers);
+        }
 
-            // Decline remaining offers.
-            declineOffers(driver, acceptedOffers, offers);
-        });
+        // Hold or decline remaining offers.
+        holdOrDeclineOffers(driver, unusedOffers);
     }
 
     @Override
     public void offerRescinded(SchedulerDriver driver, Protos.OfferID offerId) {
-        LOGGER.error("Rescinding offers is not supported.");
-        SchedulerUtils.hardExit(SchedulerErrorCode.OFFER_RESCINDED);
+        // An offer which is rescinded while being evaluated may still be accepted, in which case Mesos rejects the
+        // operations and any launched tasks are reported as lost, to be recovered in the usual way.
+        Metrics.getCounter(Metrics.OFFERS_RESCINDED).inc();
+        if (offerPool.isPresent() && offerPool.get().rescind(offerId)) {
+            LOGGER.info("Held offer was rescinded: {}", offerId.getValue());
+        } else {
+            LOGGER.info("Offer was rescinded: {}", offerId.getValue());
+        }
     }
 
     @Override
     public void statusUpdate(SchedulerDriver driver, Protos.TaskStatus status) {
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                LOGGER.info("Received status update for taskId={} state={} message='{}'",
-                        status.getTaskId().getValue(),
-                        status.getState().toString(),
-                        status.getMessage());
-
-                // Store status, then pass status to PlanManager => Plan => Steps
-                try {
-                    stateStore.storeStatus(status);
-                    planCoordinator.getPlanManagers().stream()
-                            .forEach(planManager -> planManager.update(status));
-                    reconciler.update(status);
-
-                    if (status.getState().equals(Protos.TaskState.TASK_RUNNING)
-                            || status.getState().equals(Protos.TaskState.TASK_FINISHED)) {
-                        String taskName = CommonTaskUtils.toTaskName(status.getTaskId());
-                        Optional<Protos.TaskInfo> taskInfoOptional = stateStore.fetchTask(taskName);
-                        if (taskInfoOptional.isPresent() && FailureUtils.isLabeledAsFailed(taskInfoOptional.get())) {
-                            stateStore.storeTasks(Arrays.asList(FailureUtils.clearFailed(taskInfoOptional.get())));
-                        }
-                    }
+        if (!statusUpdateQueue.add(status)) {
+            // Merged into an update for the same task which hasn't been processed yet.
+            Metrics.getCounter(Metrics.STATUSES_COALESCED).inc();
+            return;
+        }
+        // Updates for tasks in different pods may be processed concurrently, while those within a pod stay in order:
+        eventLoop.submit(
+                SchedulerEventLoop.EventType.STATUS,
+                getPodName(status),
+                () -> processStatuses(driver, statusUpdateQueue.take(status.getTaskId())));
+    }
 
-                    if (StateStoreUtils.isSuppressed(stateStore)
-                            && !StateStoreUtils.fetchTasksNeedingRecovery(stateStore, configStore).isEmpty()) {
-                        revive();
+    /**
+     * Processes the coalesced statuses for a single task. Each status is stored and passed to the plans, while the
+     * recovery check and the offer cycle over any held offers are performed once for the whole batch.
+     */
+    private void processStatuses(SchedulerDriver driver, StatusUpdateQueue.Batch batch) {
+        for (Protos.TaskStatus status : batch.getStatusesToProcess()) {
+            LOGGER.info("Received status update for taskId={} state={} message='{}'",
+                    status.getTaskId().getValue(),
+                    status.getState().toString(),
+                    status.getMessage());
+
+            // Store status, then pass status to PlanManager => Plan => Steps
+            try {
+                stateStore.storeStatus(status);
+                planCoordinator.getPlanManagers().stream()
+                        .forEach(planManager -> planManager.update(status));
+                reconciler.update(status);
+
+                if (status.getState().equals(Protos.TaskState.TASK_RUNNING)
+                        || status.getState().equals(Protos.TaskState.TASK_FINISHED)) {
+                    String taskName = CommonTaskUtils.toTaskName(status.getTaskId());
+                    Optional<Protos.TaskInfo> taskInfoOptional = stateStore.fetchTask(taskName);
+                    if (taskInfoOptional.isPresent() && FailureUtils.isLabeledAsFailed(taskInfoOptional.get())) {
+                        stateStore.storeTasks(Arrays.asList(FailureUtils.clearFailed(taskInfoOptional.get())));
                     }
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to update TaskStatus received from Mesos. "
-                            + "This may be expected if Mesos sent stale status information: " + status, e);
                 }
+            } catch (Exception e) {
+                LOGGER.warn("Failed to update TaskStatus received from Mesos. "
+                        + "This may be expected if Mesos sent stale status information: " + status, e);
+            }
+        }
+
+        try {
+            if (suppressReviveController.isReviveNeeded()
+                    && !suppressReviveController.isReviveRequested()
+                    && !StateStoreUtils.fetchTasksNeedingRecovery(stateStore, configStore).isEmpty()) {
+                suppressReviveController.requestRevive();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to check for tasks needing recovery", e);
+        }
+
+        if (explicitAcknowledgements) {
+            // Coalesced statuses were stored as part of the batch, so they're acknowledged along with it:
+            for (Protos.TaskStatus status : batch.getReceivedStatuses()) {
+                acknowledgeWhenStored(driver, status);
+            }
+        }
+
+        // The statuses may have made more work pending, which any held offers can be used for. Only one such offer
+        // cycle is queued at a time, as it covers the batches of every task processed before it runs:
+        if (offerPool.isPresent() && offerPool.get().size() > 0 && !heldOffersCycleQueued.getAndSet(true)) {
+            eventLoop.submitExclusive(SchedulerEventLoop.EventType.HELD_OFFERS, () -> {
+                heldOffersCycleQueued.set(false);
+                processHeldOffers(driver);
+            });
+        }
+    }
+
+    /**
+     * Returns the name of the pod instance which the provided status refers to, or the task ID if the pod is unknown,
+     * e.g. because its type has since been removed from the service.
+     * <p>
+     * Task names are of the form {@code <pod type>-<index>-<task>}, so the pod is derived from the task's name and the
+     * service's pod types, without looking the task up in the state store. Pod types and task names may both contain
+     * dashes, so the longest pod type which is followed by an index is used.
+     */
+    @VisibleForTesting
+    String getPodName(Protos.TaskStatus status) {
+        String taskName;
+        try {
+            taskName = CommonTaskUtils.toTaskName(status.getTaskId());
+        } catch (TaskException e) {
+            LOGGER.debug("Failed to determine pod for status, using its task ID: " + status.getTaskId().getValue(), e);
+            return status.getTaskId().getValue();
+        }
+        String podName = null;
+        for (PodSpec podSpec : serviceSpec.getPods()) {
+            String prefix = podSpec.getType() + "-";
+            if (!taskName.startsWith(prefix) || (podName != null && podName.length() > prefix.length())) {
+                continue;
+            }
+            int indexEnd = taskName.indexOf('-', prefix.length());
+            String index = indexEnd == -1 ? "" : taskName.substring(prefix.length(), indexEnd);
+            if (!index.isEmpty() && index.chars().allMatch(Character::isDigit)) {
+                podName = taskName.substring(0, indexEnd);
+            }
+        }
+        return podName == null ? status.getTaskId().getValue() : podName;
+    }
+
+    /**
+     * Acknowledges the provided status to Mesos once it (and any statuses received before it) has been durably stored.
+     * If storing fails, the status is left unacknowledged so that Mesos will resend it.
+     */
+    private void acknowledgeWhenStored(SchedulerDriver driver, Protos.TaskStatus status) {
+        if (!status.hasUuid()) {
+            // Statuses without a UUID, such as those produced by reconciliation, must not be acknowledged.
+            return;
+        }
+        stateStore.whenStatusesStored().whenComplete((result, error) -> {
+            if (error == null) {
+                driver.acknowledgeStatusUpdate(status);
+            } else {
+                LOGGER.warn("Not acknowledging TaskStatus which failed to be stored, "
+                        + "expecting Mesos to resend it: " + status, error);
             }
         });
     }
@@ -839,38 +1081,19 @@ public class DefaultScheduler implements Scheduler, Observer {
         SchedulerUtils.hardExit(SchedulerErrorCode.ERROR);
     }
 
-    private void suppressOrRevive() {
-        if (planCoordinator.hasOperations()) {
-            if (StateStoreUtils.isSuppressed(stateStore)) {
-                revive();
-            } else {
-                LOGGER.info("Already revived.");
-            }
-        } else {
-            if (StateStoreUtils.isSuppressed(stateStore)) {
-                LOGGER.info("Already suppressed.");
-            } else {
-                suppress();
-            }
+    /**
+     * Declines any held offers, as there's no more pending work for them.
+     */
+    private void declineHeldOffers() {
+        if (offerPool.isPresent()) {
+            declineOffers(driver, offerPool.get().removeAll());
         }
     }
 
-    private void suppress() {
-        LOGGER.info("Suppressing offers.");
-        driver.suppressOffers();
-        StateStoreUtils.setSuppressed(stateStore, true);
-    }
-
-    private void revive() {
-        LOGGER.info("Reviving offers.");
-        driver.reviveOffers();
-        StateStoreUtils.setSuppressed(stateStore, false);
-    }
-
     @Override
     public void update(Observable observable) {
         if (observable == planCoordinator) {
-            suppressOrRevive();
+            suppressReviveController.update();
         }
     }
 }
@@ -3,5 +3,6 @@ package com.mesosphere.sdk.scheduler;
 /** Observable. */
 public interface Observable {
     void subscribe(Observer observer);
+    void unsubscribe(Observer observer);
     void notifyObservers();
 }
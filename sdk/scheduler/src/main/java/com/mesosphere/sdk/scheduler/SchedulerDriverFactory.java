@@ -99,10 +99,13 @@ public class SchedulerDriverFactory {
             final FrameworkInfo frameworkInfo,
             final String masterUrl,
             final Credential credential) {
+        // When status writes are deferred, statuses are only acknowledged once they've been written.
+        boolean implicitAcknowledgements = !SchedulerUtils.statusWriteBehindMs().isPresent();
         if (credential == null) {
-            return new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, true);
+            return new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, implicitAcknowledgements);
         } else {
-            return new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, true, credential);
+            return new MesosToSchedulerDriverAdapter(
+                    scheduler, frameworkInfo, masterUrl, implicitAcknowledgements, credential);
         }
     }
 
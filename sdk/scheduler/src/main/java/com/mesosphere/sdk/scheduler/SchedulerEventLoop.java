@@ -0,0 +1,180 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mesosphere.sdk.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Processes the scheduler's events, such as offer cycles and status updates, in the order that they're received.
+ * <p>
+ * Events are dispatched in order by a single thread. Keyed events, such as status updates for the tasks in a pod, are
+ * handed to a pool of worker threads: events with the same key run one at a time in the order they were submitted,
+ * while events with different keys may run concurrently. Exclusive events, such as offer cycles, wait for all
+ * previously dispatched keyed events to finish and then run alone on the dispatch thread, so that they see a
+ * consistent view of the state which keyed events modify. Keyed events which are submitted after an exclusive event
+ * don't start until it has finished.
+ * <p>
+ * For each {@link EventType}, the number of events waiting to start and the time each event spends waiting are
+ * recorded in {@link Metrics}.
+ */
+public class SchedulerEventLoop {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerEventLoop.class);
+
+    /**
+     * The types of events processed by the loop, each of which has its own metrics.
+     */
+    public enum EventType {
+        /** An offer cycle over newly received offers. */
+        OFFERS,
+        /** An offer cycle over held offers, or the decline of held offers which have expired. */
+        HELD_OFFERS,
+        /** A task status update. */
+        STATUS;
+
+        private final AtomicLong queueDepth = Metrics.getEventQueueDepth(name().toLowerCase());
+        private final Timer dwellTimer = Metrics.getEventDwellTimer(name().toLowerCase());
+    }
+
+    private final ExecutorService dispatcher;
+    private final ExecutorService workers;
+
+    /**
+     * Key => the events for that key which haven't finished, where the head is the event that's running. A key is
+     * only present while it has events.
+     */
+    private final Map<String, Queue<Event>> keyQueues = new HashMap<>();
+    /** The number of keyed events which have been dispatched but haven't finished. Guarded by {@link #keyQueues}. */
+    private int keyedEventsInFlight = 0;
+
+    /**
+     * Creates a new event loop where up to {@code parallelism} keyed events may run concurrently.
+     */
+    public SchedulerEventLoop(int parallelism) {
+        this.dispatcher = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("scheduler-events-%d").build());
+        this.workers = Executors.newFixedThreadPool(
+                parallelism, new ThreadFactoryBuilder().setNameFormat("scheduler-events-keyed-%d").build());
+    }
+
+    /**
+     * Submits an event which runs alone, once all previously submitted events have finished.
+     */
+    public void submitExclusive(EventType type, Runnable runnable) {
+        Event event = new Event(type, runnable);
+        dispatcher.execute(() -> {
+            awaitKeyedEvents();
+            event.run();
+        });
+    }
+
+    /**
+     * Submits an event which runs after any previously submitted events with the same key or exclusive events, and
+     * which may run concurrently with events that have other keys.
+     */
+    public void submit(EventType type, String key, Runnable runnable) {
+        Event event = new Event(type, runnable);
+        dispatcher.execute(() -> dispatchKeyed(key, event));
+    }
+
+    /**
+     * Stops accepting events and waits for up to the provided duration for submitted events to finish.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        workers.shutdown();
+        workers.awaitTermination(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void dispatchKeyed(String key, Event event) {
+        synchronized (keyQueues) {
+            ++keyedEventsInFlight;
+            Queue<Event> queue = keyQueues.get(key);
+            if (queue != null) {
+                // A worker is already running this key's events, and will pick this one up next.
+                queue.add(event);
+                return;
+            }
+            queue = new ArrayDeque<>();
+            queue.add(event);
+            keyQueues.put(key, queue);
+        }
+        workers.execute(() -> runKeyed(key));
+    }
+
+    /**
+     * Runs the events for the provided key until none are left.
+     */
+    private void runKeyed(String key) {
+        while (true) {
+            Event event;
+            synchronized (keyQueues) {
+                event = keyQueues.get(key).peek();
+            }
+            event.run();
+            synchronized (keyQueues) {
+                Queue<Event> queue = keyQueues.get(key);
+                queue.remove();
+                --keyedEventsInFlight;
+                keyQueues.notifyAll();
+                if (queue.isEmpty()) {
+                    keyQueues.remove(key);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitKeyedEvents() {
+        synchronized (keyQueues) {
+            while (keyedEventsInFlight > 0) {
+                try {
+                    keyQueues.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A submitted event, which records its own metrics.
+     */
+    private static class Event {
+        private final EventType type;
+        private final Runnable runnable;
+        private final long submitNanos;
+
+        private Event(EventType type, Runnable runnable) {
+            this.type = type;
+            this.runnable = runnable;
+            this.submitNanos = System.nanoTime();
+            type.queueDepth.incrementAndGet();
+        }
+
+        private void run() {
+            type.queueDepth.decrementAndGet();
+            type.dwellTimer.update(System.nanoTime() - submitNanos, TimeUnit.NANOSECONDS);
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                // Log and carry on, so that a failed event doesn't stop later events from being processed.
+                LOGGER.error(String.format("Failed to process %s event", type), t);
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.sdk.offer.Constants;
+
+import java.util.Optional;
+
 /**
  * This class provides utilities common to the construction and operation of Mesos Schedulers.
  */
@@ -54,6 +58,107 @@ public class SchedulerUtils {
         return Integer.parseInt(envPort);
     }
 
+    /**
+     * Returns the env-configured number of offers to evaluate concurrently, or 1 (sequential evaluation) if the
+     * environment doesn't specify a value.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static int offerEvaluationParallelism() {
+        return getPositiveIntEnv(Constants.OFFER_EVALUATION_PARALLELISM_SCHEDENV, 1);
+    }
+
+    /**
+     * Returns the env-configured number of task status updates to process concurrently, or 1 (sequential processing)
+     * if the environment doesn't specify a value.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static int statusUpdateParallelism() {
+        return getPositiveIntEnv(Constants.STATUS_UPDATE_PARALLELISM_SCHEDENV, 1);
+    }
+
+    /**
+     * Returns the env-configured number of plans to present offers to concurrently, or 1 (sequential processing) if
+     * the environment doesn't specify a value.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static int planCoordinatorParallelism() {
+        return getPositiveIntEnv(Constants.PLAN_COORDINATOR_PARALLELISM_SCHEDENV, 1);
+    }
+
+    /**
+     * Returns the env-configured interval between offer cycles whose details are logged at INFO, or 100 if the
+     * environment doesn't specify a value.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static int decisionTraceSampleInterval() {
+        return getPositiveIntEnv(Constants.DECISION_TRACE_SAMPLE_INTERVAL_SCHEDENV, 100);
+    }
+
+    /**
+     * Returns whether the environment enables batch matching of steps against offers.
+     */
+    public static boolean batchOfferMatchingEnabled() {
+        return System.getenv(Constants.ENABLE_BATCH_OFFER_MATCHING_SCHEDENV) != null;
+    }
+
+    /**
+     * Returns the env-configured window in milliseconds for coalescing TaskStatus writes, or an empty Optional if
+     * statuses should be written as they're received.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static Optional<Integer> statusWriteBehindMs() {
+        return getOptionalPositiveIntEnv(Constants.STATUS_WRITE_BEHIND_MS_SCHEDENV);
+    }
+
+    /**
+     * Returns the env-configured number of seconds that unused offers may be held for reuse, or an empty Optional if
+     * unused offers should be declined immediately.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static Optional<Integer> offerHoldSeconds() {
+        return getOptionalPositiveIntEnv(Constants.OFFER_HOLD_SECONDS_SCHEDENV);
+    }
+
+    /**
+     * Returns the env-configured number of seconds for which declined offers should be refused, or an empty Optional
+     * if Mesos' default should be used.
+     *
+     * @throws IllegalStateException if the configured value is not a positive integer
+     */
+    public static Optional<Integer> declineRefuseSeconds() {
+        return getOptionalPositiveIntEnv(Constants.DECLINE_REFUSE_SECONDS_SCHEDENV);
+    }
+
+    private static Optional<Integer> getOptionalPositiveIntEnv(String envName) {
+        if (System.getenv(envName) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(getPositiveIntEnv(envName, 0));
+    }
+
+    private static int getPositiveIntEnv(String envName, int defaultValue) {
+        String envValue = System.getenv(envName);
+        if (envValue == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(envValue);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalStateException(String.format(
+                "Environment variable %s must be a positive integer, got: %s", envName, envValue));
+    }
+
     /**
      * Immediately exits the process with the ordinal value of the provided {@code errorCode}.
      */
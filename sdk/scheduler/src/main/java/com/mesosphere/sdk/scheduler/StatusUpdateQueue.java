@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import org.apache.mesos.Protos.TaskID;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces task status updates which arrive faster than they can be processed, e.g. when Mesos replays updates
+ * following an agent partition, so that each task's pending updates are processed together as a single batch.
+ * <p>
+ * While a task has updates waiting to be processed, any further updates for the same {@link TaskID} are merged into
+ * them: only the newest update is kept, except that a terminal update which is followed by a non-terminal one is
+ * also kept, so that the terminal transition is never lost. All of the updates which were received are still returned
+ * by {@link Batch#getReceivedStatuses()}, so that each of them may be acknowledged once the batch is stored.
+ */
+public class StatusUpdateQueue {
+
+    private final Map<TaskID, Batch> pendingBatches = new HashMap<>();
+
+    /**
+     * Adds the provided status to the queue.
+     *
+     * @return whether the status started a new batch for its task, which should then be scheduled for processing via
+     *     {@link #take(TaskID)}, or {@code false} if it was merged into a batch which is already waiting
+     */
+    public synchronized boolean add(TaskStatus status) {
+        Batch batch = pendingBatches.get(status.getTaskId());
+        if (batch == null) {
+            pendingBatches.put(status.getTaskId(), new Batch(status));
+            return true;
+        }
+        batch.merge(status);
+        return false;
+    }
+
+    /**
+     * Removes and returns the pending batch for the provided task. Any statuses for the task which are added afterwards
+     * start a new batch.
+     */
+    public synchronized Batch take(TaskID taskId) {
+        Batch batch = pendingBatches.remove(taskId);
+        return batch == null ? new Batch() : batch;
+    }
+
+    /**
+     * Returns the number of tasks which have statuses waiting to be processed.
+     */
+    public synchronized int size() {
+        return pendingBatches.size();
+    }
+
+    /**
+     * The coalesced statuses for a single task.
+     */
+    public static class Batch {
+        private final List<TaskStatus> receivedStatuses = new ArrayList<>();
+        private TaskStatus supersededTerminalStatus;
+        private TaskStatus newestStatus;
+
+        private Batch() {
+        }
+
+        private Batch(TaskStatus status) {
+            receivedStatuses.add(status);
+            newestStatus = status;
+        }
+
+        private void merge(TaskStatus status) {
+            receivedStatuses.add(status);
+            if (CommonTaskUtils.isTerminal(newestStatus) && !CommonTaskUtils.isTerminal(status)) {
+                supersededTerminalStatus = newestStatus;
+            }
+            newestStatus = status;
+        }
+
+        /**
+         * Returns the statuses which should be processed, in the order they were received.
+         */
+        public List<TaskStatus> getStatusesToProcess() {
+            if (newestStatus == null) {
+                return Collections.emptyList();
+            }
+            List<TaskStatus> statuses = new ArrayList<>(2);
+            if (supersededTerminalStatus != null) {
+                statuses.add(supersededTerminalStatus);
+            }
+            statuses.add(newestStatus);
+            return statuses;
+        }
+
+        /**
+         * Returns all of the statuses which were merged into this batch, in the order they were received.
+         */
+        public List<TaskStatus> getReceivedStatuses() {
+            return receivedStatuses;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreUtils;
+import org.apache.mesos.Protos.Filters;
+import org.apache.mesos.SchedulerDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Controls the rate at which Mesos sends offers to the scheduler, by suppressing and reviving offers as plans gain and
+ * lose pending work, and by selecting the refuse filters used when accepting and declining offers.
+ * <p>
+ * Plan changes typically arrive in bursts, e.g. as each step of a deployment completes, so {@link #update()} requests
+ * are coalesced and evaluated once after a short debounce period. Revives are rate-limited so that work which
+ * repeatedly appears and disappears doesn't result in a revive (and the resulting flood of offers) each time. The
+ * suppressed state is tracked in memory, and is only written to the {@link StateStore} when it changes.
+ * <p>
+ * While pending work remains blocked, i.e. offer cycles complete without any offers being accepted, the refuse filter
+ * for declined offers grows with the time that the work has been blocked, up to a limit. This reduces the number of
+ * times Mesos re-offers the same unsuitable resources. Reviving offers clears all filters within Mesos, so whenever
+ * plans change while declined offers are being refused for longer than the minimum, offers are revived (subject to the
+ * same rate limit) even though they aren't suppressed, and the blocked time starts over. This way any work which newly
+ * becomes pending still receives offers promptly.
+ */
+public class SuppressReviveController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SuppressReviveController.class);
+
+    /** How long to wait for further plan changes before deciding whether to suppress or revive. */
+    static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+    /** The minimum interval between revives, other than the revive which is performed on registration. */
+    static final Duration DEFAULT_MIN_REVIVE_INTERVAL = Duration.ofSeconds(5);
+    /** Mesos' own default refuse duration for offers which are declined without a filter. */
+    static final long MESOS_DEFAULT_REFUSE_SECONDS = 5;
+    /** The upper limit on the refuse duration for declined offers while work is blocked. */
+    static final long MAX_DECLINE_REFUSE_SECONDS = 300;
+    /** The refuse duration for the unused remainder of accepted offers, while work is still pending. */
+    static final long ACCEPT_REFUSE_SECONDS = 1;
+
+    private final StateStore stateStore;
+    private final BooleanSupplier hasOperations;
+    private final Runnable suppressListener;
+    private final Duration debounce;
+    private final Duration minReviveInterval;
+    private final Optional<Long> configuredDeclineRefuseSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    private SchedulerDriver driver;
+    private boolean suppressed = false;
+    private Optional<Boolean> persistedSuppressed = Optional.empty();
+    private boolean reviveRequested = false;
+    private long lastReviveMs = 0;
+    private Optional<Long> blockedSinceMs = Optional.empty();
+    private long declinesFilteredUntilMs = 0;
+    private ScheduledFuture<?> pendingEvaluation = null;
+
+    /**
+     * Creates a new controller with the default debounce period and revive interval.
+     *
+     * @param hasOperations returns whether any plan has pending work
+     * @param suppressListener invoked whenever offers are suppressed
+     * @param configuredDeclineRefuseSeconds the minimum refuse duration for declined offers, or an empty Optional to
+     *     use Mesos' default
+     */
+    public SuppressReviveController(
+            StateStore stateStore,
+            BooleanSupplier hasOperations,
+            Runnable suppressListener,
+            Optional<Long> configuredDeclineRefuseSeconds) {
+        this(stateStore, hasOperations, suppressListener, configuredDeclineRefuseSeconds,
+                DEFAULT_DEBOUNCE, DEFAULT_MIN_REVIVE_INTERVAL);
+    }
+
+    SuppressReviveController(
+            StateStore stateStore,
+            BooleanSupplier hasOperations,
+            Runnable suppressListener,
+            Optional<Long> configuredDeclineRefuseSeconds,
+            Duration debounce,
+            Duration minReviveInterval) {
+        this.stateStore = stateStore;
+        this.hasOperations = hasOperations;
+        this.suppressListener = suppressListener;
+        this.configuredDeclineRefuseSeconds = configuredDeclineRefuseSeconds;
+        this.debounce = debounce;
+        this.minReviveInterval = minReviveInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("suppress-revive-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Revives offers unconditionally, e.g. following (re-)registration with a master. This revive doesn't count
+     * against the revive rate limit.
+     */
+    public synchronized void initialize(SchedulerDriver driver) {
+        this.driver = driver;
+        LOGGER.info("Reviving offers.");
+        driver.reviveOffers();
+        setSuppressed(false);
+        clearDeclineFilters();
+    }
+
+    /**
+     * Requests that offers be suppressed or revived to reflect whether plans currently have pending work. Offers are
+     * also revived if plans have pending work and declined offers have been refused for longer than the minimum, as
+     * those offers may suit the work which prompted this update. Requests are coalesced and evaluated after the
+     * debounce period.
+     */
+    public synchronized void update() {
+        if (driver == null || scheduler.isShutdown()) {
+            // Not registered yet (offers will be revived upon registration), or shutting down.
+            return;
+        }
+        if (pendingEvaluation == null || pendingEvaluation.isDone()) {
+            pendingEvaluation = scheduler.schedule(this::evaluate, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Requests that offers be revived if they're currently suppressed or declined offers have been refused for longer
+     * than the minimum, regardless of whether plans have pending work, e.g. because tasks need to be recovered and the
+     * recovery plan hasn't been updated yet. The revive remains subject to the rate limit.
+     */
+    public synchronized void requestRevive() {
+        if (isReviveNeeded()) {
+            reviveRequested = true;
+            update();
+        }
+    }
+
+    /**
+     * Returns whether offers are currently suppressed. This doesn't access the {@link StateStore}.
+     */
+    public synchronized boolean isSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * Returns whether offers are suppressed or declined offers have been refused for longer than the minimum, in which
+     * case offers for newly pending work may be withheld until they're revived.
+     */
+    public synchronized boolean isReviveNeeded() {
+        return suppressed || getCurrentTimeMs() < declinesFilteredUntilMs;
+    }
+
+    /**
+     * Returns whether a revive is needed and has already been requested via {@link #requestRevive()}, in which case
+     * further requests have no effect.
+     */
+    public synchronized boolean isReviveRequested() {
+        return isReviveNeeded() && reviveRequested;
+    }
+
+    /**
+     * Notifies the controller that an offer cycle has completed, for the purpose of tracking how long pending work has
+     * been blocked.
+     *
+     * @param acceptedOffers whether any offers were accepted in the cycle
+     */
+    public synchronized void offerCycleCompleted(boolean acceptedOffers) {
+        if (acceptedOffers || !hasOperations.getAsBoolean()) {
+            blockedSinceMs = Optional.empty();
+        } else if (!blockedSinceMs.isPresent()) {
+            blockedSinceMs = Optional.of(getCurrentTimeMs());
+        }
+    }
+
+    /**
+     * Returns the filters to use when declining offers, or an empty Optional if Mesos' default should be used. The
+     * refuse duration grows with the time that pending work has been blocked.
+     */
+    public synchronized Optional<Filters> getDeclineFilters() {
+        long minRefuseSeconds = configuredDeclineRefuseSeconds.orElse(MESOS_DEFAULT_REFUSE_SECONDS);
+        long nowMs = getCurrentTimeMs();
+        long blockedSeconds = blockedSinceMs.isPresent()
+                ? TimeUnit.MILLISECONDS.toSeconds(nowMs - blockedSinceMs.get())
+                : 0;
+        long refuseSeconds = Math.max(minRefuseSeconds, Math.min(blockedSeconds, MAX_DECLINE_REFUSE_SECONDS));
+        if (refuseSeconds == minRefuseSeconds) {
+            if (!configuredDeclineRefuseSeconds.isPresent()) {
+                return Optional.empty();
+            }
+        } else {
+            declinesFilteredUntilMs =
+                    Math.max(declinesFilteredUntilMs, nowMs + TimeUnit.SECONDS.toMillis(refuseSeconds));
+        }
+        return Optional.of(Filters.newBuilder().setRefuseSeconds(refuseSeconds).build());
+    }
+
+    /**
+     * Returns the filters to use for the unused remainder of accepted offers. While plans have pending work the
+     * remainder is likely to be useful soon, so it's only briefly refused.
+     */
+    public Filters getAcceptFilters() {
+        long refuseSeconds = hasOperations.getAsBoolean()
+                ? ACCEPT_REFUSE_SECONDS
+                : configuredDeclineRefuseSeconds.orElse(MESOS_DEFAULT_REFUSE_SECONDS);
+        return Filters.newBuilder().setRefuseSeconds(refuseSeconds).build();
+    }
+
+    /**
+     * Stops any pending evaluations. Only used by tests.
+     */
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void evaluate() {
+        boolean suppress;
+        synchronized (this) {
+            boolean revive = reviveRequested || hasOperations.getAsBoolean();
+            reviveRequested = false;
+            if (revive ? !isReviveNeeded() : suppressed) {
+                return;
+            }
+            if (revive) {
+                long nextReviveMs = lastReviveMs + minReviveInterval.toMillis();
+                long nowMs = getCurrentTimeMs();
+                if (lastReviveMs != 0 && nowMs < nextReviveMs) {
+                    LOGGER.info("Deferring revive for {}ms to limit the revive rate.", nextReviveMs - nowMs);
+                    reviveRequested = true;
+                    pendingEvaluation = scheduler.schedule(this::evaluate, nextReviveMs - nowMs, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (suppressed) {
+                    LOGGER.info("Reviving offers.");
+                } else {
+                    LOGGER.info("Reviving offers to clear the filters on offers declined while work was blocked.");
+                }
+                driver.reviveOffers();
+                lastReviveMs = nowMs;
+                clearDeclineFilters();
+                setSuppressed(false);
+                suppress = false;
+            } else {
+                LOGGER.info("Suppressing offers.");
+                driver.suppressOffers();
+                blockedSinceMs = Optional.empty();
+                setSuppressed(true);
+                suppress = true;
+            }
+        }
+        if (suppress) {
+            suppressListener.run();
+        }
+    }
+
+    /**
+     * Records that offers have been revived, which clears the filters on any previously declined offers, and restarts
+     * tracking of how long pending work has been blocked.
+     */
+    private void clearDeclineFilters() {
+        blockedSinceMs = Optional.empty();
+        declinesFilteredUntilMs = 0;
+    }
+
+    /**
+     * Updates the in-memory suppressed state, writing it to the {@link StateStore} only if it differs from the value
+     * which was last written by this instance.
+     */
+    private void setSuppressed(boolean isSuppressed) {
+        suppressed = isSuppressed;
+        if (!persistedSuppressed.isPresent() || persistedSuppressed.get() != isSuppressed) {
+            StateStoreUtils.setSuppressed(stateStore, isSuppressed);
+            persistedSuppressed = Optional.of(isSuppressed);
+        }
+    }
+
+    protected long getCurrentTimeMs() {
+        return System.currentTimeMillis();
+    }
+}
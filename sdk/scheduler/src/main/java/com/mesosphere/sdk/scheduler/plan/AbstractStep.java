@@ -53,16 +53,12 @@ public abstract class AbstractStep extends DefaultObservable implements Step {
 
     @Override
     public void interrupt() {
-        synchronized (statusLock) {
-            interrupted = true;
-        }
+        setInterrupted(true);
     }
 
     @Override
     public void proceed() {
-        synchronized (statusLock) {
-            interrupted = false;
-        }
+        setInterrupted(false);
     }
 
     @Override
@@ -72,6 +68,23 @@ public abstract class AbstractStep extends DefaultObservable implements Step {
         }
     }
 
+    /**
+     * Updates the interrupted setting, notifying observers if this changes the reported status.
+     */
+    private void setInterrupted(boolean newInterrupted) {
+        Status oldStatus;
+        Status newStatus;
+        synchronized (statusLock) {
+            oldStatus = getStatus();
+            interrupted = newInterrupted;
+            newStatus = getStatus();
+        }
+        // Notify outside of the lock, as observers may query our status:
+        if (oldStatus != newStatus) {
+            notifyObservers();
+        }
+    }
+
     /**
      * Updates the status setting and logs the outcome. Should only be called either by tests, by
      * {@code this}, or by subclasses.
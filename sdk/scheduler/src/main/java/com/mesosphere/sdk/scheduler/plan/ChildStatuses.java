@@ -0,0 +1,90 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the statuses and errors of the children of a {@link ParentElement}, so that the parent's status may be
+ * determined from a count of the children in each {@link Status}, rather than by querying every child. A child is
+ * re-read via {@link #update(Element)} whenever it notifies the parent that it has changed.
+ * <p>
+ * Children with a null status are counted as children, but not as having any status.
+ */
+class ChildStatuses {
+
+    private final List<Element> children;
+    /** Child => its status as of when it was last read. */
+    private final Map<Element, Status> statuses = new IdentityHashMap<>();
+    /** Child => its errors as of when it was last read, for children which have any. */
+    private final Map<Element, List<String>> errors = new IdentityHashMap<>();
+    /** {@link Status#ordinal()} => the number of children with that status. */
+    private final int[] counts = new int[Status.values().length];
+
+    ChildStatuses(Collection<? extends Element> children) {
+        this.children = new ArrayList<>(children);
+        for (Element child : children) {
+            statuses.put(child, null);
+            update(child);
+        }
+    }
+
+    /**
+     * Re-reads the status and errors of the provided child. Does nothing if it isn't one of the tracked children.
+     */
+    synchronized void update(Element child) {
+        if (!statuses.containsKey(child)) {
+            return;
+        }
+        Status status = child.getStatus();
+        Status previousStatus = statuses.put(child, status);
+        if (previousStatus != null) {
+            --counts[previousStatus.ordinal()];
+        }
+        if (status != null) {
+            ++counts[status.ordinal()];
+        }
+
+        List<String> childErrors = child.getErrors();
+        if (childErrors == null || childErrors.isEmpty()) {
+            errors.remove(child);
+        } else {
+            errors.put(child, new ArrayList<>(childErrors));
+        }
+    }
+
+    /**
+     * Returns the status of the provided parent, given its own errors. See {@link PlanUtils#getStatus(ParentElement)}.
+     */
+    synchronized Status getStatus(ParentElement<? extends Element> parent, List<String> parentErrors) {
+        return PlanUtils.getStatus(parent, !parentErrors.isEmpty() || !errors.isEmpty(), this);
+    }
+
+    /**
+     * Returns the provided parent errors, followed by the errors of each child which has any.
+     */
+    synchronized List<String> getErrors(List<String> parentErrors) {
+        List<String> allErrors = new ArrayList<>(parentErrors);
+        if (!errors.isEmpty()) {
+            for (Element child : children) {
+                allErrors.addAll(errors.getOrDefault(child, Collections.emptyList()));
+            }
+        }
+        return allErrors;
+    }
+
+    synchronized boolean isEmpty() {
+        return statuses.isEmpty();
+    }
+
+    synchronized boolean allHaveStatus(Status status) {
+        return counts[status.ordinal()] == statuses.size();
+    }
+
+    synchronized boolean anyHaveStatus(Status status) {
+        return counts[status.ordinal()] > 0;
+    }
+}
@@ -15,7 +15,8 @@ import java.util.UUID;
  * The Default Phase implementation tracks {@link Step}s both by their UUID and by their ordering. It is an immutable
  * class.
  *
- * A {@link DefaultPhase} is an {@link Observable} and will forward updates from its steps.
+ * A {@link DefaultPhase} is an {@link Observable} and will forward updates from its steps. It tracks the status of
+ * each step as the step notifies it of changes, so that its own status doesn't require querying every step.
  */
 public class DefaultPhase extends ChainedObserver implements Phase {
 
@@ -24,12 +25,14 @@ public class DefaultPhase extends ChainedObserver implements Phase {
     private final Strategy<Step> strategy;
     private final List<String> errors;
     private final List<Step> steps;
+    private final ChildStatuses childStatuses;
 
     public DefaultPhase(String name, List<Step> steps, Strategy<Step> strategy, List<String> errors) {
         this.name = name;
         this.steps = steps;
         this.strategy = strategy;
         this.errors = errors;
+        this.childStatuses = new ChildStatuses(steps);
 
         getChildren().forEach(step -> step.subscribe(this));
     }
@@ -51,7 +54,33 @@ public class DefaultPhase extends ChainedObserver implements Phase {
 
     @Override
     public Status getStatus() {
-        return PlanUtils.getStatus(this);
+        return childStatuses.getStatus(this, errors);
+    }
+
+    @Override
+    public void update(Observable obj) {
+        if (obj instanceof Element) {
+            childStatuses.update((Element) obj);
+        }
+        super.update(obj);
+    }
+
+    @Override
+    public void detach() {
+        getChildren().forEach(step -> step.unsubscribe(this));
+    }
+
+    @Override
+    public void interrupt() {
+        Phase.super.interrupt();
+        // Our status may have changed without any of our steps changing:
+        notifyObservers();
+    }
+
+    @Override
+    public void proceed() {
+        Phase.super.proceed();
+        notifyObservers();
     }
 
     @Override
@@ -76,7 +105,7 @@ public class DefaultPhase extends ChainedObserver implements Phase {
 
     @Override
     public List<String> getErrors() {
-        return PlanUtils.getErrors(errors, this);
+        return childStatuses.getErrors(errors);
     }
 
     @Override
@@ -17,7 +17,12 @@ import java.util.UUID;
  * An ordered list of {@link Phase}s, composed into a {@link Plan}. It may
  * optionally contain a List of errors associated with the phase.
  *
- * A {@link DefaultPlan} is an {@link Observable} and will forward updates from its {@link Phase}s.
+ * A {@link DefaultPlan} is an {@link Observable} and will forward updates from its {@link Phase}s. It tracks the status
+ * of each {@link Phase} as the {@link Phase} notifies it of changes, so that its own status doesn't require querying
+ * every {@link Phase} and {@link Step}.
+ *
+ * {@link Protos.TaskStatus} updates are given directly to the {@link Step}s which are waiting on the updated task, as
+ * tracked by a {@link StepTaskIndex}, rather than being passed through every {@link Phase} to every {@link Step}.
  */
 public class DefaultPlan extends ChainedObserver implements Plan {
 
@@ -26,6 +31,8 @@ public class DefaultPlan extends ChainedObserver implements Plan {
     private final List<Phase> phases;
     private final List<String> errors;
     private final String name;
+    private final StepTaskIndex stepTaskIndex;
+    private final ChildStatuses childStatuses;
 
     public DefaultPlan(
             final String name,
@@ -36,6 +43,8 @@ public class DefaultPlan extends ChainedObserver implements Plan {
         this.strategy = strategy;
         this.phases = phases;
         this.errors = errors;
+        this.stepTaskIndex = new StepTaskIndex(phases);
+        this.childStatuses = new ChildStatuses(phases);
 
         getChildren().forEach(phase -> phase.subscribe(this));
     }
@@ -70,12 +79,29 @@ public class DefaultPlan extends ChainedObserver implements Plan {
 
     @Override
     public Status getStatus() {
-        return PlanUtils.getStatus(this);
+        return childStatuses.getStatus(this, errors);
+    }
+
+    @Override
+    public void update(Observable obj) {
+        if (obj instanceof Element) {
+            childStatuses.update((Element) obj);
+        }
+        super.update(obj);
+    }
+
+    @Override
+    public void detach() {
+        stepTaskIndex.detach();
+        for (Phase phase : getChildren()) {
+            phase.unsubscribe(this);
+            phase.detach();
+        }
     }
 
     @Override
     public void update(Protos.TaskStatus status) {
-        PlanUtils.update(this, status);
+        PlanUtils.update(this, stepTaskIndex.getSteps(status.getTaskId()), status);
     }
 
     @Override
@@ -95,7 +121,7 @@ public class DefaultPlan extends ChainedObserver implements Plan {
 
     @Override
     public List<String> getErrors() {
-        return PlanUtils.getErrors(errors, this);
+        return childStatuses.getErrors(errors);
     }
 
     @Override
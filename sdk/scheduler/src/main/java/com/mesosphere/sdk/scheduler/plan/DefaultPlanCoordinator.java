@@ -1,5 +1,8 @@
 package com.mesosphere.sdk.scheduler.plan;
 
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mesosphere.sdk.metrics.Metrics;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.OfferID;
@@ -9,6 +12,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -21,40 +29,100 @@ public class DefaultPlanCoordinator extends ChainedObserver implements PlanCoord
 
     private final List<PlanManager> planManagers = new LinkedList<>();
     private final PlanScheduler planScheduler;
+    private final Optional<ExecutorService> planPool;
 
     public DefaultPlanCoordinator(
             List<PlanManager> planManagers,
             PlanScheduler planScheduler) {
+        this(planManagers, planScheduler, 1);
+    }
+
+    /**
+     * Creates a new instance which presents offers to up to {@code parallelism} plans concurrently. Each offer cycle
+     * then starts by selecting the candidate steps of each plan, in plan order, and splitting the offers between the
+     * plans which have any and whose candidates don't share a pod type with an earlier plan's. Each plan is matched
+     * against its share of the offers concurrently, after which any offers which weren't used are presented to each
+     * plan in turn, as they are when {@code parallelism} is 1. This gives plans whose own share of the offers didn't
+     * fit their candidates, or which were left out of the concurrent round, a chance at the offers which the other
+     * plans didn't need. When {@code parallelism} is greater than 1, the coordinator should be {@link #close()}d once
+     * it's no longer needed.
+     *
+     * @param parallelism the maximum number of plans to present offers to at once, must be at least 1
+     */
+    public DefaultPlanCoordinator(
+            List<PlanManager> planManagers,
+            PlanScheduler planScheduler,
+            int parallelism) {
         if (CollectionUtils.isEmpty(planManagers)) {
             throw new IllegalArgumentException("At least one plan manager is required");
         }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Plan coordinator parallelism must be at least 1, got: %d", parallelism));
+        }
         this.planManagers.addAll(planManagers);
         this.planManagers.stream().forEach(manager -> manager.subscribe(this));
         this.planScheduler = planScheduler;
+        this.planPool = parallelism > 1
+                ? Optional.of(Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                        .setNameFormat("plan-coordinator-%d")
+                        .setDaemon(true)
+                        .build()))
+                : Optional.empty();
+    }
+
+    /**
+     * Shuts down the pool used for presenting offers to plans concurrently, if any.
+     */
+    @Override
+    public void close() {
+        planPool.ifPresent(ExecutorService::shutdownNow);
     }
 
     @Override
     public Collection<OfferID> processOffers(
             final SchedulerDriver driver,
             final List<Offer> offersToProcess) {
+        Timer.Context timerContext = Metrics.getTimer(Metrics.OFFERS_PROCESS).time();
+        try {
+            return processOffersInternal(driver, offersToProcess);
+        } finally {
+            timerContext.stop();
+        }
+    }
+
+    private Collection<OfferID> processOffersInternal(
+            final SchedulerDriver driver,
+            final List<Offer> offersToProcess) {
         // Offers that have already been used
         final Set<OfferID> dirtiedOffers = new HashSet<>();
 
-        // Assets that are being actively worked on
-        final Set<String> dirtiedAssets = new HashSet<>();
-
         // Offers that are available for scheduling (copy original list to allow modification below)
         final List<Offer> offers = new ArrayList<>(offersToProcess);
 
-        // Pro-actively determine all known dirty assets. This is used to ensure that PlanManagers that are presented
-        // with offers first, does not accidentally schedule an asset that's actively being worked upon by another
-        // PlanManager that is presented offers later.
-        dirtiedAssets.addAll(planManagers.stream()
-                .filter(planManager -> !planManager.getPlan().isInterrupted())
-                .flatMap(planManager -> planManager.getDirtyAssets().stream())
-                .collect(Collectors.toList()));
+        // Assets that are being actively worked on by each plan. These are live views which are maintained as steps
+        // change state, so assets dirtied by PlanManagers that are presented offers earlier are seen by those that are
+        // presented offers later. This is used to ensure that PlanManagers do not accidentally schedule an asset
+        // that's actively being worked upon by another PlanManager.
+        final Map<PlanManager, Set<String>> dirtiedAssets = new LinkedHashMap<>();
+        for (PlanManager planManager : getPlanManagers()) {
+            if (!planManager.getPlan().isInterrupted()) {
+                dirtiedAssets.put(planManager, planManager.getDirtyAssets());
+            }
+        }
+
+        LOGGER.info("Initial dirtied assets: {}", new DirtyAssetsView(null, dirtiedAssets));
 
-        LOGGER.info("Initial dirtied assets: {}", dirtiedAssets);
+        if (planPool.isPresent()) {
+            dirtiedOffers.addAll(processOffersConcurrently(driver, offers, dirtiedAssets));
+            final List<Offer> unacceptedOffers = PlanUtils.filterAcceptedOffers(offers, dirtiedOffers);
+            offers.clear();
+            offers.addAll(unacceptedOffers);
+            if (offers.isEmpty()) {
+                LOGGER.info("Total dirtied offers: {}", dirtiedOffers);
+                return dirtiedOffers;
+            }
+        }
 
         for (final PlanManager planManager : getPlanManagers()) {
             if (planManager.getPlan().isInterrupted()) {
@@ -63,7 +131,7 @@ public class DefaultPlanCoordinator extends ChainedObserver implements PlanCoord
             }
 
             try {
-                Set<String> relevantDirtyAssets = getRelevantDirtyAssets(planManager, dirtiedAssets);
+                Set<String> relevantDirtyAssets = new DirtyAssetsView(planManager, dirtiedAssets);
                 LOGGER.info("Processing offers for plan: '{}' with relevant dirtied assets: {}.",
                         planManager.getPlan().getName(), relevantDirtyAssets);
 
@@ -79,9 +147,8 @@ public class DefaultPlanCoordinator extends ChainedObserver implements PlanCoord
                 dirtiedOffers.addAll(usedOffers);
                 LOGGER.info("Updated dirtied offers: {}", dirtiedOffers);
 
-                // Collect known dirtied assets
-                dirtiedAssets.addAll(planManager.getDirtyAssets());
-                LOGGER.info("Updated dirtied assets: {}", dirtiedAssets);
+                // Refresh this plan's dirtied assets, in case the PlanManager replaced its plan
+                dirtiedAssets.put(planManager, planManager.getDirtyAssets());
             } catch (Throwable t) {
                 LOGGER.error(String.format("Error with plan manager: %s.", planManager), t);
             }
@@ -96,6 +163,119 @@ public class DefaultPlanCoordinator extends ChainedObserver implements PlanCoord
         return dirtiedOffers;
     }
 
+    /**
+     * Presents a share of the offers to each plan which has candidate steps, with the plans being matched against
+     * their shares concurrently. Candidates are selected in plan order, and a plan's candidates exclude any steps whose
+     * asset is already claimed by a candidate of an earlier plan, so no two plans will work on the same asset. Offers
+     * are dealt to the plans in turn, so the plans are never matched against the same offer.
+     * <p>
+     * Placement rules are evaluated against the tasks of a pod's type, which concurrent launches of that type wouldn't
+     * see. A plan whose candidates share a pod type with those of an earlier plan, or which may launch pods of an
+     * unknown type, is therefore left out of this round, and is only presented the offers which are left over.
+     *
+     * @return the offers which were used by any plan
+     */
+    private Collection<OfferID> processOffersConcurrently(
+            final SchedulerDriver driver,
+            final List<Offer> offers,
+            final Map<PlanManager, Set<String>> dirtiedAssets) {
+        final Map<PlanManager, Collection<? extends Step>> candidates = new LinkedHashMap<>();
+        final Set<String> claimedAssets = new HashSet<>();
+        final Set<String> claimedPodTypes = new HashSet<>();
+        for (PlanManager planManager : dirtiedAssets.keySet()) {
+            try {
+                List<Step> planCandidates = planManager.getCandidates(new DirtyAssetsView(planManager, dirtiedAssets))
+                        .stream()
+                        .filter(step -> !step.getAsset().isPresent() || !claimedAssets.contains(step.getAsset().get()))
+                        .collect(Collectors.toList());
+                if (planCandidates.isEmpty()) {
+                    continue;
+                }
+                Optional<Set<String>> podTypes = getPodTypes(planCandidates);
+                if (!podTypes.isPresent() || !Collections.disjoint(podTypes.get(), claimedPodTypes)) {
+                    LOGGER.info("Leaving plan '{}' out of the concurrent round, as its candidates may share " +
+                            "a pod type with those of another plan", planManager.getPlan().getName());
+                    continue;
+                }
+                planCandidates.forEach(step -> step.getAsset().ifPresent(claimedAssets::add));
+                claimedPodTypes.addAll(podTypes.get());
+                candidates.put(planManager, planCandidates);
+            } catch (Throwable t) {
+                LOGGER.error(String.format("Error with plan manager: %s.", planManager), t);
+            }
+        }
+        if (candidates.size() < 2) {
+            // Nothing to be gained from splitting up the offers. Leave them all to be presented to each plan in turn.
+            return Collections.emptyList();
+        }
+
+        final List<List<Offer>> offerShares = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); ++i) {
+            offerShares.add(new ArrayList<>());
+        }
+        for (int i = 0; i < offers.size(); ++i) {
+            offerShares.get(i % candidates.size()).add(offers.get(i));
+        }
+
+        final List<PlanManager> sharePlanManagers = new ArrayList<>(candidates.keySet());
+        final List<Callable<Collection<OfferID>>> callables = new ArrayList<>();
+        for (int i = 0; i < sharePlanManagers.size(); ++i) {
+            final PlanManager planManager = sharePlanManagers.get(i);
+            final Collection<? extends Step> candidateSteps = candidates.get(planManager);
+            final List<Offer> offerShare = offerShares.get(i);
+            callables.add(() -> {
+                LOGGER.info("Concurrently processing {} offers for plan: '{}' with candidates: {}",
+                        offerShare.size(),
+                        planManager.getPlan().getName(),
+                        candidateSteps.stream().map(step -> step.getName()).collect(Collectors.toList()));
+                return offerShare.isEmpty()
+                        ? Collections.emptyList()
+                        : planScheduler.resourceOffers(driver, offerShare, candidateSteps);
+            });
+        }
+
+        final Set<OfferID> dirtiedOffers = new HashSet<>();
+        final List<Future<Collection<OfferID>>> futures;
+        try {
+            futures = planPool.get().invokeAll(callables);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing offers", e);
+        }
+        for (int i = 0; i < futures.size(); ++i) {
+            final PlanManager planManager = sharePlanManagers.get(i);
+            try {
+                dirtiedOffers.addAll(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while processing offers", e);
+            } catch (ExecutionException e) {
+                LOGGER.error(String.format("Error with plan manager: %s.", planManager), e.getCause());
+            }
+            // Refresh this plan's dirtied assets, in case the PlanManager replaced its plan
+            dirtiedAssets.put(planManager, planManager.getDirtyAssets());
+        }
+
+        LOGGER.info("Concurrently dirtied offers: {}", dirtiedOffers);
+        return dirtiedOffers;
+    }
+
+    /**
+     * Returns the types of the pods which the provided steps deploy, or an empty Optional if a step works on an asset
+     * without being a {@link DeploymentStep}, and so may deploy a pod of unknown type.
+     */
+    private static Optional<Set<String>> getPodTypes(Collection<? extends Step> steps) {
+        Set<String> podTypes = new HashSet<>();
+        for (Step step : steps) {
+            if (step instanceof DeploymentStep) {
+                podTypes.add(((DeploymentStep) step).getPodType());
+            } else if (step.getAsset().isPresent()) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(podTypes);
+    }
+
     @Override
     public boolean hasOperations() {
         return planManagers.stream().anyMatch(manager -> !manager.getPlan().isComplete());
@@ -106,9 +286,53 @@ public class DefaultPlanCoordinator extends ChainedObserver implements PlanCoord
         return planManagers;
     }
 
-    private Set<String> getRelevantDirtyAssets(PlanManager planManager, Set<String> dirtiedAssets) {
-        Set<String> relevantDirtyAssets = new HashSet<>(dirtiedAssets);
-        relevantDirtyAssets.removeAll(planManager.getDirtyAssets());
-        return relevantDirtyAssets;
+    /**
+     * The assets which are dirty in any of the provided plans, except for those which are dirty in the plan that's
+     * being presented offers. Checking whether an asset is dirty is a lookup in each plan's set of dirty assets,
+     * rather than a copy of all of them.
+     */
+    private static class DirtyAssetsView extends AbstractSet<String> {
+        private final Set<String> excludedAssets;
+        private final Collection<Set<String>> dirtyAssets;
+
+        /**
+         * @param planManager the plan manager whose own dirty assets are excluded, or null to exclude nothing
+         * @param dirtyAssets the dirty assets of each plan manager
+         */
+        private DirtyAssetsView(PlanManager planManager, Map<PlanManager, Set<String>> dirtyAssets) {
+            this.excludedAssets = dirtyAssets.getOrDefault(planManager, Collections.emptySet());
+            this.dirtyAssets = dirtyAssets.values();
+        }
+
+        @Override
+        public boolean contains(Object asset) {
+            if (excludedAssets.contains(asset)) {
+                return false;
+            }
+            for (Set<String> assets : dirtyAssets) {
+                if (assets.contains(asset)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return dirtyAssets.stream()
+                    .flatMap(assets -> assets.stream())
+                    .filter(asset -> !excludedAssets.contains(asset))
+                    .distinct()
+                    .iterator();
+        }
+
+        @Override
+        public int size() {
+            return (int) dirtyAssets.stream()
+                    .flatMap(assets -> assets.stream())
+                    .filter(asset -> !excludedAssets.contains(asset))
+                    .distinct()
+                    .count();
+        }
     }
 }
@@ -11,6 +11,8 @@ import java.util.*;
  */
 public class DefaultPlanManager extends ChainedObserver implements PlanManager {
     private final Plan plan;
+    /** Created on first use, so that the plan's steps aren't visited until they're needed. */
+    private DirtyAssetTracker dirtyAssetTracker;
 
     public DefaultPlanManager(final Plan plan) {
         // All plans begin in an interrupted state.  The deploy plan will
@@ -37,20 +39,10 @@ public class DefaultPlanManager extends ChainedObserver implements PlanManager {
     }
 
     @Override
-    public Set<String> getDirtyAssets() {
-        Set<String> dirtyAssets = new HashSet<>();
-        final List<? extends Phase> phases = plan.getChildren();
-        for (Phase phase : phases) {
-            final List<? extends Step> steps = phase.getChildren();
-            for (Step step : steps) {
-                if (step.isAssetDirty()) {
-                    Optional<String> dirtyAsset = step.getAsset();
-                    if (dirtyAsset.isPresent()) {
-                        dirtyAssets.add(dirtyAsset.get());
-                    }
-                }
-            }
+    public synchronized Set<String> getDirtyAssets() {
+        if (dirtyAssetTracker == null) {
+            dirtyAssetTracker = new DirtyAssetTracker(plan);
         }
-        return dirtyAssets;
+        return dirtyAssetTracker.getDirtyAssets();
     }
 }
@@ -29,6 +29,7 @@ public class DefaultPlanScheduler implements PlanScheduler {
     private final OfferEvaluator offerEvaluator;
     private final StateStore stateStore;
     private final TaskKiller taskKiller;
+    private final boolean batchMatching;
 
     @Inject
     public DefaultPlanScheduler(
@@ -36,10 +37,27 @@ public class DefaultPlanScheduler implements PlanScheduler {
             OfferEvaluator offerEvaluator,
             StateStore stateStore,
             TaskKiller taskKiller) {
+        this(offerAccepter, offerEvaluator, stateStore, taskKiller, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param batchMatching whether all candidate steps should be matched against the offers in a single pass, with
+     *     multiple pods packed into an offer where its resources allow and a single accept call made per offer. When
+     *     disabled, each step is matched and accepted in turn, and an offer is no longer considered once accepted
+     */
+    public DefaultPlanScheduler(
+            OfferAccepter offerAccepter,
+            OfferEvaluator offerEvaluator,
+            StateStore stateStore,
+            TaskKiller taskKiller,
+            boolean batchMatching) {
         this.offerAccepter = offerAccepter;
         this.offerEvaluator = offerEvaluator;
         this.stateStore = stateStore;
         this.taskKiller = taskKiller;
+        this.batchMatching = batchMatching;
     }
 
     @Override
@@ -53,6 +71,10 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
+        if (batchMatching) {
+            return resourceOffersBatch(driver, offers, steps);
+        }
+
         List<OfferID> acceptedOfferIds = new ArrayList<>();
         List<Offer> availableOffers = new ArrayList<>(offers);
 
@@ -64,6 +86,49 @@ public class DefaultPlanScheduler implements PlanScheduler {
         return acceptedOfferIds;
     }
 
+    /**
+     * Matches all of the provided steps against the offers before accepting anything. Each step is evaluated against
+     * whatever remains of the offers after the steps before it, so that multiple pods may share an offer. Each offer
+     * which was used is then accepted exactly once, with the operations of all of its pods combined.
+     */
+    private Collection<OfferID> resourceOffersBatch(
+            SchedulerDriver driver,
+            List<Offer> offers,
+            Collection<? extends Step> steps) {
+        OfferBatch batch = new OfferBatch(offers);
+        List<Map.Entry<Step, List<OfferRecommendation>>> matchedSteps = new ArrayList<>();
+
+        for (Step step : steps) {
+            Optional<PodInstanceRequirement> podInstanceRequirement = startStep(step);
+            if (!podInstanceRequirement.isPresent()) {
+                continue;
+            }
+
+            List<OfferRecommendation> recommendations =
+                    evaluate(step, podInstanceRequirement.get(), batch.getRemainingOffers(), batch.getLaunchingTasks());
+            if (recommendations.isEmpty()) {
+                continue;
+            }
+
+            batch.add(recommendations);
+            matchedSteps.add(new AbstractMap.SimpleImmutableEntry<>(step, recommendations));
+        }
+
+        Set<OfferID> acceptedOfferIds = batch.accept(driver, offerAccepter);
+
+        // Notify steps of offer outcomes:
+        for (Map.Entry<Step, List<OfferRecommendation>> entry : matchedSteps) {
+            OfferID offerId = entry.getValue().get(0).getOffer().getId();
+            if (acceptedOfferIds.contains(offerId)) {
+                entry.getKey().updateOfferStatus(getNonTransientRecommendations(entry.getValue()));
+            } else {
+                entry.getKey().updateOfferStatus(Collections.emptyList());
+            }
+        }
+
+        return acceptedOfferIds;
+    }
+
     private Collection<OfferID> resourceOffers(
             SchedulerDriver driver,
             List<Offer> offers,
@@ -74,14 +139,45 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
+        Optional<PodInstanceRequirement> podInstanceRequirementOptional = startStep(step);
+        if (!podInstanceRequirementOptional.isPresent()) {
+            return Collections.emptyList();
+        }
+
+        List<OfferRecommendation> recommendations =
+                evaluate(step, podInstanceRequirementOptional.get(), offers, Collections.emptyList());
+        if (recommendations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<OfferID> acceptedOffers = offerAccepter.accept(driver, recommendations);
+
+        // Notify step of offer outcome:
+        if (acceptedOffers.isEmpty()) {
+            // If no Operations occurred it may be of interest to the Step.  For example it may want to set its state
+            // to Pending to ensure it will be reattempted on the next Offer cycle.
+            step.updateOfferStatus(Collections.emptyList());
+        } else {
+            step.updateOfferStatus(getNonTransientRecommendations(recommendations));
+        }
+
+        return acceptedOffers;
+    }
+
+    /**
+     * Starts the provided step if it is eligible for offers, and kills any tasks which it will be replacing.
+     *
+     * @return the step's requirement, or an empty Optional if the step should not be matched against offers
+     */
+    private Optional<PodInstanceRequirement> startStep(Step step) {
         if (step == null) {
             logger.info("Ignoring resource offers for null step.");
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         if (!(step.isPending() || step.isPrepared())) {
             logger.info("Ignoring resource offers for step: {} status: {}", step.getName(), step.getStatus());
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         logger.info("Processing resource offers for step: {}", step.getName());
@@ -89,20 +185,33 @@ public class DefaultPlanScheduler implements PlanScheduler {
         if (!podInstanceRequirementOptional.isPresent()) {
             logger.info("No PodInstanceRequirement for step: {}", step.getName());
             step.updateOfferStatus(Collections.emptyList());
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
-        PodInstanceRequirement podInstanceRequirement = podInstanceRequirementOptional.get();
         // It is harmless to attempt to kill tasks which have never been launched.  This call attempts to Kill all Tasks
         // with a Task name which is equivalent to that expressed by the OfferRequirement.  If no such Task is currently
         // running no operation occurs.
-        killTasks(podInstanceRequirement);
+        killTasks(podInstanceRequirementOptional.get());
+        return podInstanceRequirementOptional;
+    }
 
+    /**
+     * Finds an offer which matches the step's requirement. If none is found, the step is notified of the failure.
+     *
+     * @return the recommendations against the matching offer, or an empty list if no offer matched
+     */
+    private List<OfferRecommendation> evaluate(
+            Step step,
+            PodInstanceRequirement podInstanceRequirement,
+            List<Offer> offers,
+            Collection<TaskInfo> launchingTasks) {
         // Step has returned an OfferRequirement to process. Find offers which match the
         // requirement and accept them, if any are found:
         List<OfferRecommendation> recommendations = null;
         try {
-            recommendations = offerEvaluator.evaluate(podInstanceRequirement, offers);
+            recommendations = launchingTasks.isEmpty()
+                    ? offerEvaluator.evaluate(podInstanceRequirement, offers)
+                    : offerEvaluator.evaluate(podInstanceRequirement, offers, launchingTasks);
         } catch (InvalidRequirementException e) {
             logger.error("Failed generate OfferRequirement.", e);
             return Collections.emptyList();
@@ -114,21 +223,8 @@ public class DefaultPlanScheduler implements PlanScheduler {
                     "Unable to find any offers which fulfill requirement provided by step {}: {}",
                     step.getName(), podInstanceRequirement);
             step.updateOfferStatus(Collections.emptyList());
-            return Collections.emptyList();
-        }
-
-        List<OfferID> acceptedOffers = offerAccepter.accept(driver, recommendations);
-
-        // Notify step of offer outcome:
-        if (acceptedOffers.isEmpty()) {
-            // If no Operations occurred it may be of interest to the Step.  For example it may want to set its state
-            // to Pending to ensure it will be reattempted on the next Offer cycle.
-            step.updateOfferStatus(Collections.emptyList());
-        } else {
-            step.updateOfferStatus(getNonTransientRecommendations(recommendations));
         }
-
-        return acceptedOffers;
+        return recommendations;
     }
 
     private void killTasks(PodInstanceRequirement podInstanceRequirement) {
@@ -20,6 +20,8 @@ public class DeploymentStep extends AbstractStep {
     private final List<String> errors;
     private Map<String, String> parameters;
     private Map<Protos.TaskID, TaskStatusPair> tasks = new HashMap<>();
+    /** An immutable copy of the keys of {@link #tasks}, which may be read without synchronizing. */
+    private volatile Set<Protos.TaskID> taskIds = Collections.emptySet();
 
     protected final PodInstanceRequirement podInstanceRequirement;
 
@@ -58,6 +60,12 @@ public class DeploymentStep extends AbstractStep {
         }
 
         logger.info("Step '{} [{}]' is now waiting for updates for task IDs: {}", getName(), getId(), tasks);
+
+        if (!taskIds.equals(tasks.keySet())) {
+            taskIds = Collections.unmodifiableSet(new HashSet<>(tasks.keySet()));
+            // Let the plan know which updates to route here, even if our status doesn't change as a result.
+            notifyObservers();
+        }
     }
 
     @Override
@@ -86,11 +94,23 @@ public class DeploymentStep extends AbstractStep {
         }
     }
 
+    @Override
+    public Optional<Set<Protos.TaskID>> getTaskIds() {
+        return Optional.of(taskIds);
+    }
+
     @Override
     public Optional<String> getAsset() {
         return Optional.of(podInstanceRequirement.getPodInstance().getName());
     }
 
+    /**
+     * Returns the type of the pod which this step deploys. Unlike {@link #start()}, this has no side effects.
+     */
+    String getPodType() {
+        return podInstanceRequirement.getPodInstance().getPod().getType();
+    }
+
     @Override
     public void restart() {
         logger.warn("Restarting step: '{} [{}]'", getName(), getId());
@@ -0,0 +1,84 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.Observable;
+import com.mesosphere.sdk.scheduler.Observer;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the set of assets which are dirty in a {@link Plan}, i.e. which are being worked on by one of its
+ * {@link Step}s, so that {@link PlanManager#getDirtyAssets()} doesn't need to query every {@link Step}.
+ * <p>
+ * A {@link Step} claims its asset when it becomes dirty according to {@link Step#isAssetDirty()}, i.e. when it's
+ * {@link Status#PREPARED} or {@link Status#STARTING}, and releases it when it's no longer dirty, e.g. when it's
+ * {@link Status#COMPLETE} or back to {@link Status#PENDING}. Steps are re-checked whenever they notify their observers.
+ * <p>
+ * The set of dirty assets may be read without blocking while steps are being re-checked.
+ */
+public class DirtyAssetTracker implements Observer {
+
+    private final Plan plan;
+    /** Dirty asset => the number of steps which have claimed it. */
+    private final Map<String, Integer> claimCounts = new ConcurrentHashMap<>();
+    private final Set<String> dirtyAssets = Collections.unmodifiableSet(claimCounts.keySet());
+    /** Tracked step => the asset it has claimed, if any. Guarded by {@code this}. */
+    private final Map<Step, Optional<String>> claims = new IdentityHashMap<>();
+
+    public DirtyAssetTracker(Plan plan) {
+        this.plan = plan;
+        for (Phase phase : plan.getChildren()) {
+            for (Step step : phase.getChildren()) {
+                claims.put(step, Optional.empty());
+                update(step);
+                step.subscribe(this);
+            }
+        }
+    }
+
+    /**
+     * Returns the plan whose steps are tracked.
+     */
+    public Plan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the assets which are currently dirty.
+     */
+    public Set<String> getDirtyAssets() {
+        return dirtyAssets;
+    }
+
+    /**
+     * Stops tracking the plan's steps, e.g. because the plan has been replaced by one which may reuse some of its
+     * steps. The dirty assets are no longer updated afterwards.
+     */
+    public synchronized void detach() {
+        claims.keySet().forEach(step -> step.unsubscribe(this));
+        claims.clear();
+    }
+
+    @Override
+    public synchronized void update(Observable observable) {
+        if (!(observable instanceof Step) || !claims.containsKey(observable)) {
+            return;
+        }
+        Step step = (Step) observable;
+        Optional<String> asset = step.isAssetDirty() ? step.getAsset() : Optional.empty();
+        Optional<String> previousAsset = claims.put(step, asset);
+        if (asset.equals(previousAsset)) {
+            return;
+        }
+        if (previousAsset.isPresent()) {
+            claimCounts.computeIfPresent(previousAsset.get(), (key, count) -> count > 1 ? count - 1 : null);
+        }
+        if (asset.isPresent()) {
+            claimCounts.merge(asset.get(), 1, Integer::sum);
+        }
+    }
+}
@@ -36,6 +36,15 @@ public interface ParentElement<C extends Element> extends Element, Interruptible
         return getStrategy().isInterrupted();
     }
 
+    /**
+     * Stops this element, and any parent elements among its descendants, from observing their children. This should be
+     * called when the element is discarded while its children may still be used, e.g. when a plan is replaced by one
+     * which reuses some of its steps, so that the children don't keep notifying (and referencing) the discarded
+     * element.
+     */
+    default void detach() {
+    }
+
     @Override
     default void updateParameters(Map<String, String> parameters) {
         for (C child : getChildren()) {
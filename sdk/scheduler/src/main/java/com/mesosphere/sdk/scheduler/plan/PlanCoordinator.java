@@ -13,8 +13,10 @@ import java.util.List;
  *
  * A {@link PlanCoordinator} is an {@link Observer}.  It either has operations to perform or it doesn't, and it updates
  * its observers when this state changes.
+ * <p>
+ * A {@link PlanCoordinator} which holds resources such as threads releases them in {@link #close()}.
  */
-public interface PlanCoordinator extends Observable {
+public interface PlanCoordinator extends Observable, AutoCloseable {
     /**
      * Provides offers to each {@link PlanManager} for processing. Keeps tracks of dirtied offers and assets.
      *
@@ -31,4 +33,12 @@ public interface PlanCoordinator extends Observable {
      * @return The {@link PlanManager}s which the PlanCoordinator coordinates.
      */
     Collection<PlanManager> getPlanManagers();
+
+    /**
+     * Releases any resources held by this {@link PlanCoordinator}. Offers may no longer be processed afterwards. The
+     * default implementation does nothing.
+     */
+    @Override
+    default void close() {
+    }
 }
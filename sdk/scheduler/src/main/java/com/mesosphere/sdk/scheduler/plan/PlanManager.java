@@ -41,7 +41,8 @@ public interface PlanManager extends Observer, Observable {
 
     /**
      * Returns a {@link Set} of assets that are dirty, i.e. being worked upon by the {@link Plan} that this
-     * {@link PlanManager} is working on.
+     * {@link PlanManager} is working on. The returned {@link Set} may be a live view which reflects later changes, and
+     * shouldn't be modified.
      *
      * @return A {@link Set} containing assets that are dirty
      */
@@ -2,7 +2,6 @@ package com.mesosphere.sdk.scheduler.plan;
 
 import com.google.protobuf.TextFormat;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.OfferID;
 import org.apache.mesos.Protos.TaskStatus;
@@ -60,6 +59,16 @@ public class PlanUtils {
         children.forEach(element -> element.update(taskStatus));
     }
 
+    /**
+     * Gives the provided {@link TaskStatus} to the provided {@link Step}s within {@code parent}, which should be those
+     * that the status is relevant to.
+     */
+    public static final void update(
+            ParentElement<? extends Element> parent, Collection<? extends Step> steps, TaskStatus taskStatus) {
+        LOGGER.info("Updated {} with TaskStatus: {}", parent.getName(), TextFormat.shortDebugString(taskStatus));
+        steps.forEach(step -> step.update(taskStatus));
+    }
+
     public static final void restart(ParentElement<? extends Element> parent) {
         Collection<? extends Element> children = parent.getChildren();
         LOGGER.info("Restarting elements within {}: {}", parent.getName(), children);
@@ -98,57 +107,66 @@ public class PlanUtils {
     }
 
     public static final Status getStatus(ParentElement<? extends Element> parent) {
-        // Ordering matters throughout this method.  Modify with care.
-        // Also note that this function MUST NOT call parent.getStatus() as that creates a circular call.
+        // Note that this function MUST NOT call parent.getStatus() as that creates a circular call.
 
         final Collection<? extends Element> children = parent.getChildren();
         if (children == null) {
             LOGGER.error("Parent element returned null list of children: {}", parent.getName());
             return Status.ERROR;
         }
+        return getStatus(parent, !parent.getErrors().isEmpty(), new ChildStatuses(children));
+    }
+
+    /**
+     * Returns the status of {@code parent}, given whether it or its children have errors, and the statuses of its
+     * children. Shared by {@link #getStatus(ParentElement)} and by parents which track their children's statuses.
+     */
+    static Status getStatus(ParentElement<? extends Element> parent, boolean hasErrors, ChildStatuses children) {
+        // Ordering matters throughout this method.  Modify with care.
+        // Also note that this function MUST NOT call parent.getStatus() as that creates a circular call.
 
         Status result;
-        if (!parent.getErrors().isEmpty()) {
+        if (hasErrors) {
             result = Status.ERROR;
             LOGGER.debug("({} status={}) Elements contains errors", parent.getName(), result);
-        } else if (CollectionUtils.isEmpty(children)) {
+        } else if (children.isEmpty()) {
             result = Status.COMPLETE;
             LOGGER.debug("({} status={}) Empty collection of elements encountered.", parent.getName(), result);
-        } else if (allHaveStatus(Status.COMPLETE, children)) {
+        } else if (children.allHaveStatus(Status.COMPLETE)) {
             result = Status.COMPLETE;
             LOGGER.debug("({} status={}) All elements have status: {}",
                     parent.getName(), result, Status.COMPLETE);
         } else if (parent.isInterrupted()) {
             result = Status.WAITING;
             LOGGER.info("({} status={}) Parent element is interrupted", parent.getName(), result);
-        } else if (anyHaveStatus(Status.WAITING, children)) {
+        } else if (children.anyHaveStatus(Status.WAITING)) {
             result = Status.WAITING;
             LOGGER.debug("({} status={}) At least one element has status: {}",
                     parent.getName(), result, Status.WAITING);
-        } else if (allHaveStatus(Status.PENDING, children)) {
+        } else if (children.allHaveStatus(Status.PENDING)) {
             result = Status.PENDING;
             LOGGER.debug("({} status={}) All elements have status: {}",
                     parent.getName(), result, Status.PENDING);
-        } else if (anyHaveStatus(Status.PREPARED, children)) {
+        } else if (children.anyHaveStatus(Status.PREPARED)) {
             result = Status.IN_PROGRESS;
             LOGGER.debug("({} status={}) At least one phase has status: {}",
                     parent.getName(), result, Status.PREPARED);
-        } else if (anyHaveStatus(Status.IN_PROGRESS, children)) {
+        } else if (children.anyHaveStatus(Status.IN_PROGRESS)) {
             result = Status.IN_PROGRESS;
             LOGGER.debug("({} status={}) At least one phase has status: {}",
                     parent.getName(), result, Status.IN_PROGRESS);
-        } else if (anyHaveStatus(Status.COMPLETE, children) && (anyHaveStatus(Status.PENDING, children))) {
+        } else if (children.anyHaveStatus(Status.COMPLETE) && (children.anyHaveStatus(Status.PENDING))) {
             result = Status.IN_PROGRESS;
             LOGGER.debug("({} status={}) At least one element has status '{}' and one has status '{}'",
                     parent.getName(), result, Status.COMPLETE, Status.PENDING);
-        } else if (anyHaveStatus(Status.STARTING, children)) {
+        } else if (children.anyHaveStatus(Status.STARTING)) {
             result = Status.STARTING;
             LOGGER.debug("({} status={}) At least one element has status '{}'",
                     parent.getName(), result, Status.STARTING);
         } else {
             result = Status.ERROR;
             LOGGER.warn("({} status={}) Unexpected state. children: {}",
-                    parent.getName(), result, children);
+                    parent.getName(), result, parent.getChildren());
         }
 
         return result;
@@ -3,9 +3,12 @@ package com.mesosphere.sdk.scheduler.plan;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.offer.OfferRequirement;
 import com.mesosphere.sdk.scheduler.Observable;
+import org.apache.mesos.Protos.TaskID;
+import org.apache.mesos.Protos.TaskStatus;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Defines the interface for a Step of a {@link Phase}. The {@link Step} is the base unit of a set of
@@ -43,6 +46,18 @@ public interface Step extends Element, Interruptible {
      */
     Optional<String> getAsset();
 
+    /**
+     * Returns the IDs of the tasks whose {@link TaskStatus} updates are relevant to this Step, or an empty Optional if
+     * this Step should be given every update. This allows {@link Plan}s to route updates to their Steps by task ID,
+     * rather than giving every update to every Step.
+     * <p>
+     * A Step which returns task IDs must always do so, must not block while doing so, and must notify its observers
+     * whenever the IDs change.
+     */
+    default Optional<Set<TaskID>> getTaskIds() {
+        return Optional.empty();
+    }
+
     /**
      * Reports whether the Asset associated with this Step is dirty.
      */
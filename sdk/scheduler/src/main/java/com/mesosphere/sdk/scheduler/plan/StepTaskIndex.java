@@ -0,0 +1,115 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.Observable;
+import com.mesosphere.sdk.scheduler.Observer;
+import org.apache.mesos.Protos.TaskID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the {@link Step}s of a {@link Plan} by the IDs of the tasks they're waiting on, so that a
+ * {@link org.apache.mesos.Protos.TaskStatus} can be given to the Steps it's relevant to, rather than to every Step in
+ * the plan.
+ * <p>
+ * Steps which provide their task IDs via {@link Step#getTaskIds()} are re-indexed whenever they notify their
+ * observers, e.g. once {@link Step#updateOfferStatus(Collection)} has launched new tasks. Steps which don't provide
+ * task IDs are given every update.
+ * <p>
+ * Lookups don't block, and may run concurrently with each other and with re-indexing.
+ */
+class StepTaskIndex implements Observer {
+
+    /** Task ID => the indexed steps waiting on that task. Values are immutable and are replaced when changed. */
+    private final Map<TaskID, List<Step>> stepsByTaskId = new ConcurrentHashMap<>();
+    /** Indexed step => the task IDs it's currently indexed under. Guarded by {@code this}. */
+    private final Map<Step, Set<TaskID>> indexedTaskIds = new IdentityHashMap<>();
+    /** Steps which are given every update. */
+    private final List<Step> unindexedSteps = new ArrayList<>();
+
+    StepTaskIndex(Collection<? extends Phase> phases) {
+        for (Phase phase : phases) {
+            for (Step step : phase.getChildren()) {
+                Optional<Set<TaskID>> taskIds = step.getTaskIds();
+                if (taskIds.isPresent()) {
+                    indexedTaskIds.put(step, Collections.emptySet());
+                    reindex(step);
+                    step.subscribe(this);
+                } else {
+                    unindexedSteps.add(step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the steps which should be given status updates for the provided task.
+     */
+    Collection<Step> getSteps(TaskID taskId) {
+        List<Step> indexedSteps = stepsByTaskId.get(taskId);
+        if (indexedSteps == null) {
+            return unindexedSteps;
+        }
+        if (unindexedSteps.isEmpty()) {
+            return indexedSteps;
+        }
+        List<Step> steps = new ArrayList<>(indexedSteps);
+        steps.addAll(unindexedSteps);
+        return steps;
+    }
+
+    /**
+     * Stops observing the indexed steps, after which they're no longer re-indexed.
+     */
+    synchronized void detach() {
+        indexedTaskIds.keySet().forEach(step -> step.unsubscribe(this));
+        indexedTaskIds.clear();
+    }
+
+    @Override
+    public void update(Observable observable) {
+        if (observable instanceof Step) {
+            reindex((Step) observable);
+        }
+    }
+
+    private synchronized void reindex(Step step) {
+        Set<TaskID> previousTaskIds = indexedTaskIds.get(step);
+        if (previousTaskIds == null) {
+            return;
+        }
+        // Read the IDs while locked, so that concurrent notifications from a step can't leave behind stale IDs:
+        Set<TaskID> taskIds = new HashSet<>(step.getTaskIds().orElse(Collections.emptySet()));
+        if (taskIds.equals(previousTaskIds)) {
+            return;
+        }
+
+        for (TaskID taskId : previousTaskIds) {
+            if (!taskIds.contains(taskId)) {
+                List<Step> steps = new ArrayList<>(stepsByTaskId.get(taskId));
+                steps.removeIf(indexedStep -> indexedStep == step);
+                if (steps.isEmpty()) {
+                    stepsByTaskId.remove(taskId);
+                } else {
+                    stepsByTaskId.put(taskId, Collections.unmodifiableList(steps));
+                }
+            }
+        }
+        for (TaskID taskId : taskIds) {
+            if (!previousTaskIds.contains(taskId)) {
+                List<Step> steps = new ArrayList<>(stepsByTaskId.getOrDefault(taskId, Collections.emptyList()));
+                steps.add(step);
+                stepsByTaskId.put(taskId, Collections.unmodifiableList(steps));
+            }
+        }
+        indexedTaskIds.put(step, taskIds);
+    }
+}
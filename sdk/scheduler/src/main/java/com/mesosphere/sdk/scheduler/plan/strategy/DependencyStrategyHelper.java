@@ -4,11 +4,17 @@ import com.mesosphere.sdk.scheduler.plan.Element;
 import com.mesosphere.sdk.scheduler.plan.PlanUtils;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The {@link DependencyStrategyHelper} exists to aid in the construction of {@link Strategy} objects which describe a
  * set of dependencies between constituent elements.
+ * <p>
+ * The first call to {@link #getCandidates(boolean, Collection)} compiles the dependencies into a graph which tracks,
+ * for each element, how many of its prerequisites are incomplete. Elements with no incomplete prerequisites are kept
+ * in a ready set, so that finding candidates only involves the elements which are ready rather than every element and
+ * all of its prerequisites. Ready elements are re-checked for completion whenever candidates are requested, and every
+ * element is re-checked whenever it notifies its observers, which is how elements which are no longer complete, e.g.
+ * following a restart, are noticed.
  *
  * @param <C> is the type of {@link Element}s to which the dependencies captured here apply.
  */
@@ -17,25 +23,30 @@ public class DependencyStrategyHelper<C extends Element> {
      * Mapping of elements to their prerequisites which must be {@link Element#isComplete()}.
      */
     private final Map<C, Set<C>> dependencies;
+    /**
+     * The compiled form of {@link #dependencies}, or null if it hasn't been compiled since it was last modified.
+     */
+    private DependencyGraph<C> graph;
 
     public DependencyStrategyHelper() {
         this(Collections.emptyList());
     }
 
     public DependencyStrategyHelper(Collection<C> elements) {
-        this.dependencies = new HashMap<>();
+        this.dependencies = new LinkedHashMap<>();
         elements.forEach(element -> dependencies.put(element, new HashSet<>()));
     }
 
-    public void addElement(C element) throws InvalidDependencyException {
+    public synchronized void addElement(C element) throws InvalidDependencyException {
         if (dependencies.get(element) != null) {
             throw new InvalidDependencyException("Attempted to overwrite previously added element: " + element);
         }
 
         dependencies.put(element, new HashSet<>());
+        graph = null;
     }
 
-    public void addDependency(C child, C parent) {
+    public synchronized void addDependency(C child, C parent) {
         Set<C> deps = dependencies.get(child);
         if (deps == null) {
             deps = new HashSet<>();
@@ -47,31 +58,28 @@ public class DependencyStrategyHelper<C extends Element> {
 
         deps.add(parent);
         dependencies.put(child, deps);
+        graph = null;
     }
 
-    public Collection<C> getCandidates(boolean isInterrupted, Collection<String> dirtyAssets) {
+    public synchronized Collection<C> getCandidates(boolean isInterrupted, Collection<String> dirtyAssets) {
         if (isInterrupted) {
             return Collections.emptyList();
         }
-        return dependencies.entrySet().stream()
-                .filter(entry -> PlanUtils.isEligibleCandidate(entry.getKey(), dirtyAssets))
-                .filter(entry -> dependenciesFulfilled(entry.getValue()))
-                .map(entry -> entry.getKey())
-                .collect(Collectors.toList());
+        if (graph == null) {
+            graph = new DependencyGraph<>(dependencies, this);
+        }
+        return graph.getCandidates(dirtyAssets);
     }
 
+    /**
+     * Returns the mapping of elements to their prerequisites. Changes made directly to the returned mapping after
+     * candidates have first been requested are not taken into account, use {@link #addElement(Element)} and
+     * {@link #addDependency(Element, Element)} instead.
+     */
     public Map<C, Set<C>> getDependencies() {
         return dependencies;
     }
 
-    private static <C extends Element> boolean dependenciesFulfilled(Set<C> deps) {
-        if (deps.isEmpty()) {
-            return true;
-        } else {
-            return deps.stream().allMatch(c -> c.isComplete());
-        }
-    }
-
     /**
      * An {@link InvalidDependencyException} is thrown when an attempt generate an invalid dependency occurs.
      */
@@ -80,4 +88,119 @@ public class DependencyStrategyHelper<C extends Element> {
             super(message);
         }
     }
+
+    /**
+     * The dependencies between a fixed set of elements, indexed by each element's position in the set. All access is
+     * guarded by the owning {@link DependencyStrategyHelper}.
+     *
+     * @param <C> is the type of {@link Element}s in the graph.
+     */
+    private static class DependencyGraph<C extends Element> {
+        private final List<C> elements;
+        /** Element index => the indexes of the elements which have it as a prerequisite. */
+        private final int[][] dependents;
+        /** Element index => the number of its prerequisites which aren't complete. */
+        private final int[] incompletePrerequisites;
+        /** Element index => whether it was complete when last checked. */
+        private final boolean[] complete;
+        /** The indexes of incomplete elements which have no incomplete prerequisites. */
+        private final BitSet ready;
+
+        private DependencyGraph(Map<C, Set<C>> dependencies, DependencyStrategyHelper<C> helper) {
+            this.elements = new ArrayList<>(dependencies.keySet());
+            Map<C, Integer> indexes = new IdentityHashMap<>();
+            for (C element : elements) {
+                indexes.put(element, indexes.size());
+            }
+
+            List<List<Integer>> dependentLists = new ArrayList<>();
+            for (int i = 0; i < elements.size(); ++i) {
+                dependentLists.add(new ArrayList<>());
+            }
+            this.incompletePrerequisites = new int[elements.size()];
+            this.complete = new boolean[elements.size()];
+            for (int i = 0; i < elements.size(); ++i) {
+                complete[i] = elements.get(i).isComplete();
+            }
+            for (Map.Entry<C, Set<C>> entry : dependencies.entrySet()) {
+                int child = indexes.get(entry.getKey());
+                for (C prerequisite : entry.getValue()) {
+                    int parent = indexes.get(prerequisite);
+                    dependentLists.get(parent).add(child);
+                    if (!complete[parent]) {
+                        ++incompletePrerequisites[child];
+                    }
+                }
+            }
+
+            this.dependents = new int[elements.size()][];
+            this.ready = new BitSet(elements.size());
+            for (int i = 0; i < elements.size(); ++i) {
+                dependents[i] = dependentLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+                if (!complete[i] && incompletePrerequisites[i] == 0) {
+                    ready.set(i);
+                }
+            }
+
+            for (int i = 0; i < elements.size(); ++i) {
+                final int index = i;
+                elements.get(i).subscribe(observable -> {
+                    synchronized (helper) {
+                        // Ignore notifications for graphs which have since been replaced:
+                        if (helper.graph == this) {
+                            setComplete(index, elements.get(index).isComplete());
+                        }
+                    }
+                });
+            }
+        }
+
+        private Collection<C> getCandidates(Collection<String> dirtyAssets) {
+            // Elements which aren't ready can't have completed without first notifying us (their prerequisites being
+            // incomplete), so only the ready elements need to be checked for completion:
+            boolean updated;
+            do {
+                updated = false;
+                for (int i = ready.nextSetBit(0); i >= 0; i = ready.nextSetBit(i + 1)) {
+                    if (elements.get(i).isComplete()) {
+                        setComplete(i, true);
+                        updated = true;
+                    }
+                }
+            } while (updated);
+
+            List<C> candidates = new ArrayList<>();
+            for (int i = ready.nextSetBit(0); i >= 0; i = ready.nextSetBit(i + 1)) {
+                C element = elements.get(i);
+                if (PlanUtils.isEligibleCandidate(element, dirtyAssets)) {
+                    candidates.add(element);
+                }
+            }
+            return candidates;
+        }
+
+        private void setComplete(int index, boolean isComplete) {
+            if (complete[index] == isComplete) {
+                return;
+            }
+            complete[index] = isComplete;
+            if (isComplete) {
+                ready.clear(index);
+                for (int dependent : dependents[index]) {
+                    if (--incompletePrerequisites[dependent] == 0 && !complete[dependent]) {
+                        ready.set(dependent);
+                    }
+                }
+            } else {
+                if (incompletePrerequisites[index] == 0) {
+                    ready.set(index);
+                }
+                for (int dependent : dependents[index]) {
+                    if (incompletePrerequisites[dependent]++ == 0) {
+                        ready.clear(dependent);
+                    }
+                }
+            }
+        }
+    }
 }
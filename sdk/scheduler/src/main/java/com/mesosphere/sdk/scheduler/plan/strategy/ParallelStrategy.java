@@ -10,17 +10,26 @@ import java.util.Collection;
  * @param <C> is the type of {@link Element}s to which the Strategy applies.
  */
 public class ParallelStrategy<C extends Element> extends InterruptibleStrategy<C> {
+    private DependencyStrategyHelper<C> dependencyStrategyHelper;
 
     @Override
     public Collection<C> getCandidates(Collection<C> elements, Collection<String> dirtyAssets) {
         // No prerequites configured:
-        return new DependencyStrategyHelper<C>(elements).getCandidates(isInterrupted(), dirtyAssets);
+        return getDependencyStrategyHelper(elements).getCandidates(isInterrupted(), dirtyAssets);
     }
 
     public StrategyGenerator<C> getGenerator() {
         return new Generator<>();
     }
 
+    private synchronized DependencyStrategyHelper<C> getDependencyStrategyHelper(Collection<C> elements) {
+        if (dependencyStrategyHelper == null) {
+            dependencyStrategyHelper = new DependencyStrategyHelper<>(elements);
+        }
+
+        return dependencyStrategyHelper;
+    }
+
     /**
      * This class generates Strategy objects of the appropriate type.
      *
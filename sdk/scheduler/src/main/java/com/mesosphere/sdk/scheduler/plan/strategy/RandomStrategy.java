@@ -1,9 +1,11 @@
 package com.mesosphere.sdk.scheduler.plan.strategy;
 
 import com.mesosphere.sdk.scheduler.plan.Element;
+import com.mesosphere.sdk.scheduler.plan.PlanUtils;
 import com.mesosphere.sdk.scheduler.plan.Step;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * {@code RandomStrategy} extends {@link Strategy}, by providing a random {@link Step}selection strategy.
@@ -15,8 +17,12 @@ public class RandomStrategy<C extends Element> extends InterruptibleStrategy<C>
     @Override
     public Collection<C> getCandidates(Collection<C> elements, Collection<String> dirtyAssets) {
         // No prerequites configured, with random selection of one entry from the resulting candidates:
-        List<C> candidates = new ArrayList<>(
-                new DependencyStrategyHelper<>(elements).getCandidates(isInterrupted(), dirtyAssets));
+        if (isInterrupted()) {
+            return Collections.emptyList();
+        }
+        List<C> candidates = elements.stream()
+                .filter(element -> PlanUtils.isEligibleCandidate(element, dirtyAssets))
+                .collect(Collectors.toList());
         Collections.shuffle(candidates);
         Optional<C> candidateOptional = candidates.stream().findFirst();
 
@@ -25,7 +25,7 @@ public class SerialStrategy<C extends Element> extends InterruptibleStrategy<C>
         return new Generator<>();
     }
 
-    private DependencyStrategyHelper<C> getDependencyStrategyHelper(Collection<C> elements) {
+    private synchronized DependencyStrategyHelper<C> getDependencyStrategyHelper(Collection<C> elements) {
         if (dependencyStrategyHelper == null) {
             dependencyStrategyHelper = new DependencyStrategyHelper<>(elements);
             List<C> planElements = elements.stream()
@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.scheduler.recovery;
 
 import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.scheduler.ChainedObserver;
@@ -20,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -29,6 +31,10 @@ import java.util.stream.Collectors;
  * This is an implementation of {@code PlanManager} that performs task recovery using dynamically generated
  * {@code Plan}. {@link DefaultRecoveryPlanManager} tracks currently failed (permanent) and stopped (transient) tasks,
  * generates a new {@link DefaultRecoveryStep} for them and adds them to the recovery Plan, if not already added.
+ * <p>
+ * Tasks are tracked incrementally: after an initial scan of all tasks, only tasks which have received a status update
+ * via {@link #update(Protos.TaskStatus)}, or which were already found to need recovery, are reevaluated when the plan
+ * is updated. The plan itself is only replaced when its steps change.
  */
 public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanManager {
     protected static final String RECOVERY_ELEMENT_NAME = "recovery";
@@ -42,6 +48,15 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
     protected final LaunchConstrainer launchConstrainer;
     protected final Object planLock = new Object();
 
+    /** Names of tasks which have received a status since they were last evaluated for recovery. */
+    private final Set<String> dirtyTaskNames = ConcurrentHashMap.newKeySet();
+    /** Names of tasks which needed recovery when they were last evaluated. Guarded by {@link #planLock}. */
+    private final Set<String> taskNamesNeedingRecovery = new HashSet<>();
+    /** Whether all tasks have been scanned for recovery. Guarded by {@link #planLock}. */
+    private boolean scannedAllTasks = false;
+    /** Tracks the dirty assets of {@link #plan}, and is replaced along with it. Guarded by {@link #planLock}. */
+    private DirtyAssetTracker dirtyAssetTracker;
+
     public DefaultRecoveryPlanManager(
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
@@ -63,6 +78,15 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
 
     protected void setPlan(Plan plan) {
         synchronized (planLock) {
+            if (this.plan != plan) {
+                // The new plan may reuse steps from the old one, which would otherwise keep notifying the old plan:
+                this.plan.unsubscribe(this);
+                this.plan.detach();
+                if (dirtyAssetTracker != null) {
+                    dirtyAssetTracker.detach();
+                    dirtyAssetTracker = null;
+                }
+            }
             this.plan = plan;
             this.plan.subscribe(this);
             List<String> stepNames = plan.getChildren().stream()
@@ -95,6 +119,11 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
      */
     @Override
     public void update(Protos.TaskStatus status) {
+        try {
+            dirtyTaskNames.add(CommonTaskUtils.toTaskName(status.getTaskId()));
+        } catch (TaskException e) {
+            logger.error("Failed to determine task name for status, ignoring for recovery: " + status, e);
+        }
         synchronized (planLock) {
             getPlan().update(status);
             notifyObservers();
@@ -114,11 +143,30 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
                 return;
             }
 
-            List<String> stepNames = steps.stream().map(step -> step.getName()).collect(Collectors.toList());
+            Map<String, Step> currentSteps = new LinkedHashMap<>();
+            getPlan().getChildren().stream()
+                    .flatMap(phase -> phase.getChildren().stream())
+                    .forEach(step -> currentSteps.put(step.getName(), step));
+
+            // Keep any existing step which would be replaced by an identical one, and leave the plan untouched if
+            // nothing has changed since the plan was first generated.
+            boolean stepsChanged = false;
+            for (int i = 0; i < steps.size(); ++i) {
+                Step currentStep = currentSteps.get(steps.get(i).getName());
+                if (isEquivalent(currentStep, steps.get(i))) {
+                    steps.set(i, currentStep);
+                } else {
+                    stepsChanged = true;
+                }
+            }
+            if (!stepsChanged && !getPlan().getChildren().isEmpty()) {
+                return;
+            }
+
+            Set<String> stepNames = steps.stream().map(step -> step.getName()).collect(Collectors.toSet());
             logger.info("New recovery steps: {}", stepNames);
 
-            List<Step> oldSteps = getPlan().getChildren().stream()
-                    .flatMap(phase -> phase.getChildren().stream())
+            List<Step> oldSteps = currentSteps.values().stream()
                     .filter(step -> !stepNames.contains(step.getName()))
                     .collect(Collectors.toList());
             logger.info("Old recovery steps: {}",
@@ -134,11 +182,67 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
         return DefaultPlanFactory.getPlan(RECOVERY_ELEMENT_NAME, Arrays.asList(phase), new SerialStrategy<>());
     }
 
+    /**
+     * Returns whether an existing step may be kept in place of a newly generated step.
+     */
+    private static boolean isEquivalent(Step currentStep, Step newStep) {
+        if (!(currentStep instanceof DefaultRecoveryStep) || !currentStep.isPending()) {
+            return false;
+        }
+        DefaultRecoveryStep currentRecoveryStep = (DefaultRecoveryStep) currentStep;
+        DefaultRecoveryStep newRecoveryStep = (DefaultRecoveryStep) newStep;
+        return currentRecoveryStep.getRecoveryType() == newRecoveryStep.getRecoveryType()
+                && currentRecoveryStep.getPodInstance().equals(newRecoveryStep.getPodInstance());
+    }
+
+    /**
+     * Returns the tasks which currently need recovery. All tasks are scanned on the first call. After that, only tasks
+     * which have since received a status, or which needed recovery as of the previous call, are reevaluated.
+     */
+    private Collection<Protos.TaskInfo> fetchTasksNeedingRecovery() throws TaskException {
+        if (!scannedAllTasks) {
+            // Any statuses received from this point onwards will be reflected in the scan or evaluated next time.
+            dirtyTaskNames.clear();
+            Collection<Protos.TaskInfo> tasks = StateStoreUtils.fetchTasksNeedingRecovery(stateStore, configStore);
+            taskNamesNeedingRecovery.clear();
+            tasks.forEach(task -> taskNamesNeedingRecovery.add(task.getName()));
+            scannedAllTasks = true;
+            return tasks;
+        }
+
+        Set<String> dirtyNames = new HashSet<>();
+        for (Iterator<String> iter = dirtyTaskNames.iterator(); iter.hasNext(); ) {
+            dirtyNames.add(iter.next());
+            iter.remove();
+        }
+        Set<String> namesToEvaluate = new HashSet<>(taskNamesNeedingRecovery);
+        namesToEvaluate.addAll(dirtyNames);
+
+        List<Protos.TaskInfo> tasks = new ArrayList<>();
+        try {
+            for (String taskName : namesToEvaluate) {
+                Optional<Protos.TaskInfo> task = stateStore.fetchTask(taskName);
+                Optional<Protos.TaskStatus> status = stateStore.fetchStatus(taskName);
+                if (task.isPresent() && status.isPresent()
+                        && status.get().getTaskId().equals(task.get().getTaskId())
+                        && StateStoreUtils.needsRecovery(configStore, task.get(), status.get())) {
+                    tasks.add(task.get());
+                }
+            }
+        } catch (TaskException e) {
+            // Try again on the next update.
+            dirtyTaskNames.addAll(dirtyNames);
+            throw e;
+        }
+
+        taskNamesNeedingRecovery.clear();
+        tasks.forEach(task -> taskNamesNeedingRecovery.add(task.getName()));
+        return tasks;
+    }
+
     private List<Step> createSteps(Collection<String> dirtyAssets) throws TaskException {
         Map<PodInstance, List<Protos.TaskInfo>> failedPodsMap =
-                TaskUtils.getPodMap(
-                        configStore,
-                        StateStoreUtils.fetchTasksNeedingRecovery(stateStore, configStore));
+                TaskUtils.getPodMap(configStore, fetchTasksNeedingRecovery());
 
         List<String> podNames = failedPodsMap.keySet().stream()
                 .map(podInstance -> podInstance.getName())
@@ -225,14 +329,14 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
 
     @Override
     public Set<String> getDirtyAssets() {
-        Set<String> dirtyAssets = new HashSet<>();
-        if (plan != null) {
-            dirtyAssets.addAll(plan.getChildren().stream()
-                    .flatMap(phase -> phase.getChildren().stream())
-                    .filter(step -> step.isPrepared())
-                    .map(step -> step.getName())
-                    .collect(Collectors.toSet()));
+        synchronized (planLock) {
+            if (plan == null) {
+                return Collections.emptySet();
+            }
+            if (dirtyAssetTracker == null || dirtyAssetTracker.getPlan() != plan) {
+                dirtyAssetTracker = new DirtyAssetTracker(plan);
+            }
+            return dirtyAssetTracker.getDirtyAssets();
         }
-        return dirtyAssets;
     }
 }
@@ -71,6 +71,13 @@ public class DefaultRecoveryStep extends DeploymentStep {
         return recoveryType;
     }
 
+    /**
+     * Returns the pod instance which this step recovers.
+     */
+    PodInstance getPodInstance() {
+        return podInstanceRequirement.getPodInstance();
+    }
+
     @Override
     public String getMessage() {
         return super.getMessage() + " RecoveryType: " + recoveryType.name();
@@ -0,0 +1,149 @@
+package com.mesosphere.sdk.state;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map from names to values, which shares most of its content with the maps derived from it.
+ * <p>
+ * Entries are split between a fixed number of buckets by the hash of their name. Deriving a map with an entry added or
+ * removed via {@link #with(String, Object)} or {@link #without(String)} only copies the bucket containing that entry,
+ * along with the references to the other buckets, which are shared as-is. An update therefore copies around
+ * {@code size / BUCKETS} entries rather than the whole map, while any previously derived maps are left unchanged.
+ *
+ * @param <V> the type of the values
+ */
+final class BucketedMap<V> extends AbstractMap<String, V> {
+
+    private static final int BUCKETS = 64;
+
+    /** Each bucket is an unmodifiable map, which is never modified once it's been added here. */
+    private final List<Map<String, V>> buckets;
+    private final int size;
+    private final Set<Entry<String, V>> entrySet = new EntrySet();
+
+    /**
+     * Returns an empty map.
+     */
+    static <V> BucketedMap<V> empty() {
+        Map<String, V> emptyBucket = Collections.emptyMap();
+        return new BucketedMap<>(new ArrayList<>(Collections.nCopies(BUCKETS, emptyBucket)), 0);
+    }
+
+    /**
+     * Returns a map with the same entries as the provided map.
+     */
+    static <V> BucketedMap<V> copyOf(Map<String, V> map) {
+        List<Map<String, V>> buckets = new ArrayList<>(BUCKETS);
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets.add(new HashMap<>());
+        }
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            buckets.get(getBucketIndex(entry.getKey())).put(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets.set(i, Collections.unmodifiableMap(buckets.get(i)));
+        }
+        return new BucketedMap<>(buckets, map.size());
+    }
+
+    private BucketedMap(List<Map<String, V>> buckets, int size) {
+        this.buckets = buckets;
+        this.size = size;
+    }
+
+    /**
+     * Returns a map with the provided entry added, replacing any existing value for the name.
+     */
+    BucketedMap<V> with(String name, V value) {
+        int index = getBucketIndex(name);
+        Map<String, V> bucket = new HashMap<>(buckets.get(index));
+        bucket.put(name, value);
+        return withBucket(index, bucket, buckets.get(index).containsKey(name) ? size : size + 1);
+    }
+
+    /**
+     * Returns a map with the entry for the provided name removed, or this map if it has no such entry.
+     */
+    BucketedMap<V> without(String name) {
+        int index = getBucketIndex(name);
+        if (!buckets.get(index).containsKey(name)) {
+            return this;
+        }
+        Map<String, V> bucket = new HashMap<>(buckets.get(index));
+        bucket.remove(name);
+        return withBucket(index, bucket, size - 1);
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof String ? buckets.get(getBucketIndex((String) key)).get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && buckets.get(getBucketIndex((String) key)).containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return entrySet;
+    }
+
+    private BucketedMap<V> withBucket(int index, Map<String, V> bucket, int newSize) {
+        List<Map<String, V>> newBuckets = new ArrayList<>(buckets);
+        newBuckets.set(index, Collections.unmodifiableMap(bucket));
+        return new BucketedMap<>(newBuckets, newSize);
+    }
+
+    private static int getBucketIndex(String name) {
+        return (name.hashCode() & Integer.MAX_VALUE) % BUCKETS;
+    }
+
+    /**
+     * The entries of every bucket, which may not be modified.
+     */
+    private class EntrySet extends AbstractSet<Entry<String, V>> {
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            return new Iterator<Entry<String, V>>() {
+                private int nextBucket = 0;
+                private Iterator<Entry<String, V>> bucketIterator = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!bucketIterator.hasNext() && nextBucket < BUCKETS) {
+                        bucketIterator = buckets.get(nextBucket++).entrySet().iterator();
+                    }
+                    return bucketIterator.hasNext();
+                }
+
+                @Override
+                public Entry<String, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return bucketIterator.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A view of a {@link StateStoreCache} whose task and status reads are served from a {@link StateSnapshot}, so that the
+ * reads made over the course of e.g. an offer cycle see tasks and statuses which are consistent with each other.
+ * <p>
+ * The snapshot is taken by {@link #takeSnapshot()}, and is retaken after every task or status write made through the
+ * view, so that the view always reflects its own writes. Writes made directly against the cache, such as those made
+ * by status updates, aren't seen until the snapshot is next retaken. All other reads and writes are passed through to
+ * the cache.
+ */
+public class SnapshotStateStore implements StateStore {
+
+    private final StateStoreCache cache;
+    private volatile StateSnapshot snapshot;
+
+    public SnapshotStateStore(StateStoreCache cache) {
+        this.cache = cache;
+        this.snapshot = cache.fetchSnapshot();
+    }
+
+    /**
+     * Replaces the snapshot which reads are served from with the cache's current snapshot, and returns it.
+     */
+    public StateSnapshot takeSnapshot() {
+        snapshot = cache.fetchSnapshot();
+        return snapshot;
+    }
+
+    @Override
+    public void storeFrameworkId(FrameworkID fwkId) throws StateStoreException {
+        cache.storeFrameworkId(fwkId);
+    }
+
+    @Override
+    public void clearFrameworkId() throws StateStoreException {
+        cache.clearFrameworkId();
+    }
+
+    @Override
+    public Optional<FrameworkID> fetchFrameworkId() throws StateStoreException {
+        return cache.fetchFrameworkId();
+    }
+
+    @Override
+    public void storeTasks(Collection<TaskInfo> tasks) throws StateStoreException {
+        try {
+            cache.storeTasks(tasks);
+        } finally {
+            takeSnapshot();
+        }
+    }
+
+    @Override
+    public void storeStatus(TaskStatus status) throws StateStoreException {
+        try {
+            cache.storeStatus(status);
+        } finally {
+            takeSnapshot();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> whenStatusesStored() {
+        return cache.whenStatusesStored();
+    }
+
+    @Override
+    public void clearTask(String taskName) throws StateStoreException {
+        try {
+            cache.clearTask(taskName);
+        } finally {
+            takeSnapshot();
+        }
+    }
+
+    @Override
+    public Collection<String> fetchTaskNames() throws StateStoreException {
+        return snapshot.getTaskNames();
+    }
+
+    @Override
+    public Collection<TaskInfo> fetchTasks() throws StateStoreException {
+        return snapshot.getTasks();
+    }
+
+    @Override
+    public Optional<TaskInfo> fetchTask(String taskName) throws StateStoreException {
+        return snapshot.getTask(taskName);
+    }
+
+    @Override
+    public Collection<TaskStatus> fetchStatuses() throws StateStoreException {
+        return snapshot.getStatuses();
+    }
+
+    @Override
+    public Optional<TaskStatus> fetchStatus(String taskName) throws StateStoreException {
+        return snapshot.getStatus(taskName);
+    }
+
+    @Override
+    public void storeProperty(String key, byte[] value) throws StateStoreException {
+        cache.storeProperty(key, value);
+    }
+
+    @Override
+    public byte[] fetchProperty(String key) throws StateStoreException {
+        return cache.fetchProperty(key);
+    }
+
+    @Override
+    public Collection<String> fetchPropertyKeys() throws StateStoreException {
+        return cache.fetchPropertyKeys();
+    }
+
+    @Override
+    public void clearProperty(String key) throws StateStoreException {
+        cache.clearProperty(key);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An immutable, point-in-time view of the tasks and statuses held by a {@link StateStoreCache}.
+ * <p>
+ * Each snapshot is tagged with a generation number, which increases whenever tasks or statuses are modified in the
+ * cache. Snapshots are shared: callers which fetch a snapshot while nothing has changed all receive the same instance.
+ * The tasks and statuses are {@link BucketedMap}s, so a new snapshot reuses the task or status content of the previous
+ * one when that content hasn't changed, and otherwise shares all but the modified bucket of it.
+ */
+public final class StateSnapshot {
+
+    private final long generation;
+    private final Map<String, TaskInfo> tasks;
+    private final Map<String, TaskStatus> statuses;
+
+    /**
+     * Returns a new snapshot of the provided tasks and statuses, which are immutable and so may be shared with other
+     * snapshots.
+     */
+    static StateSnapshot of(long generation, BucketedMap<TaskInfo> tasks, BucketedMap<TaskStatus> statuses) {
+        return new StateSnapshot(generation, tasks, statuses);
+    }
+
+    private StateSnapshot(long generation, Map<String, TaskInfo> tasks, Map<String, TaskStatus> statuses) {
+        this.generation = generation;
+        this.tasks = tasks;
+        this.statuses = statuses;
+    }
+
+    /**
+     * Returns the generation of the cache content which this snapshot reflects. A snapshot with a higher generation
+     * reflects more recent content.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    public Set<String> getTaskNames() {
+        return tasks.keySet();
+    }
+
+    public Collection<TaskInfo> getTasks() {
+        return tasks.values();
+    }
+
+    public Optional<TaskInfo> getTask(String taskName) {
+        return Optional.ofNullable(tasks.get(taskName));
+    }
+
+    public Collection<TaskStatus> getStatuses() {
+        return statuses.values();
+    }
+
+    public Optional<TaskStatus> getStatus(String taskName) {
+        return Optional.ofNullable(statuses.get(taskName));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StateSnapshot{generation=%d, tasks=%s, statuses=%d}",
+                generation, tasks.keySet(), statuses.size());
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.TaskStatus;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@code StateStore} stores the state of the frameworks, including tasks' TaskInfo and TaskStatus objects. Each
@@ -77,6 +78,16 @@ public interface StateStore {
     void storeStatus(TaskStatus status) throws StateStoreException;
 
 
+    /**
+     * Returns a future which completes once all statuses passed to {@link #storeStatus(TaskStatus)} before this call
+     * have been durably written, or which completes exceptionally if writing any of them failed. Implementations which
+     * write statuses before returning from {@link #storeStatus(TaskStatus)} may use this default implementation.
+     */
+    default CompletableFuture<Void> whenStatusesStored() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+
     /**
      * Removes all data associated with a particular Task including any stored TaskInfo and/or TaskStatus.
      *
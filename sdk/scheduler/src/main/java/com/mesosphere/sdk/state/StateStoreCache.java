@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.state;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Striped;
 import com.mesosphere.sdk.curator.CuratorStateStore;
 import com.mesosphere.sdk.storage.StorageError.Reason;
 
@@ -11,10 +12,16 @@ import org.apache.mesos.Protos.TaskStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -27,6 +34,20 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * process. In practice this works because there should only be one scheduler task/process
  * accessing the state data at any given time.
  * <p>
+ * Reads never lock: they are served directly from concurrent maps, so readers such as HTTP
+ * endpoints never wait on the latency of the underlying storage. Writes are serialized per task
+ * name (or per property key), so that writes against different tasks may proceed concurrently.
+ * <p>
+ * Tasks and statuses are held in immutable {@link BucketedMap}s, which are replaced on every write
+ * by a copy that shares all but the modified bucket with its predecessor. Multi-task reads such as
+ * {@link #fetchTasks()} therefore return immutable collections without copying anything. Both may
+ * be retrieved together as a {@link StateSnapshot} via {@link #fetchSnapshot()} when a caller needs
+ * tasks and statuses which are consistent with each other, e.g. via a {@link SnapshotStateStore}.
+ * <p>
+ * Components which maintain their own index of the stored tasks may register a
+ * {@link TaskStoreListener} via {@link #addTaskStoreListener(TaskStoreListener)}, which is notified
+ * of every task write made through the cache, whichever component makes it.
+ * <p>
  * Implementation note: All write operations always invoke the underlying storage before updating
  * the local cache. This avoids creating an inconsistent cache state if writing to the underlying
  * persistent store fails.
@@ -35,24 +56,54 @@ public class StateStoreCache implements StateStore {
 
     private static final Logger logger = LoggerFactory.getLogger(CuratorStateStore.class);
 
+    /** The number of locks which task names and property keys are striped across. */
+    private static final int LOCK_STRIPES = 64;
+    private static final String FRAMEWORK_ID_LOCK_KEY = "framework-id";
+    private static final String PROPERTY_LOCK_KEY_PREFIX = "property:";
+    private static final String TASK_LOCK_KEY_PREFIX = "task:";
+
+    /**
+     * All writes hold the shared lock in addition to the stripe(s) for what they're writing, while operations
+     * which replace or inspect the whole cache, such as {@link #refresh()}, hold the exclusive lock.
+     */
     private static final ReadWriteLock _lock = new ReentrantReadWriteLock();
-    protected static final Lock RLOCK = _lock.readLock();
-    protected static final Lock RWLOCK = _lock.writeLock();
+    protected static final Lock SHARED_WRITE_LOCK = _lock.readLock();
+    protected static final Lock EXCLUSIVE_WRITE_LOCK = _lock.writeLock();
 
     private static StateStoreCache instance = null;
 
     @VisibleForTesting
     protected final StateStore store;
 
-    private Optional<FrameworkID> frameworkId;
+    private final Striped<Lock> stripes = Striped.lock(LOCK_STRIPES);
+
+    private volatile Optional<FrameworkID> frameworkId;
 
     @VisibleForTesting
-    protected Map<String, TaskInfo> nameToTask = new HashMap<>();
+    protected volatile BucketedMap<TaskInfo> nameToTask = BucketedMap.empty();
+    /** Index of the tasks in {@link #nameToTask}, used to map the TaskID of an incoming TaskStatus to a name. */
+    @VisibleForTesting
+    protected volatile Map<TaskID, String> idToName = new ConcurrentHashMap<>();
     @VisibleForTesting
-    protected Map<String, TaskStatus> nameToStatus = new HashMap<>();
+    protected volatile BucketedMap<TaskStatus> nameToStatus = BucketedMap.empty();
 
     @VisibleForTesting
-    protected Map<String, byte[]> properties = new HashMap<>();
+    protected volatile Map<String, byte[]> properties = new ConcurrentHashMap<>();
+
+    private final List<TaskStoreListener> taskStoreListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Held briefly while the task and status maps and the snapshot are replaced, but never across calls to the
+     * underlying storage.
+     */
+    private final Object mutationLock = new Object();
+    /** Only written while holding {@link #mutationLock}. */
+    private long generation = 0;
+    /**
+     * The current tasks and statuses, which is replaced along with {@link #nameToTask} and {@link #nameToStatus}
+     * while holding {@link #mutationLock}.
+     */
+    private volatile StateSnapshot snapshot = StateSnapshot.of(0, nameToTask, nameToStatus);
 
     /**
      * Returns a cache instance. To ensure consistency, only one singleton cache instance may exist
@@ -60,7 +111,7 @@ public class StateStoreCache implements StateStore {
      * {@link StateStore} instance is provided each time.
      */
     public static StateStore getInstance(StateStore store) {
-        RWLOCK.lock();
+        EXCLUSIVE_WRITE_LOCK.lock();
         try {
             if (instance == null) {
                 instance = new StateStoreCache(store);
@@ -72,17 +123,17 @@ public class StateStoreCache implements StateStore {
             }
             return instance;
         } finally {
-            RWLOCK.unlock();
+            EXCLUSIVE_WRITE_LOCK.unlock();
         }
     }
 
     @VisibleForTesting
     public static void resetInstanceForTests() {
-        RWLOCK.lock();
+        EXCLUSIVE_WRITE_LOCK.lock();
         try {
             instance = null;
         } finally {
-            RWLOCK.unlock();
+            EXCLUSIVE_WRITE_LOCK.unlock();
         }
     }
 
@@ -93,186 +144,189 @@ public class StateStoreCache implements StateStore {
         refresh();
     }
 
+    /**
+     * Registers a listener to be notified of all subsequent changes to the stored tasks.
+     */
+    public void addTaskStoreListener(TaskStoreListener listener) {
+        taskStoreListeners.add(listener);
+    }
+
     @Override
     public void storeFrameworkId(FrameworkID fwkId) throws StateStoreException {
-        RWLOCK.lock();
+        List<Lock> locks = lockWrite(FRAMEWORK_ID_LOCK_KEY);
         try {
             store.storeFrameworkId(fwkId);
             frameworkId = Optional.of(fwkId);
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
     @Override
     public void clearFrameworkId() throws StateStoreException {
-        RWLOCK.lock();
+        List<Lock> locks = lockWrite(FRAMEWORK_ID_LOCK_KEY);
         try {
             store.clearFrameworkId();
             frameworkId = Optional.empty();
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
     @Override
     public Optional<FrameworkID> fetchFrameworkId() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return frameworkId;
-        } finally {
-            RLOCK.unlock();
-        }
+        return frameworkId;
     }
 
     @Override
     public void storeTasks(Collection<TaskInfo> tasks) throws StateStoreException {
-        RWLOCK.lock();
+        List<String> lockKeys = new ArrayList<>();
+        for (TaskInfo task : tasks) {
+            lockKeys.add(TASK_LOCK_KEY_PREFIX + task.getName());
+        }
+        List<Lock> locks = lockWrite(lockKeys);
         try {
             store.storeTasks(tasks);
-            for (TaskInfo task : tasks) {
-                nameToTask.put(task.getName(), task);
+            synchronized (mutationLock) {
+                BucketedMap<TaskInfo> newNameToTask = nameToTask;
+                for (TaskInfo task : tasks) {
+                    TaskInfo oldTask = newNameToTask.get(task.getName());
+                    if (oldTask != null) {
+                        // The task may have been relaunched with a new ID:
+                        idToName.remove(oldTask.getTaskId());
+                    }
+                    newNameToTask = newNameToTask.with(task.getName(), task);
+                    idToName.put(task.getTaskId(), task.getName());
+                }
+                nameToTask = newNameToTask;
+                updateSnapshot();
             }
+            taskStoreListeners.forEach(listener -> listener.tasksStored(tasks));
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
     @Override
     public void storeStatus(TaskStatus status) throws StateStoreException {
-        RWLOCK.lock();
+        // Use TaskInfo index to map TaskID => Name. The mapping is checked again once the task's lock is held, in
+        // case the task was concurrently replaced or cleared.
+        String taskName = idToName.get(status.getTaskId());
+        List<Lock> locks = taskName == null
+                ? lockWrite(Collections.emptyList())
+                : lockWrite(TASK_LOCK_KEY_PREFIX + taskName);
         try {
             store.storeStatus(status);
-            String taskName = null;
-            // Use TaskInfo cache to map TaskID => Name
-            for (TaskInfo taskInfo : nameToTask.values()) {
-                if (taskInfo.getTaskId().equals(status.getTaskId())) {
-                    taskName = taskInfo.getName();
-                    break;
-                }
-            }
-            if (taskName == null) {
+            if (taskName == null || !taskName.equals(idToName.get(status.getTaskId()))) {
                 throw new StateStoreException(Reason.LOGIC_ERROR, String.format(
                         "The following TaskInfo is not present in the StateStore: %s. " +
                                 "TaskInfo must be present in order to store a TaskStatus.", status.getTaskId()));
             }
-            nameToStatus.put(taskName, status);
+            synchronized (mutationLock) {
+                nameToStatus = nameToStatus.with(taskName, status);
+                updateSnapshot();
+            }
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> whenStatusesStored() {
+        return store.whenStatusesStored();
+    }
+
     @Override
     public void clearTask(String taskName) throws StateStoreException {
-        RWLOCK.lock();
+        List<Lock> locks = lockWrite(TASK_LOCK_KEY_PREFIX + taskName);
         try {
             store.clearTask(taskName);
-            TaskInfo oldValue = nameToTask.remove(taskName);
-            if (oldValue == null) {
-                logger.warn("Unable to find task named {} to remove. Known task names are: {}",
-                        taskName, nameToTask.keySet());
+            synchronized (mutationLock) {
+                TaskInfo oldValue = nameToTask.get(taskName);
+                if (oldValue == null) {
+                    logger.warn("Unable to find task named {} to remove. Known task names are: {}",
+                            taskName, nameToTask.keySet());
+                } else {
+                    idToName.remove(oldValue.getTaskId());
+                }
+                nameToTask = nameToTask.without(taskName);
+                nameToStatus = nameToStatus.without(taskName);
+                updateSnapshot();
             }
-            nameToStatus.remove(taskName);
+            taskStoreListeners.forEach(listener -> listener.taskCleared(taskName));
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
+    /**
+     * Returns an immutable snapshot of the current tasks and statuses. This doesn't copy anything: the cache replaces
+     * its snapshot whenever tasks or statuses are modified, and the same snapshot is returned until then.
+     */
+    public StateSnapshot fetchSnapshot() {
+        return snapshot;
+    }
+
     @Override
     public Collection<String> fetchTaskNames() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return nameToTask.keySet();
-        } finally {
-            RLOCK.unlock();
-        }
+        return nameToTask.keySet();
     }
 
     @Override
     public Collection<TaskInfo> fetchTasks() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return nameToTask.values();
-        } finally {
-            RLOCK.unlock();
-        }
+        return nameToTask.values();
     }
 
     @Override
     public Optional<TaskInfo> fetchTask(String taskName) throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return Optional.ofNullable(nameToTask.get(taskName));
-        } finally {
-            RLOCK.unlock();
-        }
+        return Optional.ofNullable(nameToTask.get(taskName));
     }
 
     @Override
     public Collection<TaskStatus> fetchStatuses() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return nameToStatus.values();
-        } finally {
-            RLOCK.unlock();
-        }
+        return nameToStatus.values();
     }
 
     @Override
     public Optional<TaskStatus> fetchStatus(String taskName) throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return Optional.ofNullable(nameToStatus.get(taskName));
-        } finally {
-            RLOCK.unlock();
-        }
+        return Optional.ofNullable(nameToStatus.get(taskName));
     }
 
     @Override
     public void storeProperty(String key, byte[] value) throws StateStoreException {
-        RWLOCK.lock();
+        List<Lock> locks = lockWrite(PROPERTY_LOCK_KEY_PREFIX + key);
         try {
             store.storeProperty(key, value);
             properties.put(key, value);
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
     @Override
     public byte[] fetchProperty(String key) throws StateStoreException {
-        RLOCK.lock();
-        try {
-            byte[] val = properties.get(key);
-            if (val == null) { // emulate StateStore contract
-                throw new StateStoreException(Reason.NOT_FOUND, String.format(
-                        "Property key does not exist: %s (known keys are: %s)",
-                        key, properties.keySet()));
-            }
-            return val;
-        } finally {
-            RLOCK.unlock();
+        byte[] val = properties.get(key);
+        if (val == null) { // emulate StateStore contract
+            throw new StateStoreException(Reason.NOT_FOUND, String.format(
+                    "Property key does not exist: %s (known keys are: %s)",
+                    key, properties.keySet()));
         }
+        return val;
     }
 
     @Override
     public Collection<String> fetchPropertyKeys() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return properties.keySet();
-        } finally {
-            RLOCK.unlock();
-        }
+        return properties.keySet();
     }
 
     @Override
     public void clearProperty(String key) throws StateStoreException {
-        RWLOCK.lock();
+        List<Lock> locks = lockWrite(PROPERTY_LOCK_KEY_PREFIX + key);
         try {
             store.clearProperty(key);
             properties.remove(key);
         } finally {
-            RWLOCK.unlock();
+            unlockWrite(locks);
         }
     }
 
@@ -283,30 +337,30 @@ public class StateStoreCache implements StateStore {
      * changing the cache (best-effort attempt at atomicity)
      */
     public void refresh() {
-        RWLOCK.lock();
+        EXCLUSIVE_WRITE_LOCK.lock();
         try {
             Optional<FrameworkID> newFrameworkId = store.fetchFrameworkId();
 
             Map<String, TaskInfo> newNameToTask = new HashMap<>();
-            Map<TaskID, TaskInfo> idToTask = new HashMap<>(); // Used to map ID=>Name below
+            Map<TaskID, String> newIdToName = new ConcurrentHashMap<>();
             for (TaskInfo task : store.fetchTasks()) {
                 newNameToTask.put(task.getName(), task);
-                idToTask.put(task.getTaskId(), task);
+                newIdToName.put(task.getTaskId(), task.getName());
             }
 
             Map<String, TaskStatus> newNameToStatus = new HashMap<>();
             for (TaskStatus status : store.fetchStatuses()) {
                 // Get the name from the corresponding TaskInfo for this task ID:
-                TaskInfo task = idToTask.get(status.getTaskId());
-                if (task == null) {
+                String taskName = newIdToName.get(status.getTaskId());
+                if (taskName == null) {
                     throw new StateStoreException(Reason.LOGIC_ERROR, String.format(
                             "The following TaskInfo is not present: %s. TaskInfo must be present in " +
-                                    "order to store a TaskStatus. All Tasks: %s", status.getTaskId(), idToTask));
+                                    "order to store a TaskStatus. All Tasks: %s", status.getTaskId(), newNameToTask));
                 }
-                newNameToStatus.put(task.getName(), status);
+                newNameToStatus.put(taskName, status);
             }
 
-            Map<String, byte[]> newProperties = new HashMap<>();
+            Map<String, byte[]> newProperties = new ConcurrentHashMap<>();
             for (String key : store.fetchPropertyKeys()) {
                 newProperties.put(key, store.fetchProperty(key));
             }
@@ -314,11 +368,56 @@ public class StateStoreCache implements StateStore {
             // Update the local state AFTER all the data retrieval succeded:
             // This reduces the risk of inconsistent cache state due to storage failure.
             frameworkId = newFrameworkId;
-            nameToTask = newNameToTask;
-            nameToStatus = newNameToStatus;
+            synchronized (mutationLock) {
+                nameToTask = BucketedMap.copyOf(newNameToTask);
+                idToName = newIdToName;
+                nameToStatus = BucketedMap.copyOf(newNameToStatus);
+                updateSnapshot();
+            }
             properties = newProperties;
+            taskStoreListeners.forEach(listener -> listener.tasksRefreshed(newNameToTask.values()));
         } finally {
-            RWLOCK.unlock();
+            EXCLUSIVE_WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Replaces the snapshot with one of the current tasks and statuses. Must be called while holding
+     * {@link #mutationLock}.
+     */
+    private void updateSnapshot() {
+        snapshot = StateSnapshot.of(++generation, nameToTask, nameToStatus);
+    }
+
+    private List<Lock> lockWrite(String lockKey) {
+        return lockWrite(Collections.singletonList(lockKey));
+    }
+
+    /**
+     * Acquires the shared write lock, followed by the stripes for the provided keys. Stripes are always acquired in a
+     * consistent order, so concurrent writes against overlapping keys cannot deadlock.
+     *
+     * @return the acquired stripes, to be passed to {@link #unlockWrite(List)}
+     */
+    private List<Lock> lockWrite(Collection<String> lockKeys) {
+        SHARED_WRITE_LOCK.lock();
+        List<Lock> locks = new ArrayList<>();
+        try {
+            for (Lock lock : stripes.bulkGet(lockKeys)) {
+                lock.lock();
+                locks.add(lock);
+            }
+        } catch (RuntimeException e) {
+            unlockWrite(locks);
+            throw e;
+        }
+        return locks;
+    }
+
+    private static void unlockWrite(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; --i) {
+            locks.get(i).unlock();
         }
+        SHARED_WRITE_LOCK.unlock();
     }
 }
@@ -72,27 +72,38 @@ public class StateStoreUtils {
         List<TaskInfo> results = new ArrayList<>();
         for (TaskInfo info : allInfos) {
             TaskStatus status = statusMap.get(info.getTaskId());
-            if (status == null) {
-                continue;
-            }
-
-            Optional<TaskSpec> taskSpec = TaskUtils.getTaskSpec(
-                    TaskUtils.getPodInstance(configStore, info),
-                    info.getName());
-
-            if (!taskSpec.isPresent()) {
-                throw new TaskException("Failed to determine TaskSpec from TaskInfo: " + info);
-            }
-
-            if (TaskUtils.needsRecovery(taskSpec.get(), status)) {
-                LOGGER.info("Task: '{}' needs recovery with status: {}.",
-                        taskSpec.get().getName(), TextFormat.shortDebugString(status));
+            if (status != null && needsRecovery(configStore, info, status)) {
                 results.add(info);
             }
         }
         return results;
     }
 
+    /**
+     * Returns whether the provided task needs recovery, given its latest status.
+     *
+     * @throws TaskException if the task's {@link TaskSpec} could not be determined
+     */
+    public static boolean needsRecovery(
+            ConfigStore<ServiceSpec> configStore,
+            TaskInfo info,
+            TaskStatus status) throws TaskException {
+        Optional<TaskSpec> taskSpec = TaskUtils.getTaskSpec(
+                TaskUtils.getPodInstance(configStore, info),
+                info.getName());
+
+        if (!taskSpec.isPresent()) {
+            throw new TaskException("Failed to determine TaskSpec from TaskInfo: " + info);
+        }
+
+        if (TaskUtils.needsRecovery(taskSpec.get(), status)) {
+            LOGGER.info("Task: '{}' needs recovery with status: {}.",
+                    taskSpec.get().getName(), TextFormat.shortDebugString(status));
+            return true;
+        }
+        return false;
+    }
+
     public static Collection<TaskInfo> fetchTasksFromPod(StateStore stateStore, String pod) throws StateStoreException {
         Collection<TaskInfo> allInfos = stateStore.fetchTasks();
 
@@ -0,0 +1,28 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.util.Collection;
+
+/**
+ * Receives every change to the tasks in a {@link StateStoreCache}, regardless of which component made the change.
+ * Notifications for a given task are delivered in the order of the writes, while the cache holds that task's lock, so
+ * implementations should return promptly and must not write to the cache.
+ */
+public interface TaskStoreListener {
+    /**
+     * Notifies that the provided tasks have been stored, replacing any previous tasks with the same names.
+     */
+    void tasksStored(Collection<TaskInfo> tasks);
+
+    /**
+     * Notifies that the named task has been removed.
+     */
+    void taskCleared(String taskName);
+
+    /**
+     * Notifies that all tasks have been reloaded from the underlying storage, and that the provided tasks replace any
+     * which were previously stored.
+     */
+    void tasksRefreshed(Collection<TaskInfo> tasks);
+}
@@ -0,0 +1,34 @@
+package com.mesosphere.sdk.storage;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Persister} which additionally supports issuing operations without waiting for their results. This allows
+ * callers to pipeline many independent operations against the underlying storage, paying for a single round-trip
+ * rather than one round-trip per operation.
+ * <p>
+ * Failures are reported by completing the returned future exceptionally, with the same exception that the equivalent
+ * synchronous call would have thrown.
+ */
+public interface AsyncPersister extends Persister {
+    /**
+     * Asynchronous version of {@link #set(String, byte[])}.
+     */
+    CompletableFuture<Void> setAsync(String path, byte[] bytes);
+
+    /**
+     * Asynchronous version of {@link #get(String)}.
+     */
+    CompletableFuture<byte[]> getAsync(String path);
+
+    /**
+     * Asynchronous version of {@link #getChildren(String)}.
+     */
+    CompletableFuture<Collection<String>> getChildrenAsync(String path);
+
+    /**
+     * Returns whether data exists at the specified path.
+     */
+    CompletableFuture<Boolean> existsAsync(String path);
+}
@@ -0,0 +1,65 @@
+package com.mesosphere.sdk.api;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsResourceTest {
+
+    private MetricRegistry registry;
+    private MetricsResource resource;
+
+    @Before
+    public void beforeEach() {
+        registry = new MetricRegistry();
+        registry.counter("offers.received").inc(3);
+        registry.timer("offers.cycle").update(250, TimeUnit.MILLISECONDS);
+        registry.register("queue.depth", (Gauge<Integer>) () -> 7);
+        resource = new MetricsResource(registry);
+    }
+
+    @Test
+    public void testJsonMetrics() {
+        Response response = resource.getJsonMetrics();
+        assertEquals(200, response.getStatus());
+
+        JSONObject json = new JSONObject((String) response.getEntity());
+        assertEquals(3, json.getJSONObject("counters").getLong("offers.received"));
+        assertEquals(7, json.getJSONObject("gauges").getInt("queue.depth"));
+        JSONObject timer = json.getJSONObject("timers").getJSONObject("offers.cycle");
+        assertEquals(1, timer.getLong("count"));
+        assertEquals(250.0, timer.getDouble("max"), 0.01);
+        assertEquals(250.0, timer.getDouble("p99"), 0.01);
+    }
+
+    @Test
+    public void testPrometheusMetrics() {
+        Response response = resource.getPrometheusMetrics();
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.valueOf(MetricsResource.PROMETHEUS_CONTENT_TYPE), response.getMediaType());
+
+        String text = (String) response.getEntity();
+        assertTrue(text, text.contains("# TYPE offers_received_total counter\noffers_received_total 3.0\n"));
+        assertTrue(text, text.contains("# TYPE queue_depth gauge\nqueue_depth 7.0\n"));
+        assertTrue(text, text.contains("# TYPE offers_cycle_seconds summary\n"));
+        assertTrue(text, text.contains("offers_cycle_seconds{quantile=\"0.99\"} 0.25\n"));
+        assertTrue(text, text.contains("offers_cycle_seconds_sum 0.25\n"));
+        assertTrue(text, text.contains("offers_cycle_seconds_count 1\n"));
+    }
+
+    @Test
+    public void testPrometheusName() {
+        assertEquals("offers_evaluate_stage_PortEvaluationStage",
+                MetricsResource.toPrometheusName("offers.evaluate.stage.PortEvaluationStage"));
+        assertEquals("offers_received_total", MetricsResource.toPrometheusCounterName("offers.received"));
+        assertEquals("offers_received_total", MetricsResource.toPrometheusCounterName("offers.received.total"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.mesosphere.sdk.api;
+
+import com.mesosphere.sdk.offer.DecisionTrace;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+public class OffersDebugResourceTest {
+
+    @Mock private DecisionTrace mockDecisionTrace;
+    @Mock private DecisionTrace.Entry mockEntry1;
+    @Mock private DecisionTrace.Entry mockEntry2;
+
+    private OffersDebugResource resource;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        when(mockEntry1.getCycle()).thenReturn(4L);
+        when(mockEntry1.getTimestampMs()).thenReturn(1234L);
+        when(mockEntry1.getType()).thenReturn(DecisionTrace.Type.OFFER);
+        when(mockEntry1.getSummary()).thenReturn("  1: offer-1");
+        when(mockEntry1.getDetails()).thenReturn("id { value: \"offer-1\" }");
+        when(mockEntry2.getCycle()).thenReturn(4L);
+        when(mockEntry2.getTimestampMs()).thenReturn(1235L);
+        when(mockEntry2.getType()).thenReturn(DecisionTrace.Type.EVALUATION);
+        when(mockEntry2.getSummary()).thenReturn("- 1: failed 1 of 3 evaluation stages for offer offer-1");
+        when(mockEntry2.getDetails()).thenReturn("\n  FAIL(...)");
+        when(mockDecisionTrace.getEntries()).thenReturn(Arrays.asList(mockEntry1, mockEntry2));
+        resource = new OffersDebugResource(mockDecisionTrace);
+    }
+
+    @Test
+    public void testGetOffers() {
+        Response response = resource.getOffers(null);
+        assertEquals(200, response.getStatus());
+
+        JSONArray json = new JSONArray((String) response.getEntity());
+        assertEquals(2, json.length());
+        JSONObject entry = json.getJSONObject(0);
+        assertEquals(4, entry.getLong("cycle"));
+        assertEquals(1234, entry.getLong("timestamp"));
+        assertEquals("OFFER", entry.getString("type"));
+        assertEquals("1: offer-1", entry.getString("summary"));
+        assertEquals("id { value: \"offer-1\" }", entry.getString("details"));
+        assertEquals("FAIL(...)", json.getJSONObject(1).getString("details"));
+    }
+
+    @Test
+    public void testGetOffersWithLimit() {
+        JSONArray json = new JSONArray((String) resource.getOffers("1").getEntity());
+        assertEquals(1, json.length());
+        assertEquals("EVALUATION", json.getJSONObject(0).getString("type"));
+
+        json = new JSONArray((String) resource.getOffers("5").getEntity());
+        assertEquals(2, json.length());
+    }
+
+    @Test
+    public void testGetOffersWithInvalidLimit() {
+        assertEquals(400, resource.getOffers("-1").getStatus());
+        assertEquals(400, resource.getOffers("foo").getStatus());
+    }
+}
@@ -88,6 +88,33 @@ public class CuratorConfigStoreTest {
         store.fetch(testId);
     }
 
+    @Test
+    public void testFetchCachedConfig() throws Exception {
+        CuratorConfigStore<StringConfiguration> curatorStore = (CuratorConfigStore<StringConfiguration>) store;
+        UUID testId = store.store(testConfig);
+        StringConfiguration config = store.fetch(testId);
+        assertEquals(0, curatorStore.getCacheStats().hitCount());
+        assertEquals(1, curatorStore.getCacheStats().missCount());
+
+        // The parsed config is reused rather than being fetched and parsed again:
+        assertSame(config, store.fetch(testId));
+        assertEquals(1, curatorStore.getCacheStats().hitCount());
+        assertEquals(1, curatorStore.getCacheStats().missCount());
+    }
+
+    @Test
+    public void testClearCachedConfig() throws Exception {
+        UUID testId = store.store(testConfig);
+        assertEquals(testConfig, store.fetch(testId));
+        store.clear(testId);
+        try {
+            store.fetch(testId);
+            fail("Expected cleared config to no longer be returned");
+        } catch (ConfigStoreException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testClearConfig() throws Exception {
         store.clear(UUID.randomUUID());
@@ -1,9 +1,14 @@
 package com.mesosphere.sdk.curator;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
 import org.apache.curator.framework.api.ACLPathAndBytesable;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.curator.framework.api.ExistsBuilder;
 import org.apache.curator.framework.api.PathAndBytesable;
+import org.apache.curator.framework.api.Pathable;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
@@ -13,6 +18,7 @@ import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
 import org.apache.curator.framework.api.transaction.TransactionDeleteBuilder;
 import org.apache.curator.framework.api.transaction.TransactionSetDataBuilder;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.data.ACL;
 import org.apache.zookeeper.data.Stat;
 import org.junit.*;
@@ -21,8 +27,11 @@ import org.mockito.MockitoAnnotations;
 
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -62,6 +71,22 @@ public class CuratorPersisterTest {
     public void beforeEach() throws Exception {
         MockitoAnnotations.initMocks(this);
         persister = new CuratorPersister(mockClient);
+
+        // Existence checks are performed in the background: route them to the synchronous stubs of each test.
+        when(mockExistsBuilder.inBackground(any(BackgroundCallback.class))).thenAnswer(invocation -> {
+            BackgroundCallback callback = (BackgroundCallback) invocation.getArguments()[0];
+            return (Pathable<Stat>) path -> {
+                Stat stat = mockExistsBuilder.forPath(path);
+                CuratorEvent event = mock(CuratorEvent.class);
+                when(event.getPath()).thenReturn(path);
+                when(event.getStat()).thenReturn(stat);
+                when(event.getResultCode()).thenReturn(stat == null
+                        ? KeeperException.Code.NONODE.intValue()
+                        : KeeperException.Code.OK.intValue());
+                callback.processResult(mockClient, event);
+                return null;
+            };
+        });
     }
 
     @Test
@@ -251,6 +276,44 @@ public class CuratorPersisterTest {
         persister.setMany(MANY_MAP);
     }
 
+    @Test
+    public void testAsyncOperations() throws Exception {
+        TestingServer testZk = new TestingServer();
+        CuratorPersister zkPersister = new CuratorPersister(
+                testZk.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+        try {
+            assertFalse(CuratorPersister.await(zkPersister.existsAsync(PATH_SUB_1)));
+
+            // issue several writes before waiting on any of them:
+            List<CompletableFuture<Void>> writes = Arrays.asList(
+                    zkPersister.setAsync(PATH_SUB_1, DATA_SUB_1),
+                    zkPersister.setAsync(PATH_SUB_2, DATA_SUB_2),
+                    zkPersister.setAsync(PATH_1, DATA_1));
+            for (CompletableFuture<Void> write : writes) {
+                CuratorPersister.await(write);
+            }
+            // overwrite existing data:
+            CuratorPersister.await(zkPersister.setAsync(PATH_1, DATA_2));
+
+            assertTrue(CuratorPersister.await(zkPersister.existsAsync(PATH_SUB_1)));
+            assertArrayEquals(DATA_SUB_1, CuratorPersister.await(zkPersister.getAsync(PATH_SUB_1)));
+            assertArrayEquals(DATA_SUB_2, zkPersister.get(PATH_SUB_2));
+            assertArrayEquals(DATA_2, CuratorPersister.await(zkPersister.getAsync(PATH_1)));
+            assertEquals(new HashSet<>(Arrays.asList("1", "sub")),
+                    new HashSet<>(CuratorPersister.await(zkPersister.getChildrenAsync(PATH_PARENT))));
+
+            try {
+                CuratorPersister.await(zkPersister.getAsync(PATH_2));
+                fail("expected exception");
+            } catch (KeeperException.NoNodeException e) {
+                // expected: same exception as the synchronous get()
+            }
+        } finally {
+            zkPersister.close();
+            testZk.close();
+        }
+    }
+
     /**
      * Implements a sort of 'journal' of an operation chain to be performed within a Curator transaction.
      */
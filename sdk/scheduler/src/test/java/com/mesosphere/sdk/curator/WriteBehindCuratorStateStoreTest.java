@@ -0,0 +1,168 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.testutils.CuratorTestUtils;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.SlaveID;
+import org.apache.zookeeper.KeeperException;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests to validate the operation of the {@link WriteBehindCuratorStateStore}.
+ */
+public class WriteBehindCuratorStateStoreTest {
+    private static final String ROOT_ZK_PATH = "/test-root-path";
+    private static final String TASK_NAME_A = "test-task-a";
+    private static final String TASK_NAME_B = "test-task-b";
+    private static final Protos.TaskInfo TASK_A = createTask(TASK_NAME_A);
+    private static final Protos.TaskInfo TASK_B = createTask(TASK_NAME_B);
+    /** Long enough that queued statuses are only written when a test explicitly flushes them. */
+    private static final long LONG_WINDOW_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static TestingServer testZk;
+    private WriteBehindCuratorStateStore store;
+    private CuratorPersister curator;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        store = new WriteBehindCuratorStateStore(ROOT_ZK_PATH, testZk.getConnectString(), LONG_WINDOW_MS);
+        store.storeTasks(Arrays.asList(TASK_A, TASK_B));
+        curator = new CuratorPersister(testZk.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+    }
+
+    @After
+    public void afterEach() {
+        store.closeForTesting();
+        curator.close();
+    }
+
+    @Test
+    public void testStatusIsQueuedUntilFlushed() throws Exception {
+        Protos.TaskStatus status = createTaskStatus(TASK_A, Protos.TaskState.TASK_RUNNING);
+        store.storeStatus(status);
+        CompletableFuture<Void> stored = store.whenStatusesStored();
+
+        assertEquals(status, store.fetchStatus(TASK_NAME_A).get());
+        assertEquals(Arrays.asList(status), new ArrayList<>(store.fetchStatuses()));
+        assertFalse(fetchWrittenStatus(TASK_NAME_A).isPresent());
+        assertFalse(stored.isDone());
+
+        store.flush();
+
+        assertTrue(stored.isDone());
+        assertFalse(stored.isCompletedExceptionally());
+        assertEquals(status, fetchWrittenStatus(TASK_NAME_A).get());
+        assertEquals(status, store.fetchStatus(TASK_NAME_A).get());
+        assertSame(stored, store.whenStatusesStored());
+    }
+
+    @Test
+    public void testOnlyLatestStatusPerTaskIsWritten() throws Exception {
+        Protos.TaskStatus stagingA = createTaskStatus(TASK_A, Protos.TaskState.TASK_STAGING);
+        Protos.TaskStatus runningA = createTaskStatus(TASK_A, Protos.TaskState.TASK_RUNNING);
+        Protos.TaskStatus runningB = createTaskStatus(TASK_B, Protos.TaskState.TASK_RUNNING);
+        store.storeStatus(stagingA);
+        store.storeStatus(runningB);
+        store.storeStatus(runningA);
+        assertEquals(runningA, store.fetchStatus(TASK_NAME_A).get());
+
+        store.flush();
+
+        assertEquals(runningA, fetchWrittenStatus(TASK_NAME_A).get());
+        assertEquals(runningB, fetchWrittenStatus(TASK_NAME_B).get());
+    }
+
+    @Test
+    public void testQueuedStatusIsValidated() throws Exception {
+        store.storeStatus(createTaskStatus(TASK_A, Protos.TaskState.TASK_FAILED));
+        try {
+            store.storeStatus(createTaskStatus(TASK_A, Protos.TaskState.TASK_LOST));
+            fail("Expected TASK_LOST to be rejected for a task whose queued status is terminal");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        try {
+            store.storeStatus(createTaskStatus(createTask("unknown-task"), Protos.TaskState.TASK_RUNNING));
+            fail("Expected status for unknown task to be rejected");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertEquals(Protos.TaskState.TASK_FAILED, store.fetchStatus(TASK_NAME_A).get().getState());
+    }
+
+    @Test
+    public void testClearTaskDropsQueuedStatus() throws Exception {
+        store.storeStatus(createTaskStatus(TASK_A, Protos.TaskState.TASK_RUNNING));
+        CompletableFuture<Void> stored = store.whenStatusesStored();
+        store.clearTask(TASK_NAME_A);
+        assertFalse(store.fetchStatus(TASK_NAME_A).isPresent());
+
+        store.flush();
+
+        assertTrue(stored.isDone());
+        assertFalse(stored.isCompletedExceptionally());
+        // The cleared task wasn't recreated by the write:
+        assertEquals(Arrays.asList(TASK_NAME_B), store.fetchTaskNames());
+    }
+
+    @Test
+    public void testStatusesAreWrittenAfterWindow() throws Exception {
+        store.closeForTesting();
+        store = new WriteBehindCuratorStateStore(ROOT_ZK_PATH, testZk.getConnectString(), 10);
+
+        Protos.TaskStatus status = createTaskStatus(TASK_A, Protos.TaskState.TASK_RUNNING);
+        store.storeStatus(status);
+        store.whenStatusesStored().get(10, TimeUnit.SECONDS);
+
+        assertEquals(status, fetchWrittenStatus(TASK_NAME_A).get());
+    }
+
+    @Test
+    public void testNothingQueued() throws Exception {
+        assertTrue(store.whenStatusesStored().isDone());
+    }
+
+    /**
+     * Returns the status which has actually been written to ZK for the provided task, if any.
+     */
+    private Optional<Protos.TaskStatus> fetchWrittenStatus(String taskName) throws Exception {
+        try {
+            byte[] bytes = curator.get(store.taskPathMapper.getTaskStatusPath(taskName));
+            return Optional.of(Protos.TaskStatus.parseFrom(bytes));
+        } catch (KeeperException.NoNodeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Protos.TaskStatus createTaskStatus(Protos.TaskInfo task, Protos.TaskState state) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(state)
+                .build();
+    }
+
+    private static Protos.TaskInfo createTask(String taskName) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(taskName)
+                .setTaskId(CommonTaskUtils.toTaskId(taskName))
+                .setSlaveId(SlaveID.newBuilder().setValue("ignored")) // proto field required
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.mesosphere.sdk.offer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link DecisionTrace}.
+ */
+public class DecisionTraceTest {
+
+    @Mock private Logger mockLogger;
+
+    private final AtomicInteger renderCount = new AtomicInteger();
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        renderCount.set(0);
+    }
+
+    @Test
+    public void testSampledCycleLogsDetails() {
+        when(mockLogger.isInfoEnabled()).thenReturn(true);
+        DecisionTrace trace = new DecisionTrace(10, 1);
+        trace.startCycle();
+        trace.record(mockLogger, DecisionTrace.Type.OFFER, "offer-1", render("details-1"));
+        verify(mockLogger).info("{}: {}", "offer-1", "details-1");
+        assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    public void testSampledCycleWithoutInfoDoesNotRenderDetails() {
+        DecisionTrace trace = new DecisionTrace(10, 1);
+        trace.startCycle();
+        trace.record(mockLogger, DecisionTrace.Type.EVALUATION, "evaluation", render("details"));
+        verify(mockLogger, never()).info(anyString(), anyObject(), anyObject());
+        assertEquals(0, renderCount.get());
+    }
+
+    @Test
+    public void testUnsampledCycleDoesNotRenderDetails() {
+        when(mockLogger.isInfoEnabled()).thenReturn(true);
+        DecisionTrace trace = new DecisionTrace(10, 2);
+        assertEquals(0, trace.startCycle());
+        assertEquals(1, trace.startCycle());
+        trace.record(mockLogger, DecisionTrace.Type.OFFER, "offer-1", render("details-1"));
+        trace.record(mockLogger, DecisionTrace.Type.OPERATIONS, "operations", render("details-2"));
+        verify(mockLogger, never()).info(anyString(), anyObject(), anyObject());
+        verify(mockLogger).info("operations");
+        verify(mockLogger, never()).info("offer-1");
+        assertEquals(0, renderCount.get());
+
+        // Details are rendered once, on request:
+        List<DecisionTrace.Entry> entries = trace.getEntries();
+        assertEquals("details-1", entries.get(0).getDetails());
+        assertEquals("details-1", entries.get(0).getDetails());
+        assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    public void testUnsampledCycleLogsDetailsAtDebug() {
+        when(mockLogger.isDebugEnabled()).thenReturn(true);
+        DecisionTrace trace = new DecisionTrace(10, 2);
+        trace.startCycle();
+        trace.startCycle();
+        trace.record(mockLogger, DecisionTrace.Type.EVALUATION, "evaluation", render("details"));
+        verify(mockLogger).debug("{}: {}", "evaluation", "details");
+    }
+
+    @Test
+    public void testOldestEntriesAreDiscarded() {
+        DecisionTrace trace = new DecisionTrace(3, 1);
+        for (int i = 0; i < 5; ++i) {
+            trace.startCycle();
+            trace.record(mockLogger, DecisionTrace.Type.OFFER, "offer-" + i, render("details-" + i));
+        }
+        List<DecisionTrace.Entry> entries = trace.getEntries();
+        assertEquals(3, entries.size());
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(i + 2, entries.get(i).getCycle());
+            assertEquals("offer-" + (i + 2), entries.get(i).getSummary());
+            assertEquals(DecisionTrace.Type.OFFER, entries.get(i).getType());
+        }
+    }
+
+    private Supplier<String> render(String details) {
+        return () -> {
+            renderCount.incrementAndGet();
+            return details;
+        };
+    }
+}
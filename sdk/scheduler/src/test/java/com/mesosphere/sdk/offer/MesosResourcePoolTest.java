@@ -127,4 +127,45 @@ public class MesosResourcePoolTest {
         pool.release(new MesosResource(resource));
         Assert.assertEquals(2, pool.getUnreservedMergedPool().get("cpus").getScalar().getValue(), 0.0);
     }
+
+    @Test
+    public void testMergedScalarsAreCombined() {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256),
+                ResourceTestUtils.getUnreservedCpu(2.5)));
+        MesosResourcePool pool = new MesosResourcePool(offer);
+
+        Assert.assertEquals(2, pool.getUnreservedMergedPool().size());
+        Assert.assertEquals(3.5, pool.getUnreservedMergedValue("cpus").get().getScalar().getValue(), 0.0);
+        Assert.assertEquals(256, pool.getUnreservedMergedValue("mem").get().getScalar().getValue(), 0.0);
+        Assert.assertFalse(pool.getUnreservedMergedValue("gpus").isPresent());
+
+        Assert.assertTrue(pool.consume(new ResourceRequirement(ResourceTestUtils.getUnreservedCpu(3.0))).isPresent());
+        Assert.assertFalse(pool.consume(new ResourceRequirement(ResourceTestUtils.getUnreservedCpu(1.0))).isPresent());
+        Assert.assertEquals(0.5, pool.getUnreservedMergedValue("cpus").get().getScalar().getValue(), 0.0);
+    }
+
+    @Test
+    public void testConsumeAndReleaseUnreservedRanges() {
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedPorts(10000, 10010));
+        MesosResourcePool pool = new MesosResourcePool(offer);
+
+        Resource ports = ResourceTestUtils.getUnreservedPorts(10005, 10005);
+        MesosResource consumed = pool.consume(new ResourceRequirement(ports)).get();
+        Assert.assertEquals(ports, consumed.getResource());
+        Assert.assertEquals(
+                RangeAlgorithms.fromRangeList(Arrays.asList(
+                        Protos.Value.Range.newBuilder().setBegin(10000).setEnd(10004).build(),
+                        Protos.Value.Range.newBuilder().setBegin(10006).setEnd(10010).build())),
+                pool.getUnreservedMergedValue("ports").get().getRanges());
+
+        // The same port can't be consumed twice, until it's released:
+        Assert.assertFalse(pool.consume(new ResourceRequirement(ports)).isPresent());
+        pool.release(consumed);
+        Assert.assertEquals(
+                RangeAlgorithms.fromRangeList(Arrays.asList(
+                        Protos.Value.Range.newBuilder().setBegin(10000).setEnd(10010).build())),
+                pool.getUnreservedMergedValue("ports").get().getRanges());
+    }
 }
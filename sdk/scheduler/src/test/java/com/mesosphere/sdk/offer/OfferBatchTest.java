@@ -0,0 +1,153 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.*;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link OfferBatch}.
+ */
+public class OfferBatchTest {
+
+    @Mock private SchedulerDriver mockSchedulerDriver;
+    @Mock private OperationRecorder mockRecorder;
+    @Captor private ArgumentCaptor<Collection<Offer.Operation>> operationsCaptor;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testReserveSubtractsScalars() {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(2.0),
+                ResourceTestUtils.getUnreservedMem(1000)));
+        OfferBatch batch = new OfferBatch(Arrays.asList(offer));
+
+        batch.add(Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("cpus", 0.5, "cpu-id")),
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("mem", 1000, "mem-id"))));
+
+        Offer remaining = batch.getRemainingOffers().get(0);
+        assertEquals(offer.getId(), remaining.getId());
+        assertEquals(1, remaining.getResourcesCount());
+        assertEquals("cpus", remaining.getResources(0).getName());
+        assertEquals(1.5, remaining.getResources(0).getScalar().getValue(), 0.0);
+    }
+
+    @Test
+    public void testReserveSubtractsRanges() {
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedPorts(10000, 10010));
+        OfferBatch batch = new OfferBatch(Arrays.asList(offer));
+
+        batch.add(Arrays.asList(new ReserveOfferRecommendation(
+                offer, ResourceTestUtils.getExpectedRanges("ports", 10000, 10004, "ports-id"))));
+
+        Value.Ranges ranges = batch.getRemainingOffers().get(0).getResources(0).getRanges();
+        assertEquals(1, ranges.getRangeCount());
+        assertEquals(10005, ranges.getRange(0).getBegin());
+        assertEquals(10010, ranges.getRange(0).getEnd());
+    }
+
+    @Test
+    public void testReserveRemovesMountVolume() {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMountVolume(1000)));
+        OfferBatch batch = new OfferBatch(Arrays.asList(offer));
+
+        batch.add(Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedMountVolume(1000, "disk-id"))));
+
+        Offer remaining = batch.getRemainingOffers().get(0);
+        assertEquals(1, remaining.getResourcesCount());
+        assertEquals("cpus", remaining.getResources(0).getName());
+    }
+
+    @Test
+    public void testLaunchConsumesReservedResources() {
+        Resource reservedCpu = ResourceTestUtils.getExpectedScalar("cpus", 1.0, "cpu-id");
+        Resource otherCpu = ResourceTestUtils.getExpectedScalar("cpus", 1.0, "other-id");
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(reservedCpu, otherCpu));
+        OfferBatch batch = new OfferBatch(Arrays.asList(offer));
+
+        TaskInfo taskInfo = getTaskInfo(TestConstants.TASK_NAME, reservedCpu);
+        batch.add(Arrays.asList(new LaunchOfferRecommendation(offer, taskInfo)));
+
+        Offer remaining = batch.getRemainingOffers().get(0);
+        assertEquals(Arrays.asList(otherCpu), remaining.getResourcesList());
+        assertEquals(1, batch.getLaunchingTasks().size());
+        assertEquals(TestConstants.TASK_NAME, batch.getLaunchingTasks().iterator().next().getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOffer() {
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(1.0));
+        OfferBatch batch = new OfferBatch(Collections.emptyList());
+        batch.add(Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "cpu-id"))));
+    }
+
+    @Test
+    public void testAcceptOncePerOffer() throws Exception {
+        Offer offerA = getOffer("offer-a", ResourceTestUtils.getUnreservedCpu(2.0));
+        Offer offerB = getOffer("offer-b", ResourceTestUtils.getUnreservedCpu(2.0));
+        Offer offerC = getOffer("offer-c", ResourceTestUtils.getUnreservedCpu(2.0));
+        OfferBatch batch = new OfferBatch(Arrays.asList(offerA, offerB, offerC));
+
+        // Two pods packed into offer A, one pod in offer B, offer C unused:
+        batch.add(Arrays.asList(
+                new ReserveOfferRecommendation(offerA, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "a1"))));
+        batch.add(Arrays.asList(new ReserveOfferRecommendation(
+                batch.getRemainingOffers().get(0), ResourceTestUtils.getExpectedScalar("cpus", 1.0, "a2"))));
+        batch.add(Arrays.asList(
+                new ReserveOfferRecommendation(offerB, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "b1"))));
+
+        assertEquals(0, batch.getRemainingOffers().get(0).getResourcesCount());
+        assertEquals(1, batch.getRemainingOffers().get(1).getResourcesCount());
+        assertEquals(offerC, batch.getRemainingOffers().get(2));
+
+        Set<OfferID> accepted = batch.accept(mockSchedulerDriver, new OfferAccepter(mockRecorder));
+        assertEquals(new HashSet<>(Arrays.asList(offerA.getId(), offerB.getId())), accepted);
+
+        verify(mockSchedulerDriver).acceptOffers(
+                eq(Arrays.asList(offerA.getId())), operationsCaptor.capture(), any(Filters.class));
+        assertEquals(2, operationsCaptor.getValue().size());
+        verify(mockSchedulerDriver).acceptOffers(
+                eq(Arrays.asList(offerB.getId())), operationsCaptor.capture(), any(Filters.class));
+        assertEquals(1, operationsCaptor.getValue().size());
+        verifyNoMoreInteractions(mockSchedulerDriver);
+        verify(mockRecorder, times(3)).record(any(OfferRecommendation.class));
+    }
+
+    private static Offer getOffer(String offerId, Resource resource) {
+        return OfferTestUtils.getEmptyOfferBuilder()
+                .setId(OfferID.newBuilder().setValue(offerId))
+                .addResources(resource)
+                .build();
+    }
+
+    private static TaskInfo getTaskInfo(String name, Resource resource) {
+        return TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(CommonTaskUtils.toTaskId(name))
+                .setSlaveId(TestConstants.AGENT_ID)
+                .addResources(resource)
+                .build();
+    }
+}
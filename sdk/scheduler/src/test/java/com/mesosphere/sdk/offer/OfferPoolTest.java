@@ -0,0 +1,138 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link OfferPool}.
+ */
+public class OfferPoolTest {
+
+    private static final Offer OFFER_1 = getOffer("offer-1");
+    private static final Offer OFFER_2 = getOffer("offer-2");
+
+    private TestOfferPool pool;
+
+    @Before
+    public void beforeEach() {
+        pool = new TestOfferPool();
+    }
+
+    @Test
+    public void testTakeAndReturnOffers() {
+        pool.hold(Arrays.asList(OFFER_1, OFFER_2));
+        assertEquals(2, pool.size());
+
+        assertEquals(Arrays.asList(OFFER_1, OFFER_2), pool.takeOffers());
+        assertEquals(0, pool.size());
+        assertTrue(pool.takeOffers().isEmpty());
+
+        // OFFER_1 was used, OFFER_2 is returned:
+        pool.remove(Arrays.asList(OFFER_1.getId()));
+        pool.hold(Arrays.asList(OFFER_2));
+        assertEquals(Arrays.asList(OFFER_2), pool.takeOffers());
+    }
+
+    @Test
+    public void testReturnedOffersKeepOriginalExpiry() {
+        pool.hold(Arrays.asList(OFFER_1));
+        pool.nowMs = 30 * 1000;
+        pool.hold(pool.takeOffers());
+        pool.hold(Arrays.asList(OFFER_2));
+
+        pool.nowMs = 60 * 1000;
+        assertEquals(Arrays.asList(OFFER_2), pool.takeOffers());
+        assertEquals(Arrays.asList(OFFER_1), pool.removeExpired());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testExpiredOffersAreNotTaken() {
+        pool.hold(Arrays.asList(OFFER_1));
+        pool.nowMs = 60 * 1000;
+        assertTrue(pool.takeOffers().isEmpty());
+        assertEquals(1, pool.size());
+        assertEquals(Arrays.asList(OFFER_1), pool.removeExpired());
+        assertTrue(pool.removeExpired().isEmpty());
+    }
+
+    @Test
+    public void testRescindHeldOffer() {
+        pool.hold(Arrays.asList(OFFER_1, OFFER_2));
+        assertTrue(pool.rescind(OFFER_1.getId()));
+        assertEquals(Arrays.asList(OFFER_2), pool.takeOffers());
+    }
+
+    @Test
+    public void testRescindTakenOffer() {
+        pool.hold(Arrays.asList(OFFER_1));
+        pool.takeOffers();
+        assertTrue(pool.rescind(OFFER_1.getId()));
+        pool.hold(Arrays.asList(OFFER_1));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testRescindNewOfferDuringCycle() {
+        pool.receive(Arrays.asList(OFFER_1, OFFER_2));
+        assertFalse(pool.rescind(OFFER_1.getId()));
+        pool.hold(Arrays.asList(OFFER_1, OFFER_2));
+        assertEquals(Arrays.asList(OFFER_2), pool.takeOffers());
+    }
+
+    @Test
+    public void testRescindUnknownOfferIsNotRemembered() {
+        assertFalse(pool.rescind(OFFER_1.getId()));
+        pool.hold(Arrays.asList(OFFER_1));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testRescindIsForgottenOnceCycleFinishes() {
+        pool.receive(Arrays.asList(OFFER_1));
+        assertFalse(pool.rescind(OFFER_1.getId()));
+        pool.remove(Arrays.asList(OFFER_1.getId()));
+        // A second rescind for the same ID is no longer part of any cycle:
+        assertFalse(pool.rescind(OFFER_1.getId()));
+        pool.hold(Arrays.asList(OFFER_1));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testRemoveAllLeavesTakenOffers() {
+        pool.hold(Arrays.asList(OFFER_1));
+        pool.takeOffers();
+        pool.hold(Arrays.asList(OFFER_2));
+        assertEquals(Arrays.asList(OFFER_2), pool.removeAll());
+        assertEquals(0, pool.size());
+
+        pool.hold(Arrays.asList(OFFER_1));
+        assertEquals(Collections.singletonList(OFFER_1), pool.removeAll());
+    }
+
+    private static Offer getOffer(String id) {
+        return OfferTestUtils.getEmptyOfferBuilder().setId(OfferID.newBuilder().setValue(id)).build();
+    }
+
+    private static class TestOfferPool extends OfferPool {
+        private long nowMs = 0;
+
+        private TestOfferPool() {
+            super(Duration.ofSeconds(60));
+        }
+
+        @Override
+        protected long getCurrentTimeMs() {
+            return nowMs;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value.Range;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RangeSet}.
+ */
+public class RangeSetTest {
+
+    @Test
+    public void testAddMergesOverlappingAndAdjacentIntervals() {
+        RangeSet rangeSet = new RangeSet(Arrays.asList(getRange(10, 20), getRange(1, 3), getRange(30, 40)));
+        assertEquals("[1-3, 10-20, 30-40]", rangeSet.toString());
+
+        rangeSet.add(4, 5);
+        assertEquals("[1-5, 10-20, 30-40]", rangeSet.toString());
+        rangeSet.add(15, 35);
+        assertEquals("[1-5, 10-40]", rangeSet.toString());
+        rangeSet.add(50, 60);
+        assertEquals("[1-5, 10-40, 50-60]", rangeSet.toString());
+        rangeSet.add(0, 100);
+        assertEquals("[0-100]", rangeSet.toString());
+    }
+
+    @Test
+    public void testSubtract() {
+        RangeSet rangeSet = new RangeSet(Arrays.asList(getRange(1, 10), getRange(20, 30)));
+
+        rangeSet.subtract(5, 5);
+        assertEquals("[1-4, 6-10, 20-30]", rangeSet.toString());
+        rangeSet.subtract(8, 25);
+        assertEquals("[1-4, 6-7, 26-30]", rangeSet.toString());
+        rangeSet.subtract(1, 4);
+        assertEquals("[6-7, 26-30]", rangeSet.toString());
+        rangeSet.subtract(11, 19);
+        assertEquals("[6-7, 26-30]", rangeSet.toString());
+        rangeSet.subtract(0, 100);
+        assertTrue(rangeSet.isEmpty());
+    }
+
+    @Test
+    public void testContains() {
+        RangeSet rangeSet = new RangeSet(Arrays.asList(getRange(1, 10), getRange(20, 30)));
+        assertTrue(rangeSet.contains(1, 10));
+        assertTrue(rangeSet.contains(25, 25));
+        assertFalse(rangeSet.contains(5, 25));
+        assertFalse(rangeSet.contains(11, 11));
+        assertFalse(rangeSet.contains(31, 40));
+        assertTrue(rangeSet.containsAll(Arrays.asList(getRange(2, 3), getRange(30, 30))));
+        assertFalse(rangeSet.containsAll(Arrays.asList(getRange(2, 3), getRange(31, 31))));
+        assertFalse(new RangeSet().contains(1, 1));
+    }
+
+    @Test
+    public void testContainsAllRangeSet() {
+        RangeSet rangeSet = new RangeSet(Arrays.asList(getRange(1, 10), getRange(20, 30)));
+        assertTrue(rangeSet.containsAll(new RangeSet(Arrays.asList(getRange(2, 3), getRange(21, 30)))));
+        assertTrue(rangeSet.containsAll(new RangeSet()));
+        assertFalse(rangeSet.containsAll(new RangeSet(Arrays.asList(getRange(2, 3), getRange(11, 11)))));
+    }
+
+    @Test
+    public void testFirstValueNotIn() {
+        RangeSet rangeSet = new RangeSet(Arrays.asList(getRange(1000, 1005), getRange(2000, 2005)));
+        assertEquals(1000, rangeSet.firstValueNotIn(new RangeSet()).getAsLong());
+        assertEquals(1003, rangeSet.firstValueNotIn(
+                new RangeSet(Arrays.asList(getRange(1000, 1001), getRange(1002, 1002)))).getAsLong());
+        assertEquals(2001, rangeSet.firstValueNotIn(
+                new RangeSet(Arrays.asList(getRange(900, 1005), getRange(2000, 2000)))).getAsLong());
+        assertFalse(rangeSet.firstValueNotIn(
+                new RangeSet(Arrays.asList(getRange(1000, 1005), getRange(2000, 2005)))).isPresent());
+        assertFalse(new RangeSet().firstValueNotIn(new RangeSet()).isPresent());
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        RangeSet rangeSet = new RangeSet(Collections.singletonList(getRange(1, 10)));
+        RangeSet copy = rangeSet.copy();
+        assertEquals(rangeSet, copy);
+        assertEquals(rangeSet.hashCode(), copy.hashCode());
+
+        copy.subtract(5, 5);
+        assertNotEquals(rangeSet, copy);
+        assertEquals("[1-10]", rangeSet.toString());
+    }
+
+    @Test
+    public void testToRanges() {
+        RangeSet rangeSet = new RangeSet();
+        rangeSet.addAll(Arrays.asList(getRange(5, 6), getRange(1, 2)));
+        assertEquals(Arrays.asList(getRange(1, 2), getRange(5, 6)), rangeSet.toRanges());
+        assertEquals(2, rangeSet.getIntervalCount());
+        assertEquals(5, rangeSet.getBegin(1));
+        assertEquals(6, rangeSet.getEnd(1));
+    }
+
+    private static Range getRange(long begin, long end) {
+        return Range.newBuilder().setBegin(begin).setEnd(end).build();
+    }
+}
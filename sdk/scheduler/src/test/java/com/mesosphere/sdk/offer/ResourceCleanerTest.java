@@ -6,6 +6,9 @@ import org.apache.mesos.Protos.Resource;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.Value;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
@@ -19,6 +22,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ResourceCleanerTest {
@@ -72,7 +76,10 @@ public class ResourceCleanerTest {
             TaskInfo.newBuilder(TaskTestUtils.getTaskInfo(Collections.emptyList()))
                     .setExecutor(TaskTestUtils.getExecutorInfo(EXPECTED_RESOURCE_1))
                     .build();
-    private static final TaskInfo TASK_INFO_2 = TaskTestUtils.getTaskInfo(EXPECTED_RESOURCE_2);
+    // Tasks are indexed by name, as in the state store, so each task needs a distinct name:
+    private static final TaskInfo TASK_INFO_2 = TaskInfo.newBuilder(TaskTestUtils.getTaskInfo(EXPECTED_RESOURCE_2))
+            .setName(TASK_INFO_1.getName() + "-2")
+            .build();
 
     private final List<ResourceCleaner> emptyCleaners = new ArrayList<>();
     private final List<ResourceCleaner> populatedCleaners = new ArrayList<>();
@@ -81,16 +88,16 @@ public class ResourceCleanerTest {
     public ResourceCleanerTest() {
         // Validate ResourceCleaner statelessness by only initializing them once
 
-        StateStore mockStateStore = mock(StateStore.class);
-
         // cleaners without any expected resources
-        when(mockStateStore.fetchTasks()).thenReturn(new ArrayList<>());
-        emptyCleaners.add(new ResourceCleaner(mockStateStore));
+        StateStore emptyStateStore = mock(StateStore.class);
+        when(emptyStateStore.fetchTasks()).thenReturn(new ArrayList<>());
+        emptyCleaners.add(new ResourceCleaner(emptyStateStore));
 
         // cleaners with expected resources
-        when(mockStateStore.fetchTasks())
+        StateStore populatedStateStore = mock(StateStore.class);
+        when(populatedStateStore.fetchTasks())
                 .thenReturn(Arrays.asList(TASK_INFO_1, TASK_INFO_2));
-        populatedCleaners.add(new ResourceCleaner(mockStateStore));
+        populatedCleaners.add(new ResourceCleaner(populatedStateStore));
 
         allCleaners.addAll(emptyCleaners);
         allCleaners.addAll(populatedCleaners);
@@ -291,4 +298,85 @@ public class ResourceCleanerTest {
             assertEquals("Got: " + recommendations, 0, recommendations.size());
         }
     }
+    @Test
+    public void testStoredTasksBecomeExpected() {
+        StateStoreCache mockStateStore = mock(StateStoreCache.class);
+        when(mockStateStore.fetchTasks()).thenReturn(new ArrayList<>());
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(Arrays.asList(EXPECTED_RESOURCE_1, EXPECTED_RESOURCE_2));
+        assertEquals(3, cleaner.evaluate(offers).size());
+
+        cleaner.tasksStored(Arrays.asList(TASK_INFO_1, TASK_INFO_2));
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+
+        cleaner.taskCleared(TASK_INFO_1.getName() + "-other");
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+    }
+
+    @Test
+    public void testRestoredTaskReplacesResources() {
+        StateStoreCache mockStateStore = mock(StateStoreCache.class);
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_2));
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_2);
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+
+        // The task is relaunched against a different resource:
+        cleaner.tasksStored(Arrays.asList(TaskInfo.newBuilder(TASK_INFO_2)
+                .clearResources()
+                .addResources(UNEXPECTED_RESOURCE_2)
+                .build()));
+        assertEquals(2, cleaner.evaluate(offers).size());
+        assertEquals(Collections.emptyList(), cleaner.evaluate(OfferTestUtils.getOffers(UNEXPECTED_RESOURCE_2)));
+    }
+
+    @Test
+    public void testSharedResourcesStayExpectedUntilAllTasksCleared() {
+        StateStoreCache mockStateStore = mock(StateStoreCache.class);
+        TaskInfo otherTaskInfo = TaskInfo.newBuilder(TASK_INFO_2).setName("other-task").build();
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_2, otherTaskInfo));
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_2);
+
+        cleaner.taskCleared(TASK_INFO_2.getName());
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+
+        cleaner.taskCleared(otherTaskInfo.getName());
+        assertEquals(2, cleaner.evaluate(offers).size());
+
+        // Rebuilding the index from the state store restores both tasks:
+        cleaner.refresh();
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+    }
+
+    @Test
+    public void testCleanerListensToStateStoreCache() {
+        StateStoreCache mockStateStore = mock(StateStoreCache.class);
+        when(mockStateStore.fetchTasks()).thenReturn(new ArrayList<>());
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        verify(mockStateStore).addTaskStoreListener(cleaner);
+
+        // Tasks reloaded by the cache replace all previously stored tasks:
+        cleaner.tasksStored(Arrays.asList(TASK_INFO_1));
+        cleaner.tasksRefreshed(Arrays.asList(TASK_INFO_2));
+        assertEquals(1, cleaner.evaluate(OfferTestUtils.getOffers(EXPECTED_RESOURCE_1)).size());
+        assertEquals(Collections.emptyList(), cleaner.evaluate(OfferTestUtils.getOffers(EXPECTED_RESOURCE_2)));
+    }
+
+    @Test
+    public void testUncachedStateStoreReindexedOnEvaluate() {
+        StateStore mockStateStore = mock(StateStore.class);
+        when(mockStateStore.fetchTasks()).thenReturn(new ArrayList<>());
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_2);
+        assertEquals(2, cleaner.evaluate(offers).size());
+
+        // Writes to other state stores aren't reported to the cleaner, so they're picked up on the next evaluation:
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_2));
+        assertEquals(Collections.emptyList(), cleaner.evaluate(offers));
+
+        // Nothing is cleaned if the expected resources can't be retrieved:
+        when(mockStateStore.fetchTasks()).thenThrow(new StateStoreException(Reason.STORAGE_ERROR, "test"));
+        assertEquals(Collections.emptyList(), cleaner.evaluate(OfferTestUtils.getOffers(UNEXPECTED_RESOURCE_2)));
+    }
 }
@@ -975,6 +975,56 @@ public class OfferEvaluatorTest extends OfferEvaluatorTestBase {
         Assert.assertEquals(Operation.Type.LAUNCH, operation.getType());
     }
 
+    @Test
+    public void testParallelEvaluationSelectsFirstPassingOffer() throws Exception {
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < 7; ++i) {
+            // Only offers 3 and 5 have sufficient CPU for the requirement.
+            double cpus = (i == 3 || i == 5) ? 1.0 : 0.5;
+            offers.add(OfferTestUtils.getEmptyOfferBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .addResources(ResourceTestUtils.getUnreservedCpu(cpus))
+                    .build());
+        }
+
+        for (int parallelism : Arrays.asList(1, 2, 3, 4, 8)) {
+            try (OfferEvaluator parallelEvaluator =
+                    new OfferEvaluator(stateStore, offerRequirementProvider, parallelism)) {
+                List<OfferRecommendation> recommendations = parallelEvaluator.evaluate(
+                        OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0)),
+                        offers);
+
+                Assert.assertEquals(2, recommendations.size());
+                for (OfferRecommendation recommendation : recommendations) {
+                    Assert.assertEquals("offer-3", recommendation.getOffer().getId().getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelEvaluationNoPassingOffers() throws Exception {
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            offers.add(OfferTestUtils.getEmptyOfferBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .addResources(ResourceTestUtils.getUnreservedCpu(0.5))
+                    .build());
+        }
+
+        try (OfferEvaluator parallelEvaluator = new OfferEvaluator(stateStore, offerRequirementProvider, 2)) {
+            List<OfferRecommendation> recommendations = parallelEvaluator.evaluate(
+                    OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0)),
+                    offers);
+            Assert.assertTrue(recommendations.isEmpty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new OfferEvaluator(stateStore, offerRequirementProvider, 0);
+    }
+
     private void recordOperations(List<OfferRecommendation> recommendations) throws Exception {
         OperationRecorder operationRecorder = new PersistentLaunchRecorder(stateStore, serviceSpec);
         for (OfferRecommendation recommendation : recommendations) {
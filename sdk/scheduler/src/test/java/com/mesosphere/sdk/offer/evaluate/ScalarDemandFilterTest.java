@@ -0,0 +1,88 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Resource;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ScalarDemandFilter}.
+ */
+public class ScalarDemandFilterTest {
+
+    @Test
+    public void testDemandIsSummedAcrossTasks() throws Exception {
+        OfferRequirement offerRequirement = OfferRequirementTestUtils.getOfferRequirement(Arrays.asList(
+                ResourceTestUtils.getDesiredCpu(1.0),
+                ResourceTestUtils.getDesiredCpu(2.5),
+                ResourceTestUtils.getDesiredMem(1024),
+                ResourceTestUtils.getDesiredRanges("ports", 0, 0)),
+                true);
+        Map<String, Double> expected = new HashMap<>();
+        expected.put("cpus", 3.5);
+        expected.put("mem", 1024.0);
+        assertEquals(expected, new ScalarDemandFilter(offerRequirement).getDemand());
+    }
+
+    @Test
+    public void testExpectedResourcesAreCountedOnce() throws Exception {
+        Resource cpu = ResourceTestUtils.getExpectedScalar("cpus", 2.0, "cpu-id");
+        OfferRequirement offerRequirement = OfferRequirementTestUtils.getOfferRequirement(
+                Arrays.asList(cpu, cpu, ResourceTestUtils.getExpectedScalar("cpus", 3.0, "cpu-id")), true);
+        assertEquals(Collections.singletonMap("cpus", 3.0), new ScalarDemandFilter(offerRequirement).getDemand());
+    }
+
+    @Test
+    public void testInsufficientResource() throws Exception {
+        ScalarDemandFilter filter = new ScalarDemandFilter(OfferRequirementTestUtils.getOfferRequirement(Arrays.asList(
+                ResourceTestUtils.getDesiredCpu(1.0),
+                ResourceTestUtils.getDesiredMem(1024)),
+                false));
+
+        assertEquals(Optional.of("mem"), filter.getInsufficientResource(getOffer(
+                ResourceTestUtils.getUnreservedCpu(4.0),
+                ResourceTestUtils.getUnreservedMem(512))));
+        assertEquals(Optional.of("cpus"), filter.getInsufficientResource(getOffer(
+                ResourceTestUtils.getUnreservedMem(2048))));
+        // Reserved and unreserved resources are summed:
+        assertEquals(Optional.empty(), filter.getInsufficientResource(getOffer(
+                ResourceTestUtils.getUnreservedCpu(0.5),
+                ResourceTestUtils.getExpectedCpu(0.5),
+                ResourceTestUtils.getUnreservedMem(1024))));
+    }
+
+    @Test
+    public void testNoScalarDemandAdmitsAllOffers() throws Exception {
+        ScalarDemandFilter filter = new ScalarDemandFilter(OfferRequirementTestUtils.getOfferRequirement(
+                ResourceTestUtils.getDesiredRanges("ports", 0, 0)));
+        assertTrue(filter.getDemand().isEmpty());
+        assertEquals(Optional.empty(), filter.getInsufficientResource(OfferTestUtils.getEmptyOfferBuilder().build()));
+    }
+
+    @Test
+    public void testFilterPreservesOrderAndCountsRejections() throws Exception {
+        ScalarDemandFilter filter = new ScalarDemandFilter(OfferRequirementTestUtils.getOfferRequirement(
+                ResourceTestUtils.getDesiredMem(1024)));
+        long rejectedBefore = Metrics.getPrefilterRejectionCounter("mem").getCount();
+
+        List<Offer> offers = Arrays.asList(
+                getOffer(ResourceTestUtils.getUnreservedMem(512)),
+                getOffer(ResourceTestUtils.getUnreservedMem(2048)),
+                getOffer(ResourceTestUtils.getUnreservedCpu(1.0)),
+                getOffer(ResourceTestUtils.getUnreservedMem(1024)));
+        assertEquals(Arrays.asList(1, 3), filter.filter(offers));
+        assertEquals(rejectedBefore + 2, Metrics.getPrefilterRejectionCounter("mem").getCount());
+    }
+
+    private static Offer getOffer(Resource... resources) {
+        return OfferTestUtils.getEmptyOfferBuilder().addAllResources(Arrays.asList(resources)).build();
+    }
+}
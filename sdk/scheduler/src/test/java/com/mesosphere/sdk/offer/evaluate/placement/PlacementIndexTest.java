@@ -0,0 +1,153 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.offer.TaskException;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PlacementIndex}.
+ */
+public class PlacementIndexTest {
+
+    private static final PlacementRule RULE = new MaxPerHostnameRule(2);
+
+    @Test
+    public void testOfReturnsExistingIndex() {
+        PlacementIndex index = PlacementIndex.of(Arrays.asList(getTaskInfo("a", "host1")));
+        assertSame(index, PlacementIndex.of(index));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testUnchangedTasksReuseIndex() {
+        List<TaskInfo> tasks = Arrays.asList(getTaskInfo("a", "host1"), getTaskInfo("b", "host2"));
+        PlacementIndex index = PlacementIndex.of(tasks);
+        assertSame(index, index.update(tasks));
+        assertSame(index, index.update(new ArrayList<>(tasks)));
+    }
+
+    @Test
+    public void testCountsAreComputedOncePerIndex() {
+        AtomicInteger calls = new AtomicInteger();
+        List<TaskInfo> tasks = Arrays.asList(getTaskInfo("a", "host1"), getTaskInfo("b", "host1"));
+        PlacementIndex index = PlacementIndex.of(tasks);
+        index.getValueCounts(RULE, task -> {
+            calls.incrementAndGet();
+            return Collections.singletonList(getHostname(task));
+        });
+        PlacementIndex.ValueCounts counts = index.getValueCounts(RULE, task -> {
+            throw new IllegalStateException("Counts should have been reused");
+        });
+        assertEquals(2, calls.get());
+        assertEquals(2, counts.get("host1"));
+        assertEquals(0, counts.get("host2"));
+    }
+
+    @Test
+    public void testCountsAreUpdatedIncrementally() {
+        AtomicInteger calls = new AtomicInteger();
+        TaskInfo a = getTaskInfo("a", "host1");
+        TaskInfo b = getTaskInfo("b", "host1");
+        TaskInfo c = getTaskInfo("c", "host2");
+        PlacementIndex index = PlacementIndex.of(Arrays.asList(a, b, c));
+        index.getValueCounts(RULE, task -> {
+            calls.incrementAndGet();
+            return Collections.singletonList(getHostname(task));
+        });
+        assertEquals(3, calls.get());
+
+        // 'b' is relaunched on host2, 'c' is cleared, and 'd' is added on host3:
+        TaskInfo newB = getTaskInfo("b", "host2");
+        TaskInfo d = getTaskInfo("d", "host3");
+        PlacementIndex updatedIndex = index.update(Arrays.asList(a, newB, d));
+        assertEquals(3, updatedIndex.size());
+        assertEquals(new HashSet<>(Arrays.asList(a, newB, d)), new HashSet<>(updatedIndex));
+
+        PlacementIndex.ValueCounts counts = updatedIndex.getValueCounts(RULE, task -> {
+            throw new IllegalStateException("Counts should have been carried over");
+        });
+        // Only the old 'b' and 'c', and the new 'b' and 'd', were examined:
+        assertEquals(7, calls.get());
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("host1", 1);
+        expected.put("host2", 1);
+        expected.put("host3", 1);
+        assertEquals(expected, counts.getCounts());
+        assertEquals(1, counts.getMinCount());
+        assertEquals(1, counts.getMaxCount());
+    }
+
+    @Test
+    public void testEquivalentTasksAreExcluded() throws InvalidRequirementException, TaskException {
+        TaskInfo a = CommonTaskUtils.setIndex(getTaskInfo("a", "host1").toBuilder(), 0).build();
+        TaskInfo b = CommonTaskUtils.setIndex(getTaskInfo("b", "host1").toBuilder(), 1).build();
+        PlacementIndex index = PlacementIndex.of(Arrays.asList(a, b));
+        OfferRequirement requirement = OfferRequirement.create(
+                CommonTaskUtils.getType(a), CommonTaskUtils.getIndex(a), Arrays.asList(a));
+        assertEquals(Arrays.asList(a), index.getEquivalentTasks(requirement));
+
+        PlacementIndex.ValueCounts counts = index.getValueCounts(
+                RULE, task -> Collections.singletonList(getHostname(task)));
+        assertEquals(2, counts.get("host1"));
+        assertEquals(1, counts.without(index.getEquivalentTasks(requirement)).get("host1"));
+        assertEquals(2, counts.get("host1"));
+    }
+
+    @Test
+    public void testRuleOutcomeMatchesUnindexedTasks() throws InvalidRequirementException {
+        OfferRequirement requirement = OfferRequirement.create(TestConstants.TASK_TYPE, 5, Collections.emptyList());
+        List<TaskInfo> tasks = Arrays.asList(
+                getTaskInfo("a", "host1"), getTaskInfo("b", "host1"), getTaskInfo("c", "host2"));
+        PlacementIndex index = PlacementIndex.empty().update(tasks);
+        for (String host : Arrays.asList("host1", "host2", "host3")) {
+            Offer offer = offerWithHost(host);
+            assertEquals(RULE.filter(offer, requirement, tasks).isPassing(),
+                    RULE.filter(offer, requirement, index).isPassing());
+        }
+        assertFalse(RULE.filter(offerWithHost("host1"), requirement, index).isPassing());
+    }
+
+    @Test
+    public void testEmptyIndexesDontShareCounts() {
+        // Counts requested against one empty index, here by an equal rule which counts nothing, must not be carried
+        // over to indexes derived from another:
+        PlacementIndex.of(Collections.emptyList()).getValueCounts(RULE, task -> Collections.emptyList());
+        PlacementIndex index = PlacementIndex.of(Arrays.asList(getTaskInfo("a", "host1")));
+        assertNotSame(PlacementIndex.empty(), PlacementIndex.empty());
+        assertEquals(1, index.getValueCounts(RULE, task -> Collections.singletonList(getHostname(task))).get("host1"));
+    }
+
+    private static String getHostname(TaskInfo task) {
+        try {
+            return CommonTaskUtils.getHostname(task);
+        } catch (TaskException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TaskInfo getTaskInfo(String name, String host) {
+        TaskInfo.Builder infoBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                .setName(name)
+                .setTaskId(CommonTaskUtils.toTaskId(name));
+        return CommonTaskUtils.setHostname(infoBuilder, offerWithHost(host)).build();
+    }
+
+    private static Offer offerWithHost(String host) {
+        return OfferTestUtils.getOffer(ResourceTestUtils.getDesiredCpu(1.0)).toBuilder()
+                .setHostname(host)
+                .build();
+    }
+}
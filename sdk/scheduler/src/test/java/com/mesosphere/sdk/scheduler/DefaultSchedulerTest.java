@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.config.ConfigStore;
 import com.mesosphere.sdk.config.ConfigStoreException;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.OfferRequirement;
 import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
@@ -274,6 +276,40 @@ public class DefaultSchedulerTest {
         Assert.assertEquals(Arrays.asList(Status.COMPLETE, Status.COMPLETE, Status.PENDING), getStepStatuses(plan));
     }
 
+    @Test
+    public void testUnusedOfferIsHeldForPendingWork() throws InterruptedException {
+        environmentVariables.set(Constants.OFFER_HOLD_SECONDS_SCHEDENV, "60");
+        try {
+            defaultScheduler.awaitTermination();
+            defaultScheduler = DefaultScheduler.newBuilder(SERVICE_SPECIFICATION)
+                    .setStateStore(stateStore)
+                    .setConfigStore(configStore)
+                    .build();
+            register();
+
+            // Only A-0 may be launched, so B-0's offer is held rather than declined:
+            Protos.Offer offerA = getSufficientOfferForTaskA();
+            Protos.Offer offerB = getSufficientOfferForTaskB();
+            defaultScheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offerA, offerB));
+            verify(mockSchedulerDriver, timeout(1000).times(1)).acceptOffers(
+                    collectionThat(contains(offerA.getId())),
+                    operationsCaptor.capture(),
+                    any());
+
+            // Once A-0 is running, B-0 is launched on the held offer without waiting for new offers:
+            statusUpdate(getTaskId(operationsCaptor.getValue()), Protos.TaskState.TASK_RUNNING);
+            verify(mockSchedulerDriver, timeout(1000).times(1)).acceptOffers(
+                    collectionThat(contains(offerB.getId())),
+                    operationsCaptor.capture(),
+                    any());
+            defaultScheduler.awaitTermination();
+            verify(mockSchedulerDriver, never()).declineOffer(any());
+            verify(mockSchedulerDriver, never()).declineOffer(any(), any());
+        } finally {
+            environmentVariables.set(Constants.OFFER_HOLD_SECONDS_SCHEDENV, null);
+        }
+    }
+
     @Test
     public void testFailLaunchA() throws InterruptedException {
         // Get first Step associated with Task A-0
@@ -642,6 +678,23 @@ public class DefaultSchedulerTest {
         Awaitility.await().pollDelay(Duration.ONE_SECOND).until(taskMarkFailed(taskInfo.getName()), equalTo(true));
     }
 
+    @Test
+    public void testGetPodNameFromTaskName() {
+        // Pod types and task names may both contain dashes:
+        Assert.assertEquals(TASK_A_POD_NAME + "-0", getPodName(TASK_A_POD_NAME + "-0-" + TASK_A_NAME));
+        Assert.assertEquals(TASK_B_POD_NAME + "-12", getPodName(TASK_B_POD_NAME + "-12-task-b"));
+
+        // Tasks whose pod type isn't in the service are keyed by their task ID:
+        Protos.TaskID unknownTaskId = CommonTaskUtils.toTaskId("POD-C-0-" + TASK_A_NAME);
+        Assert.assertEquals(unknownTaskId.getValue(),
+                defaultScheduler.getPodName(getTaskStatus(unknownTaskId, Protos.TaskState.TASK_RUNNING)));
+    }
+
+    private String getPodName(String taskName) {
+        return defaultScheduler.getPodName(
+                getTaskStatus(CommonTaskUtils.toTaskId(taskName), Protos.TaskState.TASK_RUNNING));
+    }
+
     private Callable<Boolean> taskMarkFailed(String taskName) {
         return new Callable<Boolean>() {
             @Override
@@ -801,7 +854,15 @@ public class DefaultSchedulerTest {
         taskIds.add(installStep(1, 1, getSufficientOfferForTaskB()));
 
         Assert.assertEquals(Arrays.asList(Status.COMPLETE, Status.COMPLETE, Status.COMPLETE), getStepStatuses(plan));
-        Assert.assertTrue(StateStoreUtils.isSuppressed(stateStore));
+        // Suppression is applied after a short debounce period:
+        Awaitility.await()
+            .atMost(1, TimeUnit.SECONDS)
+            .until(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return StateStoreUtils.isSuppressed(stateStore);
+                }
+            });
 
         return taskIds;
     }
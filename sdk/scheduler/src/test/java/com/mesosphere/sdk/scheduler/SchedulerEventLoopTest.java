@@ -0,0 +1,127 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.scheduler.SchedulerEventLoop.EventType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SchedulerEventLoop}.
+ */
+public class SchedulerEventLoopTest {
+
+    private SchedulerEventLoop eventLoop;
+
+    @Before
+    public void beforeEach() {
+        eventLoop = new SchedulerEventLoop(4);
+    }
+
+    @After
+    public void afterEach() throws InterruptedException {
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testEventsWithSameKeyStayInOrder() throws InterruptedException {
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            final int value = i;
+            expected.add(value);
+            eventLoop.submit(EventType.STATUS, "pod-0", () -> processed.add(value));
+        }
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+        assertEquals(expected, processed);
+    }
+
+    @Test
+    public void testEventsWithDifferentKeysRunConcurrently() throws InterruptedException {
+        CountDownLatch otherKeyRan = new CountDownLatch(1);
+        AtomicBoolean sawOtherKey = new AtomicBoolean(false);
+        eventLoop.submit(EventType.STATUS, "pod-0", () -> {
+            try {
+                sawOtherKey.set(otherKeyRan.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        eventLoop.submit(EventType.STATUS, "pod-1", otherKeyRan::countDown);
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+        assertTrue(sawOtherKey.get());
+    }
+
+    @Test
+    public void testExclusiveEventsRunAlone() throws InterruptedException {
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        eventLoop.submit(EventType.STATUS, "pod-0", () -> {
+            sleep(100);
+            processed.add("status-0");
+        });
+        eventLoop.submit(EventType.STATUS, "pod-1", () -> {
+            sleep(50);
+            processed.add("status-1");
+        });
+        eventLoop.submitExclusive(EventType.OFFERS, () -> {
+            sleep(50);
+            processed.add("offers");
+        });
+        eventLoop.submit(EventType.STATUS, "pod-2", () -> processed.add("status-2"));
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("status-1", "status-0", "offers", "status-2"), processed);
+    }
+
+    @Test
+    public void testFailedEventDoesNotStopLaterEvents() throws InterruptedException {
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        eventLoop.submit(EventType.STATUS, "pod-0", () -> {
+            throw new IllegalStateException("test failure");
+        });
+        eventLoop.submit(EventType.STATUS, "pod-0", () -> processed.add("status"));
+        eventLoop.submitExclusive(EventType.OFFERS, () -> {
+            throw new IllegalStateException("test failure");
+        });
+        eventLoop.submitExclusive(EventType.OFFERS, () -> processed.add("offers"));
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("status", "offers"), processed);
+    }
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+        long dwellCountBefore = Metrics.getEventDwellTimer("held_offers").getCount();
+        CountDownLatch blocker = new CountDownLatch(1);
+        eventLoop.submitExclusive(EventType.HELD_OFFERS, () -> {
+            try {
+                blocker.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        eventLoop.submitExclusive(EventType.HELD_OFFERS, () -> { });
+        assertTrue(Metrics.getEventQueueDepth("held_offers").get() >= 1);
+
+        blocker.countDown();
+        eventLoop.shutdown(10, TimeUnit.SECONDS);
+        assertEquals(0, Metrics.getEventQueueDepth("held_offers").get());
+        assertEquals(dwellCountBefore + 2, Metrics.getEventDwellTimer("held_offers").getCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.apache.mesos.Protos.TaskID;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link StatusUpdateQueue}.
+ */
+public class StatusUpdateQueueTest {
+
+    private static final TaskID TASK_ID_1 = TaskID.newBuilder().setValue("task-1").build();
+    private static final TaskID TASK_ID_2 = TaskID.newBuilder().setValue("task-2").build();
+
+    private final StatusUpdateQueue queue = new StatusUpdateQueue();
+
+    @Test
+    public void testNewestStatusIsKept() {
+        TaskStatus staging = getStatus(TASK_ID_1, TaskState.TASK_STAGING);
+        TaskStatus starting = getStatus(TASK_ID_1, TaskState.TASK_STARTING);
+        TaskStatus running = getStatus(TASK_ID_1, TaskState.TASK_RUNNING);
+        assertTrue(queue.add(staging));
+        assertFalse(queue.add(starting));
+        assertFalse(queue.add(running));
+        assertEquals(1, queue.size());
+
+        StatusUpdateQueue.Batch batch = queue.take(TASK_ID_1);
+        assertEquals(Collections.singletonList(running), batch.getStatusesToProcess());
+        assertEquals(Arrays.asList(staging, starting, running), batch.getReceivedStatuses());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testTerminalStatusIsPreserved() {
+        TaskStatus running = getStatus(TASK_ID_1, TaskState.TASK_RUNNING);
+        TaskStatus failed = getStatus(TASK_ID_1, TaskState.TASK_FAILED);
+        TaskStatus staging = getStatus(TASK_ID_1, TaskState.TASK_STAGING);
+        TaskStatus relaunched = getStatus(TASK_ID_1, TaskState.TASK_RUNNING);
+        queue.add(running);
+        queue.add(failed);
+        queue.add(staging);
+        queue.add(relaunched);
+
+        StatusUpdateQueue.Batch batch = queue.take(TASK_ID_1);
+        assertEquals(Arrays.asList(failed, relaunched), batch.getStatusesToProcess());
+        assertEquals(4, batch.getReceivedStatuses().size());
+    }
+
+    @Test
+    public void testNewestTerminalStatusIsKept() {
+        TaskStatus failed = getStatus(TASK_ID_1, TaskState.TASK_FAILED);
+        TaskStatus killed = getStatus(TASK_ID_1, TaskState.TASK_KILLED);
+        queue.add(getStatus(TASK_ID_1, TaskState.TASK_RUNNING));
+        queue.add(failed);
+        queue.add(killed);
+
+        assertEquals(Collections.singletonList(killed), queue.take(TASK_ID_1).getStatusesToProcess());
+    }
+
+    @Test
+    public void testTasksAreQueuedSeparately() {
+        TaskStatus status1 = getStatus(TASK_ID_1, TaskState.TASK_RUNNING);
+        TaskStatus status2 = getStatus(TASK_ID_2, TaskState.TASK_RUNNING);
+        assertTrue(queue.add(status1));
+        assertTrue(queue.add(status2));
+        assertEquals(2, queue.size());
+
+        assertEquals(Collections.singletonList(status2), queue.take(TASK_ID_2).getStatusesToProcess());
+        assertEquals(Collections.singletonList(status1), queue.take(TASK_ID_1).getStatusesToProcess());
+    }
+
+    @Test
+    public void testStatusAfterTakeStartsNewBatch() {
+        queue.add(getStatus(TASK_ID_1, TaskState.TASK_STAGING));
+        queue.take(TASK_ID_1);
+
+        TaskStatus running = getStatus(TASK_ID_1, TaskState.TASK_RUNNING);
+        assertTrue(queue.add(running));
+        assertEquals(Collections.singletonList(running), queue.take(TASK_ID_1).getStatusesToProcess());
+
+        StatusUpdateQueue.Batch empty = queue.take(TASK_ID_1);
+        assertTrue(empty.getStatusesToProcess().isEmpty());
+        assertTrue(empty.getReceivedStatuses().isEmpty());
+    }
+
+    private static TaskStatus getStatus(TaskID taskId, TaskState state) {
+        return TaskStatus.newBuilder()
+                .setTaskId(taskId)
+                .setState(state)
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.state.StateStore;
+import org.apache.mesos.Protos.Filters;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link SuppressReviveController}.
+ */
+public class SuppressReviveControllerTest {
+
+    @Mock private StateStore mockStateStore;
+    @Mock private SchedulerDriver mockDriver;
+
+    private final AtomicBoolean hasOperations = new AtomicBoolean(true);
+    private final AtomicInteger suppressCount = new AtomicInteger();
+    private TestController controller;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        hasOperations.set(true);
+        suppressCount.set(0);
+        controller = new TestController(Optional.empty(), Duration.ofMillis(300));
+    }
+
+    @After
+    public void afterEach() {
+        controller.shutdown();
+    }
+
+    @Test
+    public void testSuppressAndRevive() {
+        controller.initialize(mockDriver);
+        verify(mockDriver, times(1)).reviveOffers();
+        assertFalse(controller.isSuppressed());
+
+        hasOperations.set(false);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(1)).suppressOffers();
+        assertTrue(controller.isSuppressed());
+        assertEquals(1, suppressCount.get());
+
+        // The revive on registration doesn't count against the rate limit:
+        hasOperations.set(true);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(2)).reviveOffers();
+        assertFalse(controller.isSuppressed());
+    }
+
+    @Test
+    public void testUpdatesAreCoalesced() throws InterruptedException {
+        controller.initialize(mockDriver);
+        hasOperations.set(false);
+        for (int i = 0; i < 10; ++i) {
+            controller.update();
+        }
+        verify(mockDriver, timeout(1000).times(1)).suppressOffers();
+        Thread.sleep(50);
+        verify(mockDriver, times(1)).suppressOffers();
+        assertEquals(1, suppressCount.get());
+    }
+
+    @Test
+    public void testReviveIsRateLimited() throws InterruptedException {
+        controller.initialize(mockDriver);
+        hasOperations.set(false);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(1)).suppressOffers();
+        hasOperations.set(true);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(2)).reviveOffers();
+        hasOperations.set(false);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(2)).suppressOffers();
+
+        // The next revive is deferred until the minimum interval has passed:
+        hasOperations.set(true);
+        controller.update();
+        Thread.sleep(50);
+        verify(mockDriver, times(2)).reviveOffers();
+        assertTrue(controller.isSuppressed());
+        verify(mockDriver, timeout(1000).times(3)).reviveOffers();
+        assertFalse(controller.isSuppressed());
+    }
+
+    @Test
+    public void testRequestReviveWithoutOperations() {
+        controller.initialize(mockDriver);
+        hasOperations.set(false);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(1)).suppressOffers();
+
+        controller.requestRevive();
+        verify(mockDriver, timeout(1000).times(2)).reviveOffers();
+        assertFalse(controller.isSuppressed());
+    }
+
+    @Test
+    public void testSuppressedStateOnlyStoredOnChange() {
+        controller.initialize(mockDriver);
+        controller.initialize(mockDriver);
+        verify(mockStateStore, times(1)).storeProperty(anyString(), any(byte[].class));
+
+        hasOperations.set(false);
+        controller.update();
+        verify(mockDriver, timeout(1000).times(1)).suppressOffers();
+        verify(mockStateStore, times(2)).storeProperty(anyString(), any(byte[].class));
+    }
+
+    @Test
+    public void testDeclineFiltersGrowWhileBlocked() {
+        assertFalse(controller.getDeclineFilters().isPresent());
+
+        controller.offerCycleCompleted(false);
+        assertFalse(controller.getDeclineFilters().isPresent());
+
+        controller.offsetMs = 60 * 1000;
+        controller.offerCycleCompleted(false);
+        assertEquals(60, controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+
+        controller.offsetMs = 3600 * 1000;
+        assertEquals(SuppressReviveController.MAX_DECLINE_REFUSE_SECONDS,
+                controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+
+        controller.offerCycleCompleted(true);
+        assertFalse(controller.getDeclineFilters().isPresent());
+    }
+
+    @Test
+    public void testUpdateRevivesWhileDeclinesFiltered() throws InterruptedException {
+        controller.initialize(mockDriver);
+
+        // Plan changes don't result in a revive while declined offers only receive the default filter:
+        controller.offerCycleCompleted(false);
+        assertFalse(controller.getDeclineFilters().isPresent());
+        controller.update();
+        Thread.sleep(50);
+        verify(mockDriver, times(1)).reviveOffers();
+
+        controller.offsetMs = 60 * 1000;
+        assertEquals(60, controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+        assertTrue(controller.isReviveNeeded());
+
+        // Accepting offers doesn't clear the filters on the offers which were already declined:
+        controller.offerCycleCompleted(true);
+        assertTrue(controller.isReviveNeeded());
+
+        controller.update();
+        verify(mockDriver, timeout(1000).times(2)).reviveOffers();
+        assertFalse(controller.isSuppressed());
+        assertFalse(controller.isReviveNeeded());
+        assertFalse(controller.getDeclineFilters().isPresent());
+        verify(mockDriver, never()).suppressOffers();
+    }
+
+    @Test
+    public void testRequestReviveWhileDeclinesFiltered() {
+        controller.initialize(mockDriver);
+        controller.offerCycleCompleted(false);
+        controller.offsetMs = 3600 * 1000;
+        assertTrue(controller.getDeclineFilters().isPresent());
+
+        hasOperations.set(false);
+        controller.requestRevive();
+        verify(mockDriver, timeout(1000).times(2)).reviveOffers();
+        assertFalse(controller.isReviveNeeded());
+    }
+
+    @Test
+    public void testDeclineFiltersExpire() {
+        controller.initialize(mockDriver);
+        controller.offerCycleCompleted(false);
+        controller.offsetMs = 60 * 1000;
+        assertTrue(controller.getDeclineFilters().isPresent());
+        assertTrue(controller.isReviveNeeded());
+
+        controller.offsetMs = 121 * 1000;
+        assertFalse(controller.isReviveNeeded());
+    }
+
+    @Test
+    public void testConfiguredDeclineFiltersAreMinimum() {
+        controller.shutdown();
+        controller = new TestController(Optional.of(30L), Duration.ofMillis(300));
+        assertEquals(30, controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+
+        controller.offerCycleCompleted(false);
+        controller.offsetMs = 10 * 1000;
+        assertEquals(30, controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+        controller.offsetMs = 45 * 1000;
+        assertEquals(45, controller.getDeclineFilters().get().getRefuseSeconds(), 0.0);
+    }
+
+    @Test
+    public void testBlockedTimeIgnoredWithoutOperations() {
+        hasOperations.set(false);
+        controller.offerCycleCompleted(false);
+        controller.offsetMs = 60 * 1000;
+        assertFalse(controller.getDeclineFilters().isPresent());
+    }
+
+    @Test
+    public void testAcceptFilters() {
+        assertEquals(getFilters(SuppressReviveController.ACCEPT_REFUSE_SECONDS), controller.getAcceptFilters());
+        hasOperations.set(false);
+        assertEquals(getFilters(SuppressReviveController.MESOS_DEFAULT_REFUSE_SECONDS), controller.getAcceptFilters());
+    }
+
+    private static Filters getFilters(long refuseSeconds) {
+        return Filters.newBuilder().setRefuseSeconds(refuseSeconds).build();
+    }
+
+    private class TestController extends SuppressReviveController {
+        /** Offset from the real time, so that deferred evaluations still run as scheduled. */
+        private volatile long offsetMs = 0;
+
+        private TestController(Optional<Long> configuredDeclineRefuseSeconds, Duration minReviveInterval) {
+            super(mockStateStore,
+                    hasOperations::get,
+                    suppressCount::incrementAndGet,
+                    configuredDeclineRefuseSeconds,
+                    Duration.ZERO,
+                    minReviveInterval);
+        }
+
+        @Override
+        protected long getCurrentTimeMs() {
+            return super.getCurrentTimeMs() + offsetMs;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ChildStatuses}, via the {@link DefaultPhase}s and {@link DefaultPlan}s which use it.
+ */
+public class ChildStatusesTest {
+
+    private TestStep step1;
+    private TestStep step2;
+    private TestStep step3;
+    private DefaultPhase phase1;
+    private DefaultPhase phase2;
+    private DefaultPlan plan;
+
+    @Before
+    public void beforeEach() {
+        step1 = new TestStep("step-1");
+        step2 = new TestStep("step-2");
+        step3 = new TestStep("step-3");
+        phase1 = new DefaultPhase(
+                "phase-1", Arrays.asList(step1, step2), new SerialStrategy<>(), Collections.emptyList());
+        phase2 = new DefaultPhase(
+                "phase-2", Arrays.asList(step3), new SerialStrategy<>(), Collections.emptyList());
+        plan = new DefaultPlan("plan", Arrays.asList(phase1, phase2));
+    }
+
+    @Test
+    public void testStatusFollowsSteps() {
+        assertEquals(Status.PENDING, phase1.getStatus());
+        assertEquals(Status.PENDING, plan.getStatus());
+
+        step1.setStatus(Status.STARTING);
+        assertEquals(Status.STARTING, phase1.getStatus());
+        assertEquals(Status.STARTING, plan.getStatus());
+
+        step1.setStatus(Status.COMPLETE);
+        assertEquals(Status.IN_PROGRESS, phase1.getStatus());
+        assertEquals(Status.IN_PROGRESS, plan.getStatus());
+
+        step2.setStatus(Status.COMPLETE);
+        assertEquals(Status.COMPLETE, phase1.getStatus());
+        assertEquals(Status.IN_PROGRESS, plan.getStatus());
+
+        step3.forceComplete();
+        assertEquals(Status.COMPLETE, phase2.getStatus());
+        assertEquals(Status.COMPLETE, plan.getStatus());
+
+        step1.restart();
+        assertEquals(Status.IN_PROGRESS, phase1.getStatus());
+        assertEquals(Status.IN_PROGRESS, plan.getStatus());
+    }
+
+    @Test
+    public void testStatusFollowsInterrupts() {
+        step1.interrupt();
+        assertEquals(Status.WAITING, phase1.getStatus());
+        assertEquals(Status.WAITING, plan.getStatus());
+        step1.proceed();
+        assertEquals(Status.PENDING, plan.getStatus());
+
+        phase2.interrupt();
+        assertEquals(Status.WAITING, phase2.getStatus());
+        assertEquals(Status.WAITING, plan.getStatus());
+        phase2.proceed();
+        assertEquals(Status.PENDING, plan.getStatus());
+    }
+
+    @Test
+    public void testErrorsAreAggregated() {
+        Step errorStep = new DeploymentStep("error-step", Status.ERROR, null, Arrays.asList("step-error"));
+        DefaultPhase errorPhase = new DefaultPhase(
+                "error-phase", Arrays.asList(step1, errorStep), new SerialStrategy<>(), Arrays.asList("phase-error"));
+        DefaultPlan errorPlan = new DefaultPlan(
+                "error-plan", Arrays.asList(errorPhase, phase2), new SerialStrategy<>(), Arrays.asList("plan-error"));
+
+        assertEquals(Arrays.asList("phase-error", "step-error"), errorPhase.getErrors());
+        assertEquals(Arrays.asList("plan-error", "phase-error", "step-error"), errorPlan.getErrors());
+        assertEquals(Status.ERROR, errorPhase.getStatus());
+        assertEquals(Status.ERROR, errorPlan.getStatus());
+        assertTrue(phase2.getErrors().isEmpty());
+    }
+}
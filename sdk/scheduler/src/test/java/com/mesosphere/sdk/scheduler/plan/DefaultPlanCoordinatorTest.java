@@ -26,9 +26,14 @@ import org.junit.contrib.java.lang.system.EnvironmentVariables;
 import org.mockito.MockitoAnnotations;
 
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@code DefaultPlanCoordinator}.
@@ -156,6 +161,12 @@ public class DefaultPlanCoordinatorTest {
         new DefaultPlanCoordinator(Arrays.asList(), planScheduler);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() throws Exception {
+        final Plan plan = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        new DefaultPlanCoordinator(Arrays.asList(new DefaultPlanManager(plan)), planScheduler, 0);
+    }
+
     @Test
     public void testOnePlanManagerPendingSufficientOffer() throws Exception {
         final Plan plan = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
@@ -273,4 +284,116 @@ public class DefaultPlanCoordinatorTest {
         Assert.assertTrue(planB.getChildren().get(0).getChildren().get(0).getStatus().equals(Status.STARTING));
         Assert.assertTrue(planA.getChildren().get(0).getChildren().get(0).getStatus().equals(Status.PENDING));
     }
+
+    @Test
+    public void testTwoPlanManagersPendingPlansDisjointAssetsConcurrently() throws Exception {
+        final Plan planA = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        final Plan planB = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecificationB);
+        final DefaultPlanManager planManagerA = new DefaultPlanManager(planA);
+        final DefaultPlanManager planManagerB = new DefaultPlanManager(planB);
+        planManagerA.getPlan().proceed();
+        planManagerB.getPlan().proceed();
+        final DefaultPlanCoordinator coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(planManagerA, planManagerB), planScheduler, 2);
+        Assert.assertEquals(2, coordinator.processOffers(schedulerDriver, getOffers(SUFFICIENT_CPUS,
+                SUFFICIENT_MEM, SUFFICIENT_DISK)).size());
+    }
+
+    @Test
+    public void testTwoPlanManagersPendingPlansSameAssetsConcurrently() throws Exception {
+        final Plan planA = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        final Plan planB = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        final PlanManager planManagerA = new DefaultPlanManager(planA);
+        final PlanManager planManagerB = new DefaultPlanManager(planB);
+        planManagerA.getPlan().proceed();
+        planManagerB.getPlan().proceed();
+        final DefaultPlanCoordinator coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(planManagerA, planManagerB), planScheduler, 2);
+
+        // Only the earlier plan may work on the shared asset:
+        Assert.assertEquals(1, coordinator.processOffers(schedulerDriver, getOffers(SUFFICIENT_CPUS,
+                SUFFICIENT_MEM, SUFFICIENT_DISK)).size());
+        Assert.assertEquals(Status.STARTING, planA.getChildren().get(0).getChildren().get(0).getStatus());
+        Assert.assertEquals(Status.PENDING, planB.getChildren().get(0).getChildren().get(0).getStatus());
+    }
+
+    @Test
+    public void testTwoPlanManagersPendingPlansSamePodTypeNotConcurrently() throws Exception {
+        final ServiceSpec serviceSpec = DefaultServiceSpec.newBuilder(serviceSpecification)
+                .pods(Arrays.asList(TestPodFactory.getPodSpec(
+                        TASK_A_POD_NAME,
+                        TestConstants.RESOURCE_SET_ID + "-A",
+                        TASK_A_NAME,
+                        TASK_A_CMD,
+                        2,
+                        TASK_A_CPU,
+                        TASK_A_MEM,
+                        TASK_A_DISK)))
+                .build();
+        final Plan planA = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpec);
+        final Plan planB = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpec);
+        // Plan B works on the second pod instance, which is a different asset of the same pod type:
+        planB.getChildren().get(0).getChildren().get(0).forceComplete();
+        final PlanManager planManagerA = new DefaultPlanManager(planA);
+        final PlanManager planManagerB = new DefaultPlanManager(planB);
+        planManagerA.getPlan().proceed();
+        planManagerB.getPlan().proceed();
+        final PlanScheduler mockPlanScheduler = mock(PlanScheduler.class);
+        final DefaultPlanCoordinator coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(planManagerA, planManagerB), mockPlanScheduler, 2);
+
+        // Neither plan is given a share of the offers, and each is presented all of them in turn:
+        List<Protos.Offer> offers = getOffers(SUFFICIENT_CPUS, SUFFICIENT_MEM, SUFFICIENT_DISK);
+        coordinator.processOffers(schedulerDriver, offers);
+        verify(mockPlanScheduler, times(2)).resourceOffers(any(), any(), any());
+        verify(mockPlanScheduler, times(2)).resourceOffers(eq(schedulerDriver), eq(offers), any());
+    }
+
+    @Test
+    public void testConcurrentPlanRetriesLeftoverOffers() throws Exception {
+        final Plan planA = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        final Plan planB = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecificationB);
+        final DefaultPlanManager planManagerA = new DefaultPlanManager(planA);
+        final DefaultPlanManager planManagerB = new DefaultPlanManager(planB);
+        planManagerA.getPlan().proceed();
+        planManagerB.getPlan().proceed();
+        final DefaultPlanCoordinator coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(planManagerA, planManagerB), planScheduler, 2);
+
+        // Plan A's share is offers 1 and 3, and plan B's share is offer 2, which is too small for it. Plan B should
+        // then be presented offer 3, which plan A didn't need.
+        List<Protos.Offer> offers = Arrays.asList(
+                getOffer("offer-1", SUFFICIENT_CPUS, SUFFICIENT_MEM, SUFFICIENT_DISK),
+                getOffer("offer-2", SUFFICIENT_CPUS, INSUFFICIENT_MEM, INSUFFICIENT_DISK),
+                getOffer("offer-3", SUFFICIENT_CPUS, SUFFICIENT_MEM, SUFFICIENT_DISK));
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList(offers.get(0).getId(), offers.get(2).getId())),
+                new HashSet<>(coordinator.processOffers(schedulerDriver, offers)));
+        Assert.assertEquals(Status.STARTING, planA.getChildren().get(0).getChildren().get(0).getStatus());
+        Assert.assertEquals(Status.STARTING, planB.getChildren().get(0).getChildren().get(0).getStatus());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testClosedCoordinatorNoLongerProcessesOffersConcurrently() throws Exception {
+        final Plan planA = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecification);
+        final Plan planB = new DefaultPlanFactory(phaseFactory).getPlan(serviceSpecificationB);
+        final DefaultPlanManager planManagerA = new DefaultPlanManager(planA);
+        final DefaultPlanManager planManagerB = new DefaultPlanManager(planB);
+        planManagerA.getPlan().proceed();
+        planManagerB.getPlan().proceed();
+        final DefaultPlanCoordinator coordinator = new DefaultPlanCoordinator(
+                Arrays.asList(planManagerA, planManagerB), planScheduler, 2);
+        coordinator.close();
+        coordinator.processOffers(schedulerDriver, getOffers(SUFFICIENT_CPUS, SUFFICIENT_MEM, SUFFICIENT_DISK));
+    }
+
+    private static Protos.Offer getOffer(String offerId, double cpus, double mem, double disk) {
+        return Protos.Offer.newBuilder(OfferTestUtils.getOffers(
+                Arrays.asList(
+                        ResourceTestUtils.getUnreservedCpu(cpus),
+                        ResourceTestUtils.getUnreservedMem(mem),
+                        ResourceTestUtils.getUnreservedDisk(disk))).get(0))
+                .setId(Protos.OfferID.newBuilder().setValue(offerId))
+                .build();
+    }
 }
@@ -38,6 +38,7 @@ public class DefaultPlanManagerTest {
         planManager = new DefaultPlanManager(plan);
         planManager.getPlan().proceed();
         MockitoAnnotations.initMocks(this);
+        when(mockStep.getTaskIds()).thenReturn(Optional.empty());
     }
 
     @Test
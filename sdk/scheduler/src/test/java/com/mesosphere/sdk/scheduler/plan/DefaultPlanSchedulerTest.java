@@ -9,6 +9,8 @@ import com.mesosphere.sdk.specification.PodSpec;
 import com.mesosphere.sdk.specification.yaml.YAMLServiceSpecFactory;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
 
 import org.apache.mesos.Protos.*;
 import org.apache.mesos.SchedulerDriver;
@@ -16,6 +18,8 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.EnvironmentVariables;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -48,6 +52,7 @@ public class DefaultPlanSchedulerTest {
     @Mock private StateStore mockStateStore;
     @Mock private TaskKiller mockTaskKiller;
     @Mock private OfferRecommendation mockRecommendation;
+    @Captor private ArgumentCaptor<List<Offer>> offersCaptor;
 
     private PodInstanceRequirement podInstanceRequirement;
     private DefaultPlanScheduler scheduler;
@@ -130,6 +135,64 @@ public class DefaultPlanSchedulerTest {
         assertTrue(step.isStarting());
     }
 
+    @Test
+    public void testBatchMatchingPacksStepsIntoOneOffer() throws InvalidRequirementException {
+        scheduler = new DefaultPlanScheduler(
+                mockOfferAccepter, mockOfferEvaluator, mockStateStore, mockTaskKiller, true);
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(2.0));
+        List<OfferRecommendation> recommendationsA = Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "a")));
+        List<OfferRecommendation> recommendationsB = Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "b")));
+        when(mockOfferEvaluator.evaluate(eq(podInstanceRequirement), any()))
+                .thenReturn(recommendationsA)
+                .thenReturn(recommendationsB);
+        List<OfferRecommendation> combined = new ArrayList<>();
+        combined.addAll(recommendationsA);
+        combined.addAll(recommendationsB);
+        when(mockOfferAccepter.accept(mockSchedulerDriver, combined)).thenReturn(Arrays.asList(offer.getId()));
+
+        TestOfferStep stepA = new TestOfferStep(podInstanceRequirement);
+        stepA.setStatus(Status.PENDING);
+        TestOfferStep stepB = new TestOfferStep(podInstanceRequirement);
+        stepB.setStatus(Status.PENDING);
+
+        assertEquals(
+                new HashSet<>(Arrays.asList(offer.getId())),
+                new HashSet<>(scheduler.resourceOffers(
+                        mockSchedulerDriver, Arrays.asList(offer), Arrays.asList(stepA, stepB))));
+        verify(mockOfferAccepter).accept(mockSchedulerDriver, combined);
+        verifyNoMoreInteractions(mockOfferAccepter);
+
+        // The second step was evaluated against the offer with the first step's resources removed:
+        verify(mockOfferEvaluator, times(2)).evaluate(eq(podInstanceRequirement), offersCaptor.capture());
+        assertEquals(2.0, offersCaptor.getAllValues().get(0).get(0).getResources(0).getScalar().getValue(), 0.0);
+        assertEquals(1.0, offersCaptor.getAllValues().get(1).get(0).getResources(0).getScalar().getValue(), 0.0);
+
+        assertEquals(recommendationsA, stepA.recommendations);
+        assertEquals(recommendationsB, stepB.recommendations);
+        assertTrue(stepA.isStarting());
+        assertTrue(stepB.isStarting());
+    }
+
+    @Test
+    public void testBatchMatchingNoAcceptedOffers() throws InvalidRequirementException {
+        scheduler = new DefaultPlanScheduler(
+                mockOfferAccepter, mockOfferEvaluator, mockStateStore, mockTaskKiller, true);
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(2.0));
+        List<OfferRecommendation> recommendations = Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("cpus", 1.0, "a")));
+        when(mockOfferEvaluator.evaluate(eq(podInstanceRequirement), any())).thenReturn(recommendations);
+        when(mockOfferAccepter.accept(mockSchedulerDriver, recommendations)).thenReturn(new ArrayList<>());
+
+        TestOfferStep step = new TestOfferStep(podInstanceRequirement);
+        step.setStatus(Status.PENDING);
+
+        assertTrue(scheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offer), Arrays.asList(step)).isEmpty());
+        assertTrue(step.recommendations.isEmpty());
+        assertTrue(step.isPrepared());
+    }
+
     private static class TestOfferStep extends TestStep {
         private final PodInstanceRequirement podInstanceRequirement;
         private Collection<OfferRecommendation> recommendations;
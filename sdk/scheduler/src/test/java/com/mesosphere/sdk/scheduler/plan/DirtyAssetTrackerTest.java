@@ -0,0 +1,96 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DirtyAssetTracker}.
+ */
+public class DirtyAssetTrackerTest {
+
+    private TestStep step1;
+    private TestStep step2;
+    private TestStep sharedAssetStep;
+    private DirtyAssetTracker tracker;
+
+    @Before
+    public void beforeEach() {
+        step1 = new TestStep("step-1");
+        step2 = new TestStep("step-2");
+        // Works on the same asset as step-1:
+        sharedAssetStep = new TestStep("step-1-again") {
+            @Override
+            public Optional<String> getAsset() {
+                return Optional.of("step-1");
+            }
+        };
+        step2.setStatus(Status.PREPARED);
+        Phase phase = new DefaultPhase(
+                "phase",
+                Arrays.asList(step1, step2, sharedAssetStep),
+                new SerialStrategy<>(),
+                Collections.emptyList());
+        Plan plan = new DefaultPlan("plan", Arrays.asList(phase));
+        tracker = new DirtyAssetTracker(plan);
+    }
+
+    @Test
+    public void testInitialAssets() {
+        assertEquals(Collections.singleton("step-2"), tracker.getDirtyAssets());
+    }
+
+    @Test
+    public void testAssetsFollowStepStatus() {
+        Set<String> dirtyAssets = tracker.getDirtyAssets();
+
+        step1.setStatus(Status.PREPARED);
+        assertEquals(new HashSet<>(Arrays.asList("step-1", "step-2")), dirtyAssets);
+
+        step1.setStatus(Status.STARTING);
+        step2.setStatus(Status.COMPLETE);
+        assertEquals(Collections.singleton("step-1"), dirtyAssets);
+
+        step1.restart();
+        assertTrue(dirtyAssets.isEmpty());
+    }
+
+    @Test
+    public void testAssetIsHeldUntilReleasedByAllSteps() {
+        step1.setStatus(Status.STARTING);
+        sharedAssetStep.setStatus(Status.PREPARED);
+        assertTrue(tracker.getDirtyAssets().contains("step-1"));
+
+        step1.setStatus(Status.COMPLETE);
+        assertTrue(tracker.getDirtyAssets().contains("step-1"));
+
+        sharedAssetStep.setStatus(Status.COMPLETE);
+        assertFalse(tracker.getDirtyAssets().contains("step-1"));
+    }
+
+    @Test
+    public void testInterruptedStepReleasesAsset() {
+        step2.interrupt();
+        assertFalse(tracker.getDirtyAssets().contains("step-2"));
+
+        step2.proceed();
+        assertTrue(tracker.getDirtyAssets().contains("step-2"));
+    }
+
+    @Test
+    public void testDetachedTrackerIgnoresSteps() {
+        tracker.detach();
+        Set<String> dirtyAssets = tracker.getDirtyAssets();
+        step1.setStatus(Status.PREPARED);
+        step2.setStatus(Status.COMPLETE);
+        assertEquals(Collections.singleton("step-2"), dirtyAssets);
+    }
+}
@@ -0,0 +1,127 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.LaunchOfferRecommendation;
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import com.mesosphere.sdk.specification.GoalState;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.TaskSpec;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link StepTaskIndex}.
+ */
+public class StepTaskIndexTest {
+
+    @Mock private PodSpec podSpec;
+    @Mock private PodInstance podInstance;
+    @Mock private TaskSpec taskSpec;
+
+    private DeploymentStep step1;
+    private DeploymentStep step2;
+    private TestStep unindexedStep;
+    private StepTaskIndex index;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        when(podSpec.getTasks()).thenReturn(Arrays.asList(taskSpec));
+        when(podSpec.getType()).thenReturn(TestConstants.POD_TYPE);
+        when(taskSpec.getName()).thenReturn(TestConstants.TASK_NAME);
+        when(taskSpec.getGoal()).thenReturn(GoalState.RUNNING);
+        when(podInstance.getPod()).thenReturn(podSpec);
+        when(podInstance.getName()).thenReturn(TestConstants.POD_TYPE + "-" + 0);
+
+        step1 = getStep("step-1");
+        step2 = getStep("step-2");
+        unindexedStep = new TestStep();
+        Phase phase = new DefaultPhase(
+                "phase",
+                Arrays.asList(step1, step2, unindexedStep),
+                new SerialStrategy<>(),
+                Collections.emptyList());
+        index = new StepTaskIndex(Arrays.asList(phase));
+    }
+
+    @Test
+    public void testUnknownTaskIsGivenToUnindexedSteps() {
+        assertEquals(Arrays.asList(unindexedStep), index.getSteps(getTaskId()));
+    }
+
+    @Test
+    public void testTaskIsRoutedToLaunchingStep() {
+        Protos.TaskID taskId1 = getTaskId();
+        Protos.TaskID taskId2 = getTaskId();
+        launch(step1, taskId1);
+        launch(step2, taskId2);
+
+        assertEquals(Arrays.asList(step1, unindexedStep), index.getSteps(taskId1));
+        assertEquals(Arrays.asList(step2, unindexedStep), index.getSteps(taskId2));
+    }
+
+    @Test
+    public void testRelaunchReplacesTask() {
+        Protos.TaskID oldTaskId = getTaskId();
+        launch(step1, oldTaskId);
+        Protos.TaskID newTaskId = getTaskId();
+        launch(step1, newTaskId);
+
+        assertEquals(Arrays.asList(unindexedStep), index.getSteps(oldTaskId));
+        assertEquals(Arrays.asList(step1, unindexedStep), index.getSteps(newTaskId));
+    }
+
+    @Test
+    public void testPlanRoutesStatus() {
+        Protos.TaskID taskId = getTaskId();
+        launch(step1, taskId);
+        Plan plan = new DefaultPlan("plan", Arrays.asList(new DefaultPhase(
+                "phase",
+                Arrays.asList(step1, step2),
+                new SerialStrategy<>(),
+                Collections.emptyList())));
+
+        plan.update(Protos.TaskStatus.newBuilder()
+                .setTaskId(taskId)
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build());
+
+        assertTrue(step1.isComplete());
+        assertTrue(step2.isPending());
+    }
+
+    private DeploymentStep getStep(String name) {
+        return new DeploymentStep(
+                name,
+                Status.PENDING,
+                PodInstanceRequirement.create(podInstance, TaskUtils.getTaskNames(podInstance)),
+                Collections.emptyList());
+    }
+
+    private Protos.TaskID getTaskId() {
+        return CommonTaskUtils.toTaskId(TaskSpec.getInstanceName(podInstance, taskSpec));
+    }
+
+    private static void launch(Step step, Protos.TaskID taskId) {
+        step.updateOfferStatus(Arrays.asList(new LaunchOfferRecommendation(
+                OfferTestUtils.getEmptyOfferBuilder().build(),
+                Protos.TaskInfo.newBuilder()
+                        .setTaskId(taskId)
+                        .setName(TestConstants.TASK_NAME)
+                        .setSlaveId(TestConstants.AGENT_ID)
+                        .build())));
+    }
+}
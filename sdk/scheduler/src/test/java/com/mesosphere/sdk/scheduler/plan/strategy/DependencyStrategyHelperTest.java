@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.scheduler.plan.strategy;
+
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.TestStep;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * This class tests the {@link DependencyStrategyHelper}.
+ */
+public class DependencyStrategyHelperTest {
+    private TestStep step0;
+    private TestStep step1;
+    private TestStep step2;
+    private TestStep step3;
+    private DependencyStrategyHelper<Step> helper;
+
+    @Before
+    public void beforeEach() {
+        step0 = new TestStep("step0");
+        step1 = new TestStep("step1");
+        step2 = new TestStep("step2");
+        step3 = new TestStep("step3");
+
+        // A diamond: step0 => (step1, step2) => step3
+        helper = new DependencyStrategyHelper<>(Arrays.asList(step0, step1, step2, step3));
+        helper.addDependency(step1, step0);
+        helper.addDependency(step2, step0);
+        helper.addDependency(step3, step1);
+        helper.addDependency(step3, step2);
+    }
+
+    @Test
+    public void testCandidatesFollowCompletion() {
+        Assert.assertEquals(Arrays.asList(step0), getCandidates());
+
+        step0.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step1, step2), getCandidates());
+
+        step1.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step2), getCandidates());
+
+        step2.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step3), getCandidates());
+
+        step3.setStatus(Status.COMPLETE);
+        Assert.assertTrue(getCandidates().isEmpty());
+    }
+
+    @Test
+    public void testCompletionOutOfOrder() {
+        // Completing steps which aren't yet candidates still counts towards their dependents:
+        step1.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step0), getCandidates());
+
+        step0.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step2), getCandidates());
+
+        step2.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step3), getCandidates());
+    }
+
+    @Test
+    public void testRestartedPrerequisiteBlocksDependents() {
+        step0.setStatus(Status.COMPLETE);
+        step1.setStatus(Status.COMPLETE);
+        step2.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step3), getCandidates());
+
+        step2.restart();
+        Assert.assertEquals(Arrays.asList(step2), getCandidates());
+
+        step0.restart();
+        Assert.assertEquals(Arrays.asList(step0), getCandidates());
+
+        step0.setStatus(Status.COMPLETE);
+        step2.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(step3), getCandidates());
+    }
+
+    @Test
+    public void testAddedDependenciesAreApplied() {
+        Assert.assertEquals(Arrays.asList(step0), getCandidates());
+
+        TestStep step4 = new TestStep("step4");
+        helper.addDependency(step0, step4);
+        Assert.assertEquals(Arrays.asList(step4), getCandidates());
+    }
+
+    @Test
+    public void testInterruptedHasNoCandidates() {
+        Assert.assertTrue(helper.getCandidates(true, Collections.emptyList()).isEmpty());
+    }
+
+    private Collection<Step> getCandidates() {
+        return helper.getCandidates(false, Collections.emptyList());
+    }
+}
@@ -6,7 +6,9 @@ import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
 import com.mesosphere.sdk.scheduler.DefaultScheduler;
 import com.mesosphere.sdk.scheduler.DefaultTaskKiller;
+import com.mesosphere.sdk.scheduler.Observer;
 import com.mesosphere.sdk.scheduler.plan.*;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
 import com.mesosphere.sdk.scheduler.recovery.constrain.TestingLaunchConstrainer;
 import com.mesosphere.sdk.scheduler.recovery.monitor.TestingFailureMonitor;
 import com.mesosphere.sdk.specification.ServiceSpec;
@@ -425,4 +427,81 @@ public class DefaultRecoveryPlanManagerTest {
         assertEquals(1, recoveryManager.getPlan().getChildren().get(0).getChildren().size());
         assertTrue(recoveryManager.getPlan().getChildren().get(0).getChildren().get(0).isPending());
     }
+
+    @Test
+    public void testPlanIsReusedWhenNothingChanges() throws Exception {
+        final Protos.TaskStatus failedStatus = TaskTestUtils.generateStatus(
+                TASK_INFO.getTaskId(),
+                Protos.TaskState.TASK_FAILED);
+
+        launchConstrainer.setCanLaunch(true);
+        stateStore.storeTasks(TASK_INFOS);
+        stateStore.storeStatus(failedStatus);
+        recoveryManager.update(failedStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        Plan plan = recoveryManager.getPlan();
+        Step step = plan.getChildren().get(0).getChildren().get(0);
+        assertTrue(step.isPending());
+
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertSame(plan, recoveryManager.getPlan());
+
+        // A duplicate failure doesn't result in a new step:
+        recoveryManager.update(failedStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertSame(plan, recoveryManager.getPlan());
+        assertSame(step, recoveryManager.getPlan().getChildren().get(0).getChildren().get(0));
+    }
+
+    @Test
+    public void testOnlyUpdatedTasksAreReevaluated() throws Exception {
+        final Protos.TaskStatus runningStatus = TaskTestUtils.generateStatus(
+                TASK_INFO.getTaskId(),
+                Protos.TaskState.TASK_RUNNING);
+        final Protos.TaskStatus failedStatus = TaskTestUtils.generateStatus(
+                TASK_INFO.getTaskId(),
+                Protos.TaskState.TASK_FAILED);
+
+        launchConstrainer.setCanLaunch(true);
+        stateStore.storeTasks(TASK_INFOS);
+        stateStore.storeStatus(runningStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertTrue(recoveryManager.getPlan().getChildren().get(0).getChildren().isEmpty());
+
+        // The failure isn't noticed until the manager is notified of it:
+        stateStore.storeStatus(failedStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertTrue(recoveryManager.getPlan().getChildren().get(0).getChildren().isEmpty());
+
+        recoveryManager.update(failedStatus);
+        assertEquals(1, recoveryManager.getCandidates(Collections.emptyList()).size());
+        assertEquals("test-task-type-0:[test-task-name]",
+                recoveryManager.getPlan().getChildren().get(0).getChildren().get(0).getName());
+    }
+
+    @Test
+    public void testReplacedPlanIsDetachedFromReusedSteps() {
+        TestStep step = new TestStep("reused-step");
+        Plan oldPlan = getPlan(step);
+        recoveryManager.setPlan(oldPlan);
+        assertTrue(recoveryManager.getDirtyAssets().isEmpty());
+        Observer oldPlanObserver = mock(Observer.class);
+        oldPlan.subscribe(oldPlanObserver);
+
+        Plan newPlan = getPlan(step);
+        recoveryManager.setPlan(newPlan);
+        Observer newPlanObserver = mock(Observer.class);
+        newPlan.subscribe(newPlanObserver);
+
+        step.setStatus(Status.PREPARED);
+        verify(oldPlanObserver, never()).update(any());
+        verify(newPlanObserver).update(newPlan);
+        assertEquals(Collections.singleton("reused-step"), recoveryManager.getDirtyAssets());
+    }
+
+    private static Plan getPlan(Step step) {
+        Phase phase = new DefaultPhase(
+                "phase", Arrays.asList(step), new SerialStrategy<>(), Collections.emptyList());
+        return new DefaultPlan("plan", Arrays.asList(phase));
+    }
 }
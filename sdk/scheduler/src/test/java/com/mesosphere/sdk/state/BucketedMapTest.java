@@ -0,0 +1,63 @@
+package com.mesosphere.sdk.state;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BucketedMap}.
+ */
+public class BucketedMapTest {
+
+    @Test
+    public void testDerivedMapsLeaveOriginalUnchanged() {
+        BucketedMap<Integer> empty = BucketedMap.empty();
+        BucketedMap<Integer> one = empty.with("a", 1);
+        BucketedMap<Integer> two = one.with("b", 2);
+        BucketedMap<Integer> replaced = two.with("a", 3);
+        BucketedMap<Integer> removed = replaced.without("b");
+
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertEquals(Integer.valueOf(1), one.get("a"));
+        assertFalse(one.containsKey("b"));
+        assertEquals(2, two.size());
+        assertEquals(Integer.valueOf(1), two.get("a"));
+        assertEquals(2, replaced.size());
+        assertEquals(Integer.valueOf(3), replaced.get("a"));
+        assertEquals(1, removed.size());
+        assertNull(removed.get("b"));
+        assertSame(removed, removed.without("b"));
+    }
+
+    @Test
+    public void testMatchesEquivalentMap() {
+        Map<String, Integer> expected = new HashMap<>();
+        BucketedMap<Integer> map = BucketedMap.empty();
+        for (int i = 0; i < 1000; ++i) {
+            expected.put("task-" + i, i);
+            map = map.with("task-" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            expected.remove("task-" + i);
+            map = map.without("task-" + i);
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.size(), map.values().size());
+        assertEquals(expected, BucketedMap.copyOf(expected));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntriesCantBeModified() {
+        BucketedMap.<Integer>empty().with("a", 1).entrySet().iterator().next().setValue(2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntriesCantBeRemoved() {
+        BucketedMap.<Integer>empty().with("a", 1).values().clear();
+    }
+}
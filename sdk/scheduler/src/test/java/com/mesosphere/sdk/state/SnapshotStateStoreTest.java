@@ -0,0 +1,85 @@
+package com.mesosphere.sdk.state;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link SnapshotStateStore}.
+ */
+public class SnapshotStateStoreTest {
+
+    private static final TaskInfo TASK = getTask("task");
+    private static final TaskInfo TASK2 = getTask("task2");
+
+    @Mock private StateStore mockStore;
+    private StateStoreCache cache;
+    private SnapshotStateStore snapshotStore;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        when(mockStore.fetchFrameworkId()).thenReturn(Optional.empty());
+        when(mockStore.fetchTasks()).thenReturn(Arrays.asList(TASK));
+        when(mockStore.fetchStatuses()).thenReturn(Collections.emptyList());
+        when(mockStore.fetchPropertyKeys()).thenReturn(Collections.emptyList());
+        cache = new StateStoreCache(mockStore);
+        snapshotStore = new SnapshotStateStore(cache);
+    }
+
+    @Test
+    public void testCacheWritesAreSeenOnceSnapshotIsRetaken() {
+        TaskStatus status = getStatus(TASK);
+        cache.storeStatus(status);
+        cache.storeTasks(Arrays.asList(TASK2));
+        assertFalse(snapshotStore.fetchStatus(TASK.getName()).isPresent());
+        assertEquals(Arrays.asList(TASK), new ArrayList<>(snapshotStore.fetchTasks()));
+
+        snapshotStore.takeSnapshot();
+        assertEquals(status, snapshotStore.fetchStatus(TASK.getName()).get());
+        assertEquals(TASK2, snapshotStore.fetchTask(TASK2.getName()).get());
+        assertEquals(2, snapshotStore.fetchTaskNames().size());
+    }
+
+    @Test
+    public void testOwnWritesAreSeenImmediately() {
+        snapshotStore.storeTasks(Arrays.asList(TASK2));
+        assertEquals(TASK2, snapshotStore.fetchTask(TASK2.getName()).get());
+
+        TaskStatus status = getStatus(TASK2);
+        snapshotStore.storeStatus(status);
+        assertEquals(Arrays.asList(status), new ArrayList<>(snapshotStore.fetchStatuses()));
+
+        snapshotStore.clearTask(TASK2.getName());
+        assertFalse(snapshotStore.fetchTask(TASK2.getName()).isPresent());
+        assertTrue(snapshotStore.fetchStatuses().isEmpty());
+    }
+
+    private static TaskInfo getTask(String taskName) {
+        return TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                .setName(taskName)
+                .setTaskId(CommonTaskUtils.toTaskId(taskName))
+                .build();
+    }
+
+    private static TaskStatus getStatus(TaskInfo task) {
+        return TaskStatus.newBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(TaskState.TASK_RUNNING)
+                .build();
+    }
+}
@@ -8,6 +8,7 @@ import com.mesosphere.sdk.testutils.TaskTestUtils;
 import org.apache.curator.test.TestingServer;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.TaskID;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.TaskState;
 import org.apache.mesos.Protos.TaskStatus;
@@ -15,11 +16,15 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -63,6 +68,7 @@ public class StateStoreCacheTest {
     private TestStateStoreCache cache;
 
     @Mock private StateStore mockStore;
+    @Captor private ArgumentCaptor<Collection<TaskInfo>> tasksCaptor;
     private StateStoreCache mockedCache;
 
     @BeforeClass
@@ -310,6 +316,136 @@ public class StateStoreCacheTest {
         assertEquals(taskB, mockedCache.fetchTask(TASK_NAME).get());
     }
 
+    @Test
+    public void testStoreTaskStatusAfterRelaunchWithNewID() {
+        final TaskInfo relaunchedTask = TASK.toBuilder()
+                .setTaskId(CommonTaskUtils.toTaskId(TASK_NAME))
+                .build();
+        assertNotEquals(TASK.getTaskId(), relaunchedTask.getTaskId());
+        doNothing().when(mockStore).storeTasks(Arrays.asList(relaunchedTask));
+        mockedCache.storeTasks(Arrays.asList(relaunchedTask));
+
+        // status for the previous task ID is no longer mapped to the task:
+        TaskStatus oldStatus = STATUS.toBuilder().setState(TaskState.TASK_RUNNING).build();
+        try {
+            mockedCache.storeStatus(oldStatus);
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            assertEquals(Reason.LOGIC_ERROR, e.getReason());
+        }
+        assertEquals(STATUS, mockedCache.fetchStatus(TASK_NAME).get());
+
+        TaskStatus newStatus = oldStatus.toBuilder().setTaskId(relaunchedTask.getTaskId()).build();
+        mockedCache.storeStatus(newStatus);
+        assertEquals(newStatus, mockedCache.fetchStatus(TASK_NAME).get());
+
+        // after clearing the task, its ID is no longer mapped either:
+        mockedCache.clearTask(TASK_NAME);
+        try {
+            mockedCache.storeStatus(newStatus);
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            assertEquals(Reason.LOGIC_ERROR, e.getReason());
+        }
+    }
+
+    @Test
+    public void testReadsAndOtherWritesDoNotWaitOnSlowWrite() throws Exception {
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch releaseWrite = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writeStarted.countDown();
+            releaseWrite.await();
+            return null;
+        }).when(mockStore).storeTasks(Arrays.asList(TASK2));
+        Thread slowWriter = new Thread(() -> mockedCache.storeTasks(Arrays.asList(TASK2)));
+        slowWriter.start();
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        // While the write of TASK2 is blocked in the underlying store, reads and writes against other tasks proceed:
+        assertEquals(TASK, mockedCache.fetchTask(TASK_NAME).get());
+        assertEquals(STATUS, mockedCache.fetchStatus(TASK_NAME).get());
+        assertFalse(mockedCache.fetchTask(TASK_NAME2).isPresent());
+        assertEquals(FRAMEWORK_ID, mockedCache.fetchFrameworkId().get());
+        assertArrayEquals(PROP_VAL, mockedCache.fetchProperty(PROP_KEY));
+        TaskStatus runningStatus = STATUS.toBuilder().setState(TaskState.TASK_RUNNING).build();
+        mockedCache.storeStatus(runningStatus);
+        assertEquals(runningStatus, mockedCache.fetchStatus(TASK_NAME).get());
+
+        releaseWrite.countDown();
+        slowWriter.join();
+        assertEquals(TASK2, mockedCache.fetchTask(TASK_NAME2).get());
+    }
+
+    @Test
+    public void testSnapshotIsImmutableAndVersioned() {
+        StateSnapshot snapshot = mockedCache.fetchSnapshot();
+        assertSame(snapshot, mockedCache.fetchSnapshot());
+        assertEquals(Arrays.asList(TASK), new ArrayList<>(snapshot.getTasks()));
+        assertEquals(STATUS, snapshot.getStatus(TASK_NAME).get());
+
+        doNothing().when(mockStore).storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+
+        // the previous snapshot is unaffected by the write:
+        assertEquals(1, snapshot.getTasks().size());
+        assertFalse(snapshot.getTask(TASK_NAME2).isPresent());
+
+        StateSnapshot snapshot2 = mockedCache.fetchSnapshot();
+        assertTrue(snapshot2.getGeneration() > snapshot.getGeneration());
+        assertEquals(2, snapshot2.getTasks().size());
+        assertEquals(TASK2, snapshot2.getTask(TASK_NAME2).get());
+        // statuses didn't change, so they're shared with the previous snapshot:
+        assertSame(snapshot.getStatuses(), snapshot2.getStatuses());
+
+        mockedCache.storeStatus(STATUS2);
+        StateSnapshot snapshot3 = mockedCache.fetchSnapshot();
+        assertTrue(snapshot3.getGeneration() > snapshot2.getGeneration());
+        assertEquals(STATUS2, snapshot3.getStatus(TASK_NAME2).get());
+        assertFalse(snapshot2.getStatus(TASK_NAME2).isPresent());
+        // tasks didn't change, so they're shared with the previous snapshot:
+        assertSame(snapshot2.getTasks(), snapshot3.getTasks());
+    }
+
+    @Test
+    public void testTasksAndStatusesAreCopiedIndependently() {
+        Collection<TaskStatus> statuses = mockedCache.fetchStatuses();
+
+        // a task write leaves the copy of the statuses alone, and vice versa:
+        doNothing().when(mockStore).storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+        Collection<TaskInfo> tasks = mockedCache.fetchTasks();
+        assertEquals(2, tasks.size());
+        assertSame(statuses, mockedCache.fetchStatuses());
+
+        mockedCache.storeStatus(STATUS2);
+        assertEquals(2, mockedCache.fetchStatuses().size());
+        assertSame(tasks, mockedCache.fetchTasks());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFetchTasksIsUnmodifiable() {
+        mockedCache.fetchTasks().clear();
+    }
+
+    @Test
+    public void testFetchTasksNotModifiedByLaterWrites() {
+        Collection<TaskInfo> tasks = mockedCache.fetchTasks();
+        Collection<String> taskNames = mockedCache.fetchTaskNames();
+        Collection<TaskStatus> statuses = mockedCache.fetchStatuses();
+
+        doNothing().when(mockStore).storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeStatus(STATUS2);
+        mockedCache.clearTask(TASK_NAME);
+
+        assertEquals(Arrays.asList(TASK), new ArrayList<>(tasks));
+        assertEquals(Arrays.asList(TASK_NAME), new ArrayList<>(taskNames));
+        assertEquals(Arrays.asList(STATUS), new ArrayList<>(statuses));
+        assertEquals(Arrays.asList(TASK2), new ArrayList<>(mockedCache.fetchTasks()));
+        assertEquals(Arrays.asList(STATUS2), new ArrayList<>(mockedCache.fetchStatuses()));
+    }
+
     @Test
     public void testTaskStatusSingleThread() {
         cache.consistencyCheckForTests();
@@ -454,6 +590,39 @@ public class StateStoreCacheTest {
         assertEquals(PROP_KEY, mockedCache.fetchPropertyKeys().iterator().next());
     }
 
+    @Test
+    public void testTaskStoreListenerSeesAllTaskWrites() throws Exception {
+        TaskStoreListener listener = mock(TaskStoreListener.class);
+        cache.addTaskStoreListener(listener);
+
+        cache.storeTasks(Arrays.asList(TASK, TASK2));
+        verify(listener).tasksStored(Arrays.asList(TASK, TASK2));
+        cache.storeStatus(STATUS);
+        cache.clearTask(TASK.getName());
+        verify(listener).taskCleared(TASK.getName());
+
+        store.storeTasks(Arrays.asList(TASK));
+        cache.refresh();
+        verify(listener).tasksRefreshed(tasksCaptor.capture());
+        assertEquals(new HashSet<>(Arrays.asList(TASK, TASK2)), new HashSet<>(tasksCaptor.getValue()));
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testTaskStoreListenerNotNotifiedOfFailedWrites() throws Exception {
+        TaskStoreListener listener = mock(TaskStoreListener.class);
+        mockedCache.addTaskStoreListener(listener);
+        doThrow(new StateStoreException(Reason.STORAGE_ERROR, "hello")).when(mockStore).storeTasks(any());
+
+        try {
+            mockedCache.storeTasks(Arrays.asList(TASK2));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        verifyZeroInteractions(listener);
+    }
+
     private static class TestStateStoreCache extends StateStoreCache {
 
         TestStateStoreCache(StateStore store) throws StateStoreException {
@@ -471,7 +640,7 @@ public class StateStoreCacheTest {
          * @throws IllegalStateException in the event of any consistency failure
          */
         public void consistencyCheckForTests() {
-            RLOCK.lock();
+            EXCLUSIVE_WRITE_LOCK.lock();
             try {
                 // Phase 1: check internal consistency
 
@@ -483,6 +652,16 @@ public class StateStoreCacheTest {
                     }
                 }
 
+                // The ID=>name index must exactly reflect the current name=>task entries.
+                Map<TaskID, String> expectedIdToName = new HashMap<>();
+                for (TaskInfo task : nameToTask.values()) {
+                    expectedIdToName.put(task.getTaskId(), task.getName());
+                }
+                if (!expectedIdToName.equals(idToName)) {
+                    throw new IllegalStateException(String.format(
+                            "idToName[%s] doesn't match nameToTask entries[%s]", idToName, expectedIdToName));
+                }
+
                 // Phase 2: check consistency with StateStore
 
                 // Local framework ID should match stored framework ID
@@ -559,7 +738,7 @@ public class StateStoreCacheTest {
                 stateDump.append('\n');
                 throw new IllegalStateException(stateDump.toString(), e);
             } finally {
-                RLOCK.unlock();
+                EXCLUSIVE_WRITE_LOCK.unlock();
             }
         }
     }